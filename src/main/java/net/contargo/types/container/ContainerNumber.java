@@ -2,6 +2,8 @@ package net.contargo.types.container;
 
 import net.contargo.types.Assert;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static java.lang.String.format;
@@ -17,21 +19,27 @@ import static java.lang.String.format;
  * (U for all freight containers, J for detachable freight container-related equipment, Z for trailers and chassis).
  * </p>
  *
+ * <p>Container numbers with a valid format are kept in their packed form (see {@link ISO6346}), which also defines
+ * their equality, hash code and order. All other values are kept as given and compared by their {@link #toString()
+ * String representation}.</p>
+ *
  * <p>Further information: <a href="https://en.wikipedia.org/wiki/ISO_6346">ISO 6346 standard</a></p>
  *
  * @author  Aljona Murygina - murygina@synyx.de
  * @author  Slaven Travar - slaven.travar@pta.de
  * @since  0.1.0
  */
-public final class ContainerNumber {
+public final class ContainerNumber implements Comparable<ContainerNumber> {
 
     private static final int VALID_LENGTH = 11;
     private static final int POSITION_END_OWNER_CODE = 3;
     private static final int POSITION_END_EQUIPMENT_CATEGORY = 3;
     private static final int POSITION_END_SERIAL_NUMBER = 10;
 
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private final long packed;
     private final String value;
-    private final String normalizedContainerNumber;
 
     /**
      * Use {@link #forValue(String)} to build a new {@link ContainerNumber} instance.
@@ -40,8 +48,20 @@ public final class ContainerNumber {
      */
     private ContainerNumber(String value) {
 
-        this.value = value;
-        this.normalizedContainerNumber = value.replaceAll("[^a-zA-Z0-9]", "").toUpperCase();
+        this.packed = ISO6346.pack(value);
+        this.value = packed == ISO6346.NONE ? value : null;
+    }
+
+
+    /**
+     * Use {@link #fromLong(long)} to build a new {@link ContainerNumber} instance.
+     *
+     * @param  packed  represents a packed container number
+     */
+    private ContainerNumber(long packed) {
+
+        this.packed = packed;
+        this.value = null;
     }
 
     /**
@@ -59,6 +79,41 @@ public final class ContainerNumber {
     }
 
 
+    /**
+     * Build a new {@link ContainerNumber} from its packed form.
+     *
+     * @param  packed  container number as returned by {@link #toLong()}
+     *
+     * @return  a {@link ContainerNumber}, never {@code null}
+     *
+     * @throws  IllegalArgumentException  if the given value is no packed container number
+     *
+     * @since  0.19.0
+     */
+    public static ContainerNumber fromLong(long packed) {
+
+        if (!ISO6346.isPacked(packed)) {
+            throw new IllegalArgumentException("Value is not a packed container number: " + packed);
+        }
+
+        return new ContainerNumber(packed);
+    }
+
+
+    /**
+     * Get the packed form of this {@link ContainerNumber}, see {@link ISO6346} for the layout.
+     *
+     * @return  the packed container number, {@link ISO6346#NONE} if this {@link ContainerNumber} is not
+     *          {@link #isValid() valid}
+     *
+     * @since  0.19.0
+     */
+    public long toLong() {
+
+        return packed;
+    }
+
+
     /**
      * Get the owner code of this {@link ContainerNumber}.
      *
@@ -71,7 +126,7 @@ public final class ContainerNumber {
     public Optional<String> getOwnerCode() {
 
         if (hasValidLength()) {
-            return Optional.of(normalizedContainerNumber.substring(0, POSITION_END_OWNER_CODE));
+            return Optional.of(getNormalized().substring(0, POSITION_END_OWNER_CODE));
         }
 
         return Optional.empty();
@@ -80,7 +135,23 @@ public final class ContainerNumber {
 
     private boolean hasValidLength() {
 
-        return normalizedContainerNumber.length() == VALID_LENGTH;
+        return isPacked() || getNormalized().length() == VALID_LENGTH;
+    }
+
+
+    private boolean isPacked() {
+
+        return packed != ISO6346.NONE;
+    }
+
+
+    private String getNormalized() {
+
+        if (isPacked()) {
+            return ISO6346.unpack(packed);
+        }
+
+        return value.replaceAll("[^a-zA-Z0-9]", "").toUpperCase();
     }
 
 
@@ -99,7 +170,7 @@ public final class ContainerNumber {
     public Optional<Character> getEquipmentCategory() {
 
         if (hasValidLength()) {
-            return Optional.of(normalizedContainerNumber.charAt(POSITION_END_EQUIPMENT_CATEGORY));
+            return Optional.of(getNormalized().charAt(POSITION_END_EQUIPMENT_CATEGORY));
         }
 
         return Optional.empty();
@@ -118,7 +189,7 @@ public final class ContainerNumber {
     public Optional<String> getSerialNumber() {
 
         if (hasValidLength()) {
-            return Optional.of(normalizedContainerNumber.substring(POSITION_END_EQUIPMENT_CATEGORY + 1,
+            return Optional.of(getNormalized().substring(POSITION_END_EQUIPMENT_CATEGORY + 1,
                         POSITION_END_SERIAL_NUMBER));
         }
 
@@ -138,7 +209,7 @@ public final class ContainerNumber {
     public Optional<Character> getCheckDigit() {
 
         if (hasValidLength()) {
-            return Optional.of(normalizedContainerNumber.charAt(POSITION_END_SERIAL_NUMBER));
+            return Optional.of(getNormalized().charAt(POSITION_END_SERIAL_NUMBER));
         }
 
         return Optional.empty();
@@ -153,6 +224,10 @@ public final class ContainerNumber {
     @Override
     public String toString() {
 
+        if (isPacked()) {
+            return formatPacked('-');
+        }
+
         return getWithFormat("%s%s %s-%s");
     }
 
@@ -164,10 +239,28 @@ public final class ContainerNumber {
      */
     public String getFormattedWithoutDash() {
 
+        if (isPacked()) {
+            return formatPacked(' ');
+        }
+
         return getWithFormat("%s%s %s %s");
     }
 
 
+    private String formatPacked(char checkDigitSeparator) {
+
+        char[] chars = new char[VALID_LENGTH + 2];
+        ISO6346.unpack(packed, chars, 1);
+
+        System.arraycopy(chars, 1, chars, 0, POSITION_END_EQUIPMENT_CATEGORY + 1);
+        chars[POSITION_END_EQUIPMENT_CATEGORY + 1] = ' ';
+        chars[VALID_LENGTH + 1] = chars[VALID_LENGTH];
+        chars[VALID_LENGTH] = checkDigitSeparator;
+
+        return new String(chars);
+    }
+
+
     /**
      * Returns the containernumber with the specified format. The containternumber contains four parts: The ownercode,
      * equipmentCategory, serialNumber and checkDigit in this order. You have to reference these four part in the
@@ -204,22 +297,7 @@ public final class ContainerNumber {
      */
     public boolean isValid() {
 
-        if (!hasValidLength()) {
-            return false;
-        }
-
-        boolean validOwnerCode = match(getOwnerCode(), "[A-Z]{3}");
-        boolean validEquipmentCategory = match(getEquipmentCategory(), "[A-Z]{1}");
-        boolean validSerialNumber = match(getSerialNumber(), "[0-9]{6}");
-        boolean validCheckDigit = match(getCheckDigit(), "[0-9]{1}");
-
-        return validOwnerCode && validEquipmentCategory && validSerialNumber && validCheckDigit;
-    }
-
-
-    private static boolean match(Optional<?> optional, String regex) {
-
-        return optional.isPresent() && String.valueOf(optional.get()).matches(regex);
+        return isPacked();
     }
 
 
@@ -228,41 +306,38 @@ public final class ContainerNumber {
      * correct check digit.
      *
      * @return  {@code true} if the {@link ContainerNumber} is ISO6346 valid, else {@code false}
+     *
+     * @see  ISO6346#isISO6346Valid(long)
      */
     public boolean isISO6346Valid() {
 
-        if (!isValid()) {
-            return false;
-        }
-
-        boolean validEquipmentCategory = match(getEquipmentCategory(), "[UJZ]{1}");
-
-        if (!validEquipmentCategory) {
-            return false;
-        }
+        return ISO6346.isISO6346Valid(packed);
+    }
 
-        int correctCheckDigit = 0;
-        String charCode = "0123456789A?BCDEFGHIJK?LMNOPQRSTU?VWXYZ";
 
-        for (int i = 0; i < VALID_LENGTH - 1; i++) {
-            char character = normalizedContainerNumber.charAt(i);
-            double index = character == '?' ? 1 : charCode.indexOf(character);
+    /**
+     * Suggest ISO 6346 valid container numbers for this {@link ContainerNumber}, e.g. to correct a typo in a booking.
+     *
+     * <p>The suggestions are all container numbers within one edit, i.e. one substituted, inserted or deleted
+     * character or two swapped adjacent characters, that are ISO 6346 valid. They are ranked by likelihood: confusions
+     * of similar looking characters (O and 0, I and 1, B and 8, S and 5) first, followed by swapped characters, other
+     * substitutions and finally inserted or deleted characters.</p>
+     *
+     * @return  the ranked suggestions, only this {@link ContainerNumber} if it is already ISO 6346 valid, never
+     *          {@code null}
+     *
+     * @since  0.19.0
+     */
+    public List<ContainerNumber> suggestCorrections() {
 
-            if (index < 0) {
-                return false;
-            }
+        long[] candidates = ContainerNumberCorrector.correct(isPacked() ? ISO6346.unpack(packed) : value);
+        List<ContainerNumber> suggestions = new ArrayList<>(candidates.length);
 
-            index = index * Math.pow(2, i); // NOSONAR - position is the exponent to base 2
-            correctCheckDigit += index;
+        for (long candidate : candidates) {
+            suggestions.add(candidate == packed ? this : new ContainerNumber(candidate));
         }
 
-        correctCheckDigit = (correctCheckDigit % VALID_LENGTH) % 10; // NOSONAR
-
-        Optional<Character> optionalCheckDigit = getCheckDigit();
-        int actualCheckDigit = optionalCheckDigit.isPresent() ? Character.getNumericValue(optionalCheckDigit.get())
-                                                              : -1;
-
-        return actualCheckDigit == correctCheckDigit;
+        return suggestions;
     }
 
 
@@ -277,16 +352,74 @@ public final class ContainerNumber {
             return false;
         }
 
-        String o1 = this.toString();
-        String o2 = obj.toString();
+        ContainerNumber other = (ContainerNumber) obj;
 
-        return o1.equals(o2);
+        if (isPacked() || other.isPacked()) {
+            return packed == other.packed;
+        }
+
+        return this.toString().equals(other.toString());
     }
 
 
     @Override
     public int hashCode() {
 
+        if (isPacked()) {
+            return hash(packed);
+        }
+
         return this.toString().hashCode();
     }
+
+
+    /**
+     * Compares by the packed form, container numbers without a valid format are ordered last by their
+     * {@link #toString() String representation}.
+     *
+     * @param  other  container number to compare with, never {@code null}
+     *
+     * @return  a negative integer, zero, or a positive integer as this container number is less than, equal to, or
+     *          greater than the given one
+     *
+     * @since  0.19.0
+     */
+    @Override
+    public int compareTo(ContainerNumber other) {
+
+        if (isPacked() && other.isPacked()) {
+            return Long.compare(packed, other.packed);
+        }
+
+        if (isPacked() != other.isPacked()) {
+            return isPacked() ? -1 : 1;
+        }
+
+        return this.toString().compareTo(other.toString());
+    }
+
+
+    /**
+     * Spreads the bits of a packed container number, used as hash code for packed values.
+     */
+    static int hash(long packed) {
+
+        long mixed = packed * GOLDEN_RATIO;
+
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+
+    /**
+     * Get a 64 bit hash of a packed container number whose bits all depend on all bits of the value, using the
+     * finalizer of MurmurHash3, e.g. to derive several independent indices from it.
+     */
+    static long hash64(long packed) {
+
+        long mixed = packed;
+        mixed = (mixed ^ (mixed >>> 33)) * 0xFF51AFD7ED558CCDL;
+        mixed = (mixed ^ (mixed >>> 33)) * 0xC4CEB9FE1A85EC53L;
+
+        return mixed ^ (mixed >>> 33);
+    }
 }
@@ -0,0 +1,297 @@
+package net.contargo.types.container;
+
+import net.contargo.types.Assert;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * Validates whole batches of container numbers, e.g. all units of a vessel manifest, at once.
+ *
+ * <p>Batches larger than the configured threshold are split into chunks that are validated in parallel on a
+ * {@link ForkJoinPool}, smaller batches are validated on the calling thread.</p>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>
+ ContainerNumberBatchValidator.Result result = new ContainerNumberBatchValidator().validate(values);
+ BitSet valid = result.getISO6346Valid();
+ * </pre>
+ *
+ * <p>Instances are immutable and can be shared between threads.</p>
+ *
+ * @since  0.19.0
+ */
+public final class ContainerNumberBatchValidator {
+
+    /**
+     * Default number of items up to which a batch is validated on the calling thread.
+     */
+    public static final int DEFAULT_THRESHOLD = 4096;
+
+    private static final int WORD_SIZE = Long.SIZE;
+
+    private final int threshold;
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a validator using the {@link #DEFAULT_THRESHOLD} and the {@link ForkJoinPool#commonPool() common pool}.
+     */
+    public ContainerNumberBatchValidator() {
+
+        this(DEFAULT_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+
+    /**
+     * Create a validator with the given threshold and pool.
+     *
+     * @param  threshold  number of items up to which a batch or a chunk of it is validated without further splitting,
+     *                    at least 64
+     * @param  pool  to validate large batches on, never {@code null}
+     */
+    public ContainerNumberBatchValidator(int threshold, ForkJoinPool pool) {
+
+        Assert.notNull(pool, "Pool must not be null");
+
+        if (threshold < WORD_SIZE) {
+            throw new IllegalArgumentException("Threshold must be at least " + WORD_SIZE + ": " + threshold);
+        }
+
+        this.threshold = threshold;
+        this.pool = pool;
+    }
+
+    /**
+     * Validate the given container numbers.
+     *
+     * @param  values  container numbers to be validated, never {@code null}, {@code null} items are not valid
+     *
+     * @return  the outcome for each item, never {@code null}
+     */
+    public Result validate(List<? extends CharSequence> values) {
+
+        Assert.notNull(values, "Values must not be null");
+
+        return validate(values.toArray(new CharSequence[values.size()]));
+    }
+
+
+    /**
+     * Validate the given container numbers.
+     *
+     * @param  values  container numbers to be validated, never {@code null}, {@code null} items are not valid
+     *
+     * @return  the outcome for each item, never {@code null}
+     */
+    public Result validate(CharSequence... values) {
+
+        Assert.notNull(values, "Values must not be null");
+
+        long[] packed = new long[values.length];
+        long[] validWords = new long[(values.length + WORD_SIZE - 1) / WORD_SIZE];
+
+        run((from, to) -> validate(values, from, to, packed, validWords), values.length);
+
+        return new Result(packed, BitSet.valueOf(validWords));
+    }
+
+
+    /**
+     * Check fixed-width ASCII records, e.g. a column of a fixed-width export or a file of normalized container numbers
+     * with a line feed each, without parsing them into Strings. Each record must start with the normalized container
+     * number, i.e. eleven capital letters and digits without separators, any further bytes of a record are ignored.
+     *
+     * <p>The first eight bytes of a record are range-checked and their digits summed as a single {@code long} (SWAR,
+     * SIMD within a register).</p>
+     *
+     * @param  records  containing the ASCII records, never {@code null}
+     * @param  offset  of the first record
+     * @param  recordLength  number of bytes of each record, at least 11
+     * @param  count  number of records
+     *
+     * @return  the indices of the ISO 6346 valid records, never {@code null}
+     *
+     * @throws  IllegalArgumentException  if the record length is less than 11 or the records exceed the array
+     */
+    public BitSet validateAscii(byte[] records, int offset, int recordLength, int count) {
+
+        Assert.notNull(records, "Records must not be null");
+
+        if (recordLength < ISO6346.LENGTH) {
+            throw new IllegalArgumentException("Record length must be at least " + ISO6346.LENGTH + ": "
+                + recordLength);
+        }
+
+        if (offset < 0 || count < 0 || offset + (long) recordLength * count > records.length) {
+            throw new IllegalArgumentException("Records exceed the array: " + count + " records of " + recordLength
+                + " bytes at " + offset);
+        }
+
+        ISO6346Ascii ascii = new ISO6346Ascii(records);
+        long[] validWords = new long[(count + WORD_SIZE - 1) / WORD_SIZE];
+
+        run((from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (ascii.isISO6346Valid(offset + i * recordLength)) {
+                    validWords[i / WORD_SIZE] |= 1L << i;
+                }
+            }
+        }, count);
+
+        return BitSet.valueOf(validWords);
+    }
+
+
+    private void run(Chunk chunk, int size) {
+
+        if (size <= threshold) {
+            chunk.validate(0, size);
+        } else {
+            pool.invoke(new ValidationTask(chunk, 0, size));
+        }
+    }
+
+
+    private static void validate(CharSequence[] values, int from, int to, long[] packed, long[] validWords) {
+
+        for (int i = from; i < to; i++) {
+            long containerNumber = ISO6346.pack(values[i]);
+            packed[i] = containerNumber;
+
+            if (ISO6346.isISO6346Valid(containerNumber)) {
+                validWords[i / WORD_SIZE] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * Outcome of a batch validation, indexed like the validated items.
+     */
+    public static final class Result {
+
+        private final long[] packed;
+        private final BitSet iso6346Valid;
+
+        private Result(long[] packed, BitSet iso6346Valid) {
+
+            this.packed = packed;
+            this.iso6346Valid = iso6346Valid;
+        }
+
+        /**
+         * Get the number of validated items.
+         *
+         * @return  the size of the batch
+         */
+        public int size() {
+
+            return packed.length;
+        }
+
+
+        /**
+         * Check if the item at the given index is ISO 6346 valid.
+         *
+         * @param  index  of the item
+         *
+         * @return  {@code true} if the item is ISO 6346 valid, else {@code false}
+         */
+        public boolean isISO6346Valid(int index) {
+
+            return iso6346Valid.get(index);
+        }
+
+
+        /**
+         * Get the indices of all ISO 6346 valid items.
+         *
+         * @return  a copy of the validity bits, never {@code null}
+         */
+        public BitSet getISO6346Valid() {
+
+            return (BitSet) iso6346Valid.clone();
+        }
+
+
+        /**
+         * Get the number of ISO 6346 valid items.
+         *
+         * @return  the number of valid items
+         */
+        public int countISO6346Valid() {
+
+            return iso6346Valid.cardinality();
+        }
+
+
+        /**
+         * Get the packed form of the item at the given index.
+         *
+         * @param  index  of the item
+         *
+         * @return  the packed container number, {@link ISO6346#NONE} if the item has no valid format
+         *
+         * @see  ContainerNumber#toLong()
+         */
+        public long getPacked(int index) {
+
+            return packed[index];
+        }
+
+
+        /**
+         * Get the packed form of all items.
+         *
+         * @return  a copy of the packed container numbers, {@link ISO6346#NONE} for items without a valid format
+         */
+        public long[] getPackedValues() {
+
+            return Arrays.copyOf(packed, packed.length);
+        }
+    }
+
+    /**
+     * Validates the items of a range, which must start at a multiple of 64, thus chunks validated in parallel never
+     * write to the same word of the validity bits.
+     */
+    @FunctionalInterface
+    private interface Chunk {
+
+        void validate(int from, int to);
+    }
+
+    private final class ValidationTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Chunk chunk;
+        private final int from;
+        private final int to;
+
+        private ValidationTask(Chunk chunk, int from, int to) {
+
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from <= threshold) {
+                chunk.validate(from, to);
+
+                return;
+            }
+
+            int middle = from + ((((to - from) >>> 1) + WORD_SIZE - 1) & -WORD_SIZE);
+
+            invokeAll(new ValidationTask(chunk, from, middle), new ValidationTask(chunk, middle, to));
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package net.contargo.types.container;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.Arrays;
+
+
+/**
+ * Bloom filter of packed container numbers.
+ *
+ * <p>Each container number sets a number of bits of a bit array, chosen by double hashing of its packed form. The size
+ * of the bit array and the number of bits per container number are derived from the expected number of container
+ * numbers and the desired false positive rate. Container numbers cannot be removed, see
+ * {@link ContainerNumberCuckooFilter} for a filter supporting removal.</p>
+ *
+ * <p>This class is not thread-safe, but can be read concurrently once filled.</p>
+ *
+ * @since  0.19.0
+ */
+public final class ContainerNumberBloomFilter implements ContainerNumberFilter {
+
+    static final int MAGIC = 0x434E4246; // CNBF
+
+    private static final byte VERSION = 1;
+    private static final int WORD_SIZE = Long.SIZE;
+    private static final int MAX_HASH_FUNCTIONS = 32;
+    private static final double LN_2 = Math.log(2);
+    private static final int MAX_WORDS = Integer.MAX_VALUE - 8;
+
+    /**
+     * Number of words allocated before reading, the array grows with the words actually read, so a corrupt length
+     * fails with an {@link java.io.EOFException} instead of allocating a huge array.
+     */
+    private static final int READ_BLOCK = 1 << 16;
+
+    private final long[] words;
+    private final long bits;
+    private final int hashFunctions;
+
+    /**
+     * Create an empty filter.
+     *
+     * @param  expectedSize  number of container numbers expected to be added, at least 1
+     * @param  falsePositiveRate  desired rate of false positives once the expected number of container numbers is
+     *                            added, between 0 and 1 exclusive, e.g. {@code 0.01}
+     *
+     * @throws  IllegalArgumentException  if any parameter is out of range or the filter would be too large
+     */
+    public ContainerNumberBloomFilter(int expectedSize, double falsePositiveRate) {
+
+        if (expectedSize < 1) {
+            throw new IllegalArgumentException("Expected size must be positive: " + expectedSize);
+        }
+
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+
+        double optimalBits = -expectedSize * Math.log(falsePositiveRate) / (LN_2 * LN_2);
+        long wordCount = (long) Math.ceil(optimalBits / WORD_SIZE);
+
+        if (wordCount > MAX_WORDS) {
+            throw new IllegalArgumentException("Filter would be too large for " + expectedSize + " container numbers");
+        }
+
+        this.words = new long[(int) Math.max(1, wordCount)];
+        this.bits = (long) words.length * WORD_SIZE;
+        this.hashFunctions = (int) Math.max(1,
+                Math.min(MAX_HASH_FUNCTIONS, Math.round(bits / (double) expectedSize * LN_2)));
+    }
+
+
+    private ContainerNumberBloomFilter(long[] words, int hashFunctions) {
+
+        this.words = words;
+        this.bits = (long) words.length * WORD_SIZE;
+        this.hashFunctions = hashFunctions;
+    }
+
+    @Override
+    public boolean add(long containerNumber) {
+
+        ContainerNumberSet.requirePacked(containerNumber);
+
+        long hash = ContainerNumber.hash64(containerNumber);
+        long step = ContainerNumber.hash64(hash) | 1;
+        boolean changed = false;
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = (hash & Long.MAX_VALUE) % bits;
+            int word = (int) (bit / WORD_SIZE);
+            long mask = 1L << bit;
+
+            changed |= (words[word] & mask) == 0;
+            words[word] |= mask;
+            hash += step;
+        }
+
+        return changed;
+    }
+
+
+    @Override
+    public boolean mightContain(long containerNumber) {
+
+        if (!ISO6346.isPacked(containerNumber)) {
+            return false;
+        }
+
+        long hash = ContainerNumber.hash64(containerNumber);
+        long step = ContainerNumber.hash64(hash) | 1;
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = (hash & Long.MAX_VALUE) % bits;
+
+            if ((words[(int) (bit / WORD_SIZE)] & (1L << bit)) == 0) {
+                return false;
+            }
+
+            hash += step;
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Add all container numbers of the given filter, which must have been created with the same parameters.
+     *
+     * @param  other  filter to be merged, never {@code null}
+     *
+     * @throws  IllegalArgumentException  if the filters have different parameters
+     */
+    public void addAll(ContainerNumberBloomFilter other) {
+
+        if (other == null || other.words.length != words.length || other.hashFunctions != hashFunctions) {
+            throw new IllegalArgumentException("Filters must have the same size and number of hash functions");
+        }
+
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+
+    /**
+     * Estimate the current false positive rate from the fraction of set bits.
+     *
+     * @return  the estimated false positive rate
+     */
+    public double estimateFalsePositiveRate() {
+
+        long set = 0;
+
+        for (long word : words) {
+            set += Long.bitCount(word);
+        }
+
+        return Math.pow(set / (double) bits, hashFunctions);
+    }
+
+
+    /**
+     * Get the size of the bit array.
+     *
+     * @return  the number of bits
+     */
+    public long bitSize() {
+
+        return bits;
+    }
+
+
+    /**
+     * Get the number of bits set per container number.
+     *
+     * @return  the number of hash functions
+     */
+    public int hashFunctions() {
+
+        return hashFunctions;
+    }
+
+
+    @Override
+    public void writeTo(OutputStream output) throws IOException {
+
+        DataOutputStream data = new DataOutputStream(output);
+
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeByte(hashFunctions);
+        data.writeInt(words.length);
+
+        for (long word : words) {
+            data.writeLong(word);
+        }
+
+        data.flush();
+    }
+
+
+    /**
+     * Reads the filter following the magic number.
+     */
+    static ContainerNumberBloomFilter read(DataInputStream data) throws IOException {
+
+        int version = data.readByte();
+
+        if (version != VERSION) {
+            throw new IOException("Unsupported version of bloom filter: " + version);
+        }
+
+        int hashFunctions = data.readByte();
+        int length = data.readInt();
+
+        if (hashFunctions < 1 || hashFunctions > MAX_HASH_FUNCTIONS || length < 1 || length > MAX_WORDS) {
+            throw new IOException("Invalid bloom filter parameters");
+        }
+
+        long[] words = new long[Math.min(length, READ_BLOCK)];
+
+        for (int i = 0; i < length; i++) {
+            if (i == words.length) {
+                words = Arrays.copyOf(words, (int) Math.min(length, 2L * i));
+            }
+
+            words[i] = data.readLong();
+        }
+
+        return new ContainerNumberBloomFilter(words, hashFunctions);
+    }
+}
@@ -0,0 +1,239 @@
+package net.contargo.types.container;
+
+import net.contargo.types.Assert;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+
+/**
+ * Finds the most likely container number of several noisy reads of the same container, e.g. the reads of the gate
+ * cameras during one truck pass.
+ *
+ * <p>The reads vote per character position, weighted by their optional confidences. The result is the ISO 6346 valid
+ * container number with the highest likelihood according to these votes, thus a read that is wrong in only one or two
+ * positions is corrected by the others and by the check digit. Reads without exactly eleven letters and digits cannot
+ * be aligned to the positions and are ignored.</p>
+ *
+ * <p>All methods are stateless and can be called concurrently.</p>
+ *
+ * @since  0.19.0
+ */
+public final class ContainerNumberConsensus {
+
+    private static final int MODULUS = 11;
+    private static final int SYMBOLS = 36;
+    private static final double SMOOTHING = 0.1;
+    private static final int[] CATEGORIES = { 'J' - 'A' + 10, 'U' - 'A' + 10, 'Z' - 'A' + 10 };
+    private static final int[] LETTERS = new int[26];
+    private static final int[] DIGITS = { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 };
+
+    static {
+        for (int i = 0; i < LETTERS.length; i++) {
+            LETTERS[i] = i + ISO6346.LETTER_OFFSET;
+        }
+    }
+
+    private ContainerNumberConsensus() {
+
+        // Hide utility class constructor
+    }
+
+    /**
+     * Find the most likely container number of the given reads, all weighted equally.
+     *
+     * @param  reads  of the same container, never {@code null}
+     *
+     * @return  the most likely ISO 6346 valid container number, empty if none of the reads has eleven letters and
+     *          digits
+     */
+    public static Optional<ContainerNumber> of(List<? extends CharSequence> reads) {
+
+        return of(reads, null);
+    }
+
+
+    /**
+     * Find the most likely container number of the given reads, weighted by the given confidences.
+     *
+     * @param  reads  of the same container, never {@code null}
+     * @param  confidences  of the reads, e.g. as reported by the OCR, reads with a confidence of zero are ignored, may
+     *                      be {@code null} to weight all reads equally
+     *
+     * @return  the most likely ISO 6346 valid container number, empty if none of the reads has eleven letters and
+     *          digits
+     *
+     * @throws  IllegalArgumentException  if there is not exactly one non-negative confidence per read
+     */
+    public static Optional<ContainerNumber> of(List<? extends CharSequence> reads, double[] confidences) {
+
+        long packed = consensus(reads, confidences);
+
+        return packed == ISO6346.NONE ? Optional.empty() : Optional.of(ContainerNumber.fromLong(packed));
+    }
+
+
+    /**
+     * Find the packed form of the most likely container number, see {@link #of(List, double[])}.
+     */
+    static long consensus(List<? extends CharSequence> reads, double[] confidences) {
+
+        Assert.notNull(reads, "Reads must not be null");
+
+        if (confidences != null && confidences.length != reads.size()) {
+            throw new IllegalArgumentException("Expected one confidence per read");
+        }
+
+        double[][] votes = new double[ISO6346.LENGTH][SYMBOLS];
+        double total = 0;
+
+        for (int i = 0; i < reads.size(); i++) {
+            double weight = confidences == null ? 1 : confidences[i];
+
+            if (!(weight >= 0)) {
+                throw new IllegalArgumentException("Confidence must not be negative: " + weight);
+            }
+
+            if (weight > 0 && vote(reads.get(i), weight, votes)) {
+                total += weight;
+            }
+        }
+
+        if (total == 0) {
+            return ISO6346.NONE;
+        }
+
+        return mostLikely(logLikelihoods(votes, total));
+    }
+
+
+    /**
+     * Adds the votes of the given read if it consists of exactly eleven letters and digits.
+     */
+    private static boolean vote(CharSequence read, double weight, double[][] votes) {
+
+        if (read == null) {
+            return false;
+        }
+
+        int position = 0;
+
+        for (int i = 0; i < read.length(); i++) {
+            if (ISO6346.code(read.charAt(i)) != ISO6346.IGNORED && ++position > ISO6346.LENGTH) {
+                return false;
+            }
+        }
+
+        if (position != ISO6346.LENGTH) {
+            return false;
+        }
+
+        position = 0;
+
+        for (int i = 0; i < read.length(); i++) {
+            int code = ISO6346.code(read.charAt(i));
+
+            if (code != ISO6346.IGNORED) {
+                votes[position++][code] += weight;
+            }
+        }
+
+        return true;
+    }
+
+
+    private static double[][] logLikelihoods(double[][] votes, double total) {
+
+        double[][] likelihoods = new double[ISO6346.LENGTH][SYMBOLS];
+        double denominator = Math.log(total + SMOOTHING * SYMBOLS);
+
+        for (int position = 0; position < ISO6346.LENGTH; position++) {
+            for (int code = 0; code < SYMBOLS; code++) {
+                likelihoods[position][code] = Math.log(votes[position][code] + SMOOTHING) - denominator;
+            }
+        }
+
+        return likelihoods;
+    }
+
+
+    /**
+     * Maximizes the summed log-likelihood over all ISO 6346 valid container numbers: the best prefix for each residue
+     * of the weighted sum modulo 11 is computed position by position, the check digit finally selects the residue.
+     */
+    private static long mostLikely(double[][] likelihoods) {
+
+        double[] best = new double[MODULUS];
+        int[][] choice = new int[ISO6346.CHECK_DIGIT_POSITION][MODULUS];
+        int[][] previous = new int[ISO6346.CHECK_DIGIT_POSITION][MODULUS];
+
+        Arrays.fill(best, Double.NEGATIVE_INFINITY);
+        best[0] = 0;
+
+        for (int position = 0; position < ISO6346.CHECK_DIGIT_POSITION; position++) {
+            double[] next = new double[MODULUS];
+            Arrays.fill(next, Double.NEGATIVE_INFINITY);
+
+            for (int code : candidates(position)) {
+                int weighted = ISO6346.weightedValue(code, position) % MODULUS;
+                double likelihood = likelihoods[position][code];
+
+                for (int residue = 0; residue < MODULUS; residue++) {
+                    double score = best[residue] + likelihood;
+                    int nextResidue = (residue + weighted) % MODULUS;
+
+                    if (score > next[nextResidue]) {
+                        next[nextResidue] = score;
+                        choice[position][nextResidue] = code;
+                        previous[position][nextResidue] = residue;
+                    }
+                }
+            }
+
+            best = next;
+        }
+
+        double bestScore = Double.NEGATIVE_INFINITY;
+        int bestResidue = -1;
+
+        for (int residue = 0; residue < MODULUS; residue++) {
+            double score = best[residue] + likelihoods[ISO6346.CHECK_DIGIT_POSITION][residue % 10];
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestResidue = residue;
+            }
+        }
+
+        int residue = bestResidue;
+        long letters = 0;
+        int digits = 0;
+        int[] codes = new int[ISO6346.CHECK_DIGIT_POSITION];
+
+        for (int position = ISO6346.CHECK_DIGIT_POSITION - 1; position >= 0; position--) {
+            codes[position] = choice[position][residue];
+            residue = previous[position][residue];
+        }
+
+        for (int position = 0; position < ISO6346.CHECK_DIGIT_POSITION; position++) {
+            if (position <= ISO6346.CATEGORY_POSITION) {
+                letters = (letters << ISO6346.LETTER_BITS) | (codes[position] - ISO6346.LETTER_OFFSET);
+            } else {
+                digits = digits * 10 + codes[position];
+            }
+        }
+
+        return ISO6346.pack(letters, digits * 10 + bestResidue % 10);
+    }
+
+
+    private static int[] candidates(int position) {
+
+        if (position == ISO6346.CATEGORY_POSITION) {
+            return CATEGORIES;
+        }
+
+        return position < ISO6346.CATEGORY_POSITION ? LETTERS : DIGITS;
+    }
+}
@@ -0,0 +1,361 @@
+package net.contargo.types.container;
+
+import java.util.Arrays;
+
+
+/**
+ * Finds the ISO 6346 valid container numbers within one edit of a mistyped or misread container number.
+ *
+ * <p>Considered edits are the substitution of one character, the transposition of two adjacent characters and the
+ * insertion or deletion of one character. Instead of validating every variant, the checksum algebra is used to prune:
+ * the check digit defines the residue modulo 11 the weighted sum must have, and since every weight is a power of two,
+ * the value a substituted or inserted character must have is determined modulo 11. Only the few letters or the digit
+ * with that residue are candidates at all.</p>
+ *
+ * @since  0.19.0
+ */
+final class ContainerNumberCorrector {
+
+    /**
+     * Cost of substituting a character by one it is often confused with by OCR or humans, e.g. O and 0.
+     */
+    static final int COST_CONFUSION = 1;
+    static final int COST_TRANSPOSITION = 2;
+    static final int COST_SUBSTITUTION = 3;
+    static final int COST_INSERTION_OR_DELETION = 4;
+
+    private static final int MODULUS = 11;
+    private static final int COST_SHIFT = 48;
+    private static final int MAX_CANDIDATES = 128;
+    private static final String[] CONFUSIONS = { "O0", "I1", "B8", "S5" };
+
+    /**
+     * Inverse of the weight of each position modulo 11, i.e. 6 (the inverse of 2) to the power of the position.
+     */
+    private static final int[] INVERSE_WEIGHTS = new int[ISO6346.CHECK_DIGIT_POSITION];
+
+    /**
+     * Letter codes grouped by the residue of their value modulo 11.
+     */
+    private static final int[][] LETTERS_BY_RESIDUE = new int[MODULUS][];
+
+    private static final boolean[][] CONFUSABLE = new boolean[36][36];
+
+    static {
+        int inverse = 1;
+
+        for (int position = 0; position < INVERSE_WEIGHTS.length; position++) {
+            INVERSE_WEIGHTS[position] = inverse;
+            inverse = inverse * 6 % MODULUS;
+        }
+
+        for (int residue = 0; residue < MODULUS; residue++) {
+            int[] letters = new int[26];
+            int count = 0;
+
+            for (int letter = 0; letter < 26; letter++) {
+                if (ISO6346.LETTER_VALUES[letter] % MODULUS == residue) {
+                    letters[count++] = letter + ISO6346.LETTER_OFFSET;
+                }
+            }
+
+            LETTERS_BY_RESIDUE[residue] = Arrays.copyOf(letters, count);
+        }
+
+        for (String confusion : CONFUSIONS) {
+            int first = ISO6346.code(confusion.charAt(0));
+            int second = ISO6346.code(confusion.charAt(1));
+
+            CONFUSABLE[first][second] = true;
+            CONFUSABLE[second][first] = true;
+        }
+    }
+
+    private ContainerNumberCorrector() {
+
+        // Hide utility class constructor
+    }
+
+    /**
+     * Find the ISO 6346 valid container numbers within one edit of the given value, ranked by likelihood: confusions
+     * of similar looking characters first, followed by transpositions, other substitutions and finally insertions and
+     * deletions. Candidates of equal likelihood are ordered by their packed value.
+     *
+     * @param  value  to be corrected, may be {@code null}
+     *
+     * @return  the packed candidates, the packed value itself if it is already ISO 6346 valid, never {@code null}
+     */
+    static long[] correct(CharSequence value) {
+
+        if (value == null) {
+            return new long[0];
+        }
+
+        int[] codes = new int[ISO6346.LENGTH + 1];
+        int length = 0;
+
+        for (int i = 0; i < value.length(); i++) {
+            int code = ISO6346.code(value.charAt(i));
+
+            if (code != ISO6346.IGNORED) {
+                if (length == codes.length) {
+                    return new long[0];
+                }
+
+                codes[length++] = code;
+            }
+        }
+
+        Candidates candidates = new Candidates();
+
+        if (length == ISO6346.LENGTH) {
+            long packed = packIfValid(codes);
+
+            if (packed != ISO6346.NONE) {
+                return new long[] { packed };
+            }
+
+            substitute(codes, candidates);
+            transpose(codes, candidates);
+        } else if (length == ISO6346.LENGTH - 1) {
+            insert(codes, candidates);
+        } else if (length == ISO6346.LENGTH + 1) {
+            delete(codes, candidates);
+        }
+
+        return candidates.toRankedArray();
+    }
+
+
+    private static void substitute(int[] codes, Candidates candidates) {
+
+        int misplaced = misplacedPosition(codes);
+
+        for (int position = 0; position < ISO6346.LENGTH; position++) {
+            if (misplaced == -1 || misplaced == position) {
+                int original = codes[position];
+                complete(codes, position, original, candidates);
+                codes[position] = original;
+            }
+        }
+    }
+
+
+    private static void transpose(int[] codes, Candidates candidates) {
+
+        for (int position = 0; position < ISO6346.CHECK_DIGIT_POSITION; position++) {
+            int first = codes[position];
+            int second = codes[position + 1];
+
+            if (first != second) {
+                codes[position] = second;
+                codes[position + 1] = first;
+
+                candidates.add(packIfValid(codes), COST_TRANSPOSITION);
+
+                codes[position] = first;
+                codes[position + 1] = second;
+            }
+        }
+    }
+
+
+    private static void insert(int[] codes, Candidates candidates) {
+
+        int[] inserted = new int[ISO6346.LENGTH];
+
+        for (int position = 0; position < ISO6346.LENGTH; position++) {
+            System.arraycopy(codes, 0, inserted, 0, position);
+            System.arraycopy(codes, position, inserted, position + 1, ISO6346.LENGTH - 1 - position);
+
+            if (misplacedPosition(inserted, position) == -1) {
+                complete(inserted, position, ISO6346.IGNORED, candidates);
+            }
+        }
+    }
+
+
+    private static void delete(int[] codes, Candidates candidates) {
+
+        int[] deleted = new int[ISO6346.LENGTH];
+
+        for (int position = 0; position <= ISO6346.LENGTH; position++) {
+            System.arraycopy(codes, 0, deleted, 0, position);
+            System.arraycopy(codes, position + 1, deleted, position, ISO6346.LENGTH - position);
+
+            candidates.add(packIfValid(deleted), COST_INSERTION_OR_DELETION);
+        }
+    }
+
+
+    /**
+     * Adds all candidates with a replaced character at the given position, whose other positions are fixed. The
+     * original character is excluded, {@link ISO6346#IGNORED} marks an inserted position.
+     */
+    private static void complete(int[] codes, int position, int original, Candidates candidates) {
+
+        if (misplacedPosition(codes, position) != -1) {
+            return;
+        }
+
+        if (position == ISO6346.CHECK_DIGIT_POSITION) {
+            codes[position] = ISO6346.checkDigitOf(sumWithout(codes, position));
+            candidates.add(packIfValid(codes), costOf(original, codes[position]));
+
+            return;
+        }
+
+        boolean validCategory = ISO6346.isValidEquipmentCategory(codes[ISO6346.CATEGORY_POSITION]);
+
+        if (position != ISO6346.CATEGORY_POSITION && !validCategory) {
+            return;
+        }
+
+        int checkDigit = codes[ISO6346.CHECK_DIGIT_POSITION];
+        int rest = sumWithout(codes, position) % MODULUS;
+
+        // a check digit of 0 is also the result of a remainder of 10
+        for (int remainder = checkDigit; remainder < MODULUS; remainder += 10) {
+            int residue = Math.floorMod(remainder - rest, MODULUS) * INVERSE_WEIGHTS[position] % MODULUS;
+
+            if (position <= ISO6346.CATEGORY_POSITION) {
+                for (int letter : LETTERS_BY_RESIDUE[residue]) {
+                    if (letter != original) {
+                        codes[position] = letter;
+                        candidates.add(packIfValid(codes), costOf(original, letter));
+                    }
+                }
+            } else if (residue < 10 && residue != original) {
+                codes[position] = residue;
+                candidates.add(packIfValid(codes), costOf(original, residue));
+            }
+        }
+    }
+
+
+    private static int costOf(int original, int replacement) {
+
+        if (original == ISO6346.IGNORED) {
+            return COST_INSERTION_OR_DELETION;
+        }
+
+        return CONFUSABLE[original][replacement] ? COST_CONFUSION : COST_SUBSTITUTION;
+    }
+
+
+    /**
+     * Get the weighted sum of the first ten positions, leaving out the given one.
+     */
+    private static int sumWithout(int[] codes, int excluded) {
+
+        int sum = 0;
+
+        for (int position = 0; position < ISO6346.CHECK_DIGIT_POSITION; position++) {
+            if (position != excluded) {
+                sum += ISO6346.weightedValue(codes[position], position);
+            }
+        }
+
+        return sum;
+    }
+
+
+    /**
+     * Get the single position holding a character of the wrong class (letter or digit), {@code -2} if there are
+     * several, {@code -1} if there is none.
+     */
+    private static int misplacedPosition(int[] codes) {
+
+        return misplacedPosition(codes, -1);
+    }
+
+
+    private static int misplacedPosition(int[] codes, int excluded) {
+
+        int misplaced = -1;
+
+        for (int position = 0; position < ISO6346.LENGTH; position++) {
+            if (position != excluded && !ISO6346.isAllowedAt(codes[position], position)) {
+                if (misplaced != -1) {
+                    return -2;
+                }
+
+                misplaced = position;
+            }
+        }
+
+        return misplaced;
+    }
+
+
+    private static long packIfValid(int[] codes) {
+
+        if (misplacedPosition(codes) != -1 || !ISO6346.isValidEquipmentCategory(codes[ISO6346.CATEGORY_POSITION])) {
+            return ISO6346.NONE;
+        }
+
+        if (ISO6346.checkDigitOf(sumWithout(codes, -1)) != codes[ISO6346.CHECK_DIGIT_POSITION]) {
+            return ISO6346.NONE;
+        }
+
+        long letters = 0;
+        int digits = 0;
+
+        for (int position = 0; position < ISO6346.LENGTH; position++) {
+            if (position <= ISO6346.CATEGORY_POSITION) {
+                letters = (letters << ISO6346.LETTER_BITS) | (codes[position] - ISO6346.LETTER_OFFSET);
+            } else {
+                digits = digits * 10 + codes[position];
+            }
+        }
+
+        return ISO6346.pack(letters, digits);
+    }
+
+    /**
+     * Collects packed candidates together with their cost in the upper bits, so sorting ranks them.
+     */
+    private static final class Candidates {
+
+        private final long[] ranked = new long[MAX_CANDIDATES];
+        private int size;
+
+        void add(long packed, int cost) {
+
+            if (packed != ISO6346.NONE && size < ranked.length) {
+                ranked[size++] = ((long) cost << COST_SHIFT) | packed;
+            }
+        }
+
+
+        long[] toRankedArray() {
+
+            Arrays.sort(ranked, 0, size);
+
+            long[] result = new long[size];
+            int count = 0;
+
+            for (int i = 0; i < size; i++) {
+                long packed = ranked[i] & ((1L << COST_SHIFT) - 1);
+
+                if (!contains(result, count, packed)) {
+                    result[count++] = packed;
+                }
+            }
+
+            return Arrays.copyOf(result, count);
+        }
+
+
+        private static boolean contains(long[] values, int length, long value) {
+
+            for (int i = 0; i < length; i++) {
+                if (values[i] == value) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+}
@@ -0,0 +1,440 @@
+package net.contargo.types.container;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.Arrays;
+
+
+/**
+ * Cuckoo filter of packed container numbers, supporting removal.
+ *
+ * <p>A short fingerprint of each container number is stored in one of two buckets of four slots, both derived from
+ * its packed form. If both buckets are full, fingerprints are relocated to their alternate bucket. The fingerprints are
+ * bit-packed, their width is derived from the desired false positive rate. The filter is sized to hold the expected
+ * number of container numbers in at most 95 percent of its slots, adding fails once no free slot can be found.</p>
+ *
+ * <p>Only container numbers that have been added may be removed, else other container numbers sharing the fingerprint
+ * could be removed instead. A container number added twice is stored twice and must be removed twice.</p>
+ *
+ * <p>This class is not thread-safe, but can be read concurrently as long as it is not modified.</p>
+ *
+ * @since  0.19.0
+ */
+public final class ContainerNumberCuckooFilter implements ContainerNumberFilter {
+
+    static final int MAGIC = 0x434E4346; // CNCF
+
+    private static final byte VERSION = 1;
+    private static final int WORD_SIZE = Long.SIZE;
+    private static final int SLOTS_PER_BUCKET = 4;
+    private static final double LOAD_FACTOR = 0.95;
+    private static final int MIN_FINGERPRINT_BITS = 4;
+    private static final int MAX_FINGERPRINT_BITS = 16;
+    private static final int MAX_KICKS = 500;
+    private static final int EMPTY = 0;
+    private static final int FINGERPRINT_HASH = 0x5BD1E995;
+    private static final int MAX_BUCKETS = 1 << 30;
+
+    /**
+     * Number of words allocated before reading, the array grows with the words actually read, so a corrupt length
+     * fails with an {@link java.io.EOFException} instead of allocating a huge array.
+     */
+    private static final int READ_BLOCK = 1 << 16;
+
+    private final long[] words;
+    private final int fingerprintBits;
+    private final int fingerprintMask;
+    private final int bucketMask;
+    private int size;
+
+    /**
+     * Fingerprint that could not be placed, kept to avoid false negatives, the filter is full while there is one.
+     */
+    private int victimFingerprint = EMPTY;
+    private int victimBucket;
+
+    /**
+     * State of the pseudo random choice of the slot to relocate.
+     */
+    private int random = 0x2545F491;
+
+    /**
+     * Create an empty filter.
+     *
+     * @param  expectedSize  number of container numbers expected to be added, at least 1
+     * @param  falsePositiveRate  desired rate of false positives, between 0 and 1 exclusive, e.g. {@code 0.001}, rates
+     *                            below about 0.0001 are limited by the maximum fingerprint width of 16 bits
+     *
+     * @throws  IllegalArgumentException  if any parameter is out of range or the filter would be too large
+     */
+    public ContainerNumberCuckooFilter(int expectedSize, double falsePositiveRate) {
+
+        if (expectedSize < 1) {
+            throw new IllegalArgumentException("Expected size must be positive: " + expectedSize);
+        }
+
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+
+        // a lookup compares the fingerprints of two buckets
+        int bitsForRate = (int) Math.ceil(Math.log(2 * SLOTS_PER_BUCKET / falsePositiveRate) / Math.log(2));
+        long buckets = Long.highestOneBit((long) Math.ceil(expectedSize / LOAD_FACTOR / SLOTS_PER_BUCKET) * 2 - 1);
+
+        this.fingerprintBits = Math.max(MIN_FINGERPRINT_BITS, Math.min(MAX_FINGERPRINT_BITS, bitsForRate));
+
+        long wordCount = (buckets * SLOTS_PER_BUCKET * fingerprintBits + WORD_SIZE - 1) / WORD_SIZE;
+
+        if (buckets > MAX_BUCKETS || wordCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Filter would be too large for " + expectedSize + " container numbers");
+        }
+
+        this.words = new long[(int) wordCount];
+        this.fingerprintMask = (1 << fingerprintBits) - 1;
+        this.bucketMask = (int) buckets - 1;
+    }
+
+
+    private ContainerNumberCuckooFilter(long[] words, int fingerprintBits, int buckets, int size) {
+
+        this.words = words;
+        this.fingerprintBits = fingerprintBits;
+        this.fingerprintMask = (1 << fingerprintBits) - 1;
+        this.bucketMask = buckets - 1;
+        this.size = size;
+    }
+
+    /**
+     * Add the given packed container number.
+     *
+     * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+     *
+     * @return  {@code true} if the container number was added, {@code false} if the filter is full
+     *
+     * @throws  IllegalArgumentException  if the given value is no packed container number
+     */
+    @Override
+    public boolean add(long containerNumber) {
+
+        ContainerNumberSet.requirePacked(containerNumber);
+
+        if (victimFingerprint != EMPTY) {
+            return false;
+        }
+
+        long hash = ContainerNumber.hash64(containerNumber);
+        int fingerprint = fingerprintOf(hash);
+        int bucket = (int) hash & bucketMask;
+
+        if (!insert(bucket, fingerprint) && !insert(alternateBucket(bucket, fingerprint), fingerprint)) {
+            relocate(bucket, fingerprint);
+        }
+
+        size++;
+
+        return true;
+    }
+
+
+    @Override
+    public boolean mightContain(long containerNumber) {
+
+        if (!ISO6346.isPacked(containerNumber)) {
+            return false;
+        }
+
+        long hash = ContainerNumber.hash64(containerNumber);
+        int fingerprint = fingerprintOf(hash);
+        int bucket = (int) hash & bucketMask;
+        int alternate = alternateBucket(bucket, fingerprint);
+
+        return slotOf(bucket, fingerprint) != -1 || slotOf(alternate, fingerprint) != -1
+            || isVictim(bucket, alternate, fingerprint);
+    }
+
+
+    /**
+     * Remove the given packed container number, which must have been added before.
+     *
+     * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+     *
+     * @return  {@code true} if a matching fingerprint was removed, else {@code false}
+     */
+    public boolean remove(long containerNumber) {
+
+        if (!ISO6346.isPacked(containerNumber)) {
+            return false;
+        }
+
+        long hash = ContainerNumber.hash64(containerNumber);
+        int fingerprint = fingerprintOf(hash);
+        int bucket = (int) hash & bucketMask;
+        int alternate = alternateBucket(bucket, fingerprint);
+
+        if (isVictim(bucket, alternate, fingerprint)) {
+            victimFingerprint = EMPTY;
+            size--;
+
+            return true;
+        }
+
+        int slot = slotOf(bucket, fingerprint);
+
+        if (slot == -1) {
+            slot = slotOf(alternate, fingerprint);
+        }
+
+        if (slot == -1) {
+            return false;
+        }
+
+        set(slot, EMPTY);
+        size--;
+
+        if (victimFingerprint != EMPTY) {
+            int victim = victimFingerprint;
+            victimFingerprint = EMPTY;
+
+            if (!insert(victimBucket, victim) && !insert(alternateBucket(victimBucket, victim), victim)) {
+                relocate(victimBucket, victim);
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Remove the given container number, which must have been added before.
+     *
+     * @param  containerNumber  may be {@code null}
+     *
+     * @return  {@code true} if a matching fingerprint was removed, else {@code false}
+     */
+    public boolean remove(ContainerNumber containerNumber) {
+
+        return containerNumber != null && containerNumber.isValid() && remove(containerNumber.toLong());
+    }
+
+
+    /**
+     * Get the number of stored fingerprints.
+     *
+     * @return  the number of added and not removed container numbers
+     */
+    public int size() {
+
+        return size;
+    }
+
+
+    /**
+     * Check if the filter is full, i.e. no more container numbers can be added until some are removed.
+     *
+     * @return  {@code true} if the filter is full, else {@code false}
+     */
+    public boolean isFull() {
+
+        return victimFingerprint != EMPTY;
+    }
+
+
+    /**
+     * Get the width of the stored fingerprints.
+     *
+     * @return  the number of bits per fingerprint
+     */
+    public int fingerprintBits() {
+
+        return fingerprintBits;
+    }
+
+
+    /**
+     * Get the maximum number of fingerprints.
+     *
+     * @return  the number of slots
+     */
+    public int capacity() {
+
+        return (bucketMask + 1) * SLOTS_PER_BUCKET;
+    }
+
+
+    @Override
+    public void writeTo(OutputStream output) throws IOException {
+
+        DataOutputStream data = new DataOutputStream(output);
+
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeByte(fingerprintBits);
+        data.writeInt(bucketMask + 1);
+        data.writeInt(size);
+        data.writeInt(victimFingerprint);
+        data.writeInt(victimBucket);
+        data.writeInt(words.length);
+
+        for (long word : words) {
+            data.writeLong(word);
+        }
+
+        data.flush();
+    }
+
+
+    /**
+     * Reads the filter following the magic number.
+     */
+    static ContainerNumberCuckooFilter read(DataInputStream data) throws IOException {
+
+        int version = data.readByte();
+
+        if (version != VERSION) {
+            throw new IOException("Unsupported version of cuckoo filter: " + version);
+        }
+
+        int fingerprintBits = data.readByte();
+        int buckets = data.readInt();
+        int size = data.readInt();
+        int victimFingerprint = data.readInt();
+        int victimBucket = data.readInt();
+        int length = data.readInt();
+
+        if (fingerprintBits < MIN_FINGERPRINT_BITS || fingerprintBits > MAX_FINGERPRINT_BITS || buckets < 1
+                || buckets > MAX_BUCKETS || Integer.bitCount(buckets) != 1 || victimBucket < 0
+                || victimBucket >= buckets
+                || length != ((long) buckets * SLOTS_PER_BUCKET * fingerprintBits + WORD_SIZE - 1) / WORD_SIZE) {
+            throw new IOException("Invalid cuckoo filter parameters");
+        }
+
+        long[] words = new long[Math.min(length, READ_BLOCK)];
+
+        for (int i = 0; i < length; i++) {
+            if (i == words.length) {
+                words = Arrays.copyOf(words, (int) Math.min(length, 2L * i));
+            }
+
+            words[i] = data.readLong();
+        }
+
+        ContainerNumberCuckooFilter filter = new ContainerNumberCuckooFilter(words, fingerprintBits, buckets, size);
+        filter.victimFingerprint = victimFingerprint & filter.fingerprintMask;
+        filter.victimBucket = victimBucket;
+
+        return filter;
+    }
+
+
+    /**
+     * Moves fingerprints to their alternate buckets until the given one finds a free slot, keeps the last displaced
+     * fingerprint as victim if there is none.
+     */
+    private void relocate(int bucket, int fingerprint) {
+
+        int current = bucket;
+        int displaced = fingerprint;
+
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            random ^= random << 13;
+            random ^= random >>> 17;
+            random ^= random << 5;
+
+            int slot = current * SLOTS_PER_BUCKET + (random & (SLOTS_PER_BUCKET - 1));
+            int evicted = get(slot);
+            set(slot, displaced);
+
+            displaced = evicted;
+            current = alternateBucket(current, displaced);
+
+            if (insert(current, displaced)) {
+                return;
+            }
+        }
+
+        victimFingerprint = displaced;
+        victimBucket = current;
+    }
+
+
+    private boolean insert(int bucket, int fingerprint) {
+
+        int slot = slotOf(bucket, EMPTY);
+
+        if (slot == -1) {
+            return false;
+        }
+
+        set(slot, fingerprint);
+
+        return true;
+    }
+
+
+    private int slotOf(int bucket, int fingerprint) {
+
+        int first = bucket * SLOTS_PER_BUCKET;
+
+        for (int slot = first; slot < first + SLOTS_PER_BUCKET; slot++) {
+            if (get(slot) == fingerprint) {
+                return slot;
+            }
+        }
+
+        return -1;
+    }
+
+
+    private boolean isVictim(int bucket, int alternate, int fingerprint) {
+
+        return victimFingerprint == fingerprint && (victimBucket == bucket || victimBucket == alternate);
+    }
+
+
+    private int fingerprintOf(long hash) {
+
+        int fingerprint = (int) (hash >>> 32) & fingerprintMask;
+
+        return fingerprint == EMPTY ? 1 : fingerprint;
+    }
+
+
+    private int alternateBucket(int bucket, int fingerprint) {
+
+        return (bucket ^ (fingerprint * FINGERPRINT_HASH)) & bucketMask;
+    }
+
+
+    private int get(int slot) {
+
+        long offset = (long) slot * fingerprintBits;
+        int word = (int) (offset / WORD_SIZE);
+        int shift = (int) (offset % WORD_SIZE);
+        long value = words[word] >>> shift;
+
+        if (shift + fingerprintBits > WORD_SIZE) {
+            value |= words[word + 1] << (WORD_SIZE - shift);
+        }
+
+        return (int) value & fingerprintMask;
+    }
+
+
+    private void set(int slot, int fingerprint) {
+
+        long offset = (long) slot * fingerprintBits;
+        int word = (int) (offset / WORD_SIZE);
+        int shift = (int) (offset % WORD_SIZE);
+
+        words[word] = (words[word] & ~((long) fingerprintMask << shift)) | ((long) fingerprint << shift);
+
+        if (shift + fingerprintBits > WORD_SIZE) {
+            int written = WORD_SIZE - shift;
+            words[word + 1] = (words[word + 1] & ~((long) fingerprintMask >>> written))
+                | ((long) fingerprint >>> written);
+        }
+    }
+}
@@ -0,0 +1,477 @@
+package net.contargo.types.container;
+
+import net.contargo.types.Assert;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+
+/**
+ * Sorts and deduplicates more container numbers than fit into the heap, e.g. the movement exports of several years.
+ *
+ * <p>The container numbers are collected in their packed form (see {@link ContainerNumber#toLong()}) into runs of a
+ * configurable size. Each full run is sorted and deduplicated on a {@link ForkJoinPool} and written to a temporary
+ * file, while the next run is being collected. Finally, all runs are merged in a single pass, dropping duplicates
+ * across runs. If all container numbers fit into a single run, nothing is written to disk.</p>
+ *
+ * <p>Runs and sorted files use a compact binary format: the differences between consecutive packed container numbers
+ * (the first one relative to zero) as unsigned variable-length integers of seven bits per byte, least significant group
+ * first. Since the container numbers are sorted, most differences take one to three bytes.</p>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>
+ ContainerNumberExternalSorter sorter = new ContainerNumberExternalSorter(temporaryDirectory);
+ long distinct = sorter.sort(Paths.get("movements.csv"), Paths.get("containers.bin"));
+ * </pre>
+ *
+ * <p>Instances are immutable and can be shared between threads.</p>
+ *
+ * @since  0.19.0
+ */
+public final class ContainerNumberExternalSorter {
+
+    /**
+     * Default number of container numbers per run, taking 128 MiB of heap.
+     */
+    public static final int DEFAULT_RUN_SIZE = 1 << 24;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int INITIAL_BUFFER_SIZE = 1 << 10;
+    private static final int VARIABLE_LENGTH_BITS = 7;
+    private static final int VARIABLE_LENGTH_MASK = 0x7F;
+    private static final int CONTINUATION_BIT = 0x80;
+
+    private final Path directory;
+    private final int runSize;
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a sorter with the {@link #DEFAULT_RUN_SIZE} using the {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param  directory  for the temporary run files, never {@code null}
+     */
+    public ContainerNumberExternalSorter(Path directory) {
+
+        this(directory, DEFAULT_RUN_SIZE, ForkJoinPool.commonPool());
+    }
+
+
+    /**
+     * Create a sorter with the given run size and pool. At most one run per thread of the pool is sorted at a time,
+     * thus the heap used is about the run size times the parallelism of the pool plus one times eight bytes.
+     *
+     * @param  directory  for the temporary run files, never {@code null}
+     * @param  runSize  number of container numbers per run, at least 1
+     * @param  pool  to sort and write the runs on, never {@code null}
+     */
+    public ContainerNumberExternalSorter(Path directory, int runSize, ForkJoinPool pool) {
+
+        Assert.notNull(directory, "Directory must not be null");
+        Assert.notNull(pool, "Pool must not be null");
+
+        if (runSize < 1) {
+            throw new IllegalArgumentException("Run size must be positive: " + runSize);
+        }
+
+        this.directory = directory;
+        this.runSize = runSize;
+        this.pool = pool;
+    }
+
+    /**
+     * Sort the given packed container numbers and pass each distinct one in ascending order to the given action. Values
+     * that are no packed container numbers, e.g. {@link ISO6346#NONE}, are skipped.
+     *
+     * @param  containerNumbers  packed container numbers, never {@code null}
+     * @param  action  to be performed for each distinct container number, never {@code null}
+     *
+     * @return  the number of distinct container numbers
+     *
+     * @throws  IOException  if writing or reading a run fails
+     */
+    public long sort(LongStream containerNumbers, LongConsumer action) throws IOException {
+
+        Assert.notNull(containerNumbers, "Container numbers must not be null");
+        Assert.notNull(action, "Action must not be null");
+
+        Queue<Path> files = new ConcurrentLinkedQueue<>();
+        List<ForkJoinTask<Path>> runs = new ArrayList<>();
+
+        try {
+            PrimitiveIterator.OfLong iterator = containerNumbers.iterator();
+            long[] buffer = new long[Math.min(runSize, INITIAL_BUFFER_SIZE)];
+            int size = 0;
+            int pending = 0;
+
+            while (iterator.hasNext()) {
+                long containerNumber = iterator.nextLong();
+
+                if (!ISO6346.isPacked(containerNumber)) {
+                    continue;
+                }
+
+                if (size == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, (int) Math.min(runSize, 2L * size));
+                }
+
+                buffer[size++] = containerNumber;
+
+                if (size == runSize) {
+                    // bound the heap by waiting for the oldest run while all threads are busy
+                    while (runs.size() - pending >= pool.getParallelism()) {
+                        runs.get(pending++).quietlyJoin();
+                    }
+
+                    runs.add(pool.submit(writeRun(buffer, size, files)));
+                    buffer = new long[runSize];
+                    size = 0;
+                }
+            }
+
+            if (runs.isEmpty()) {
+                long[] sorted = sortedDistinct(buffer, size);
+
+                for (int i = 0; i < sorted.length; i++) {
+                    action.accept(sorted[i]);
+                }
+
+                return sorted.length;
+            }
+
+            if (size > 0) {
+                runs.add(pool.submit(writeRun(buffer, size, files)));
+            }
+
+            List<Path> paths = new ArrayList<>(runs.size());
+
+            for (ForkJoinTask<Path> run : runs) {
+                paths.add(join(run));
+            }
+
+            return merge(paths, action);
+        } finally {
+            for (ForkJoinTask<Path> run : runs) {
+                run.quietlyJoin();
+            }
+
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+
+    /**
+     * Sort the container numbers of the given file with a container number per line, see
+     * {@link ContainerNumberFileScanner}, and write the distinct ones in the compact binary format to the given file.
+     * Lines without a valid container number format are skipped.
+     *
+     * @param  input  file with a container number per line, never {@code null}
+     * @param  output  file to be written, never {@code null}
+     *
+     * @return  the number of distinct container numbers
+     *
+     * @throws  IOException  if reading or writing fails
+     */
+    public long sort(Path input, Path output) throws IOException {
+
+        Assert.notNull(input, "Input must not be null");
+        Assert.notNull(output, "Output must not be null");
+
+        try (ContainerNumberFileScanner scanner = new ContainerNumberFileScanner(input);
+                OutputStream stream = new BufferedOutputStream(Files.newOutputStream(output), BUFFER_SIZE)) {
+            DeltaWriter writer = new DeltaWriter(stream);
+
+            return sort(scanner.stream(false), writer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+
+    /**
+     * Read a file written by {@link #sort(Path, Path)}.
+     *
+     * @param  sorted  file in the compact binary format, never {@code null}
+     * @param  action  to be performed for each packed container number in ascending order, never {@code null}
+     *
+     * @throws  IOException  if reading fails
+     */
+    public static void read(Path sorted, LongConsumer action) throws IOException {
+
+        Assert.notNull(sorted, "File must not be null");
+        Assert.notNull(action, "Action must not be null");
+
+        try (InputStream stream = new BufferedInputStream(Files.newInputStream(sorted), BUFFER_SIZE)) {
+            DeltaReader reader = new DeltaReader(stream);
+
+            while (reader.next()) {
+                action.accept(reader.current);
+            }
+        }
+    }
+
+
+    private ForkJoinTask<Path> writeRun(long[] buffer, int size, Queue<Path> files) {
+
+        return ForkJoinTask.adapt(() -> {
+            long[] sorted = sortedDistinct(buffer, size);
+            Path file = Files.createTempFile(directory, "container-numbers-", ".run");
+            files.add(file);
+
+            try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE)) {
+                DeltaWriter writer = new DeltaWriter(stream);
+
+                for (long containerNumber : sorted) {
+                    writer.accept(containerNumber);
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            return file;
+        });
+    }
+
+
+    private static long[] sortedDistinct(long[] buffer, int size) {
+
+        long[] values = size == buffer.length ? buffer : Arrays.copyOf(buffer, size);
+        ContainerNumberIndex.sort(values);
+
+        int distinct = 0;
+
+        for (int i = 0; i < values.length; i++) {
+            if (distinct == 0 || values[distinct - 1] != values[i]) {
+                values[distinct++] = values[i];
+            }
+        }
+
+        return distinct == values.length ? values : Arrays.copyOf(values, distinct);
+    }
+
+
+    /**
+     * Merges the given sorted runs, keeping the index of the run with the smallest current value on top of a binary
+     * heap.
+     */
+    private static long merge(List<Path> paths, LongConsumer action) throws IOException {
+
+        List<InputStream> streams = new ArrayList<>(paths.size());
+
+        try {
+            DeltaReader[] readers = new DeltaReader[paths.size()];
+            int[] heap = new int[paths.size()];
+            int heapSize = 0;
+
+            for (int run = 0; run < readers.length; run++) {
+                InputStream stream = new BufferedInputStream(Files.newInputStream(paths.get(run)), BUFFER_SIZE);
+                streams.add(stream);
+                readers[run] = new DeltaReader(stream);
+
+                if (readers[run].next()) {
+                    heap[heapSize] = run;
+                    siftUp(heap, heapSize++, readers);
+                }
+            }
+
+            long count = 0;
+            long previous = ISO6346.NONE;
+
+            while (heapSize > 0) {
+                DeltaReader reader = readers[heap[0]];
+
+                if (reader.current != previous) {
+                    previous = reader.current;
+                    action.accept(previous);
+                    count++;
+                }
+
+                if (!reader.next()) {
+                    heap[0] = heap[--heapSize];
+                }
+
+                siftDown(heap, heapSize, readers);
+            }
+
+            return count;
+        } finally {
+            for (InputStream stream : streams) {
+                stream.close();
+            }
+        }
+    }
+
+
+    private static void siftUp(int[] heap, int index, DeltaReader[] readers) {
+
+        int child = index;
+
+        while (child > 0) {
+            int parent = (child - 1) / 2;
+
+            if (readers[heap[parent]].current <= readers[heap[child]].current) {
+                return;
+            }
+
+            swap(heap, parent, child);
+            child = parent;
+        }
+    }
+
+
+    private static void siftDown(int[] heap, int size, DeltaReader[] readers) {
+
+        int parent = 0;
+
+        while (2 * parent + 1 < size) {
+            int child = 2 * parent + 1;
+
+            if (child + 1 < size && readers[heap[child + 1]].current < readers[heap[child]].current) {
+                child++;
+            }
+
+            if (readers[heap[parent]].current <= readers[heap[child]].current) {
+                return;
+            }
+
+            swap(heap, parent, child);
+            parent = child;
+        }
+    }
+
+
+    private static void swap(int[] heap, int first, int second) {
+
+        int swap = heap[first];
+        heap[first] = heap[second];
+        heap[second] = swap;
+    }
+
+
+    /**
+     * Wait for the given run to be written. An {@link IOException} of the run is thrown as is, even if the task
+     * wrapped it, unchecked exceptions and errors are rethrown unchanged.
+     */
+    static Path join(ForkJoinTask<Path> run) throws IOException {
+
+        run.quietlyJoin();
+
+        Throwable exception = run.getException();
+
+        if (exception == null) {
+            return run.getRawResult();
+        }
+
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+        }
+
+        if (exception instanceof RuntimeException) {
+            throw (RuntimeException) exception;
+        }
+
+        if (exception instanceof Error) {
+            throw (Error) exception;
+        }
+
+        throw new IOException("Writing run failed", exception);
+    }
+
+    /**
+     * Writes ascending packed container numbers as variable-length differences.
+     */
+    private static final class DeltaWriter implements LongConsumer {
+
+        private final OutputStream stream;
+        private long previous;
+
+        DeltaWriter(OutputStream stream) {
+
+            this.stream = stream;
+        }
+
+        @Override
+        public void accept(long containerNumber) {
+
+            long delta = containerNumber - previous;
+            previous = containerNumber;
+
+            try {
+                while ((delta & ~VARIABLE_LENGTH_MASK) != 0) {
+                    stream.write((int) (delta & VARIABLE_LENGTH_MASK) | CONTINUATION_BIT);
+                    delta >>>= VARIABLE_LENGTH_BITS;
+                }
+
+                stream.write((int) delta);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Reads packed container numbers written by a {@link DeltaWriter}.
+     */
+    private static final class DeltaReader {
+
+        private final InputStream stream;
+        private long current;
+
+        DeltaReader(InputStream stream) {
+
+            this.stream = stream;
+        }
+
+        /**
+         * Reads the next container number into {@link #current}, returns {@code false} at the end of the stream.
+         */
+        boolean next() throws IOException {
+
+            int b = stream.read();
+
+            if (b == -1) {
+                return false;
+            }
+
+            long delta = 0;
+            int shift = 0;
+
+            while ((b & CONTINUATION_BIT) != 0) {
+                delta |= (long) (b & VARIABLE_LENGTH_MASK) << shift;
+                shift += VARIABLE_LENGTH_BITS;
+                b = stream.read();
+
+                if (b == -1) {
+                    throw new EOFException("Truncated container number");
+                }
+            }
+
+            current += delta | ((long) b << shift);
+
+            return true;
+        }
+    }
+}
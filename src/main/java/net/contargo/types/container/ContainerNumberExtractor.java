@@ -0,0 +1,341 @@
+package net.contargo.types.container;
+
+import net.contargo.types.Assert;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Extracts ISO 6346 valid container numbers from free text, e.g. emails, texts converted from PDF documents or loosely
+ * formatted EDI messages.
+ *
+ * <p>The text is processed in a single pass: the letters and digits are kept in a rolling window and the weighted
+ * checksum of the window is updated in constant time per character. Like {@link ContainerNumber}, any characters other
+ * than letters and digits are tolerated as separators within a container number, e.g. {@code HLXU 123456-1} or
+ * {@code HLXU.123456/1}, as long as there are at most {@value #MAX_SEPARATORS} of them in a row and no line break. A
+ * container number must not be directly preceded or followed by another letter or digit.</p>
+ *
+ * <p>All methods are stateless and can be called concurrently.</p>
+ *
+ * @since  0.19.0
+ */
+public final class ContainerNumberExtractor {
+
+    /**
+     * Maximum number of consecutive separator characters within a container number.
+     */
+    public static final int MAX_SEPARATORS = 3;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private ContainerNumberExtractor() {
+
+        // Hide utility class constructor
+    }
+
+    /**
+     * Find all ISO 6346 valid container numbers in the given text.
+     *
+     * @param  text  to be searched, never {@code null}
+     *
+     * @return  the found container numbers in order of their occurrence, never {@code null}
+     */
+    public static List<Match> findAll(CharSequence text) {
+
+        List<Match> matches = new ArrayList<>();
+        extract(text, (containerNumber, start, end) -> matches.add(new Match(containerNumber, start, end)));
+
+        return matches;
+    }
+
+
+    /**
+     * Pass every ISO 6346 valid container number in the given text to the given listener.
+     *
+     * @param  text  to be searched, never {@code null}
+     * @param  listener  to be notified in order of the occurrence, never {@code null}
+     */
+    public static void extract(CharSequence text, Listener listener) {
+
+        Assert.notNull(text, "Text must not be null");
+        Assert.notNull(listener, "Listener must not be null");
+
+        Window window = new Window(listener);
+
+        for (int i = 0; i < text.length(); i++) {
+            window.accept(text.charAt(i));
+        }
+
+        window.finish();
+    }
+
+
+    /**
+     * Pass every ISO 6346 valid container number read from the given reader to the given listener. The reader is not
+     * closed.
+     *
+     * @param  reader  to be read until its end, never {@code null}
+     * @param  listener  to be notified in order of the occurrence, never {@code null}
+     *
+     * @throws  IOException  if reading fails
+     */
+    public static void extract(Reader reader, Listener listener) throws IOException {
+
+        Assert.notNull(reader, "Reader must not be null");
+        Assert.notNull(listener, "Listener must not be null");
+
+        Window window = new Window(listener);
+        char[] buffer = new char[BUFFER_SIZE];
+        int read;
+
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                window.accept(buffer[i]);
+            }
+        }
+
+        window.finish();
+    }
+
+    /**
+     * Listener for the container numbers found by a {@link ContainerNumberExtractor}.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Called for each found container number.
+         *
+         * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+         * @param  start  offset of the first character of the container number
+         * @param  end  offset after the last character of the container number
+         */
+        void found(long containerNumber, long start, long end);
+    }
+
+    /**
+     * A container number found by a {@link ContainerNumberExtractor}.
+     */
+    public static final class Match {
+
+        private final long containerNumber;
+        private final long start;
+        private final long end;
+
+        private Match(long containerNumber, long start, long end) {
+
+            this.containerNumber = containerNumber;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Get the found container number.
+         *
+         * @return  the container number, never {@code null}
+         */
+        public ContainerNumber getContainerNumber() {
+
+            return ContainerNumber.fromLong(containerNumber);
+        }
+
+
+        /**
+         * Get the offset of the first character of the container number.
+         *
+         * @return  the start offset
+         */
+        public long getStart() {
+
+            return start;
+        }
+
+
+        /**
+         * Get the offset after the last character of the container number.
+         *
+         * @return  the end offset
+         */
+        public long getEnd() {
+
+            return end;
+        }
+
+
+        @Override
+        public String toString() {
+
+            return getContainerNumber() + " [" + start + ", " + end + ")";
+        }
+    }
+
+    /**
+     * Rolling window over the letters and digits of the text.
+     */
+    private static final class Window {
+
+        private static final int MODULUS = 11;
+        private static final int INVERSE_OF_TWO = 6;
+        private static final int HIGHEST_WEIGHT = 512 % MODULUS;
+        private static final int CAPACITY = 16;
+        private static final int MASK = CAPACITY - 1;
+
+        private final Listener listener;
+
+        private final int[] codes = new int[CAPACITY];
+        private final long[] offsets = new long[CAPACITY];
+        private final boolean[] adjacent = new boolean[CAPACITY];
+
+        private long offset;
+        private int count;
+        private int letterRun;
+        private int digitRun;
+        private int separatorRun;
+        private boolean lineBreak;
+        private boolean previousAlphanumeric;
+
+        /**
+         * Weighted sum modulo 11 of the last ten letters and digits, the newest one weighted with 2 to the power of 9.
+         */
+        private int checksum;
+
+        private long pending = ISO6346.NONE;
+        private long pendingStart;
+
+        Window(Listener listener) {
+
+            this.listener = listener;
+        }
+
+        void accept(char c) {
+
+            int code = ISO6346.code(c);
+
+            if (code == ISO6346.IGNORED) {
+                emitPending();
+                separatorRun++;
+                lineBreak |= c == '\n' || c == '\r';
+                previousAlphanumeric = false;
+                offset++;
+
+                return;
+            }
+
+            if (previousAlphanumeric) {
+                pending = ISO6346.NONE;
+            } else {
+                emitPending();
+            }
+
+            if (separatorRun > MAX_SEPARATORS || lineBreak) {
+                reset();
+            }
+
+            push(code);
+
+            separatorRun = 0;
+            lineBreak = false;
+            previousAlphanumeric = true;
+            offset++;
+        }
+
+
+        void finish() {
+
+            emitPending();
+        }
+
+
+        private void push(int code) {
+
+            int previousChecksum = checksum;
+            int slot = count & MASK;
+
+            int outgoing = count >= ISO6346.CHECK_DIGIT_POSITION
+                ? valueOf(codes[(count - ISO6346.CHECK_DIGIT_POSITION) & MASK]) : 0;
+            checksum = Math.floorMod((checksum - outgoing) * INVERSE_OF_TWO + valueOf(code) * HIGHEST_WEIGHT,
+                    MODULUS);
+
+            codes[slot] = code;
+            offsets[slot] = offset;
+            adjacent[slot] = previousAlphanumeric;
+            count++;
+
+            if (code >= ISO6346.LETTER_OFFSET) {
+                letterRun = digitRun > 0 ? 1 : letterRun + 1;
+                digitRun = 0;
+
+                return;
+            }
+
+            digitRun++;
+
+            if (digitRun == ISO6346.LENGTH - ISO6346.CATEGORY_POSITION - 1 && letterRun >= 4
+                    && code == previousChecksum % 10) {
+                check();
+            }
+        }
+
+
+        /**
+         * Checks the remaining rules for the eleven newest letters and digits, whose format and check digit are already
+         * known to be valid.
+         */
+        private void check() {
+
+            int first = count - ISO6346.LENGTH;
+
+            if (adjacent[first & MASK]) {
+                return;
+            }
+
+            if (!ISO6346.isValidEquipmentCategory(codes[(first + ISO6346.CATEGORY_POSITION) & MASK])) {
+                return;
+            }
+
+            long letters = 0;
+            int digits = 0;
+
+            for (int position = 0; position < ISO6346.LENGTH; position++) {
+                int code = codes[(first + position) & MASK];
+
+                if (position <= ISO6346.CATEGORY_POSITION) {
+                    letters = (letters << ISO6346.LETTER_BITS) | (code - ISO6346.LETTER_OFFSET);
+                } else {
+                    digits = digits * 10 + code;
+                }
+            }
+
+            pending = ISO6346.pack(letters, digits);
+            pendingStart = offsets[first & MASK];
+        }
+
+
+        private void emitPending() {
+
+            if (pending != ISO6346.NONE) {
+                listener.found(pending, pendingStart, offsets[(count - 1) & MASK] + 1);
+                pending = ISO6346.NONE;
+            }
+        }
+
+
+        private void reset() {
+
+            count = 0;
+            letterRun = 0;
+            digitRun = 0;
+            checksum = 0;
+        }
+
+
+        private static int valueOf(int code) {
+
+            return code < ISO6346.LETTER_OFFSET ? code : ISO6346.LETTER_VALUES[code - ISO6346.LETTER_OFFSET];
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package net.contargo.types.container;
+
+import net.contargo.types.Assert;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * Scans files with one container number per line, e.g. flat files or CSV exports, without creating a {@link String}
+ * per line.
+ *
+ * <p>The file is memory-mapped window by window and every line is parsed straight from the mapped ASCII bytes into
+ * its packed form (see {@link ContainerNumber#toLong()}). The {@link #spliterator() spliterator} splits the file at line
+ * boundaries, so a {@link #stream(boolean) parallel stream} scans separate parts of the file on separate threads.</p>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>
+ try (ContainerNumberFileScanner scanner = new ContainerNumberFileScanner(path, ';', 2)) {
+     long valid = scanner.stream(true).filter(ISO6346::isISO6346Valid).count();
+ }
+ * </pre>
+ *
+ * @since  0.19.0
+ */
+public final class ContainerNumberFileScanner implements Closeable {
+
+    static final long DEFAULT_WINDOW_SIZE = 1L << 30;
+    static final long DEFAULT_MIN_SPLIT_SIZE = 1L << 20;
+
+    private static final int NO_COLUMN = -1;
+    private static final int SPLIT_READ_SIZE = 256;
+
+    private final FileChannel channel;
+    private final byte delimiter;
+    private final int column;
+    private final long windowSize;
+    private final long minSplitSize;
+
+    /**
+     * Create a scanner for a file with nothing but a container number on each line.
+     *
+     * @param  path  of the file to be scanned, never {@code null}
+     *
+     * @throws  IOException  if the file cannot be opened
+     */
+    public ContainerNumberFileScanner(Path path) throws IOException {
+
+        this(path, (byte) 0, NO_COLUMN, DEFAULT_WINDOW_SIZE, DEFAULT_MIN_SPLIT_SIZE);
+    }
+
+
+    /**
+     * Create a scanner for a file of delimited lines with a container number in the given column.
+     *
+     * @param  path  of the file to be scanned, never {@code null}
+     * @param  delimiter  ASCII character separating the columns, e.g. {@code ';'}
+     * @param  column  zero-based index of the column containing the container number
+     *
+     * @throws  IOException  if the file cannot be opened
+     */
+    public ContainerNumberFileScanner(Path path, char delimiter, int column) throws IOException {
+
+        this(path, asciiByte(delimiter), requireColumn(column), DEFAULT_WINDOW_SIZE, DEFAULT_MIN_SPLIT_SIZE);
+    }
+
+
+    ContainerNumberFileScanner(Path path, byte delimiter, int column, long windowSize, long minSplitSize)
+        throws IOException {
+
+        Assert.notNull(path, "Path must not be null");
+
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.delimiter = delimiter;
+        this.column = column;
+        this.windowSize = windowSize;
+        this.minSplitSize = minSplitSize;
+    }
+
+    /**
+     * Get a spliterator over the packed container numbers of all lines, {@link ISO6346#NONE} for lines without a valid
+     * container number format.
+     *
+     * @return  a new spliterator, never {@code null}
+     *
+     * @throws  UncheckedIOException  if the file cannot be read
+     */
+    public Spliterator.OfLong spliterator() {
+
+        try {
+            return new LineSpliterator(0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * Get a stream of the packed container numbers of all lines, {@link ISO6346#NONE} for lines without a valid
+     * container number format.
+     *
+     * @param  parallel  {@code true} to scan the file in parallel
+     *
+     * @return  a new stream, never {@code null}
+     *
+     * @throws  UncheckedIOException  if the file cannot be read
+     */
+    public LongStream stream(boolean parallel) {
+
+        return StreamSupport.longStream(spliterator(), parallel);
+    }
+
+
+    @Override
+    public void close() throws IOException {
+
+        channel.close();
+    }
+
+
+    private static byte asciiByte(char delimiter) {
+
+        if (delimiter >= 128 || delimiter == '\n') {
+            throw new IllegalArgumentException("Delimiter must be an ASCII character other than line feed");
+        }
+
+        return (byte) delimiter;
+    }
+
+
+    private static int requireColumn(int column) {
+
+        if (column < 0) {
+            throw new IllegalArgumentException("Column must not be negative: " + column);
+        }
+
+        return column;
+    }
+
+    /**
+     * Spliterator over the lines between two line starts of the file.
+     */
+    private final class LineSpliterator implements Spliterator.OfLong {
+
+        private long position;
+        private final long end;
+
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long windowEnd;
+
+        private LineSpliterator(long position, long end) {
+
+            this.position = position;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+
+            if (position >= end) {
+                return false;
+            }
+
+            action.accept(nextLine());
+
+            return true;
+        }
+
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+
+            while (position < end) {
+                action.accept(nextLine());
+            }
+        }
+
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+
+            long remaining = end - position;
+
+            if (remaining < minSplitSize) {
+                return null;
+            }
+
+            long split = lineStartFrom(position + remaining / 2);
+
+            if (split <= position || split >= end) {
+                return null;
+            }
+
+            LineSpliterator prefix = new LineSpliterator(position, split);
+            position = split;
+
+            return prefix;
+        }
+
+
+        @Override
+        public long estimateSize() {
+
+            return (end - position) / (ISO6346.LENGTH + 1);
+        }
+
+
+        @Override
+        public int characteristics() {
+
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+
+
+        /**
+         * Parses the line at the current position into its packed form and moves on to the next line.
+         */
+        private long nextLine() {
+
+            int currentColumn = column == NO_COLUMN ? NO_COLUMN : 0;
+            int count = 0;
+            long letters = 0;
+            int digits = 0;
+            boolean valid = true;
+
+            while (position < end) {
+                byte b = byteAt(position++);
+
+                if (b == '\n') {
+                    break;
+                }
+
+                if (currentColumn != NO_COLUMN && b == delimiter) {
+                    currentColumn++;
+
+                    continue;
+                }
+
+                int code = ISO6346.code(b);
+
+                if (currentColumn != column || !valid || code == ISO6346.IGNORED) {
+                    continue;
+                }
+
+                if (count >= ISO6346.LENGTH || !ISO6346.isAllowedAt(code, count)) {
+                    valid = false;
+
+                    continue;
+                }
+
+                if (count <= ISO6346.CATEGORY_POSITION) {
+                    letters = (letters << ISO6346.LETTER_BITS) | (code - ISO6346.LETTER_OFFSET);
+                } else {
+                    digits = digits * 10 + code;
+                }
+
+                count++;
+            }
+
+            return valid && count == ISO6346.LENGTH ? ISO6346.pack(letters, digits) : ISO6346.NONE;
+        }
+
+
+        private byte byteAt(long offset) {
+
+            if (offset >= windowEnd || offset < windowStart || window == null) {
+                map(offset);
+            }
+
+            return window.get((int) (offset - windowStart));
+        }
+
+
+        private void map(long offset) {
+
+            try {
+                windowStart = offset;
+                windowEnd = Math.min(end, offset + windowSize);
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowEnd - windowStart);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+
+        /**
+         * Find the start of the first line beginning at or after the given offset.
+         */
+        private long lineStartFrom(long offset) {
+
+            ByteBuffer buffer = ByteBuffer.allocate(SPLIT_READ_SIZE);
+            long readPosition = offset - 1;
+
+            try {
+                while (readPosition < end) {
+                    buffer.clear();
+
+                    int read = channel.read(buffer, readPosition);
+
+                    if (read <= 0) {
+                        return end;
+                    }
+
+                    for (int i = 0; i < read; i++) {
+                        if (buffer.get(i) == '\n') {
+                            return readPosition + i + 1;
+                        }
+                    }
+
+                    readPosition += read;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return end;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package net.contargo.types.container;
+
+import net.contargo.types.Assert;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+
+/**
+ * Probabilistic set of packed container numbers (see {@link ContainerNumber#toLong()}), e.g. of all booked units, to
+ * pre-screen reads at the gate.
+ *
+ * <p>A filter never reports an added container number as absent, but may report a container number as present that
+ * has never been added, with a configurable false positive rate. Thus only the positive answers must be confirmed,
+ * e.g. by the booking database.</p>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>
+ ContainerNumberFilter booked = ContainerNumberFilter.readFrom(input);
+
+ if (!booked.mightContain(containerNumber)) {
+     // definitely not booked
+ }
+ * </pre>
+ *
+ * @since  0.19.0
+ * @see  ContainerNumberBloomFilter
+ * @see  ContainerNumberCuckooFilter
+ */
+public interface ContainerNumberFilter {
+
+    /**
+     * Add the given packed container number.
+     *
+     * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+     *
+     * @return  {@code true} if the filter changed, else {@code false}
+     *
+     * @throws  IllegalArgumentException  if the given value is no packed container number
+     */
+    boolean add(long containerNumber);
+
+
+    /**
+     * Add the given container number.
+     *
+     * @param  containerNumber  never {@code null}
+     *
+     * @return  {@code true} if the filter changed, else {@code false}
+     *
+     * @throws  IllegalArgumentException  if the given container number has no valid format
+     */
+    default boolean add(ContainerNumber containerNumber) {
+
+        Assert.notNull(containerNumber, "Container number must not be null");
+
+        return add(containerNumber.toLong());
+    }
+
+
+    /**
+     * Check if the given packed container number might have been added.
+     *
+     * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+     *
+     * @return  {@code false} if the container number has definitely not been added, else {@code true}
+     */
+    boolean mightContain(long containerNumber);
+
+
+    /**
+     * Check if the given container number might have been added.
+     *
+     * @param  containerNumber  may be {@code null}
+     *
+     * @return  {@code false} if the container number has definitely not been added, else {@code true}
+     */
+    default boolean mightContain(ContainerNumber containerNumber) {
+
+        return containerNumber != null && containerNumber.isValid() && mightContain(containerNumber.toLong());
+    }
+
+
+    /**
+     * Write this filter in its compact binary form to the given stream, which is not closed.
+     *
+     * @param  output  to be written to, never {@code null}
+     *
+     * @throws  IOException  if writing fails
+     */
+    void writeTo(OutputStream output) throws IOException;
+
+
+    /**
+     * Read a filter written by {@link #writeTo(OutputStream)} from the given stream, which is not closed.
+     *
+     * @param  input  to be read from, never {@code null}
+     *
+     * @return  the filter, never {@code null}
+     *
+     * @throws  IOException  if reading fails or the stream contains no filter
+     */
+    static ContainerNumberFilter readFrom(InputStream input) throws IOException {
+
+        Assert.notNull(input, "Input must not be null");
+
+        DataInputStream data = new DataInputStream(input);
+        int magic = data.readInt();
+
+        if (magic == ContainerNumberBloomFilter.MAGIC) {
+            return ContainerNumberBloomFilter.read(data);
+        }
+
+        if (magic == ContainerNumberCuckooFilter.MAGIC) {
+            return ContainerNumberCuckooFilter.read(data);
+        }
+
+        throw new IOException("Unknown container number filter: " + Integer.toHexString(magic));
+    }
+}
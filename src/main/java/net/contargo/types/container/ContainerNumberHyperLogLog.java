@@ -0,0 +1,287 @@
+package net.contargo.types.container;
+
+import net.contargo.types.Assert;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+
+/**
+ * HyperLogLog sketch estimating the number of distinct container numbers, e.g. of all units passing a terminal per
+ * day, in constant memory.
+ *
+ * <p>The packed form (see {@link ContainerNumber#toLong()}) of each container number is hashed, the first bits of the
+ * hash select a register, which keeps the maximum number of leading zeros of the remaining bits. With a precision of
+ * {@code p}, the sketch holds {@code 2^p} registers of one byte and the standard error of the estimate is about
+ * {@code 1.04 / sqrt(2^p)}, e.g. 0.8 percent for the default precision of {@value #DEFAULT_PRECISION}.</p>
+ *
+ * <p>Sketches of the same precision can be merged, e.g. the hourly sketches of several gates, and written to and read
+ * from a compact binary form.</p>
+ *
+ * <p>This class is thread-safe, container numbers can be added concurrently.</p>
+ *
+ * @since  0.19.0
+ */
+public final class ContainerNumberHyperLogLog {
+
+    /**
+     * Default precision, i.e. number of hash bits selecting the register.
+     */
+    public static final int DEFAULT_PRECISION = 14;
+
+    static final int MAGIC = 0x434E484C; // CNHL
+
+    private static final byte VERSION = 1;
+    private static final int MIN_PRECISION = 4;
+    private static final int MAX_PRECISION = 18;
+    private static final int REGISTERS_PER_INT = 4;
+    private static final int REGISTER_BITS = Byte.SIZE;
+    private static final int REGISTER_MASK = 0xFF;
+
+    private final int precision;
+    private final int registerCount;
+
+    /**
+     * The registers, four packed into each int, so they can be updated atomically without locking.
+     */
+    private final AtomicIntegerArray registers;
+
+    /**
+     * Create an empty sketch with the {@link #DEFAULT_PRECISION}.
+     */
+    public ContainerNumberHyperLogLog() {
+
+        this(DEFAULT_PRECISION);
+    }
+
+
+    /**
+     * Create an empty sketch with the given precision.
+     *
+     * @param  precision  number of hash bits selecting the register, from 4 to 18
+     *
+     * @throws  IllegalArgumentException  if the precision is out of range
+     */
+    public ContainerNumberHyperLogLog(int precision) {
+
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION
+                + ": " + precision);
+        }
+
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+        this.registers = new AtomicIntegerArray(registerCount / REGISTERS_PER_INT);
+    }
+
+    /**
+     * Add the given packed container number.
+     *
+     * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+     *
+     * @throws  IllegalArgumentException  if the given value is no packed container number
+     */
+    public void add(long containerNumber) {
+
+        ContainerNumberSet.requirePacked(containerNumber);
+
+        long hash = ContainerNumber.hash64(containerNumber);
+        int register = (int) (hash >>> (Long.SIZE - precision));
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+
+        raise(register, rank);
+    }
+
+
+    /**
+     * Add the given container number.
+     *
+     * @param  containerNumber  never {@code null}
+     *
+     * @throws  IllegalArgumentException  if the given container number has no valid format
+     */
+    public void add(ContainerNumber containerNumber) {
+
+        Assert.notNull(containerNumber, "Container number must not be null");
+
+        add(containerNumber.toLong());
+    }
+
+
+    /**
+     * Estimate the number of distinct added container numbers.
+     *
+     * @return  the estimated number of distinct container numbers
+     */
+    public long estimate() {
+
+        double sum = 0;
+        int zeros = 0;
+
+        for (int register = 0; register < registerCount; register++) {
+            int rank = get(register);
+            sum += Math.scalb(1.0, -rank);
+
+            if (rank == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = alpha() * registerCount * registerCount / sum;
+
+        // linear counting is more accurate for small cardinalities
+        if (estimate <= 2.5 * registerCount && zeros > 0) {
+            estimate = registerCount * Math.log(registerCount / (double) zeros);
+        }
+
+        return Math.round(estimate);
+    }
+
+
+    /**
+     * Add all container numbers of the given sketch, which must have the same precision.
+     *
+     * @param  other  sketch to be merged, never {@code null}
+     *
+     * @throws  IllegalArgumentException  if the sketches have different precisions
+     */
+    public void merge(ContainerNumberHyperLogLog other) {
+
+        Assert.notNull(other, "Sketch must not be null");
+
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Sketches must have the same precision: " + precision + " and "
+                + other.precision);
+        }
+
+        for (int register = 0; register < registerCount; register++) {
+            raise(register, other.get(register));
+        }
+    }
+
+
+    /**
+     * Get the precision of this sketch.
+     *
+     * @return  the number of hash bits selecting the register
+     */
+    public int precision() {
+
+        return precision;
+    }
+
+
+    /**
+     * Write this sketch in its compact binary form to the given stream, which is not closed.
+     *
+     * @param  output  to be written to, never {@code null}
+     *
+     * @throws  IOException  if writing fails
+     */
+    public void writeTo(OutputStream output) throws IOException {
+
+        Assert.notNull(output, "Output must not be null");
+
+        DataOutputStream data = new DataOutputStream(output);
+
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeByte(precision);
+
+        for (int register = 0; register < registerCount; register++) {
+            data.writeByte(get(register));
+        }
+
+        data.flush();
+    }
+
+
+    /**
+     * Read a sketch written by {@link #writeTo(OutputStream)} from the given stream, which is not closed.
+     *
+     * @param  input  to be read from, never {@code null}
+     *
+     * @return  the sketch, never {@code null}
+     *
+     * @throws  IOException  if reading fails or the stream contains no sketch
+     */
+    public static ContainerNumberHyperLogLog readFrom(InputStream input) throws IOException {
+
+        Assert.notNull(input, "Input must not be null");
+
+        DataInputStream data = new DataInputStream(input);
+
+        if (data.readInt() != MAGIC || data.readByte() != VERSION) {
+            throw new IOException("Stream contains no supported HyperLogLog sketch");
+        }
+
+        int precision = data.readByte();
+
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IOException("Invalid precision of HyperLogLog sketch: " + precision);
+        }
+
+        ContainerNumberHyperLogLog sketch = new ContainerNumberHyperLogLog(precision);
+
+        for (int register = 0; register < sketch.registerCount; register++) {
+            sketch.raise(register, data.readUnsignedByte());
+        }
+
+        return sketch;
+    }
+
+
+    private int get(int register) {
+
+        int shift = (register % REGISTERS_PER_INT) * REGISTER_BITS;
+
+        return (registers.get(register / REGISTERS_PER_INT) >>> shift) & REGISTER_MASK;
+    }
+
+
+    /**
+     * Atomically sets the given register to the given rank if that is higher than its current one.
+     */
+    private void raise(int register, int rank) {
+
+        int index = register / REGISTERS_PER_INT;
+        int shift = (register % REGISTERS_PER_INT) * REGISTER_BITS;
+
+        while (true) {
+            int current = registers.get(index);
+
+            if (((current >>> shift) & REGISTER_MASK) >= rank) {
+                return;
+            }
+
+            int updated = (current & ~(REGISTER_MASK << shift)) | (rank << shift);
+
+            if (registers.compareAndSet(index, current, updated)) {
+                return;
+            }
+        }
+    }
+
+
+    private double alpha() {
+
+        switch (registerCount) {
+            case 16:
+                return 0.673;
+
+            case 32:
+                return 0.697;
+
+            case 64:
+                return 0.709;
+
+            default:
+                return 0.7213 / (1 + 1.079 / registerCount);
+        }
+    }
+}
@@ -0,0 +1,547 @@
+package net.contargo.types.container;
+
+import net.contargo.types.Assert;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+
+/**
+ * Immutable sorted index of packed container numbers (see {@link ContainerNumber#toLong()}), e.g. of the inventory of
+ * a terminal.
+ *
+ * <p>Since packed container numbers are ordered like their normalized form, all container numbers of an owner code,
+ * of an owner code and equipment category or starting with any other prefix form a contiguous range of the sorted
+ * array, which is found by binary search. The index is bulk-loaded with a radix sort on the packed form, changes of
+ * the inventory are applied by merging the sorted arrays into a new index.</p>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>
+ ContainerNumberIndex index = ContainerNumberIndex.of(inventory);
+ long[] suggestions = index.autocomplete("HLXU 12", 10);
+ * </pre>
+ *
+ * <p>Instances are immutable and can be shared between threads.</p>
+ *
+ * @since  0.19.0
+ */
+public final class ContainerNumberIndex {
+
+    private static final ContainerNumberIndex EMPTY = new ContainerNumberIndex(new long[0]);
+
+    private static final int RADIX_BITS = 11;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int RADIX_MASK = RADIX - 1;
+    private static final int RADIX_SORT_THRESHOLD = 256;
+    private static final int OWNER_CODE_LENGTH = 3;
+
+    private final long[] sorted;
+
+    private ContainerNumberIndex(long[] sorted) {
+
+        this.sorted = sorted;
+    }
+
+    /**
+     * Create an index of the given packed container numbers, duplicates are ignored.
+     *
+     * @param  containerNumbers  packed container numbers, never {@code null}
+     *
+     * @return  the index, never {@code null}
+     *
+     * @throws  IllegalArgumentException  if any of the given values is no packed container number
+     */
+    public static ContainerNumberIndex of(long... containerNumbers) {
+
+        Assert.notNull(containerNumbers, "Container numbers must not be null");
+
+        return new ContainerNumberIndex(sortedDistinct(containerNumbers));
+    }
+
+
+    /**
+     * Create an index of the container numbers of the given set.
+     *
+     * @param  containerNumbers  to be indexed, never {@code null}
+     *
+     * @return  the index, never {@code null}
+     */
+    public static ContainerNumberIndex of(ContainerNumberSet containerNumbers) {
+
+        Assert.notNull(containerNumbers, "Container numbers must not be null");
+
+        long[] values = containerNumbers.toArray();
+        sort(values);
+
+        return new ContainerNumberIndex(values);
+    }
+
+
+    /**
+     * Get an empty index.
+     *
+     * @return  the empty index, never {@code null}
+     */
+    public static ContainerNumberIndex empty() {
+
+        return EMPTY;
+    }
+
+
+    /**
+     * Get the number of indexed container numbers.
+     *
+     * @return  the size of the index
+     */
+    public int size() {
+
+        return sorted.length;
+    }
+
+
+    /**
+     * Check if the index is empty.
+     *
+     * @return  {@code true} if the index contains no container number, else {@code false}
+     */
+    public boolean isEmpty() {
+
+        return sorted.length == 0;
+    }
+
+
+    /**
+     * Get the packed container number at the given position of the sort order.
+     *
+     * @param  index  of the container number, from 0 to {@link #size()} exclusive
+     *
+     * @return  the packed container number
+     *
+     * @throws  IndexOutOfBoundsException  if the index is out of range
+     */
+    public long get(int index) {
+
+        return sorted[index];
+    }
+
+
+    /**
+     * Check if the given packed container number is indexed.
+     *
+     * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+     *
+     * @return  {@code true} if the container number is indexed, else {@code false}
+     */
+    public boolean contains(long containerNumber) {
+
+        return Arrays.binarySearch(sorted, containerNumber) >= 0;
+    }
+
+
+    /**
+     * Check if the given container number is indexed.
+     *
+     * @param  containerNumber  may be {@code null}
+     *
+     * @return  {@code true} if the container number is indexed, else {@code false}
+     */
+    public boolean contains(ContainerNumber containerNumber) {
+
+        return containerNumber != null && containerNumber.isValid() && contains(containerNumber.toLong());
+    }
+
+
+    /**
+     * Find all container numbers of the given owner code.
+     *
+     * @param  ownerCode  three letters, e.g. {@code HLX}, never {@code null}
+     *
+     * @return  the sorted packed container numbers, never {@code null}
+     *
+     * @throws  IllegalArgumentException  if the owner code does not consist of three letters
+     */
+    public long[] findByOwnerCode(CharSequence ownerCode) {
+
+        return find(requireOwnerCode(ownerCode), Integer.MAX_VALUE);
+    }
+
+
+    /**
+     * Count the container numbers of the given owner code.
+     *
+     * @param  ownerCode  three letters, e.g. {@code HLX}, never {@code null}
+     *
+     * @return  the number of container numbers of the owner code
+     *
+     * @throws  IllegalArgumentException  if the owner code does not consist of three letters
+     */
+    public int countByOwnerCode(CharSequence ownerCode) {
+
+        return count(requireOwnerCode(ownerCode));
+    }
+
+
+    /**
+     * Find all container numbers of the given owner code and equipment category.
+     *
+     * @param  ownerCode  three letters, e.g. {@code HLX}, never {@code null}
+     * @param  category  equipment category letter, e.g. {@code U}
+     *
+     * @return  the sorted packed container numbers, never {@code null}
+     *
+     * @throws  IllegalArgumentException  if the owner code does not consist of three letters or the category is no
+     *                                    letter
+     */
+    public long[] findByOwnerCodeAndCategory(CharSequence ownerCode, char category) {
+
+        String prefix = requireOwnerCode(ownerCode);
+
+        if (ISO6346.code(category) < ISO6346.LETTER_OFFSET) {
+            throw new IllegalArgumentException("Category must be a letter: " + category);
+        }
+
+        return find(prefix + category, Integer.MAX_VALUE);
+    }
+
+
+    /**
+     * Find the container numbers starting with the given prefix, e.g. for suggestions while typing. Like for
+     * {@link ContainerNumber}, characters other than letters and digits are ignored.
+     *
+     * @param  prefix  typed so far, may be {@code null}
+     * @param  limit  maximum number of returned container numbers
+     *
+     * @return  the first matching packed container numbers in sort order, empty if the prefix cannot start a container
+     *          number, never {@code null}
+     *
+     * @throws  IllegalArgumentException  if the limit is negative
+     */
+    public long[] autocomplete(CharSequence prefix, int limit) {
+
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + limit);
+        }
+
+        return prefix == null ? new long[0] : find(prefix, limit);
+    }
+
+
+    /**
+     * Count the container numbers starting with the given prefix, see {@link #autocomplete(CharSequence, int)}.
+     *
+     * @param  prefix  typed so far, may be {@code null}
+     *
+     * @return  the number of matching container numbers
+     */
+    public int countByPrefix(CharSequence prefix) {
+
+        return prefix == null ? 0 : count(prefix);
+    }
+
+
+    /**
+     * Create a new index with the container numbers of this and the given index.
+     *
+     * @param  other  index to be merged, never {@code null}
+     *
+     * @return  the merged index, never {@code null}
+     */
+    public ContainerNumberIndex merge(ContainerNumberIndex other) {
+
+        Assert.notNull(other, "Index must not be null");
+
+        return rebuild(other.sorted, new long[0]);
+    }
+
+
+    /**
+     * Create a new index with the given container numbers added and removed. Only the changes are sorted, the indexed
+     * container numbers are merged with them in a single pass.
+     *
+     * @param  added  packed container numbers to be added, never {@code null}
+     * @param  removed  packed container numbers to be removed, never {@code null}, a container number both added and
+     *                  removed is removed
+     *
+     * @return  the new index, never {@code null}
+     *
+     * @throws  IllegalArgumentException  if any added value is no packed container number
+     */
+    public ContainerNumberIndex with(long[] added, long[] removed) {
+
+        Assert.notNull(added, "Added container numbers must not be null");
+        Assert.notNull(removed, "Removed container numbers must not be null");
+
+        long[] sortedRemoved = removed.clone();
+        Arrays.sort(sortedRemoved);
+
+        return rebuild(sortedDistinct(added), sortedRemoved);
+    }
+
+
+    /**
+     * Perform the given action for each indexed container number in sort order.
+     *
+     * @param  action  to be performed, never {@code null}
+     */
+    public void forEach(LongConsumer action) {
+
+        Assert.notNull(action, "Action must not be null");
+
+        for (long containerNumber : sorted) {
+            action.accept(containerNumber);
+        }
+    }
+
+
+    /**
+     * Get all indexed container numbers.
+     *
+     * @return  a new array with the sorted packed container numbers, never {@code null}
+     */
+    public long[] toArray() {
+
+        return sorted.clone();
+    }
+
+
+    @Override
+    public boolean equals(Object obj) {
+
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        return Arrays.equals(sorted, ((ContainerNumberIndex) obj).sorted);
+    }
+
+
+    @Override
+    public int hashCode() {
+
+        return Arrays.hashCode(sorted);
+    }
+
+
+    /**
+     * Sort the given packed container numbers in place, using a least significant digit radix sort for larger arrays.
+     */
+    static void sort(long[] values) {
+
+        if (values.length < RADIX_SORT_THRESHOLD) {
+            Arrays.sort(values);
+
+            return;
+        }
+
+        long[] source = values;
+        long[] target = new long[values.length];
+        int[] offsets = new int[RADIX + 1];
+
+        for (int shift = 0; shift < ISO6346.PACKED_BITS; shift += RADIX_BITS) {
+            Arrays.fill(offsets, 0);
+
+            for (long value : source) {
+                offsets[(int) ((value >>> shift) & RADIX_MASK) + 1]++;
+            }
+
+            // all values share this digit, nothing to do in this pass
+            if (offsets[(int) ((source[0] >>> shift) & RADIX_MASK) + 1] == source.length) {
+                continue;
+            }
+
+            for (int digit = 0; digit < RADIX; digit++) {
+                offsets[digit + 1] += offsets[digit];
+            }
+
+            for (long value : source) {
+                target[offsets[(int) ((value >>> shift) & RADIX_MASK)]++] = value;
+            }
+
+            long[] swap = source;
+            source = target;
+            target = swap;
+        }
+
+        if (source != values) {
+            System.arraycopy(source, 0, values, 0, values.length);
+        }
+    }
+
+
+    private static long[] sortedDistinct(long[] containerNumbers) {
+
+        for (long containerNumber : containerNumbers) {
+            ContainerNumberSet.requirePacked(containerNumber);
+        }
+
+        long[] values = containerNumbers.clone();
+        sort(values);
+
+        int size = 0;
+
+        for (int i = 0; i < values.length; i++) {
+            if (size == 0 || values[size - 1] != values[i]) {
+                values[size++] = values[i];
+            }
+        }
+
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+
+    /**
+     * Merges the indexed container numbers with the given sorted distinct added ones, leaving out the given sorted
+     * removed ones.
+     */
+    private ContainerNumberIndex rebuild(long[] added, long[] removed) {
+
+        long[] merged = new long[sorted.length + added.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        int r = 0;
+
+        while (i < sorted.length || j < added.length) {
+            long next;
+
+            if (j == added.length || (i < sorted.length && sorted[i] < added[j])) {
+                next = sorted[i++];
+            } else if (i == sorted.length || added[j] < sorted[i]) {
+                next = added[j++];
+            } else {
+                next = sorted[i++];
+                j++;
+            }
+
+            while (r < removed.length && removed[r] < next) {
+                r++;
+            }
+
+            if (r == removed.length || removed[r] != next) {
+                merged[size++] = next;
+            }
+        }
+
+        if (size == 0) {
+            return EMPTY;
+        }
+
+        return new ContainerNumberIndex(size == merged.length ? merged : Arrays.copyOf(merged, size));
+    }
+
+
+    private long[] find(CharSequence prefix, int limit) {
+
+        int from = lowerBound(prefix);
+
+        if (from < 0) {
+            return new long[0];
+        }
+
+        int to = upperBound(prefix);
+
+        return Arrays.copyOfRange(sorted, from, from + Math.min(to - from, limit));
+    }
+
+
+    private int count(CharSequence prefix) {
+
+        int from = lowerBound(prefix);
+
+        return from < 0 ? 0 : upperBound(prefix) - from;
+    }
+
+
+    /**
+     * Get the position of the first container number starting with the given prefix or following it, -1 if the
+     * prefix cannot start a container number.
+     */
+    private int lowerBound(CharSequence prefix) {
+
+        long bound = bound(prefix, 'A', '0');
+
+        return bound == ISO6346.NONE ? -1 : insertionPoint(bound);
+    }
+
+
+    /**
+     * Get the position after the last container number starting with the given prefix.
+     */
+    private int upperBound(CharSequence prefix) {
+
+        return insertionPoint(bound(prefix, 'Z', '9') + 1);
+    }
+
+
+    private int insertionPoint(long value) {
+
+        int position = Arrays.binarySearch(sorted, value);
+
+        return position >= 0 ? position : -position - 1;
+    }
+
+
+    /**
+     * Get the packed container number made of the given prefix and the given padding letter and digit, none if the
+     * prefix cannot start a container number.
+     */
+    private static long bound(CharSequence prefix, char letter, char digit) {
+
+        long letters = 0;
+        int digits = 0;
+        int position = 0;
+
+        for (int i = 0; i < prefix.length(); i++) {
+            int code = ISO6346.code(prefix.charAt(i));
+
+            if (code == ISO6346.IGNORED) {
+                continue;
+            }
+
+            if (position == ISO6346.LENGTH || !ISO6346.isAllowedAt(code, position)) {
+                return ISO6346.NONE;
+            }
+
+            if (position <= ISO6346.CATEGORY_POSITION) {
+                letters = (letters << ISO6346.LETTER_BITS) | (code - ISO6346.LETTER_OFFSET);
+            } else {
+                digits = digits * 10 + code;
+            }
+
+            position++;
+        }
+
+        for (; position < ISO6346.LENGTH; position++) {
+            if (position <= ISO6346.CATEGORY_POSITION) {
+                letters = (letters << ISO6346.LETTER_BITS) | (letter - 'A');
+            } else {
+                digits = digits * 10 + (digit - '0');
+            }
+        }
+
+        return ISO6346.pack(letters, digits);
+    }
+
+
+    private static String requireOwnerCode(CharSequence ownerCode) {
+
+        Assert.notNull(ownerCode, "Owner code must not be null");
+
+        boolean letters = ownerCode.length() == OWNER_CODE_LENGTH;
+
+        for (int i = 0; letters && i < OWNER_CODE_LENGTH; i++) {
+            letters = ISO6346.code(ownerCode.charAt(i)) >= ISO6346.LETTER_OFFSET;
+        }
+
+        if (!letters) {
+            throw new IllegalArgumentException("Owner code must consist of three letters: " + ownerCode);
+        }
+
+        return ownerCode.toString();
+    }
+}
@@ -0,0 +1,455 @@
+package net.contargo.types.container;
+
+import net.contargo.types.Assert;
+
+import java.util.Arrays;
+
+
+/**
+ * Map with packed container numbers (see {@link ContainerNumber#toLong()}) as keys.
+ *
+ * <p>Keys and values are kept in two parallel arrays using open addressing with linear probing, so neither putting nor
+ * looking up nor iterating boxes the keys or allocates. Removing an entry shifts the following entries of its probe
+ * sequence back, thus no tombstones are left behind. {@code null} values are not supported.</p>
+ *
+ * <p>This class is not thread-safe.</p>
+ *
+ * @param  <V>  type of the mapped values
+ *
+ * @since  0.19.0
+ */
+public final class ContainerNumberMap<V> {
+
+    private static final long EMPTY = ISO6346.NONE;
+    private static final long REFERENCE_BYTES = 4;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int resizeThreshold;
+
+    /**
+     * Create an empty {@link ContainerNumberMap}.
+     */
+    public ContainerNumberMap() {
+
+        this(ContainerNumberSet.MIN_CAPACITY);
+    }
+
+
+    /**
+     * Create an empty {@link ContainerNumberMap} able to hold the given number of entries without resizing.
+     *
+     * @param  expectedSize  number of entries expected to be put
+     */
+    public ContainerNumberMap(int expectedSize) {
+
+        allocate(ContainerNumberSet.capacityFor(expectedSize));
+    }
+
+    /**
+     * Associate the given value with the given packed container number.
+     *
+     * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+     * @param  value  to be associated, never {@code null}
+     *
+     * @return  the previously associated value, {@code null} if there was none
+     *
+     * @throws  IllegalArgumentException  if the given key is no packed container number or the value is {@code null}
+     */
+    public V put(long containerNumber, V value) {
+
+        ContainerNumberSet.requirePacked(containerNumber);
+        Assert.notNull(value, "Value must not be null");
+
+        int mask = keys.length - 1;
+        int slot = ContainerNumber.hash(containerNumber) & mask;
+
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == containerNumber) {
+                V previous = valueAt(slot);
+                values[slot] = value;
+
+                return previous;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = containerNumber;
+        values[slot] = value;
+
+        if (++size > resizeThreshold) {
+            resize(ContainerNumberSet.capacityFor(size));
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Associate the given value with the given container number.
+     *
+     * @param  containerNumber  must be {@link ContainerNumber#isValid() valid}
+     * @param  value  to be associated, never {@code null}
+     *
+     * @return  the previously associated value, {@code null} if there was none
+     *
+     * @throws  IllegalArgumentException  if the given container number is {@code null} or not valid or the value is
+     *                                    {@code null}
+     */
+    public V put(ContainerNumber containerNumber, V value) {
+
+        Assert.notNull(containerNumber, "Container number must not be null");
+
+        return put(containerNumber.toLong(), value);
+    }
+
+
+    /**
+     * Put all entries of the given map.
+     *
+     * @param  other  map of entries to be put, never {@code null}
+     */
+    public void putAll(ContainerNumberMap<? extends V> other) {
+
+        ensureCapacity(size + other.size);
+
+        for (int slot = 0; slot < other.keys.length; slot++) {
+            if (other.keys[slot] != EMPTY) {
+                put(other.keys[slot], other.valueAt(slot));
+            }
+        }
+    }
+
+
+    /**
+     * Get the value associated with the given packed container number.
+     *
+     * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+     *
+     * @return  the associated value, {@code null} if there is none
+     */
+    public V get(long containerNumber) {
+
+        if (containerNumber == EMPTY) {
+            return null;
+        }
+
+        int slot = slotOf(containerNumber);
+
+        return slot < 0 ? null : valueAt(slot);
+    }
+
+
+    /**
+     * Get the value associated with the given container number.
+     *
+     * @param  containerNumber  may be {@code null}
+     *
+     * @return  the associated value, {@code null} if there is none
+     */
+    public V get(ContainerNumber containerNumber) {
+
+        return containerNumber == null ? null : get(containerNumber.toLong());
+    }
+
+
+    /**
+     * Get the value associated with the given packed container number or the given default value.
+     *
+     * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+     * @param  defaultValue  to be returned if no value is associated
+     *
+     * @return  the associated value or the default value
+     */
+    public V getOrDefault(long containerNumber, V defaultValue) {
+
+        V value = get(containerNumber);
+
+        return value == null ? defaultValue : value;
+    }
+
+
+    /**
+     * Check if a value is associated with the given packed container number.
+     *
+     * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+     *
+     * @return  {@code true} if the map contains the container number, else {@code false}
+     */
+    public boolean containsKey(long containerNumber) {
+
+        return containerNumber != EMPTY && slotOf(containerNumber) >= 0;
+    }
+
+
+    /**
+     * Remove the entry of the given packed container number.
+     *
+     * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+     *
+     * @return  the removed value, {@code null} if there was none
+     */
+    public V remove(long containerNumber) {
+
+        if (containerNumber == EMPTY) {
+            return null;
+        }
+
+        int slot = slotOf(containerNumber);
+
+        if (slot < 0) {
+            return null;
+        }
+
+        V previous = valueAt(slot);
+        removeSlot(slot);
+
+        return previous;
+    }
+
+
+    /**
+     * Remove the entry of the given container number.
+     *
+     * @param  containerNumber  may be {@code null}
+     *
+     * @return  the removed value, {@code null} if there was none
+     */
+    public V remove(ContainerNumber containerNumber) {
+
+        return containerNumber == null ? null : remove(containerNumber.toLong());
+    }
+
+
+    /**
+     * Remove the entries of all the given packed container numbers.
+     *
+     * @param  containerNumbers  packed container numbers, see {@link ContainerNumber#toLong()}
+     *
+     * @return  number of removed entries
+     */
+    public int removeAll(long... containerNumbers) {
+
+        int removed = 0;
+
+        for (long containerNumber : containerNumbers) {
+            if (remove(containerNumber) != null) {
+                removed++;
+            }
+        }
+
+        return removed;
+    }
+
+
+    /**
+     * Get the number of entries.
+     *
+     * @return  the size of this map
+     */
+    public int size() {
+
+        return size;
+    }
+
+
+    /**
+     * Check if there are no entries.
+     *
+     * @return  {@code true} if the map is empty, else {@code false}
+     */
+    public boolean isEmpty() {
+
+        return size == 0;
+    }
+
+
+    /**
+     * Remove all entries, keeping the current capacity.
+     */
+    public void clear() {
+
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+
+    /**
+     * Perform the given action for each entry, in no particular order.
+     *
+     * @param  action  to be performed, never {@code null}
+     */
+    public void forEach(EntryConsumer<? super V> action) {
+
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                action.accept(keys[slot], valueAt(slot));
+            }
+        }
+    }
+
+
+    /**
+     * Get the packed container numbers of all entries.
+     *
+     * @return  a new set of the packed container numbers, never {@code null}
+     */
+    public ContainerNumberSet keySet() {
+
+        ContainerNumberSet keySet = new ContainerNumberSet(size);
+
+        for (long containerNumber : keys) {
+            if (containerNumber != EMPTY) {
+                keySet.add(containerNumber);
+            }
+        }
+
+        return keySet;
+    }
+
+
+    /**
+     * Get the number of bytes currently occupied by this map on the heap, not including the values themselves.
+     *
+     * <p>References are assumed to take four bytes, i.e. compressed object pointers are enabled (the default for heaps
+     * below 32 GB).</p>
+     *
+     * @return  the memory footprint in bytes
+     */
+    public long memoryFootprint() {
+
+        return footprintOf(keys.length);
+    }
+
+
+    /**
+     * Estimate the number of bytes a map holding the given number of entries occupies on the heap, not including the
+     * values themselves.
+     *
+     * @param  expectedSize  number of entries
+     *
+     * @return  the estimated memory footprint in bytes
+     *
+     * @see  #memoryFootprint()
+     */
+    public static long estimateMemoryFootprint(int expectedSize) {
+
+        return footprintOf(ContainerNumberSet.capacityFor(expectedSize));
+    }
+
+
+    private static long footprintOf(int capacity) {
+
+        return ContainerNumberSet.OBJECT_BYTES + 2 * ContainerNumberSet.ARRAY_HEADER_BYTES
+            + capacity * (Long.BYTES + REFERENCE_BYTES);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+
+        return (V) values[slot];
+    }
+
+
+    private void ensureCapacity(int expectedSize) {
+
+        if (expectedSize > resizeThreshold) {
+            resize(ContainerNumberSet.capacityFor(expectedSize));
+        }
+    }
+
+
+    private int slotOf(long containerNumber) {
+
+        int mask = keys.length - 1;
+        int slot = ContainerNumber.hash(containerNumber) & mask;
+
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == containerNumber) {
+                return slot;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+
+    private void removeSlot(int slot) {
+
+        int mask = keys.length - 1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+
+        while (keys[next] != EMPTY) {
+            int home = ContainerNumber.hash(keys[next]) & mask;
+
+            // move the entry into the gap if its home slot is not located cyclically in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        keys[gap] = EMPTY;
+        values[gap] = null;
+        size--;
+    }
+
+
+    private void allocate(int capacity) {
+
+        keys = new long[capacity];
+        values = new Object[capacity];
+        Arrays.fill(keys, EMPTY);
+        resizeThreshold = (int) (capacity * ContainerNumberSet.LOAD_FACTOR);
+    }
+
+
+    private void resize(int capacity) {
+
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+
+        int mask = capacity - 1;
+
+        for (int oldSlot = 0; oldSlot < oldKeys.length; oldSlot++) {
+            if (oldKeys[oldSlot] != EMPTY) {
+                int slot = ContainerNumber.hash(oldKeys[oldSlot]) & mask;
+
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+
+                keys[slot] = oldKeys[oldSlot];
+                values[slot] = oldValues[oldSlot];
+            }
+        }
+    }
+
+    /**
+     * Action to be performed for an entry of a {@link ContainerNumberMap}.
+     *
+     * @param  <V>  type of the mapped values
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+
+        /**
+         * Perform this action for the given entry.
+         *
+         * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+         * @param  value  the associated value, never {@code null}
+         */
+        void accept(long containerNumber, V value);
+    }
+}
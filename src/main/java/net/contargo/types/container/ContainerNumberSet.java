@@ -0,0 +1,465 @@
+package net.contargo.types.container;
+
+import net.contargo.types.Assert;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+
+/**
+ * Set of packed container numbers (see {@link ContainerNumber#toLong()}).
+ *
+ * <p>The packed values are kept in a single {@code long} array using open addressing with linear probing, so neither
+ * adding nor looking up nor iterating boxes or allocates. Removing an element shifts the following elements of its
+ * probe sequence back, thus no tombstones are left behind.</p>
+ *
+ * <p>This class is not thread-safe.</p>
+ *
+ * @since  0.19.0
+ */
+public final class ContainerNumberSet {
+
+    static final int MIN_CAPACITY = 8;
+    static final int MAX_CAPACITY = 1 << 30;
+    static final float LOAD_FACTOR = 0.75f;
+    static final long ARRAY_HEADER_BYTES = 16;
+    static final long OBJECT_BYTES = 32;
+
+    private static final long EMPTY = ISO6346.NONE;
+
+    private long[] keys;
+    private int size;
+    private int resizeThreshold;
+
+    /**
+     * Create an empty {@link ContainerNumberSet}.
+     */
+    public ContainerNumberSet() {
+
+        this(MIN_CAPACITY);
+    }
+
+
+    /**
+     * Create an empty {@link ContainerNumberSet} able to hold the given number of elements without resizing.
+     *
+     * @param  expectedSize  number of elements expected to be added
+     */
+    public ContainerNumberSet(int expectedSize) {
+
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Add the given packed container number.
+     *
+     * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+     *
+     * @return  {@code true} if the set did not already contain the container number, else {@code false}
+     *
+     * @throws  IllegalArgumentException  if the given value is no packed container number
+     */
+    public boolean add(long containerNumber) {
+
+        requirePacked(containerNumber);
+
+        int mask = keys.length - 1;
+        int slot = ContainerNumber.hash(containerNumber) & mask;
+
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == containerNumber) {
+                return false;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = containerNumber;
+
+        if (++size > resizeThreshold) {
+            resize(capacityFor(size));
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Add the given container number.
+     *
+     * @param  containerNumber  to be added, must be {@link ContainerNumber#isValid() valid}
+     *
+     * @return  {@code true} if the set did not already contain the container number, else {@code false}
+     *
+     * @throws  IllegalArgumentException  if the given container number is {@code null} or not valid
+     */
+    public boolean add(ContainerNumber containerNumber) {
+
+        Assert.notNull(containerNumber, "Container number must not be null");
+
+        return add(containerNumber.toLong());
+    }
+
+
+    /**
+     * Add all the given packed container numbers.
+     *
+     * @param  containerNumbers  packed container numbers, see {@link ContainerNumber#toLong()}
+     *
+     * @return  number of container numbers that were not contained before
+     *
+     * @throws  IllegalArgumentException  if any of the given values is no packed container number
+     */
+    public int addAll(long... containerNumbers) {
+
+        ensureCapacity(size + containerNumbers.length);
+
+        int added = 0;
+
+        for (long containerNumber : containerNumbers) {
+            if (add(containerNumber)) {
+                added++;
+            }
+        }
+
+        return added;
+    }
+
+
+    /**
+     * Add all container numbers of the given set.
+     *
+     * @param  other  set of container numbers to be added, never {@code null}
+     *
+     * @return  number of container numbers that were not contained before
+     */
+    public int addAll(ContainerNumberSet other) {
+
+        ensureCapacity(size + other.size);
+
+        int added = 0;
+
+        for (long containerNumber : other.keys) {
+            if (containerNumber != EMPTY && add(containerNumber)) {
+                added++;
+            }
+        }
+
+        return added;
+    }
+
+
+    /**
+     * Check if the given packed container number is contained.
+     *
+     * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+     *
+     * @return  {@code true} if the set contains the container number, else {@code false}
+     */
+    public boolean contains(long containerNumber) {
+
+        return containerNumber != EMPTY && slotOf(containerNumber) >= 0;
+    }
+
+
+    /**
+     * Check if the given container number is contained.
+     *
+     * @param  containerNumber  to be checked, may be {@code null}
+     *
+     * @return  {@code true} if the set contains the container number, else {@code false}
+     */
+    public boolean contains(ContainerNumber containerNumber) {
+
+        return containerNumber != null && contains(containerNumber.toLong());
+    }
+
+
+    /**
+     * Remove the given packed container number.
+     *
+     * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+     *
+     * @return  {@code true} if the set contained the container number, else {@code false}
+     */
+    public boolean remove(long containerNumber) {
+
+        if (containerNumber == EMPTY) {
+            return false;
+        }
+
+        int slot = slotOf(containerNumber);
+
+        if (slot < 0) {
+            return false;
+        }
+
+        removeSlot(slot);
+
+        return true;
+    }
+
+
+    /**
+     * Remove the given container number.
+     *
+     * @param  containerNumber  to be removed, may be {@code null}
+     *
+     * @return  {@code true} if the set contained the container number, else {@code false}
+     */
+    public boolean remove(ContainerNumber containerNumber) {
+
+        return containerNumber != null && remove(containerNumber.toLong());
+    }
+
+
+    /**
+     * Remove all the given packed container numbers.
+     *
+     * @param  containerNumbers  packed container numbers, see {@link ContainerNumber#toLong()}
+     *
+     * @return  number of container numbers that were contained before
+     */
+    public int removeAll(long... containerNumbers) {
+
+        int removed = 0;
+
+        for (long containerNumber : containerNumbers) {
+            if (remove(containerNumber)) {
+                removed++;
+            }
+        }
+
+        return removed;
+    }
+
+
+    /**
+     * Get the number of contained container numbers.
+     *
+     * @return  the size of this set
+     */
+    public int size() {
+
+        return size;
+    }
+
+
+    /**
+     * Check if no container number is contained.
+     *
+     * @return  {@code true} if the set is empty, else {@code false}
+     */
+    public boolean isEmpty() {
+
+        return size == 0;
+    }
+
+
+    /**
+     * Remove all container numbers, keeping the current capacity.
+     */
+    public void clear() {
+
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+
+    /**
+     * Perform the given action for each contained packed container number, in no particular order.
+     *
+     * @param  action  to be performed, never {@code null}
+     */
+    public void forEach(LongConsumer action) {
+
+        for (long containerNumber : keys) {
+            if (containerNumber != EMPTY) {
+                action.accept(containerNumber);
+            }
+        }
+    }
+
+
+    /**
+     * Get all contained packed container numbers, in no particular order.
+     *
+     * @return  a new array with the packed container numbers, never {@code null}
+     */
+    public long[] toArray() {
+
+        long[] result = new long[size];
+        int index = 0;
+
+        for (long containerNumber : keys) {
+            if (containerNumber != EMPTY) {
+                result[index++] = containerNumber;
+            }
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Get the number of bytes currently occupied by this set on the heap.
+     *
+     * @return  the memory footprint in bytes
+     */
+    public long memoryFootprint() {
+
+        return OBJECT_BYTES + ARRAY_HEADER_BYTES + (long) keys.length * Long.BYTES;
+    }
+
+
+    /**
+     * Estimate the number of bytes a set holding the given number of container numbers occupies on the heap.
+     *
+     * @param  expectedSize  number of container numbers
+     *
+     * @return  the estimated memory footprint in bytes
+     */
+    public static long estimateMemoryFootprint(int expectedSize) {
+
+        return OBJECT_BYTES + ARRAY_HEADER_BYTES + (long) capacityFor(expectedSize) * Long.BYTES;
+    }
+
+
+    @Override
+    public boolean equals(Object obj) {
+
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        ContainerNumberSet other = (ContainerNumberSet) obj;
+
+        if (size != other.size) {
+            return false;
+        }
+
+        for (long containerNumber : keys) {
+            if (containerNumber != EMPTY && !other.contains(containerNumber)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    @Override
+    public int hashCode() {
+
+        int hash = 0;
+
+        for (long containerNumber : keys) {
+            if (containerNumber != EMPTY) {
+                hash += ContainerNumber.hash(containerNumber);
+            }
+        }
+
+        return hash;
+    }
+
+
+    static int capacityFor(int expectedSize) {
+
+        long required = (long) Math.ceil(Math.max(expectedSize, 0) / (double) LOAD_FACTOR) + 1;
+
+        if (required > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Too many container numbers: " + expectedSize);
+        }
+
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit((int) required - 1) << 1);
+    }
+
+
+    static void requirePacked(long containerNumber) {
+
+        if (!ISO6346.isPacked(containerNumber)) {
+            throw new IllegalArgumentException("Value is not a packed container number: " + containerNumber);
+        }
+    }
+
+
+    private void ensureCapacity(int expectedSize) {
+
+        if (expectedSize > resizeThreshold) {
+            resize(capacityFor(expectedSize));
+        }
+    }
+
+
+    private int slotOf(long containerNumber) {
+
+        int mask = keys.length - 1;
+        int slot = ContainerNumber.hash(containerNumber) & mask;
+
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == containerNumber) {
+                return slot;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+
+    private void removeSlot(int slot) {
+
+        int mask = keys.length - 1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+
+        while (keys[next] != EMPTY) {
+            int home = ContainerNumber.hash(keys[next]) & mask;
+
+            // move the element into the gap if its home slot is not located cyclically in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                gap = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        keys[gap] = EMPTY;
+        size--;
+    }
+
+
+    private void allocate(int capacity) {
+
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+
+    private void resize(int capacity) {
+
+        long[] oldKeys = keys;
+        allocate(capacity);
+
+        int mask = capacity - 1;
+
+        for (long containerNumber : oldKeys) {
+            if (containerNumber != EMPTY) {
+                int slot = ContainerNumber.hash(containerNumber) & mask;
+
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+
+                keys[slot] = containerNumber;
+            }
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package net.contargo.types.container;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
 
 
 /**
@@ -107,6 +111,35 @@ public enum ContainerType implements net.contargo.domain.ContainerType {
     }
 
 
+    /**
+     * Get the nominal length, derived from the length code of the ISO code, see {@link SizeTypeCode}. If the ISO
+     * code is no valid size and type code, e.g. {@code 45PH}, the length is the one of the handling code.
+     *
+     * @return  the length in feet, e.g. {@code 45} for {@link #FORTYFIVE_HC} and {@link #FORTYFIVE_PH}
+     *
+     * @since  0.19.0
+     */
+    public int getLengthFeet() {
+
+        return SizeTypeCode.find(isoCode)
+            .map(SizeTypeCode::getLengthFeet)
+            .orElseGet(() -> Integer.parseInt(contargoHandlingCode.substring(0, 2)));
+    }
+
+
+    /**
+     * Get the size in twenty-foot equivalent units, i.e. the nominal length in feet divided by 20.
+     *
+     * @return  the TEU, e.g. {@code 2.0} for {@link #FORTY_DV}
+     *
+     * @since  0.19.0
+     */
+    public double getTeu() {
+
+        return getLengthFeet() / 20.0;
+    }
+
+
     /**
      * Find the matching container type for the given Contargo handling code.
      *
@@ -119,13 +152,34 @@ public enum ContainerType implements net.contargo.domain.ContainerType {
      */
     public static ContainerType byContargoHandlingCode(String contargoHandlingCode) {
 
-        return Arrays.stream(ContainerType.values()).filter(containerType ->
-                        containerType.getContargoHandlingCode().equals(contargoHandlingCode))
-            .findFirst()
-            .orElseThrow(() ->
-                    new IllegalArgumentException(
-                        "Unknown container type Contargo handling code given: "
-                        + contargoHandlingCode));
+        Optional<ContainerType> containerType = findByContargoHandlingCode(contargoHandlingCode);
+
+        if (!containerType.isPresent()) {
+            throw new IllegalArgumentException("Unknown container type Contargo handling code given: "
+                + contargoHandlingCode);
+        }
+
+        return containerType.get();
+    }
+
+
+    /**
+     * Find the matching container type for the given Contargo handling code without throwing if there is none.
+     *
+     * <p>The lookup is a constant time table access and does not allocate, the returned {@link Optional} instances
+     * are shared.</p>
+     *
+     * @param  contargoHandlingCode  of the container type to find, may be {@code null}
+     *
+     * @return  the matching container type, empty if no matching container type can be found
+     *
+     * @since  0.19.0
+     */
+    public static Optional<ContainerType> findByContargoHandlingCode(CharSequence contargoHandlingCode) {
+
+        int slot = Lookup.HANDLING_CODES.slotOf(contargoHandlingCode);
+
+        return slot == -1 ? Optional.empty() : Lookup.HANDLING_CODES.first[slot];
     }
 
 
@@ -141,10 +195,164 @@ public enum ContainerType implements net.contargo.domain.ContainerType {
      */
     public static ContainerType byIsoCode(String isoCode) {
 
-        return Arrays.stream(ContainerType.values()).filter(containerType ->
-                        containerType.getIsoCode()
-                        .equals(isoCode)).findFirst().orElseThrow(() ->
-                    new IllegalArgumentException("Unknown container type ISO code given: "
-                        + isoCode));
+        Optional<ContainerType> containerType = findByIsoCode(isoCode);
+
+        if (!containerType.isPresent()) {
+            throw new IllegalArgumentException("Unknown container type ISO code given: " + isoCode);
+        }
+
+        return containerType.get();
+    }
+
+
+    /**
+     * Find the first matching container type for the given ISO code (ISO 6346) without throwing if there is none.
+     * Several container types may share an ISO code, e.g. {@code 22T0}, see {@link #allByIsoCode(CharSequence)}.
+     *
+     * <p>The lookup is a constant time table access and does not allocate, the returned {@link Optional} instances
+     * are shared.</p>
+     *
+     * @param  isoCode  of the container type to find, may be {@code null}
+     *
+     * @return  the first matching container type in declaration order, empty if no matching container type can be
+     *          found
+     *
+     * @since  0.19.0
+     */
+    public static Optional<ContainerType> findByIsoCode(CharSequence isoCode) {
+
+        int slot = Lookup.ISO_CODES.slotOf(isoCode);
+
+        return slot == -1 ? Optional.empty() : Lookup.ISO_CODES.first[slot];
+    }
+
+
+    /**
+     * Find all container types sharing the given ISO code (ISO 6346), e.g. {@link #TWENTY_TK} and
+     * {@link #TWENTYTWO_TK} for {@code 22T0}.
+     *
+     * <p>The lookup is a constant time table access and does not allocate, the returned sets are shared.</p>
+     *
+     * @param  isoCode  of the container types to find, may be {@code null}
+     *
+     * @return  the unmodifiable set of matching container types, empty if no matching container type can be found,
+     *          never {@code null}
+     *
+     * @since  0.19.0
+     */
+    public static Set<ContainerType> allByIsoCode(CharSequence isoCode) {
+
+        int slot = Lookup.ISO_CODES.slotOf(isoCode);
+
+        return slot == -1 ? Collections.emptySet() : Lookup.ISO_CODES.all[slot];
+    }
+
+
+    /**
+     * Pack the given four character code into an int, one character per seven bits.
+     *
+     * @param  code  Contargo handling code or ISO code, may be {@code null}
+     *
+     * @return  the packed code, {@code -1} if the code has not exactly four ASCII characters
+     */
+    static int pack(CharSequence code) {
+
+        if (code == null || code.length() != Lookup.CODE_LENGTH) {
+            return -1;
+        }
+
+        int packed = 0;
+
+        for (int i = 0; i < Lookup.CODE_LENGTH; i++) {
+            char c = code.charAt(i);
+
+            if (c >= Lookup.ASCII) {
+                return -1;
+            }
+
+            packed = (packed << Lookup.CHAR_BITS) | c;
+        }
+
+        return packed;
+    }
+
+    /**
+     * Open addressing hash table from packed codes to the container types, built once when first used.
+     */
+    private static final class Lookup {
+
+        private static final int CODE_LENGTH = 4;
+        private static final int ASCII = 128;
+        private static final int CHAR_BITS = 7;
+        private static final int TABLE_BITS = 7;
+        private static final int TABLE_SIZE = 1 << TABLE_BITS;
+        private static final int EMPTY = -1;
+
+        private static final Lookup HANDLING_CODES = new Lookup(true);
+        private static final Lookup ISO_CODES = new Lookup(false);
+
+        private final int[] keys = new int[TABLE_SIZE];
+        private final Optional<ContainerType>[] first;
+        private final Set<ContainerType>[] all;
+
+        private Lookup(boolean handlingCodes) {
+
+            @SuppressWarnings({ "unchecked", "rawtypes" })
+            Optional<ContainerType>[] firstTypes = new Optional[TABLE_SIZE];
+            @SuppressWarnings({ "unchecked", "rawtypes" })
+            Set<ContainerType>[] allTypes = new Set[TABLE_SIZE];
+
+            first = firstTypes;
+            all = allTypes;
+            Arrays.fill(keys, EMPTY);
+
+            for (ContainerType type : values()) {
+                int key = pack(handlingCodes ? type.contargoHandlingCode : type.isoCode);
+                int slot = hash(key);
+
+                while (keys[slot] != EMPTY && keys[slot] != key) {
+                    slot = (slot + 1) & (TABLE_SIZE - 1);
+                }
+
+                if (keys[slot] == EMPTY) {
+                    keys[slot] = key;
+                    first[slot] = Optional.of(type);
+                    all[slot] = EnumSet.noneOf(ContainerType.class);
+                }
+
+                all[slot].add(type);
+            }
+
+            for (int slot = 0; slot < TABLE_SIZE; slot++) {
+                if (all[slot] != null) {
+                    all[slot] = Collections.unmodifiableSet(all[slot]);
+                }
+            }
+        }
+
+        private int slotOf(CharSequence code) {
+
+            int key = pack(code);
+
+            if (key == -1) {
+                return -1;
+            }
+
+            for (int slot = hash(key);; slot = (slot + 1) & (TABLE_SIZE - 1)) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+
+                if (keys[slot] == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+
+
+        private static int hash(int key) {
+
+            return (key * 0x9E3779B9) >>> (Integer.SIZE - TABLE_BITS);
+        }
     }
 }
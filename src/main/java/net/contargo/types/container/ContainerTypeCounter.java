@@ -0,0 +1,286 @@
+package net.contargo.types.container;
+
+import net.contargo.types.Assert;
+import net.contargo.types.transport.Direction;
+
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+
+/**
+ * Counts units and sums their TEU and length per {@link ContainerType}, {@link LoadingState} and {@link Direction},
+ * e.g. to plan the yard for a large inventory.
+ *
+ * <p>Counts and lengths are kept in primitive arrays indexed by the ordinals, so counting neither boxes nor hashes.
+ * Units of unknown loading state or direction are counted as well. All queries take {@code null} for any loading
+ * state or direction.</p>
+ *
+ * <p>Counters are not thread-safe, but the {@link Collector collectors} count in parallel streams by merging one
+ * counter per thread:</p>
+ *
+ * <pre>
+ ContainerTypeCounter counter = units.parallelStream()
+     .collect(ContainerTypeCounter.counting(Unit::getType, Unit::getLoadingState, Unit::getDirection));
+
+ counter.getTeu(null, LoadingState.EMPTY, Direction.TURN_OUT);
+ * </pre>
+ *
+ * @since  0.19.0
+ */
+public final class ContainerTypeCounter {
+
+    private static final ContainerType[] TYPES = ContainerType.values();
+    private static final LoadingState[] LOADING_STATES = LoadingState.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * Number of loading states and directions, including unknown ones.
+     */
+    private static final int STATES = LOADING_STATES.length + 1;
+    private static final int DIRECTIONS_PER_STATE = DIRECTIONS.length + 1;
+    private static final int CELLS_PER_TYPE = STATES * DIRECTIONS_PER_STATE;
+
+    private static final int[] LENGTH_FEET = new int[TYPES.length];
+    private static final double TWENTY_FEET = 20.0;
+
+    static {
+        for (ContainerType type : TYPES) {
+            LENGTH_FEET[type.ordinal()] = type.getLengthFeet();
+        }
+    }
+
+    private final long[] counts = new long[TYPES.length * CELLS_PER_TYPE];
+
+    /**
+     * Count a unit of the given type, with unknown loading state and direction.
+     *
+     * @param  type  never {@code null}
+     */
+    public void add(ContainerType type) {
+
+        add(type, null, null);
+    }
+
+
+    /**
+     * Count a unit of the given type, loading state and direction.
+     *
+     * @param  type  never {@code null}
+     * @param  loadingState  {@code null} if unknown
+     * @param  direction  {@code null} if unknown
+     */
+    public void add(ContainerType type, LoadingState loadingState, Direction direction) {
+
+        add(type, loadingState, direction, 1);
+    }
+
+
+    /**
+     * Count the given number of units of the given type, loading state and direction.
+     *
+     * @param  type  never {@code null}
+     * @param  loadingState  {@code null} if unknown
+     * @param  direction  {@code null} if unknown
+     * @param  count  number of units, not negative
+     *
+     * @throws  IllegalArgumentException  if the count is negative
+     */
+    public void add(ContainerType type, LoadingState loadingState, Direction direction, long count) {
+
+        Assert.notNull(type, "Container type must not be null");
+
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+
+        counts[cell(type.ordinal(), index(loadingState), index(direction))] += count;
+    }
+
+
+    /**
+     * Add all counts of the given counter.
+     *
+     * @param  other  never {@code null}
+     *
+     * @return  this counter
+     */
+    public ContainerTypeCounter merge(ContainerTypeCounter other) {
+
+        Assert.notNull(other, "Counter must not be null");
+
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+
+        return this;
+    }
+
+
+    /**
+     * Get the number of all counted units.
+     *
+     * @return  the number of units
+     */
+    public long getCount() {
+
+        return getCount(null, null, null);
+    }
+
+
+    /**
+     * Get the number of counted units of the given type.
+     *
+     * @param  type  never {@code null}
+     *
+     * @return  the number of units
+     */
+    public long getCount(ContainerType type) {
+
+        Assert.notNull(type, "Container type must not be null");
+
+        return getCount(type, null, null);
+    }
+
+
+    /**
+     * Get the number of counted units matching the given type, loading state and direction.
+     *
+     * @param  type  {@code null} for any type
+     * @param  loadingState  {@code null} for any loading state
+     * @param  direction  {@code null} for any direction
+     *
+     * @return  the number of units
+     */
+    public long getCount(ContainerType type, LoadingState loadingState, Direction direction) {
+
+        long count = 0;
+
+        for (int ordinal = 0; ordinal < TYPES.length; ordinal++) {
+            if (type == null || type.ordinal() == ordinal) {
+                count += sum(ordinal, loadingState, direction);
+            }
+        }
+
+        return count;
+    }
+
+
+    /**
+     * Get the summed length of the counted units matching the given type, loading state and direction.
+     *
+     * @param  type  {@code null} for any type
+     * @param  loadingState  {@code null} for any loading state
+     * @param  direction  {@code null} for any direction
+     *
+     * @return  the length in feet, see {@link ContainerType#getLengthFeet()}
+     */
+    public long getLengthFeet(ContainerType type, LoadingState loadingState, Direction direction) {
+
+        long lengthFeet = 0;
+
+        for (int ordinal = 0; ordinal < TYPES.length; ordinal++) {
+            if (type == null || type.ordinal() == ordinal) {
+                lengthFeet += sum(ordinal, loadingState, direction) * LENGTH_FEET[ordinal];
+            }
+        }
+
+        return lengthFeet;
+    }
+
+
+    /**
+     * Get the TEU of all counted units.
+     *
+     * @return  the TEU, see {@link ContainerType#getTeu()}
+     */
+    public double getTeu() {
+
+        return getTeu(null, null, null);
+    }
+
+
+    /**
+     * Get the TEU of the counted units matching the given type, loading state and direction.
+     *
+     * @param  type  {@code null} for any type
+     * @param  loadingState  {@code null} for any loading state
+     * @param  direction  {@code null} for any direction
+     *
+     * @return  the TEU, see {@link ContainerType#getTeu()}
+     */
+    public double getTeu(ContainerType type, LoadingState loadingState, Direction direction) {
+
+        return getLengthFeet(type, loadingState, direction) / TWENTY_FEET;
+    }
+
+
+    /**
+     * Collector counting container types, with unknown loading state and direction.
+     *
+     * @return  the collector, never {@code null}
+     */
+    public static Collector<ContainerType, ?, ContainerTypeCounter> counting() {
+
+        return Collector.of(ContainerTypeCounter::new, ContainerTypeCounter::add, ContainerTypeCounter::merge,
+                Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+
+    /**
+     * Collector counting units by their type, loading state and direction.
+     *
+     * @param  <T>  type of the units
+     * @param  type  extracting the container type of a unit, never returning {@code null}
+     * @param  loadingState  extracting the loading state of a unit, may return {@code null} if unknown
+     * @param  direction  extracting the direction of a unit, may return {@code null} if unknown
+     *
+     * @return  the collector, never {@code null}
+     */
+    public static <T> Collector<T, ?, ContainerTypeCounter> counting(Function<? super T, ContainerType> type,
+        Function<? super T, LoadingState> loadingState, Function<? super T, Direction> direction) {
+
+        Assert.notNull(type, "Container type function must not be null");
+        Assert.notNull(loadingState, "Loading state function must not be null");
+        Assert.notNull(direction, "Direction function must not be null");
+
+        return Collector.of(ContainerTypeCounter::new,
+                (counter, unit) -> counter.add(type.apply(unit), loadingState.apply(unit), direction.apply(unit)),
+                ContainerTypeCounter::merge, Collector.Characteristics.UNORDERED,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+
+    private long sum(int ordinal, LoadingState loadingState, Direction direction) {
+
+        long sum = 0;
+
+        for (int state = 0; state < STATES; state++) {
+            if (loadingState != null && state != index(loadingState)) {
+                continue;
+            }
+
+            for (int way = 0; way < DIRECTIONS_PER_STATE; way++) {
+                if (direction == null || way == index(direction)) {
+                    sum += counts[cell(ordinal, state, way)];
+                }
+            }
+        }
+
+        return sum;
+    }
+
+
+    private static int cell(int ordinal, int state, int way) {
+
+        return ordinal * CELLS_PER_TYPE + state * DIRECTIONS_PER_STATE + way;
+    }
+
+
+    /**
+     * Index of the given constant, {@code 0} for unknown ones.
+     */
+    private static int index(Enum<?> constant) {
+
+        return constant == null ? 0 : constant.ordinal() + 1;
+    }
+}
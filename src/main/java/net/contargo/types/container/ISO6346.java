@@ -0,0 +1,591 @@
+package net.contargo.types.container;
+
+import java.nio.ByteBuffer;
+
+import java.util.Arrays;
+
+
+/**
+ * Allocation-free implementation of the ISO 6346 container number rules.
+ *
+ * <p>Every check runs in a single pass over the given {@link CharSequence} and uses precomputed tables for the
+ * numerical letter values and the positional weights. Just like {@link ContainerNumber}, all characters that are no
+ * ASCII letters or digits are ignored and lower case letters are treated as upper case letters, so
+ * {@code "hlxu 123456-1"} is checked exactly like {@code "HLXU1234561"}.</p>
+ *
+ * <p>A container number with a valid format can be packed into a {@code long}: the owner code letters and the
+ * equipment category take five bits each, followed by twenty bits for the serial number and four bits for the check
+ * digit. Packed values use the lower 44 bits only, are never negative and sort in the same order as the normalized
+ * container numbers they represent.</p>
+ *
+ * <p>Further information: <a href="https://en.wikipedia.org/wiki/ISO_6346">ISO 6346 standard</a></p>
+ *
+ * @since  0.19.0
+ */
+public final class ISO6346 {
+
+    /**
+     * Number of significant characters of a container number: four letters, six digits serial number and the check
+     * digit.
+     */
+    public static final int LENGTH = 11;
+
+    /**
+     * Packed value representing no container number, i.e. the value returned for input without a valid format.
+     */
+    public static final long NONE = -1L;
+
+    /**
+     * Status returned by the {@code tryParse} methods if the value has no valid format, equal to {@link #NONE}.
+     */
+    public static final long INVALID_FORMAT = NONE;
+
+    /**
+     * Status returned by the {@code tryParse} methods if the value has a valid format, but a wrong equipment category
+     * or check digit.
+     */
+    public static final long NOT_ISO6346_VALID = -2L;
+
+    /**
+     * Status returned by the {@code tryParse} methods if the given buffer is {@code null} or the given range is out of
+     * its bounds.
+     */
+    public static final long INVALID_RANGE = -3L;
+
+    static final int CHECK_DIGIT_SHIFT = 0;
+    static final int SERIAL_NUMBER_SHIFT = 4;
+    static final int CATEGORY_SHIFT = 24;
+    static final int OWNER_CODE_SHIFT = 29;
+    static final int LETTER_BITS = 5;
+    static final int PACKED_BITS = 44;
+
+    static final long CHECK_DIGIT_MASK = 0xFL;
+    static final long SERIAL_NUMBER_MASK = 0xFFFFFL;
+    static final long LETTER_MASK = 0x1FL;
+    static final int SERIAL_NUMBER_BOUND = 1000000;
+
+    static final int CATEGORY_POSITION = 3;
+    static final int CHECK_DIGIT_POSITION = 10;
+
+    /**
+     * Character classes of the ASCII characters: {@code 0-9} for digits, {@code 10-35} for the letters A-Z (of both
+     * cases) and {@link #IGNORED} for all other characters.
+     */
+    static final byte[] CODES = new byte[128];
+    static final byte IGNORED = -1;
+    static final int LETTER_OFFSET = 10;
+
+    /**
+     * Numerical values of the letters A-Z, i.e. starting with 10 and leaving out the multiples of 11.
+     */
+    static final int[] LETTER_VALUES = {
+        10, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32, 34, 35, 36, 37, 38
+    };
+
+    /**
+     * Weights of the first ten positions, i.e. the position is the exponent to base 2.
+     */
+    static final int[] WEIGHTS = { 1, 2, 4, 8, 16, 32, 64, 128, 256, 512 };
+
+    private static final int FORMAT_INVALID = 0;
+    private static final int FORMAT_VALID = 1;
+    private static final int ISO6346_VALID = 2;
+
+    static {
+        Arrays.fill(CODES, IGNORED);
+
+        for (char c = '0'; c <= '9'; c++) {
+            CODES[c] = (byte) (c - '0');
+        }
+
+        for (char c = 'A'; c <= 'Z'; c++) {
+            CODES[c] = (byte) (c - 'A' + LETTER_OFFSET);
+            CODES[Character.toLowerCase(c)] = (byte) (c - 'A' + LETTER_OFFSET);
+        }
+    }
+
+    private ISO6346() {
+
+        // Hide utility class constructor
+    }
+
+    /**
+     * Check if the given value is a container number with a valid format, i.e. if it consists of four letters
+     * followed by seven digits after ignoring all other characters.
+     *
+     * @param  value  to be checked, may be {@code null}
+     *
+     * @return  {@code true} if the value has a valid format, else {@code false}
+     *
+     * @see  ContainerNumber#isValid()
+     */
+    public static boolean isValid(CharSequence value) {
+
+        return scan(value) != FORMAT_INVALID;
+    }
+
+
+    /**
+     * Check if the given value is an ISO 6346 valid container number, i.e. has a valid format, a valid equipment
+     * category and a correct check digit.
+     *
+     * @param  value  to be checked, may be {@code null}
+     *
+     * @return  {@code true} if the value is ISO 6346 valid, else {@code false}
+     *
+     * @see  ContainerNumber#isISO6346Valid()
+     */
+    public static boolean isISO6346Valid(CharSequence value) {
+
+        return scan(value) == ISO6346_VALID;
+    }
+
+
+    /**
+     * Compute the check digit for the owner code, equipment category and serial number of the given value. A check
+     * digit contained in the value is ignored.
+     *
+     * @param  value  consisting of four letters and six digits, optionally followed by a check digit, may be
+     *                {@code null}
+     *
+     * @return  the computed check digit, {@code -1} if the value has no valid format
+     */
+    public static int computeCheckDigit(CharSequence value) {
+
+        if (value == null) {
+            return -1;
+        }
+
+        int position = 0;
+        int sum = 0;
+
+        for (int i = 0; i < value.length(); i++) {
+            int code = code(value.charAt(i));
+
+            if (code == IGNORED) {
+                continue;
+            }
+
+            if (position == CHECK_DIGIT_POSITION) {
+                if (code >= LETTER_OFFSET) {
+                    return -1;
+                }
+
+                position++;
+
+                continue;
+            }
+
+            if (position > CHECK_DIGIT_POSITION || !isAllowedAt(code, position)) {
+                return -1;
+            }
+
+            sum += weightedValue(code, position);
+            position++;
+        }
+
+        return position >= CHECK_DIGIT_POSITION ? checkDigitOf(sum) : -1;
+    }
+
+
+    /**
+     * Pack the given value into a {@code long}, see the class documentation for the layout.
+     *
+     * @param  value  to be packed, may be {@code null}
+     *
+     * @return  the packed container number, {@link #NONE} if the value has no valid format
+     */
+    public static long pack(CharSequence value) {
+
+        if (value == null) {
+            return NONE;
+        }
+
+        int position = 0;
+        long letters = 0;
+        int digits = 0;
+
+        for (int i = 0; i < value.length(); i++) {
+            int code = code(value.charAt(i));
+
+            if (code == IGNORED) {
+                continue;
+            }
+
+            if (position >= LENGTH || !isAllowedAt(code, position)) {
+                return NONE;
+            }
+
+            if (position <= CATEGORY_POSITION) {
+                letters = (letters << LETTER_BITS) | (code - LETTER_OFFSET);
+            } else {
+                digits = digits * 10 + code;
+            }
+
+            position++;
+        }
+
+        if (position != LENGTH) {
+            return NONE;
+        }
+
+        return pack(letters, digits);
+    }
+
+
+    /**
+     * Parse an ISO 6346 valid container number from the given ASCII bytes without creating a {@link String} and
+     * without throwing.
+     *
+     * @param  bytes  containing the container number, may be {@code null}
+     * @param  offset  of the first byte to be parsed
+     * @param  length  number of bytes to be parsed
+     *
+     * @return  the packed container number if it is ISO 6346 valid, else one of the negative status codes
+     *          {@link #INVALID_FORMAT}, {@link #NOT_ISO6346_VALID} or {@link #INVALID_RANGE}
+     */
+    public static long tryParse(byte[] bytes, int offset, int length) {
+
+        if (bytes == null || offset < 0 || length < 0 || offset > bytes.length - length) {
+            return INVALID_RANGE;
+        }
+
+        int position = 0;
+        long letters = 0;
+        int digits = 0;
+
+        for (int i = offset; i < offset + length; i++) {
+            int code = code(bytes[i]);
+
+            if (code == IGNORED) {
+                continue;
+            }
+
+            if (position >= LENGTH || !isAllowedAt(code, position)) {
+                return INVALID_FORMAT;
+            }
+
+            if (position <= CATEGORY_POSITION) {
+                letters = (letters << LETTER_BITS) | (code - LETTER_OFFSET);
+            } else {
+                digits = digits * 10 + code;
+            }
+
+            position++;
+        }
+
+        return position == LENGTH ? statusOf(pack(letters, digits)) : INVALID_FORMAT;
+    }
+
+
+    /**
+     * Parse an ISO 6346 valid container number from the given ASCII bytes without creating a {@link String} and
+     * without throwing. The position of the buffer is neither used nor changed, the range must end at or before its
+     * limit.
+     *
+     * @param  buffer  containing the container number, may be {@code null}
+     * @param  offset  absolute index of the first byte to be parsed
+     * @param  length  number of bytes to be parsed, up to the limit of the buffer
+     *
+     * @return  the packed container number if it is ISO 6346 valid, else one of the negative status codes
+     *          {@link #INVALID_FORMAT}, {@link #NOT_ISO6346_VALID} or {@link #INVALID_RANGE}
+     */
+    public static long tryParse(ByteBuffer buffer, int offset, int length) {
+
+        if (buffer == null || offset < 0 || length < 0 || offset > buffer.limit() - length) {
+            return INVALID_RANGE;
+        }
+
+        if (buffer.hasArray()) {
+            return tryParse(buffer.array(), buffer.arrayOffset() + offset, length);
+        }
+
+        int position = 0;
+        long letters = 0;
+        int digits = 0;
+
+        for (int i = offset; i < offset + length; i++) {
+            int code = code(buffer.get(i));
+
+            if (code == IGNORED) {
+                continue;
+            }
+
+            if (position >= LENGTH || !isAllowedAt(code, position)) {
+                return INVALID_FORMAT;
+            }
+
+            if (position <= CATEGORY_POSITION) {
+                letters = (letters << LETTER_BITS) | (code - LETTER_OFFSET);
+            } else {
+                digits = digits * 10 + code;
+            }
+
+            position++;
+        }
+
+        return position == LENGTH ? statusOf(pack(letters, digits)) : INVALID_FORMAT;
+    }
+
+
+    /**
+     * Parse an ISO 6346 valid container number from the given value without throwing.
+     *
+     * @param  value  containing the container number, may be {@code null}
+     *
+     * @return  the packed container number if it is ISO 6346 valid, else one of the negative status codes
+     *          {@link #INVALID_FORMAT} or {@link #NOT_ISO6346_VALID}
+     */
+    public static long tryParse(CharSequence value) {
+
+        return statusOf(pack(value));
+    }
+
+
+    private static long statusOf(long packed) {
+
+        if (packed == NONE) {
+            return INVALID_FORMAT;
+        }
+
+        return isISO6346Valid(packed) ? packed : NOT_ISO6346_VALID;
+    }
+
+
+    /**
+     * Compose a packed container number of the given four letter codes (five bits each, A = 0) and the seven digits.
+     */
+    static long pack(long letters, int digits) {
+
+        return (letters << CATEGORY_SHIFT) | ((long) (digits / 10) << SERIAL_NUMBER_SHIFT) | (digits % 10);
+    }
+
+
+    /**
+     * Check if the given value is a packed container number as returned by {@link #pack(CharSequence)}.
+     *
+     * @param  packed  value to be checked
+     *
+     * @return  {@code true} if the value represents a container number, else {@code false}
+     */
+    public static boolean isPacked(long packed) {
+
+        if (packed < 0 || packed >>> PACKED_BITS != 0) {
+            return false;
+        }
+
+        for (int shift = CATEGORY_SHIFT; shift < PACKED_BITS; shift += LETTER_BITS) {
+            if (((packed >>> shift) & LETTER_MASK) >= 26) {
+                return false;
+            }
+        }
+
+        return serialNumber(packed) < SERIAL_NUMBER_BOUND && checkDigit(packed) < 10;
+    }
+
+
+    /**
+     * Check if the given packed container number is ISO 6346 valid, i.e. has a valid equipment category and a
+     * correct check digit.
+     *
+     * @param  packed  container number as returned by {@link #pack(CharSequence)}
+     *
+     * @return  {@code true} if the packed container number is ISO 6346 valid, else {@code false}
+     */
+    public static boolean isISO6346Valid(long packed) {
+
+        return isPacked(packed) && isValidEquipmentCategory(letterCode(packed, CATEGORY_POSITION))
+            && checkDigit(packed) == computeCheckDigit(packed);
+    }
+
+
+    /**
+     * Compute the check digit for the owner code, equipment category and serial number of the given packed container
+     * number. The packed check digit is ignored.
+     *
+     * @param  packed  container number as returned by {@link #pack(CharSequence)}
+     *
+     * @return  the computed check digit, {@code -1} if the value is no packed container number
+     */
+    public static int computeCheckDigit(long packed) {
+
+        if (!isPacked(packed)) {
+            return -1;
+        }
+
+        int sum = 0;
+
+        for (int position = 0; position <= CATEGORY_POSITION; position++) {
+            sum += weightedValue(letterCode(packed, position), position);
+        }
+
+        int serialNumber = serialNumber(packed);
+
+        for (int position = CHECK_DIGIT_POSITION - 1; position > CATEGORY_POSITION; position--) {
+            sum += weightedValue(serialNumber % 10, position);
+            serialNumber /= 10;
+        }
+
+        return checkDigitOf(sum);
+    }
+
+
+    /**
+     * Get the normalized container number, e.g. {@code HLXU1234561}, of the given packed container number.
+     *
+     * @param  packed  container number as returned by {@link #pack(CharSequence)}
+     *
+     * @return  the normalized container number, never {@code null}
+     *
+     * @throws  IllegalArgumentException  if the value is no packed container number
+     */
+    public static String unpack(long packed) {
+
+        if (!isPacked(packed)) {
+            throw new IllegalArgumentException("Not a packed container number: " + packed);
+        }
+
+        char[] chars = new char[LENGTH];
+        unpack(packed, chars, 0);
+
+        return new String(chars);
+    }
+
+
+    /**
+     * Write the eleven characters of the given packed container number to the target array.
+     */
+    static void unpack(long packed, char[] target, int offset) {
+
+        for (int position = 0; position <= CATEGORY_POSITION; position++) {
+            target[offset + position] = (char) ('A' + letterCode(packed, position) - LETTER_OFFSET);
+        }
+
+        int serialNumber = serialNumber(packed);
+
+        for (int position = CHECK_DIGIT_POSITION - 1; position > CATEGORY_POSITION; position--) {
+            target[offset + position] = (char) ('0' + serialNumber % 10);
+            serialNumber /= 10;
+        }
+
+        target[offset + CHECK_DIGIT_POSITION] = (char) ('0' + checkDigit(packed));
+    }
+
+
+    /**
+     * Get the character code of the letter at the given position (0 - 3) of a packed container number.
+     */
+    static int letterCode(long packed, int position) {
+
+        int shift = OWNER_CODE_SHIFT + (2 - position) * LETTER_BITS;
+
+        return (int) ((packed >>> shift) & LETTER_MASK) + LETTER_OFFSET;
+    }
+
+
+    /**
+     * Get the owner code of a packed container number as dense index from 0 (AAA) to 17575 (ZZZ).
+     */
+    static int ownerCodeIndex(long packed) {
+
+        int first = (int) ((packed >>> (OWNER_CODE_SHIFT + 2 * LETTER_BITS)) & LETTER_MASK);
+        int second = (int) ((packed >>> (OWNER_CODE_SHIFT + LETTER_BITS)) & LETTER_MASK);
+        int third = (int) ((packed >>> OWNER_CODE_SHIFT) & LETTER_MASK);
+
+        return (first * 26 + second) * 26 + third;
+    }
+
+
+    static int serialNumber(long packed) {
+
+        return (int) ((packed >>> SERIAL_NUMBER_SHIFT) & SERIAL_NUMBER_MASK);
+    }
+
+
+    static int checkDigit(long packed) {
+
+        return (int) ((packed >>> CHECK_DIGIT_SHIFT) & CHECK_DIGIT_MASK);
+    }
+
+
+    private static int scan(CharSequence value) {
+
+        if (value == null) {
+            return FORMAT_INVALID;
+        }
+
+        int position = 0;
+        int sum = 0;
+        int checkDigit = -1;
+        boolean validCategory = false;
+
+        for (int i = 0; i < value.length(); i++) {
+            int code = code(value.charAt(i));
+
+            if (code == IGNORED) {
+                continue;
+            }
+
+            if (position >= LENGTH || !isAllowedAt(code, position)) {
+                return FORMAT_INVALID;
+            }
+
+            if (position == CHECK_DIGIT_POSITION) {
+                checkDigit = code;
+            } else {
+                if (position == CATEGORY_POSITION) {
+                    validCategory = isValidEquipmentCategory(code);
+                }
+
+                sum += weightedValue(code, position);
+            }
+
+            position++;
+        }
+
+        if (position != LENGTH) {
+            return FORMAT_INVALID;
+        }
+
+        return validCategory && checkDigit == checkDigitOf(sum) ? ISO6346_VALID : FORMAT_VALID;
+    }
+
+
+    static int code(char c) {
+
+        return c < CODES.length ? CODES[c] : IGNORED;
+    }
+
+
+    static int code(byte b) {
+
+        return b < 0 ? IGNORED : CODES[b];
+    }
+
+
+    static boolean isAllowedAt(int code, int position) {
+
+        return position <= CATEGORY_POSITION ? code >= LETTER_OFFSET : code < LETTER_OFFSET;
+    }
+
+
+    static boolean isValidEquipmentCategory(int code) {
+
+        return code == 'U' - 'A' + LETTER_OFFSET || code == 'J' - 'A' + LETTER_OFFSET
+            || code == 'Z' - 'A' + LETTER_OFFSET;
+    }
+
+
+    static int weightedValue(int code, int position) {
+
+        int value = code < LETTER_OFFSET ? code : LETTER_VALUES[code - LETTER_OFFSET];
+
+        return value * WEIGHTS[position];
+    }
+
+
+    static int checkDigitOf(int sum) {
+
+        return (sum % LENGTH) % 10; // NOSONAR
+    }
+}
@@ -0,0 +1,86 @@
+package net.contargo.types.container;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+
+/**
+ * Checks normalized container numbers stored as ASCII bytes with arithmetic on a {@code long} word.
+ *
+ * <p>The owner code, the equipment category and the first four digits of the serial number are combined into a single
+ * little-endian {@code long}, on Java 8 the buffer assembles it from single byte reads. Whether all eight bytes are
+ * within their range (capital letter or digit) is checked with two subtractions on the whole word, and the weighted
+ * sum of the four digits is computed by adding neighbouring lanes. Only the values of the letters are looked up one by
+ * one.</p>
+ *
+ * @since  0.19.0
+ */
+final class ISO6346Ascii {
+
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    /**
+     * Lowest allowed byte of each lane, lane 0 (the first byte) in the lowest bits.
+     */
+    private static final long LOWER_BOUNDS = 0x3030303041414141L;
+
+    /**
+     * Highest allowed byte of each lane.
+     */
+    private static final long UPPER_BOUNDS = 0x393939395A5A5A5AL;
+
+    private static final long DIGIT_ZEROS = 0x30303030L;
+    private static final long EVEN_BYTES = 0x00FF00FFL;
+    private static final int SERIAL_NUMBER_TAIL = 8;
+
+    private final byte[] bytes;
+    private final ByteBuffer words;
+
+    ISO6346Ascii(byte[] bytes) {
+
+        this.bytes = bytes;
+        this.words = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Check if the eleven bytes at the given offset are an ISO 6346 valid normalized container number.
+     */
+    boolean isISO6346Valid(int offset) {
+
+        long word = words.getLong(offset);
+
+        // a lane is within its bounds if subtracting the bound from it (or it from the bound) does not borrow
+        long aboveLower = (word | HIGH_BITS) - LOWER_BOUNDS;
+        long belowUpper = (UPPER_BOUNDS | HIGH_BITS) - word;
+
+        if ((word & HIGH_BITS) != 0 || (aboveLower & belowUpper & HIGH_BITS) != HIGH_BITS) {
+            return false;
+        }
+
+        int category = bytes[offset + ISO6346.CATEGORY_POSITION];
+
+        if (category != 'U' && category != 'J' && category != 'Z') {
+            return false;
+        }
+
+        int eighth = bytes[offset + SERIAL_NUMBER_TAIL] - '0';
+        int ninth = bytes[offset + SERIAL_NUMBER_TAIL + 1] - '0';
+        int checkDigit = bytes[offset + ISO6346.CHECK_DIGIT_POSITION] - '0';
+
+        if ((eighth | ninth | checkDigit) < 0 || eighth > 9 || ninth > 9 || checkDigit > 9) {
+            return false;
+        }
+
+        long digits = (word >>> 32) - DIGIT_ZEROS;
+        long pairs = (digits & EVEN_BYTES) + ((digits >>> 8) & EVEN_BYTES) * 2;
+        long digitSum = ((pairs & 0xFFFF) + (pairs >>> 16) * 4) << 4;
+
+        int sum = ISO6346.LETTER_VALUES[(int) (word & 0xFF) - 'A']
+            + ISO6346.LETTER_VALUES[(int) ((word >>> 8) & 0xFF) - 'A'] * 2
+            + ISO6346.LETTER_VALUES[(int) ((word >>> 16) & 0xFF) - 'A'] * 4
+            + ISO6346.LETTER_VALUES[(int) ((word >>> 24) & 0xFF) - 'A'] * 8
+            + (int) digitSum + eighth * 256 + ninth * 512;
+
+        return ISO6346.checkDigitOf(sum) == checkDigit;
+    }
+}
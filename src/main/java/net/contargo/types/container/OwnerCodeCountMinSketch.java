@@ -0,0 +1,291 @@
+package net.contargo.types.container;
+
+import net.contargo.types.Assert;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Count-Min sketch estimating how many container numbers of each owner code have been counted, e.g. to find the owner
+ * codes dominating the traffic of a terminal, in constant memory.
+ *
+ * <p>Each counted container number increments one counter per row, selected by hashing the numeric form of its owner
+ * code (see {@link OwnerCodeDictionary#indexOf(CharSequence)}). The estimate of an owner code is the minimum of its
+ * counters, which never underestimates and overestimates by at most {@code epsilon} times the total count with a
+ * probability of at least {@code 1 - delta}.</p>
+ *
+ * <p>Sketches of the same dimensions can be merged, e.g. the hourly sketches of several gates, and written to and read
+ * from a compact binary form.</p>
+ *
+ * <p>This class is thread-safe, container numbers can be counted concurrently.</p>
+ *
+ * @since  0.19.0
+ */
+public final class OwnerCodeCountMinSketch {
+
+    static final int MAGIC = 0x4F43434D; // OCCM
+
+    private static final byte VERSION = 1;
+    private static final int MAX_WIDTH = 1 << 24;
+    private static final int MAX_DEPTH = 32;
+
+    private final int width;
+    private final int depth;
+    private final AtomicLongArray counters;
+    private final AtomicLong total = new AtomicLong();
+
+    /**
+     * Create an empty sketch with the given error bounds.
+     *
+     * @param  epsilon  maximum overestimation relative to the total count, between 0 and 1 exclusive, e.g.
+     *                  {@code 0.001}
+     * @param  delta  probability of exceeding the maximum overestimation, between 0 and 1 exclusive, e.g.
+     *                {@code 0.01}
+     *
+     * @throws  IllegalArgumentException  if any parameter is out of range
+     */
+    public OwnerCodeCountMinSketch(double epsilon, double delta) {
+
+        this(dimension(Math.E / epsilon, epsilon, MAX_WIDTH, "Epsilon"),
+            dimension(Math.log(1 / delta), delta, MAX_DEPTH, "Delta"));
+    }
+
+
+    private OwnerCodeCountMinSketch(int width, int depth) {
+
+        this.width = width;
+        this.depth = depth;
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    /**
+     * Count the owner code of the given packed container number.
+     *
+     * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+     *
+     * @throws  IllegalArgumentException  if the given value is no packed container number
+     */
+    public void add(long containerNumber) {
+
+        ContainerNumberSet.requirePacked(containerNumber);
+
+        increment(ISO6346.ownerCodeIndex(containerNumber));
+    }
+
+
+    /**
+     * Count the owner code of the given container number.
+     *
+     * @param  containerNumber  never {@code null}
+     *
+     * @throws  IllegalArgumentException  if the given container number has no valid format
+     */
+    public void add(ContainerNumber containerNumber) {
+
+        Assert.notNull(containerNumber, "Container number must not be null");
+
+        add(containerNumber.toLong());
+    }
+
+
+    /**
+     * Estimate how often the given owner code has been counted.
+     *
+     * @param  ownerCode  three letters, e.g. {@code HLX}, may be {@code null}
+     *
+     * @return  the estimated count, never less than the actual count, 0 for invalid owner codes
+     */
+    public long estimate(CharSequence ownerCode) {
+
+        int index = OwnerCodeDictionary.indexOf(ownerCode);
+
+        return index == -1 ? 0 : estimate(index);
+    }
+
+
+    /**
+     * Get the number of counted container numbers.
+     *
+     * @return  the total count
+     */
+    public long totalCount() {
+
+        return total.get();
+    }
+
+
+    /**
+     * Find the owner codes with the highest estimated counts.
+     *
+     * @param  limit  maximum number of owner codes
+     *
+     * @return  the owner codes with a count, ordered by descending estimated count and alphabetically, never
+     *          {@code null}
+     *
+     * @throws  IllegalArgumentException  if the limit is negative
+     */
+    public List<String> topOwnerCodes(int limit) {
+
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + limit);
+        }
+
+        // estimate and index share a long, so sorting ranks by estimate, then owner code
+        long[] ranked = new long[OwnerCodeDictionary.OWNER_CODES];
+        int count = 0;
+
+        for (int index = 0; index < OwnerCodeDictionary.OWNER_CODES; index++) {
+            long estimate = estimate(index);
+
+            if (estimate > 0) {
+                ranked[count++] = (-estimate << 15) | index;
+            }
+        }
+
+        Arrays.sort(ranked, 0, count);
+
+        List<String> ownerCodes = new ArrayList<>(Math.min(limit, count));
+
+        for (int i = 0; i < Math.min(limit, count); i++) {
+            ownerCodes.add(OwnerCodeDictionary.ownerCodeOf((int) (ranked[i] & 0x7FFF)));
+        }
+
+        return ownerCodes;
+    }
+
+
+    /**
+     * Add all counts of the given sketch, which must have the same dimensions.
+     *
+     * @param  other  sketch to be merged, never {@code null}
+     *
+     * @throws  IllegalArgumentException  if the sketches have different dimensions
+     */
+    public void merge(OwnerCodeCountMinSketch other) {
+
+        Assert.notNull(other, "Sketch must not be null");
+
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Sketches must have the same dimensions");
+        }
+
+        for (int i = 0; i < counters.length(); i++) {
+            counters.addAndGet(i, other.counters.get(i));
+        }
+
+        total.addAndGet(other.total.get());
+    }
+
+
+    /**
+     * Write this sketch in its compact binary form to the given stream, which is not closed.
+     *
+     * @param  output  to be written to, never {@code null}
+     *
+     * @throws  IOException  if writing fails
+     */
+    public void writeTo(OutputStream output) throws IOException {
+
+        Assert.notNull(output, "Output must not be null");
+
+        DataOutputStream data = new DataOutputStream(output);
+
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeInt(width);
+        data.writeByte(depth);
+        data.writeLong(total.get());
+
+        for (int i = 0; i < counters.length(); i++) {
+            data.writeLong(counters.get(i));
+        }
+
+        data.flush();
+    }
+
+
+    /**
+     * Read a sketch written by {@link #writeTo(OutputStream)} from the given stream, which is not closed.
+     *
+     * @param  input  to be read from, never {@code null}
+     *
+     * @return  the sketch, never {@code null}
+     *
+     * @throws  IOException  if reading fails or the stream contains no sketch
+     */
+    public static OwnerCodeCountMinSketch readFrom(InputStream input) throws IOException {
+
+        Assert.notNull(input, "Input must not be null");
+
+        DataInputStream data = new DataInputStream(input);
+
+        if (data.readInt() != MAGIC || data.readByte() != VERSION) {
+            throw new IOException("Stream contains no supported Count-Min sketch");
+        }
+
+        int width = data.readInt();
+        int depth = data.readByte();
+
+        if (width < 1 || width > MAX_WIDTH || depth < 1 || depth > MAX_DEPTH) {
+            throw new IOException("Invalid dimensions of Count-Min sketch: " + width + " x " + depth);
+        }
+
+        OwnerCodeCountMinSketch sketch = new OwnerCodeCountMinSketch(width, depth);
+        sketch.total.set(data.readLong());
+
+        for (int i = 0; i < sketch.counters.length(); i++) {
+            sketch.counters.set(i, data.readLong());
+        }
+
+        return sketch;
+    }
+
+
+    private void increment(int ownerCodeIndex) {
+
+        long hash = ContainerNumber.hash64(ownerCodeIndex);
+        long step = ContainerNumber.hash64(hash) | 1;
+
+        for (int row = 0; row < depth; row++) {
+            counters.incrementAndGet(row * width + (int) ((hash & Long.MAX_VALUE) % width));
+            hash += step;
+        }
+
+        total.incrementAndGet();
+    }
+
+
+    private long estimate(int ownerCodeIndex) {
+
+        long hash = ContainerNumber.hash64(ownerCodeIndex);
+        long step = ContainerNumber.hash64(hash) | 1;
+        long estimate = Long.MAX_VALUE;
+
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(row * width + (int) ((hash & Long.MAX_VALUE) % width)));
+            hash += step;
+        }
+
+        return estimate;
+    }
+
+
+    private static int dimension(double size, double parameter, int max, String name) {
+
+        if (!(parameter > 0 && parameter < 1)) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1: " + parameter);
+        }
+
+        return (int) Math.max(1, Math.min(max, Math.ceil(size)));
+    }
+}
@@ -0,0 +1,329 @@
+package net.contargo.types.container;
+
+import net.contargo.types.Assert;
+
+import java.util.Arrays;
+
+
+/**
+ * Dictionary of per-owner metadata, e.g. the shipping line or leasing company behind an owner code (the first three
+ * letters of a container number, also known as BIC code prefix).
+ *
+ * <p>Since there are only 26 to the power of 3 owner codes, the dictionary is a dense array indexed by the numeric form
+ * of the owner code, taken directly from the packed container number (see {@link ContainerNumber#toLong()}). A bitmap
+ * marks the known owner codes. Thus looking up the owner of a container number neither hashes nor creates a
+ * substring.</p>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>
+ OwnerCodeDictionary&lt;Owner&gt; owners = new OwnerCodeDictionary&lt;&gt;();
+ owners.put("HLX", hapagLloyd);
+
+ Owner owner = owners.get(containerNumber.toLong());
+ * </pre>
+ *
+ * <p>This class is not thread-safe, but can be read concurrently once filled.</p>
+ *
+ * @param  <V>  type of the metadata
+ *
+ * @since  0.19.0
+ */
+public final class OwnerCodeDictionary<V> {
+
+    /**
+     * Number of possible owner codes, from {@code AAA} to {@code ZZZ}.
+     */
+    public static final int OWNER_CODES = 26 * 26 * 26;
+
+    private static final int OWNER_CODE_LENGTH = 3;
+    private static final int WORD_SIZE = Long.SIZE;
+
+    private final Object[] values = new Object[OWNER_CODES];
+    private final long[] known = new long[(OWNER_CODES + WORD_SIZE - 1) / WORD_SIZE];
+    private int size;
+
+    /**
+     * Associate the given owner code with the given metadata.
+     *
+     * @param  ownerCode  three letters, e.g. {@code HLX}, never {@code null}
+     * @param  value  metadata of the owner, never {@code null}
+     *
+     * @return  the previously associated metadata, {@code null} if there was none
+     *
+     * @throws  IllegalArgumentException  if the owner code does not consist of three letters
+     */
+    public V put(CharSequence ownerCode, V value) {
+
+        Assert.notNull(ownerCode, "Owner code must not be null");
+        Assert.notNull(value, "Value must not be null");
+
+        int index = indexOf(ownerCode);
+
+        if (index == -1) {
+            throw new IllegalArgumentException("Owner code must consist of three letters: " + ownerCode);
+        }
+
+        V previous = valueAt(index);
+        values[index] = value;
+
+        if (previous == null) {
+            known[index / WORD_SIZE] |= 1L << index;
+            size++;
+        }
+
+        return previous;
+    }
+
+
+    /**
+     * Get the metadata of the given owner code.
+     *
+     * @param  ownerCode  three letters, e.g. {@code HLX}, may be {@code null}
+     *
+     * @return  the associated metadata, {@code null} if there is none
+     */
+    public V get(CharSequence ownerCode) {
+
+        int index = indexOf(ownerCode);
+
+        return index == -1 ? null : valueAt(index);
+    }
+
+
+    /**
+     * Get the metadata of the owner of the given packed container number.
+     *
+     * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+     *
+     * @return  the associated metadata, {@code null} if there is none
+     */
+    public V get(long containerNumber) {
+
+        return ISO6346.isPacked(containerNumber) ? valueAt(ISO6346.ownerCodeIndex(containerNumber)) : null;
+    }
+
+
+    /**
+     * Get the metadata of the owner of the given container number.
+     *
+     * @param  containerNumber  may be {@code null}
+     *
+     * @return  the associated metadata, {@code null} if there is none
+     */
+    public V get(ContainerNumber containerNumber) {
+
+        return containerNumber == null ? null : get(containerNumber.toLong());
+    }
+
+
+    /**
+     * Check if the given owner code is known.
+     *
+     * @param  ownerCode  three letters, e.g. {@code HLX}, may be {@code null}
+     *
+     * @return  {@code true} if there is metadata for the owner code, else {@code false}
+     */
+    public boolean isKnown(CharSequence ownerCode) {
+
+        int index = indexOf(ownerCode);
+
+        return index != -1 && isKnown(index);
+    }
+
+
+    /**
+     * Check if the owner code of the given packed container number is known.
+     *
+     * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+     *
+     * @return  {@code true} if there is metadata for the owner code, else {@code false}
+     */
+    public boolean isKnown(long containerNumber) {
+
+        return ISO6346.isPacked(containerNumber) && isKnown(ISO6346.ownerCodeIndex(containerNumber));
+    }
+
+
+    /**
+     * Get the packed container numbers with a known owner code.
+     *
+     * @param  containerNumbers  packed container numbers, never {@code null}
+     *
+     * @return  a new array with the container numbers of known owners in the given order, never {@code null}
+     */
+    public long[] filterKnown(long... containerNumbers) {
+
+        Assert.notNull(containerNumbers, "Container numbers must not be null");
+
+        long[] result = new long[containerNumbers.length];
+        int count = 0;
+
+        for (long containerNumber : containerNumbers) {
+            if (isKnown(containerNumber)) {
+                result[count++] = containerNumber;
+            }
+        }
+
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+
+    /**
+     * Remove the metadata of the given owner code.
+     *
+     * @param  ownerCode  three letters, e.g. {@code HLX}, may be {@code null}
+     *
+     * @return  the removed metadata, {@code null} if there was none
+     */
+    public V remove(CharSequence ownerCode) {
+
+        int index = indexOf(ownerCode);
+
+        if (index == -1 || !isKnown(index)) {
+            return null;
+        }
+
+        V previous = valueAt(index);
+        values[index] = null;
+        known[index / WORD_SIZE] &= ~(1L << index);
+        size--;
+
+        return previous;
+    }
+
+
+    /**
+     * Get the number of known owner codes.
+     *
+     * @return  the size of this dictionary
+     */
+    public int size() {
+
+        return size;
+    }
+
+
+    /**
+     * Check if no owner code is known.
+     *
+     * @return  {@code true} if the dictionary is empty, else {@code false}
+     */
+    public boolean isEmpty() {
+
+        return size == 0;
+    }
+
+
+    /**
+     * Remove all metadata.
+     */
+    public void clear() {
+
+        Arrays.fill(values, null);
+        Arrays.fill(known, 0);
+        size = 0;
+    }
+
+
+    /**
+     * Perform the given action for each known owner code, in alphabetical order.
+     *
+     * @param  action  to be performed, never {@code null}
+     */
+    public void forEach(EntryConsumer<? super V> action) {
+
+        Assert.notNull(action, "Action must not be null");
+
+        for (int word = 0; word < known.length; word++) {
+            long bits = known[word];
+
+            while (bits != 0) {
+                int index = word * WORD_SIZE + Long.numberOfTrailingZeros(bits);
+                action.accept(ownerCodeOf(index), valueAt(index));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+
+    /**
+     * Get the numeric form of the given owner code.
+     *
+     * @param  ownerCode  three letters, e.g. {@code HLX}, may be {@code null}
+     *
+     * @return  the index from 0 ({@code AAA}) to 17575 ({@code ZZZ}), -1 if the value does not consist of three
+     *          letters
+     */
+    public static int indexOf(CharSequence ownerCode) {
+
+        if (ownerCode == null || ownerCode.length() != OWNER_CODE_LENGTH) {
+            return -1;
+        }
+
+        int index = 0;
+
+        for (int i = 0; i < OWNER_CODE_LENGTH; i++) {
+            int code = ISO6346.code(ownerCode.charAt(i));
+
+            if (code < ISO6346.LETTER_OFFSET) {
+                return -1;
+            }
+
+            index = index * 26 + code - ISO6346.LETTER_OFFSET;
+        }
+
+        return index;
+    }
+
+
+    /**
+     * Get the owner code of the given numeric form.
+     *
+     * @param  index  from 0 ({@code AAA}) to 17575 ({@code ZZZ})
+     *
+     * @return  the owner code of three capital letters, never {@code null}
+     *
+     * @throws  IllegalArgumentException  if the index is out of range
+     */
+    public static String ownerCodeOf(int index) {
+
+        if (index < 0 || index >= OWNER_CODES) {
+            throw new IllegalArgumentException("Invalid owner code index: " + index);
+        }
+
+        char[] chars = { (char) ('A' + index / (26 * 26)), (char) ('A' + index / 26 % 26), (char) ('A' + index % 26) };
+
+        return new String(chars);
+    }
+
+
+    private boolean isKnown(int index) {
+
+        return (known[index / WORD_SIZE] & (1L << index)) != 0;
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+
+        return (V) values[index];
+    }
+
+    /**
+     * Action to be performed for an entry of an {@link OwnerCodeDictionary}.
+     *
+     * @param  <V>  type of the metadata
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+
+        /**
+         * Perform this action for the given entry.
+         *
+         * @param  ownerCode  three capital letters
+         * @param  value  the associated metadata, never {@code null}
+         */
+        void accept(String ownerCode, V value);
+    }
+}
@@ -0,0 +1,398 @@
+package net.contargo.types.container;
+
+import net.contargo.types.Assert;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+/**
+ * Decoded ISO 6346 size and type code, e.g. {@code 45G1}, also for codes not covered by {@link ContainerType}.
+ *
+ * <p>The first character is the length code, the second one the height and width code and the last two characters
+ * are the type code, i.e. the type group letter and a detail digit. Codes are decoded with lookup tables indexed by
+ * character. Each code is decoded only once, there is exactly one instance per code, which is shared by all
+ * threads.</p>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>
+ SizeTypeCode code = SizeTypeCode.forCode("L5G1");
+
+ code.getLengthMillimetres();  // 13716, i.e. 45 feet
+ code.getTeu();                // 2.25
+ code.isHighCube();            // true
+ code.getTypeGroup();          // GP
+ code.toContainerType();       // Optional[FORTYFIVE_HC]
+ * </pre>
+ *
+ * @since  0.19.0
+ */
+public final class SizeTypeCode {
+
+    private static final int CODE_LENGTH = 4;
+    private static final int ASCII = 128;
+    private static final int DETAILS = 10;
+    private static final int HIGH_CUBE_HEIGHT = 2895;
+    private static final int TWENTY_FEET = 20;
+
+    private static final String LENGTH_CODES = "1234ABCDEFGHKLMNP";
+    private static final int[] LENGTHS = {
+        2991, 6058, 9125, 12192, 7150, 7315, 7430, 7450, 7820, 8100, 12500, 13106, 13600, 13716, 14630, 14935, 16154
+    };
+    private static final int[] LENGTH_FEET = { 10, 20, 30, 40, 23, 24, 24, 24, 26, 27, 41, 43, 45, 45, 48, 49, 53 };
+
+    private static final String HEIGHT_CODES = "0245689CDEFLMNP";
+    private static final int[] HEIGHTS = {
+        2438, 2591, 2743, 2895, 2896, 1295, 1219, 2591, 2743, 2895, 2896, 2591, 2743, 2895, 2896
+    };
+    private static final int[] WIDTHS = {
+        2438, 2438, 2438, 2438, 2438, 2438, 2438, 2500, 2500, 2500, 2500, 2501, 2501, 2501, 2501
+    };
+
+    private static final String TYPE_LETTERS = "GVBSRHUPTA";
+
+    /**
+     * Type group of each type letter (row) and detail digit (column).
+     */
+    private static final TypeGroup[][] TYPE_GROUPS = new TypeGroup[TYPE_LETTERS.length()][DETAILS];
+
+    private static final byte[] LENGTH_INDEX = index(LENGTH_CODES);
+    private static final byte[] HEIGHT_INDEX = index(HEIGHT_CODES);
+    private static final byte[] TYPE_INDEX = index(TYPE_LETTERS);
+
+    /**
+     * The flyweights, created when first decoded, by dense index of their code.
+     */
+    private static final AtomicReferenceArray<SizeTypeCode> CODES = new AtomicReferenceArray<>(LENGTH_CODES.length()
+            * HEIGHT_CODES.length() * TYPE_LETTERS.length() * DETAILS);
+
+    static {
+        // the groups of a letter are declared by ascending first detail digit, each overrides the following digits
+        for (TypeGroup typeGroup : TypeGroup.values()) {
+            int letter = TYPE_LETTERS.indexOf(typeGroup.letter);
+            Arrays.fill(TYPE_GROUPS[letter], typeGroup.firstDetail, DETAILS, typeGroup);
+        }
+    }
+
+    private final String code;
+    private final int length;
+    private final int height;
+    private final int width;
+    private final TypeGroup typeGroup;
+    private final Optional<SizeTypeCode> optional;
+    private final Optional<ContainerType> containerType;
+
+    private SizeTypeCode(String code, int lengthIndex, int heightIndex, int typeIndex, int detail) {
+
+        this.code = code;
+        this.length = LENGTHS[lengthIndex];
+        this.height = HEIGHTS[heightIndex];
+        this.width = WIDTHS[heightIndex];
+        this.typeGroup = TYPE_GROUPS[typeIndex][detail];
+        this.optional = Optional.of(this);
+        this.containerType = nearestContainerType(code);
+    }
+
+    /**
+     * Decode the given ISO 6346 size and type code.
+     *
+     * @param  code  four characters, e.g. {@code 45G1}
+     *
+     * @return  the decoded code, never {@code null}
+     *
+     * @throws  IllegalArgumentException  if the given code is no valid size and type code
+     */
+    public static SizeTypeCode forCode(CharSequence code) {
+
+        Assert.notNull(code, "Size and type code must not be null");
+
+        SizeTypeCode sizeTypeCode = decode(code);
+
+        if (sizeTypeCode == null) {
+            throw new IllegalArgumentException("Invalid size and type code given: " + code);
+        }
+
+        return sizeTypeCode;
+    }
+
+
+    /**
+     * Decode the given ISO 6346 size and type code without throwing if it is invalid. Repeated codes neither allocate
+     * nor decode again, the returned {@link Optional} instances are shared.
+     *
+     * @param  code  four characters, e.g. {@code 45G1}, may be {@code null}
+     *
+     * @return  the decoded code, empty if the given code is no valid size and type code
+     */
+    public static Optional<SizeTypeCode> find(CharSequence code) {
+
+        SizeTypeCode sizeTypeCode = decode(code);
+
+        return sizeTypeCode == null ? Optional.empty() : sizeTypeCode.optional;
+    }
+
+
+    /**
+     * Get the size and type code.
+     *
+     * @return  the four characters, e.g. {@code 45G1}
+     */
+    public String getCode() {
+
+        return code;
+    }
+
+
+    /**
+     * Get the length of the container.
+     *
+     * @return  the length in millimetres, e.g. {@code 12192} for 40 feet
+     */
+    public int getLengthMillimetres() {
+
+        return length;
+    }
+
+
+    /**
+     * Get the nominal length of the container.
+     *
+     * @return  the length in feet, rounded, e.g. {@code 45} for 13716 mm
+     */
+    public int getLengthFeet() {
+
+        return lengthFeet(code.charAt(0));
+    }
+
+
+    /**
+     * Get the size of the container in twenty-foot equivalent units, i.e. its nominal length in feet divided by 20.
+     *
+     * @return  the TEU, e.g. {@code 2.25} for 45 feet
+     */
+    public double getTeu() {
+
+        return getLengthFeet() / (double) TWENTY_FEET;
+    }
+
+
+    /**
+     * Get the height of the container. Codes for heights of more than 2895 mm return {@code 2896}, the code for
+     * heights of at most 1219 mm returns {@code 1219}.
+     *
+     * @return  the height in millimetres, e.g. {@code 2895} for 9 feet 6 inches
+     */
+    public int getHeightMillimetres() {
+
+        return height;
+    }
+
+
+    /**
+     * Get the width of the container. Codes for widths of more than 2438 mm and at most 2500 mm return {@code 2500},
+     * codes for widths of more than 2500 mm return {@code 2501}.
+     *
+     * @return  the width in millimetres, e.g. {@code 2438} for 8 feet
+     */
+    public int getWidthMillimetres() {
+
+        return width;
+    }
+
+
+    /**
+     * Check if the container is a high cube, i.e. is at least 9 feet 6 inches high.
+     *
+     * @return  {@code true} if the container is a high cube, else {@code false}
+     */
+    public boolean isHighCube() {
+
+        return height >= HIGH_CUBE_HEIGHT;
+    }
+
+
+    /**
+     * Get the type code, i.e. the last two characters of the size and type code.
+     *
+     * @return  the type code, e.g. {@code G1}
+     */
+    public String getTypeCode() {
+
+        return code.substring(2);
+    }
+
+
+    /**
+     * Get the type group of the container.
+     *
+     * @return  the type group, never {@code null}
+     */
+    public TypeGroup getTypeGroup() {
+
+        return typeGroup;
+    }
+
+
+    /**
+     * Get the nearest {@link ContainerType}: the first container type with this ISO code or else the first one with
+     * the same size and type group letter, e.g. {@link ContainerType#FORTY_HC} for {@code 45G1}.
+     *
+     * @return  the nearest container type, empty if there is none of the same size and type group letter
+     */
+    public Optional<ContainerType> toContainerType() {
+
+        return containerType;
+    }
+
+
+    @Override
+    public String toString() {
+
+        return code;
+    }
+
+
+    /**
+     * Get the nominal length of the given length code, i.e. the first character of a size and type code.
+     *
+     * @return  the length in feet, {@code -1} if the given character is no length code
+     */
+    static int lengthFeet(char lengthCode) {
+
+        int lengthIndex = indexOf(LENGTH_INDEX, lengthCode);
+
+        return lengthIndex == -1 ? -1 : LENGTH_FEET[lengthIndex];
+    }
+
+
+    private static SizeTypeCode decode(CharSequence code) {
+
+        if (code == null || code.length() != CODE_LENGTH) {
+            return null;
+        }
+
+        int lengthIndex = indexOf(LENGTH_INDEX, code.charAt(0));
+        int heightIndex = indexOf(HEIGHT_INDEX, code.charAt(1));
+        int typeIndex = indexOf(TYPE_INDEX, code.charAt(2));
+        int detail = code.charAt(3) - '0';
+
+        if (lengthIndex == -1 || heightIndex == -1 || typeIndex == -1 || detail < 0 || detail >= DETAILS) {
+            return null;
+        }
+
+        int index = ((lengthIndex * HEIGHT_CODES.length() + heightIndex) * TYPE_LETTERS.length() + typeIndex)
+            * DETAILS + detail;
+        SizeTypeCode sizeTypeCode = CODES.get(index);
+
+        if (sizeTypeCode == null) {
+            sizeTypeCode = new SizeTypeCode(code.toString(), lengthIndex, heightIndex, typeIndex, detail);
+
+            // another thread may have been faster, keep its instance
+            if (!CODES.compareAndSet(index, null, sizeTypeCode)) {
+                sizeTypeCode = CODES.get(index);
+            }
+        }
+
+        return sizeTypeCode;
+    }
+
+
+    private static Optional<ContainerType> nearestContainerType(String code) {
+
+        Optional<ContainerType> exact = ContainerType.findByIsoCode(code);
+
+        if (exact.isPresent()) {
+            return exact;
+        }
+
+        for (ContainerType type : ContainerType.values()) {
+            String isoCode = type.getIsoCode();
+
+            if (isoCode.regionMatches(0, code, 0, CODE_LENGTH - 1)) {
+                return Optional.of(type);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+
+    private static int indexOf(byte[] index, char c) {
+
+        return c < ASCII ? index[c] : -1;
+    }
+
+
+    private static byte[] index(String codes) {
+
+        byte[] index = new byte[ASCII];
+        Arrays.fill(index, (byte) -1);
+
+        for (int i = 0; i < codes.length(); i++) {
+            index[codes.charAt(i)] = (byte) i;
+        }
+
+        return index;
+    }
+
+    /**
+     * Type groups of ISO 6346, each covering a range of detail digits of one type group letter. Spare detail digits
+     * belong to the last range of their letter.
+     */
+    public enum TypeGroup {
+
+        GP('G', 0, "General purpose"),
+        VH('V', 0, "Ventilated"),
+        BU('B', 0, "Dry bulk, non pressurized"),
+        BK('B', 3, "Dry bulk, pressurized"),
+        SN('S', 0, "Named cargo"),
+        RE('R', 0, "Refrigerated"),
+        RT('R', 1, "Refrigerated and heated"),
+        RS('R', 2, "Refrigerated and heated, self powered"),
+        HR('H', 0, "Thermal with removable equipment"),
+        HI('H', 5, "Insulated"),
+        UT('U', 0, "Open top"),
+        PL('P', 0, "Platform"),
+        PF('P', 1, "Flat rack, fixed ends"),
+        PC('P', 3, "Flat rack, collapsible ends"),
+        PS('P', 5, "Platform, superstructure"),
+        TN('T', 0, "Tank, non dangerous liquids"),
+        TD('T', 3, "Tank, dangerous liquids"),
+        TG('T', 7, "Tank, gases"),
+        AS('A', 0, "Air and surface");
+
+        private final char letter;
+        private final int firstDetail;
+        private final String description;
+
+        TypeGroup(char letter, int firstDetail, String description) {
+
+            this.letter = letter;
+            this.firstDetail = firstDetail;
+            this.description = description;
+        }
+
+        /**
+         * Get the type group letter, i.e. the third character of the size and type code.
+         *
+         * @return  the letter, e.g. {@code G}
+         */
+        public char getLetter() {
+
+            return letter;
+        }
+
+
+        /**
+         * Get the description of this type group.
+         *
+         * @return  the description, e.g. {@code General purpose}
+         */
+        public String getDescription() {
+
+            return description;
+        }
+    }
+}
@@ -26,6 +26,14 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
  }
  * </pre>
  *
+ * <p>Values repeated across many validated objects, e.g. the same container in many line items, can be validated
+ * once by enabling a bounded result cache with {@link #cacheSize()}:</p>
+ *
+ * <pre>
+    &#064;ContainerNumber(cacheSize = 1024)
+    public String containerNumber;
+ * </pre>
+ *
  * @author  Tobias Schneider - schneider@synyx.de
  */
 @Documented
@@ -41,4 +49,12 @@ public @interface ContainerNumber {
 
 
     Class<? extends Payload>[] payload() default {};
+
+
+    /**
+     * Maximum number of validation results to be cached, {@code 0} (the default) to disable the cache.
+     *
+     * @since  0.19.0
+     */
+    int cacheSize() default 0;
 }
@@ -1,5 +1,7 @@
 package net.contargo.types.container.validation;
 
+import net.contargo.types.container.ISO6346;
+
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 
@@ -9,14 +11,26 @@ import javax.validation.ConstraintValidatorContext;
  *
  * <p>Use this validator with the supported annotation {@link ContainerNumber}</p>
  *
+ * <p>Values are checked without creating a {@link net.contargo.types.container.ContainerNumber} or throwing
+ * exceptions, see {@link ISO6346#isISO6346Valid(CharSequence)}. If configured by {@link ContainerNumber#cacheSize()},
+ * results are cached. The validator is thread-safe once initialized.</p>
+ *
  * @author  Tobias Schneider - schneider@synyx.de
  */
 public class ContainerNumberValidator implements ConstraintValidator<ContainerNumber, String> {
 
+    private ValidationResultCache cache;
+
     @Override
     public void initialize(ContainerNumber constraint) {
 
-        // Annotation does not provide any attributes
+        int cacheSize = constraint.cacheSize();
+
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative: " + cacheSize);
+        }
+
+        cache = cacheSize == 0 ? null : new ValidationResultCache(cacheSize, ISO6346::isISO6346Valid);
     }
 
 
@@ -28,14 +42,6 @@ public class ContainerNumberValidator implements ConstraintValidator<ContainerNu
             return true;
         }
 
-        boolean isValid;
-
-        try {
-            isValid = net.contargo.types.container.ContainerNumber.forValue(unitNumber).isISO6346Valid();
-        } catch (IllegalArgumentException e) {
-            isValid = false;
-        }
-
-        return isValid;
+        return cache == null ? ISO6346.isISO6346Valid(unitNumber) : cache.isValid(unitNumber);
     }
 }
@@ -0,0 +1,88 @@
+package net.contargo.types.container.validation;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+
+/**
+ * Bounded cache of validation results, e.g. for the same container number appearing in many line items.
+ *
+ * <p>The cache is direct-mapped: each value has exactly one slot, selected by its hash code, and replaces whatever
+ * result was cached there before. Slots hold immutable entries and are updated without locking, so the cache is
+ * thread-safe. A result computed concurrently by two threads may be cached twice, which is harmless.</p>
+ *
+ * @since  0.19.0
+ */
+final class ValidationResultCache {
+
+    private static final int MAX_SIZE = 1 << 20;
+
+    private final Predicate<String> validation;
+    private final AtomicReferenceArray<Entry> entries;
+    private final int mask;
+
+    /**
+     * Create an empty cache.
+     *
+     * @param  size  maximum number of cached results, rounded up to a power of two, at least 1
+     * @param  validation  computing the result of values not cached, never {@code null}
+     */
+    ValidationResultCache(int size, Predicate<String> validation) {
+
+        if (size < 1) {
+            throw new IllegalArgumentException("Cache size must be positive: " + size);
+        }
+
+        int slots = Integer.highestOneBit(Math.min(size, MAX_SIZE) * 2 - 1);
+
+        this.validation = validation;
+        this.entries = new AtomicReferenceArray<>(slots);
+        this.mask = slots - 1;
+    }
+
+    /**
+     * Get the cached result for the given value, computing and caching it if needed.
+     *
+     * @param  value  to be validated, never {@code null}
+     *
+     * @return  the result of the validation
+     */
+    boolean isValid(String value) {
+
+        int hash = value.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        Entry entry = entries.get(slot);
+
+        if (entry != null && entry.value.equals(value)) {
+            return entry.valid;
+        }
+
+        boolean valid = validation.test(value);
+        entries.lazySet(slot, new Entry(value, valid));
+
+        return valid;
+    }
+
+
+    /**
+     * Get the number of slots of this cache.
+     *
+     * @return  the maximum number of cached results
+     */
+    int capacity() {
+
+        return entries.length();
+    }
+
+    private static final class Entry {
+
+        private final String value;
+        private final boolean valid;
+
+        private Entry(String value, boolean valid) {
+
+            this.value = value;
+            this.valid = valid;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package net.contargo.types.transport;
+
+import net.contargo.types.Assert;
+import net.contargo.types.container.ContainerNumber;
+import net.contargo.types.container.ContainerType;
+import net.contargo.types.container.ContainerTypeCounter;
+import net.contargo.types.container.ISO6346;
+import net.contargo.types.container.LoadingState;
+
+import java.util.Arrays;
+
+
+/**
+ * Append-only, columnar in-memory store of unit movements, i.e. the turn-ins and turn-outs of a terminal, each with
+ * its container number, container type, loading state, direction and timestamp.
+ *
+ * <p>Movements are stored in chunks of columns: the packed container numbers (see {@link ContainerNumber#toLong()})
+ * as {@code long}, the ordinals of type, loading state and direction bit-packed into one {@code short} and the
+ * timestamps as {@code int} milliseconds relative to the first timestamp of their chunk. That is 14 bytes per
+ * movement. Scans run over these primitive arrays, movements outside the time range are skipped by binary search,
+ * because the timestamps of a store never decrease.</p>
+ *
+ * <p>This class is thread-safe: movements are appended one at a time, while any number of readers scan concurrently
+ * without locking. A scan sees all movements appended before it started and may see some appended while it runs.</p>
+ *
+ * @since  0.19.0
+ */
+public final class UnitMovementStore {
+
+    static final int CHUNK_SIZE = 1 << 14;
+
+    private static final ContainerType[] TYPES = ContainerType.values();
+    private static final LoadingState[] LOADING_STATES = LoadingState.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The attributes of a movement are packed into a short: the type above the loading state above the direction,
+     * each as ordinal in as many bits as its enum needs.
+     */
+    private static final int DIRECTION_BITS = bits(DIRECTIONS.length);
+    private static final int DIRECTION_MASK = (1 << DIRECTION_BITS) - 1;
+    private static final int LOADING_STATE_BITS = bits(LOADING_STATES.length);
+    private static final int LOADING_STATE_MASK = (1 << LOADING_STATE_BITS) - 1;
+    private static final int TYPE_SHIFT = DIRECTION_BITS + LOADING_STATE_BITS;
+    private static final int ATTRIBUTES = TYPES.length << TYPE_SHIFT;
+
+    static {
+        if (ATTRIBUTES > Short.MAX_VALUE + 1) {
+            throw new IllegalStateException("Attributes of unit movements do not fit in a short: " + ATTRIBUTES);
+        }
+    }
+
+    private final int chunkSize;
+
+    /**
+     * The chunks, replaced by a longer copy when a chunk is added, so readers never see a partially filled array.
+     */
+    private volatile Chunk[] chunks = new Chunk[0];
+    private volatile long size;
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    /**
+     * Create an empty store.
+     */
+    public UnitMovementStore() {
+
+        this(CHUNK_SIZE);
+    }
+
+
+    UnitMovementStore(int chunkSize) {
+
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Append a movement.
+     *
+     * @param  timestamp  of the movement in milliseconds since the epoch, not before the last appended one
+     * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+     * @param  type  never {@code null}
+     * @param  loadingState  never {@code null}
+     * @param  direction  never {@code null}
+     *
+     * @throws  IllegalArgumentException  if the container number is no packed container number, any other argument is
+     *                                    {@code null} or the timestamp is before the last appended one
+     */
+    public synchronized void append(long timestamp, long containerNumber, ContainerType type,
+        LoadingState loadingState, Direction direction) {
+
+        if (!ISO6346.isPacked(containerNumber)) {
+            throw new IllegalArgumentException("Value is not a packed container number: " + containerNumber);
+        }
+
+        Assert.notNull(type, "Container type must not be null");
+        Assert.notNull(loadingState, "Loading state must not be null");
+        Assert.notNull(direction, "Direction must not be null");
+
+        if (timestamp < lastTimestamp) {
+            throw new IllegalArgumentException("Timestamp must not be before the last appended one: " + timestamp);
+        }
+
+        Chunk[] current = chunks;
+        Chunk chunk = current.length == 0 ? null : current[current.length - 1];
+
+        if (chunk == null || chunk.size == chunkSize || timestamp - chunk.base > Integer.MAX_VALUE
+                || timestamp - chunk.base < 0) {
+            chunk = new Chunk(timestamp, chunkSize);
+
+            Chunk[] added = Arrays.copyOf(current, current.length + 1);
+            added[current.length] = chunk;
+            chunks = added;
+        }
+
+        int index = chunk.size;
+        chunk.containerNumbers[index] = containerNumber;
+        chunk.attributes[index] = (short) ((type.ordinal() << TYPE_SHIFT) | (loadingState.ordinal() << DIRECTION_BITS)
+            | direction.ordinal());
+        chunk.offsets[index] = (int) (timestamp - chunk.base);
+
+        // publishes the columns written above to readers
+        chunk.size = index + 1;
+        size++;
+        lastTimestamp = timestamp;
+    }
+
+
+    /**
+     * Append a movement.
+     *
+     * @param  timestamp  of the movement in milliseconds since the epoch, not before the last appended one
+     * @param  containerNumber  never {@code null}
+     * @param  type  never {@code null}
+     * @param  loadingState  never {@code null}
+     * @param  direction  never {@code null}
+     *
+     * @throws  IllegalArgumentException  if the container number has no valid format, any argument is {@code null}
+     *                                    or the timestamp is before the last appended one
+     */
+    public void append(long timestamp, ContainerNumber containerNumber, ContainerType type,
+        LoadingState loadingState, Direction direction) {
+
+        Assert.notNull(containerNumber, "Container number must not be null");
+
+        append(timestamp, containerNumber.toLong(), type, loadingState, direction);
+    }
+
+
+    /**
+     * Get the number of appended movements.
+     *
+     * @return  the number of movements
+     */
+    public long size() {
+
+        return size;
+    }
+
+
+    /**
+     * Count the movements within the given time range.
+     *
+     * @param  from  inclusive, in milliseconds since the epoch
+     * @param  to  exclusive, in milliseconds since the epoch
+     *
+     * @return  the number of movements
+     */
+    public long count(long from, long to) {
+
+        long count = 0;
+
+        for (Chunk chunk : chunks) {
+            int length = chunk.size;
+            count += Math.max(0, chunk.indexOf(to, length) - chunk.indexOf(from, length));
+        }
+
+        return count;
+    }
+
+
+    /**
+     * Count the movements of the given container within the given time range.
+     *
+     * @param  containerNumber  packed container number, see {@link ContainerNumber#toLong()}
+     * @param  from  inclusive, in milliseconds since the epoch
+     * @param  to  exclusive, in milliseconds since the epoch
+     *
+     * @return  the number of movements
+     */
+    public long count(long containerNumber, long from, long to) {
+
+        long count = 0;
+
+        for (Chunk chunk : chunks) {
+            int length = chunk.size;
+            long[] containerNumbers = chunk.containerNumbers;
+
+            for (int i = chunk.indexOf(from, length), end = chunk.indexOf(to, length); i < end; i++) {
+                if (containerNumbers[i] == containerNumber) {
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
+
+    /**
+     * Count the movements within the given time range per container type, loading state and direction.
+     *
+     * @param  from  inclusive, in milliseconds since the epoch
+     * @param  to  exclusive, in milliseconds since the epoch
+     *
+     * @return  the counts, never {@code null}
+     */
+    public ContainerTypeCounter countByType(long from, long to) {
+
+        // histogram of the bit-packed attributes, translated once at the end
+        long[] histogram = new long[ATTRIBUTES];
+
+        for (Chunk chunk : chunks) {
+            int length = chunk.size;
+            short[] attributes = chunk.attributes;
+
+            for (int i = chunk.indexOf(from, length), end = chunk.indexOf(to, length); i < end; i++) {
+                histogram[attributes[i]]++;
+            }
+        }
+
+        ContainerTypeCounter counter = new ContainerTypeCounter();
+
+        for (int attribute = 0; attribute < ATTRIBUTES; attribute++) {
+            if (histogram[attribute] > 0) {
+                counter.add(TYPES[attribute >>> TYPE_SHIFT],
+                    LOADING_STATES[(attribute >>> DIRECTION_BITS) & LOADING_STATE_MASK],
+                    DIRECTIONS[attribute & DIRECTION_MASK], histogram[attribute]);
+            }
+        }
+
+        return counter;
+    }
+
+
+    /**
+     * Pass the movements within the given time range to the given consumer, ordered by timestamp.
+     *
+     * @param  from  inclusive, in milliseconds since the epoch
+     * @param  to  exclusive, in milliseconds since the epoch
+     * @param  consumer  never {@code null}
+     */
+    public void forEach(long from, long to, MovementConsumer consumer) {
+
+        Assert.notNull(consumer, "Consumer must not be null");
+
+        for (Chunk chunk : chunks) {
+            int length = chunk.size;
+
+            for (int i = chunk.indexOf(from, length), end = chunk.indexOf(to, length); i < end; i++) {
+                int attribute = chunk.attributes[i];
+
+                consumer.accept(chunk.base + chunk.offsets[i], chunk.containerNumbers[i],
+                    TYPES[attribute >>> TYPE_SHIFT],
+                    LOADING_STATES[(attribute >>> DIRECTION_BITS) & LOADING_STATE_MASK],
+                    DIRECTIONS[attribute & DIRECTION_MASK]);
+            }
+        }
+    }
+
+
+    /**
+     * Number of bits needed to store the given number of ordinals, at least one.
+     */
+    private static int bits(int ordinals) {
+
+        return Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(ordinals - 1));
+    }
+
+    /**
+     * Consumer of movements, see {@link #forEach(long, long, MovementConsumer)}.
+     */
+    @FunctionalInterface
+    public interface MovementConsumer {
+
+        /**
+         * Consume a movement.
+         *
+         * @param  timestamp  in milliseconds since the epoch
+         * @param  containerNumber  packed container number, see {@link ContainerNumber#fromLong(long)}
+         * @param  type  never {@code null}
+         * @param  loadingState  never {@code null}
+         * @param  direction  never {@code null}
+         */
+        void accept(long timestamp, long containerNumber, ContainerType type, LoadingState loadingState,
+            Direction direction);
+    }
+
+    /**
+     * Columns of consecutive movements, written by the appending thread up to {@link #size}.
+     */
+    private static final class Chunk {
+
+        private final long base;
+        private final long[] containerNumbers;
+        private final short[] attributes;
+        private final int[] offsets;
+        private volatile int size;
+
+        private Chunk(long base, int capacity) {
+
+            this.base = base;
+            this.containerNumbers = new long[capacity];
+            this.attributes = new short[capacity];
+            this.offsets = new int[capacity];
+        }
+
+        /**
+         * Index of the first of the given number of movements at or after the given timestamp, {@code length} if
+         * there is none.
+         */
+        private int indexOf(long timestamp, int length) {
+
+            if (timestamp <= base) {
+                return 0;
+            }
+
+            long offset = timestamp - base;
+
+            // a negative offset overflowed
+            if (offset < 0 || offset > Integer.MAX_VALUE) {
+                return length;
+            }
+
+            int low = 0;
+            int high = length;
+
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+
+                if (offsets[middle] < offset) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            return low;
+        }
+    }
+}
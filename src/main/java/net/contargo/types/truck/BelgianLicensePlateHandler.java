@@ -19,6 +19,8 @@ package net.contargo.types.truck;
  */
 class BelgianLicensePlateHandler implements LicensePlateHandler {
 
+    private static final String COUNTRY_CODE = "B";
+
     /**
      * Normalizes the given {@link LicensePlate} value by upper casing it and replacing all whitespaces by hyphens.
      *
@@ -29,7 +31,7 @@ class BelgianLicensePlateHandler implements LicensePlateHandler {
     @Override
     public String normalize(String value) {
 
-        return LicensePlateHandler.trim(value).replaceAll("\\s", "-");
+        return LicensePlateScanner.normalize(value, '-', '-', LicensePlateScanner.KEEP_LETTERS_AND_DIGITS);
     }
 
 
@@ -61,6 +63,8 @@ class BelgianLicensePlateHandler implements LicensePlateHandler {
      * <p>Note that these special cases are not covered by this validator! Also this validator considers only the
      * license plate format in general, but not letter combinations in detail.</p>
      *
+     * <p>The formats are read from the {@link LicensePlateRules}.</p>
+     *
      * @param  value  to be validated, never {@code null}
      *
      * @return  {@code true} if the given {@link LicensePlate} is valid, else {@code false}
@@ -68,20 +72,6 @@ class BelgianLicensePlateHandler implements LicensePlateHandler {
     @Override
     public boolean validate(String value) {
 
-        String normalizedValue = normalize(value);
-
-        // 1-XXX-999
-        boolean leadingDigit = normalizedValue.matches("[1-9]\\-[A-Z]{3}\\-[0-9]{3}");
-
-        // 9-999-XXX
-        boolean leadingDigitAlternative = normalizedValue.matches("[1-9]\\-[0-9]{3}\\-[A-Z]{3}");
-
-        // X-XXX-999
-        boolean leadingLetter = normalizedValue.matches("[A-Z]\\-[A-Z]{3}\\-[0-9]{3}");
-
-        // WX-99-XXX
-        boolean leadingLetters = normalizedValue.matches("[A-Z]{2}\\-[0-9]{2}\\-[A-Z]{3}");
-
-        return leadingDigit || leadingDigitAlternative || leadingLetter || leadingLetters;
+        return LicensePlateRules.validate(COUNTRY_CODE, normalize(value));
     }
 }
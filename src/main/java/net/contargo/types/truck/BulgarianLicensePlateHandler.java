@@ -1,9 +1,5 @@
 package net.contargo.types.truck;
 
-import java.util.Arrays;
-import java.util.List;
-
-
 /**
  * Can handle Bulgarian {@link LicensePlate}s.
  *
@@ -22,21 +18,7 @@ import java.util.List;
  */
 class BulgarianLicensePlateHandler implements LicensePlateHandler {
 
-    private static final String WHITESPACE = " ";
-
-    /**
-     * The provinces of Bulgaria.
-     *
-     * <p>For further information see the <a
-     * href="https://en.wikipedia.org/wiki/Vehicle_registration_plates_of_Bulgaria#Provincial_codes">list of
-     * provinces</a></p>
-     */
-    private static final List<String> PROVINCES = Arrays.asList("A", "B", "BH", "BP", "BT", "E", "EB", "EH", "K", "KH",
-            "M", "H", "OB", "P", "PA", "PB", "PK", "PP", "C", "CA", "CB", "CH", "CM", "CO", "CC", "CT", "T", "TX", "Y",
-            "X");
-
-    private static final List<String> ACCEPTED_LETTERS = Arrays.asList("A", "B", "E", "K", "M", "H", "O", "P", "C",
-            "T", "Y", "X");
+    private static final String COUNTRY_CODE = "BG";
 
     /**
      * Normalizes the given {@link LicensePlate} value by upper casing it and replacing all hyphens by whitespaces, and
@@ -49,9 +31,7 @@ class BulgarianLicensePlateHandler implements LicensePlateHandler {
     @Override
     public String normalize(String value) {
 
-        return LicensePlateHandler.trim(value)
-            .replaceAll("\\-", WHITESPACE)
-            .replaceAll("(?<=\\d)(?=\\p{L})|(?<=\\p{L})(?=\\d)", WHITESPACE);
+        return LicensePlateScanner.normalize(value, ' ', ' ', LicensePlateScanner.SEPARATE_LETTERS_AND_DIGITS);
     }
 
 
@@ -87,6 +67,8 @@ class BulgarianLicensePlateHandler implements LicensePlateHandler {
      *
      * <p>The third group can only consist of certain letters, which are validated.</p>
      *
+     * <p>The formats and codes are read from the {@link LicensePlateRules}.</p>
+     *
      * @param  value  to be validated, never {@code null}
      *
      * @return  {@code true} if the given {@link LicensePlate} is valid, else {@code false}
@@ -94,40 +76,6 @@ class BulgarianLicensePlateHandler implements LicensePlateHandler {
     @Override
     public boolean validate(String value) {
 
-        String normalizedValue = normalize(value);
-
-        if (!isValidFormat(normalizedValue)) {
-            return false;
-        }
-
-        String[] parts = normalizedValue.split(WHITESPACE);
-
-        if (!isLetterGroupValid(parts[2])) {
-            return false;
-        }
-
-        return isProvinceCode(parts[0]);
-    }
-
-
-    private static boolean isValidFormat(String normalizedValue) {
-
-        // A-1234-AA
-        return normalizedValue.matches("[A-Z]\\s[0-9]{4}\\s[A-Z]{2}")
-            // AA-1234-AA
-            || normalizedValue.matches("[A-Z]{2}\\s[0-9]{4}\\s[A-Z]{2}");
-    }
-
-
-    private static boolean isProvinceCode(String countyCode) {
-
-        return PROVINCES.contains(countyCode);
-    }
-
-
-    private boolean isLetterGroupValid(String letterGroup) {
-
-        return ACCEPTED_LETTERS.contains(letterGroup.substring(0, 1))
-            && ACCEPTED_LETTERS.contains(letterGroup.substring(1, 2));
+        return LicensePlateRules.validate(COUNTRY_CODE, normalize(value));
     }
 }
@@ -31,6 +31,7 @@ package net.contargo.types.truck;
  */
 class CzechLicensePlateHandler implements LicensePlateHandler {
 
+    private static final String COUNTRY_CODE = "CZ";
     private static final int NUMBER_OF_DIGITS = 4;
 
     /**
@@ -45,7 +46,8 @@ class CzechLicensePlateHandler implements LicensePlateHandler {
     @Override
     public String normalize(String value) {
 
-        String trimmedValue = LicensePlateHandler.trim(value).replaceAll("\\s", "").replaceAll("\\-", "");
+        String trimmedValue = LicensePlateScanner.normalize(value, LicensePlateScanner.REMOVE,
+                LicensePlateScanner.REMOVE, LicensePlateScanner.KEEP_LETTERS_AND_DIGITS);
         String normalizedValue = trimmedValue;
 
         if (trimmedValue.length() > NUMBER_OF_DIGITS) {
@@ -55,12 +57,12 @@ class CzechLicensePlateHandler implements LicensePlateHandler {
             String letters = trimmedValue.substring(0, numbersIndex);
 
             // if the last four characters are digits, consider that it is a currently or formerly valid license plate
-            if (numbers.matches("[0-9]{4}")) {
+            if (LicensePlateScanner.hasShape(numbers, "9999")) {
                 normalizedValue = letters + " " + numbers;
             }
 
             // if the first two or three characters are letters, consider that it is a formerly valid license plate
-            if (letters.matches("[A-Z]{2,3}")) {
+            if (LicensePlateScanner.hasShape(letters, "AA") || LicensePlateScanner.hasShape(letters, "AAA")) {
                 int numbersLength = numbers.length();
                 int halfOfNumbersLength = numbersLength / 2; // NOSONAR - it would be ridiculous to add a constant for 2
 
@@ -101,6 +103,8 @@ class CzechLicensePlateHandler implements LicensePlateHandler {
      *
      * <p>Note that these special cases are not covered by this validator!</p>
      *
+     * <p>The formats are read from the {@link LicensePlateRules}.</p>
+     *
      * @param  value  to be validated, never {@code null}
      *
      * @return  {@code true} if the given {@link LicensePlate} is valid, else {@code false}
@@ -108,13 +112,6 @@ class CzechLicensePlateHandler implements LicensePlateHandler {
     @Override
     public boolean validate(String value) {
 
-        String normalizedValue = normalize(value);
-
-        String currentlyValidFormat = "[0-9][A-Z][A-Z0-9]\\s[0-9]{4}";
-        String formerlyValidFormat = "[A-Z]{2,3}\\s[0-9]{2}-[0-9]{2}";
-        String customFormat = "[A-Z0-9]{8}";
-
-        return normalizedValue.matches(currentlyValidFormat) || normalizedValue.matches(formerlyValidFormat)
-            || normalizedValue.matches(customFormat);
+        return LicensePlateRules.validate(COUNTRY_CODE, normalize(value));
     }
 }
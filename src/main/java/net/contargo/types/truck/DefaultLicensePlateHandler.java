@@ -8,6 +8,9 @@ package net.contargo.types.truck;
  */
 class DefaultLicensePlateHandler implements LicensePlateHandler {
 
+    private static final int MINIMUM_NUMBER_OF_CHARACTERS = 2;
+    private static final int MAXIMUM_NUMBER_OF_CHARACTERS = 15;
+
     /**
      * Normalizes the given {@link LicensePlate} value by upper casing it and replacing all whitespaces by hyphens.
      *
@@ -18,7 +21,7 @@ class DefaultLicensePlateHandler implements LicensePlateHandler {
     @Override
     public String normalize(String value) {
 
-        return LicensePlateHandler.trim(value).replaceAll("\\s", "-");
+        return LicensePlateScanner.normalize(value, '-', '-', LicensePlateScanner.KEEP_LETTERS_AND_DIGITS);
     }
 
 
@@ -35,7 +38,20 @@ class DefaultLicensePlateHandler implements LicensePlateHandler {
     @Override
     public boolean validate(String value) {
 
+        String normalizedValue = normalize(value);
+        int length = 0;
+
         // allowed: any letter or digit, but no special characters except '-' and ' '
-        return normalize(value).matches("[\\p{L}0-9\\- ]{2,15}");
+        for (int i = 0; i < normalizedValue.length(); i += Character.charCount(normalizedValue.codePointAt(i))) {
+            int c = normalizedValue.codePointAt(i);
+
+            if (!Character.isLetter(c) && (c < '0' || c > '9') && c != '-' && c != ' ') {
+                return false;
+            }
+
+            length++;
+        }
+
+        return length >= MINIMUM_NUMBER_OF_CHARACTERS && length <= MAXIMUM_NUMBER_OF_CHARACTERS;
     }
 }
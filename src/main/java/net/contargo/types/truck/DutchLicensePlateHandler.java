@@ -21,6 +21,8 @@ package net.contargo.types.truck;
 class DutchLicensePlateHandler implements LicensePlateHandler {
 
     private static final int MAXIMUM_NUMBER_OF_CHARACTERS = 8;
+    private static final int NUMBER_OF_GROUPS = 3;
+    private static final int MAXIMUM_GROUP_LENGTH = 3;
 
     /**
      * Normalizes the given {@link LicensePlate} value by upper casing it and replacing all whitespaces by hyphens.
@@ -32,7 +34,7 @@ class DutchLicensePlateHandler implements LicensePlateHandler {
     @Override
     public String normalize(String value) {
 
-        return LicensePlateHandler.trim(value).replaceAll("\\s", "-");
+        return LicensePlateScanner.normalize(value, '-', '-', LicensePlateScanner.KEEP_LETTERS_AND_DIGITS);
     }
 
 
@@ -62,6 +64,26 @@ class DutchLicensePlateHandler implements LicensePlateHandler {
             return false;
         }
 
-        return normalizedValue.matches("[A-Z0-9]{1,3}\\-[A-Z0-9]{1,3}\\-[A-Z0-9]{1,3}");
+        int position = 0;
+
+        for (int group = 0; group < NUMBER_OF_GROUPS; group++) {
+            if (group > 0) {
+                if (position == normalizedValue.length() || normalizedValue.charAt(position) != '-') {
+                    return false;
+                }
+
+                position++;
+            }
+
+            int end = LicensePlateScanner.skipLettersAndDigits(normalizedValue, position);
+
+            if (end == position || end - position > MAXIMUM_GROUP_LENGTH) {
+                return false;
+            }
+
+            position = end;
+        }
+
+        return position == normalizedValue.length();
     }
 }
@@ -43,10 +43,11 @@ class FrenchLicensePlateHandler implements LicensePlateHandler {
     @Override
     public String normalize(String value) {
 
-        String normalizedValue = LicensePlateHandler.trim(value).replaceAll("\\s", "-");
+        String normalizedValue = LicensePlateScanner.normalize(value, '-', '-',
+                LicensePlateScanner.KEEP_LETTERS_AND_DIGITS);
 
         if (hasFormerlyValidFormat(normalizedValue)) {
-            normalizedValue = normalizedValue.replaceAll("\\-", " ");
+            normalizedValue = normalizedValue.replace('-', ' ');
         }
 
         return normalizedValue;
@@ -97,12 +98,40 @@ class FrenchLicensePlateHandler implements LicensePlateHandler {
 
     private static boolean hasCurrentlyValidFormat(String normalizedValue) {
 
-        return normalizedValue.matches("[A-Z]{2}\\-[0-9]{3}\\-[A-Z]{2}");
+        return LicensePlateScanner.hasShape(normalizedValue, "AA-999-AA");
     }
 
 
     private static boolean hasFormerlyValidFormat(String normalizedValue) {
 
-        return normalizedValue.matches("[0-9]{2,4}[\\s\\-][A-Z]{1,3}[[\\s\\-]][A-Z0-9]{2,3}");
+        // 9999 XX 99: two to four digits, one to three letters, two or three letters or digits
+        int digits = LicensePlateScanner.skipDigits(normalizedValue, 0);
+
+        if (digits < 2 || digits > 4 || !isSeparator(normalizedValue, digits)) {
+            return false;
+        }
+
+        int letters = LicensePlateScanner.skipLetters(normalizedValue, digits + 1);
+
+        if (letters - digits - 1 < 1 || letters - digits - 1 > 3 || !isSeparator(normalizedValue, letters)) {
+            return false;
+        }
+
+        int departmentLength = normalizedValue.length() - letters - 1;
+
+        return departmentLength >= 2 && departmentLength <= 3
+            && LicensePlateScanner.skipLettersAndDigits(normalizedValue, letters + 1) == normalizedValue.length();
+    }
+
+
+    private static boolean isSeparator(String normalizedValue, int index) {
+
+        if (index >= normalizedValue.length()) {
+            return false;
+        }
+
+        char c = normalizedValue.charAt(index);
+
+        return c == '-' || LicensePlateScanner.isWhitespace(c);
     }
 }
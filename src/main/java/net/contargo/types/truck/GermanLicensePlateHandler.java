@@ -20,7 +20,6 @@ package net.contargo.types.truck;
  */
 class GermanLicensePlateHandler implements LicensePlateHandler {
 
-    private static final String WHITESPACE = " ";
     private static final int MAXIMUM_NUMBER_OF_CHARACTERS = 8;
     private static final int NUMBER_OF_WHITESPACES = 2;
 
@@ -40,9 +39,7 @@ class GermanLicensePlateHandler implements LicensePlateHandler {
     @Override
     public String normalize(String value) {
 
-        return LicensePlateHandler.trim(value)
-            .replaceAll("\\-", WHITESPACE)
-            .replaceAll("(?<=[A-ZÄÖÜ])(?=[0-9])", WHITESPACE);
+        return LicensePlateScanner.normalize(value, ' ', ' ', LicensePlateScanner.SEPARATE_DIGITS_FROM_UMLAUTS);
     }
 
 
@@ -81,7 +78,37 @@ class GermanLicensePlateHandler implements LicensePlateHandler {
 
         String normalizedValue = normalize(value);
 
-        return normalizedValue.length() <= MAXIMUM_NUMBER_OF_CHARACTERS + NUMBER_OF_WHITESPACES
-            && normalizedValue.matches("^[A-ZÄÖÜ]{1,3}\\s[A-Z]{0,2}\\s[1-9][0-9]{0,3}");
+        if (normalizedValue.length() > MAXIMUM_NUMBER_OF_CHARACTERS + NUMBER_OF_WHITESPACES) {
+            return false;
+        }
+
+        // geographic identifier: one to three letters or umlauts
+        int position = 0;
+
+        while (position < normalizedValue.length() && isGeographicLetter(normalizedValue.charAt(position))) {
+            position++;
+        }
+
+        if (position < 1 || position > 3 || !LicensePlateScanner.hasShapeAt(normalizedValue, position, "_")) {
+            return false;
+        }
+
+        // zero to two identification letters
+        int letters = LicensePlateScanner.skipLetters(normalizedValue, position + 1);
+
+        if (letters - position - 1 > 2 || !LicensePlateScanner.hasShapeAt(normalizedValue, letters, "_1")) {
+            return false;
+        }
+
+        // one to four identification numbers without leading zero
+        int digits = LicensePlateScanner.skipDigits(normalizedValue, letters + 1);
+
+        return digits == normalizedValue.length() && digits - letters - 1 <= 4;
+    }
+
+
+    private static boolean isGeographicLetter(char c) {
+
+        return LicensePlateScanner.isLetter(c) || c == 'Ä' || c == 'Ö' || c == 'Ü';
     }
 }
@@ -6,22 +6,39 @@ import net.contargo.types.Assert;
 /**
  * Each {@link net.contargo.domain.Truck} can be identified by its license plate.
  *
+ * <p>License plates are immutable and thread-safe. Validity and normalized form are computed once when the license
+ * plate is built, the hash code when it is first needed, so plates are cheap keys of sets and maps.</p>
+ *
  * @author  Aljona Murygina - murygina@synyx.de
  * @since  0.1.0
  */
 public final class LicensePlate {
 
     private final String value;
-    private Country country;
+    private final Country country;
+    private final boolean valid;
+    private final String formatted;
+
+    /**
+     * Cached hash code of the formatted value, {@code 0} if not yet computed. Racy but safe, like
+     * {@link String#hashCode()}: all threads compute the same value from final fields.
+     */
+    private int hash;
 
     /**
      * Use {@link #forValue(String)} to build a new {@link LicensePlate} instance.
      *
      * @param  value  represents a license plate
+     * @param  country  never {@code null}
      */
-    private LicensePlate(String value) {
+    private LicensePlate(String value, Country country) {
+
+        LicensePlateHandler handler = country.getLicensePlateHandler();
 
         this.value = value;
+        this.country = country;
+        this.valid = handler.validate(value);
+        this.formatted = valid ? handler.normalize(value) : value;
     }
 
     /**
@@ -47,11 +64,7 @@ public final class LicensePlate {
     @Override
     public String toString() {
 
-        if (isValid()) {
-            return country.getLicensePlateHandler().normalize(value);
-        }
-
-        return value;
+        return formatted;
     }
 
 
@@ -62,7 +75,7 @@ public final class LicensePlate {
      */
     public boolean isValid() {
 
-        return country.getLicensePlateHandler().validate(value);
+        return valid;
     }
 
 
@@ -77,17 +90,21 @@ public final class LicensePlate {
             return false;
         }
 
-        String o1 = this.toString();
-        String o2 = obj.toString();
-
-        return o1.equals(o2);
+        return formatted.equals(((LicensePlate) obj).formatted);
     }
 
 
     @Override
     public int hashCode() {
 
-        return this.toString().hashCode();
+        int h = hash;
+
+        if (h == 0) {
+            h = formatted.hashCode();
+            hash = h;
+        }
+
+        return h;
     }
 
 
@@ -105,15 +122,15 @@ public final class LicensePlate {
 
     public static class LicensePlateBuilder {
 
-        private LicensePlate licensePlate;
+        private final String value;
 
         private LicensePlateBuilder(String value) {
 
-            this.licensePlate = new LicensePlate(value);
+            this.value = value;
         }
 
         /**
-         * Set the {@link Country} for this {@link LicensePlate}.
+         * Build the {@link LicensePlate} of the given {@link Country}. Each call returns a new {@link LicensePlate}.
          *
          * @param  country  never {@code null}
          *
@@ -125,9 +142,7 @@ public final class LicensePlate {
 
             Assert.notNull(country, "Country must not be null");
 
-            licensePlate.country = country;
-
-            return licensePlate;
+            return new LicensePlate(value, country);
         }
     }
 }
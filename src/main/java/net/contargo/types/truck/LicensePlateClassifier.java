@@ -0,0 +1,247 @@
+package net.contargo.types.truck;
+
+import net.contargo.types.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Classifies a license plate of unknown country, i.e. finds all {@link LicensePlateCountry}s it is valid for.
+ *
+ * <p>The value is scanned once to count its letters, digits and other characters. Each country declares the counts
+ * its license plates can have, either below or by the formats of its {@link LicensePlateRules}. Only the handlers of
+ * the countries admitting the counts validate the value. So most values are validated by one or two handlers instead
+ * of all of them, with the same result.</p>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>
+ List&lt;LicensePlateClassifier.Match&gt; matches = LicensePlateClassifier.classify("ka ab 123");
+
+ matches.get(0).getCountry();          // GERMANY
+ matches.get(0).getNormalizedValue();  // KA AB 123
+ * </pre>
+ *
+ * @since  0.19.0
+ */
+public final class LicensePlateClassifier {
+
+    private static final LicensePlateCountry[] COUNTRIES = LicensePlateCountry.values();
+
+    /**
+     * The counts of letters and digits the license plates of each country without {@link LicensePlateRules} can
+     * have, by ordinal.
+     */
+    private static final Counts[] COUNTS = new Counts[COUNTRIES.length];
+
+    static {
+        COUNTS[LicensePlateCountry.GERMANY.ordinal()] = new Counts(1, 5, 1, 4, 2, 9, true);
+        COUNTS[LicensePlateCountry.NETHERLANDS.ordinal()] = new Counts(0, 6, 0, 6, 3, 6, false);
+        COUNTS[LicensePlateCountry.FRANCE.ordinal()] = new Counts(1, 6, 2, 7, 5, 10, false);
+        COUNTS[LicensePlateCountry.POLAND.ordinal()] = new Counts(2, 8, 0, 5, 5, 8, false);
+    }
+
+    private LicensePlateClassifier() {
+
+        // Hide utility class constructor
+    }
+
+    /**
+     * Find all countries the given license plate is valid for.
+     *
+     * <p>The matches are ranked: countries whose normalized value equals the trimmed and upper cased value, i.e. the
+     * value is already written the way the country writes it, come first, then the others. Within both, countries
+     * keep the order of {@link LicensePlateCountry}. {@link LicensePlateCountry#UNKNOWN_COUNTRY} is returned only if
+     * there is no other match and it is valid.</p>
+     *
+     * @param  value  represents a license plate, never {@code null}
+     *
+     * @return  the ranked matches, empty if the value is not even valid for an unknown country, never {@code null}
+     */
+    public static List<Match> classify(String value) {
+
+        Assert.notNull(value, "Value for license plate must not be null");
+
+        String upperCase = value.toUpperCase();
+
+        int letters = 0;
+        int digits = 0;
+        int umlauts = 0;
+        int others = 0;
+
+        for (int i = 0; i < upperCase.length(); i++) {
+            char c = upperCase.charAt(i);
+
+            if (LicensePlateScanner.isLetter(c)) {
+                letters++;
+            } else if (LicensePlateScanner.isDigit(c)) {
+                digits++;
+            } else if (c == 'Ä' || c == 'Ö' || c == 'Ü') {
+                umlauts++;
+            } else if (c > ' ' && c != '-') {
+                // whitespaces, hyphens and control characters are separators or trimmed
+                others++;
+            }
+        }
+
+        List<Match> matches = new ArrayList<>();
+
+        if (others == 0) {
+            String trimmed = LicensePlateHandler.trim(upperCase);
+            int exact = 0;
+
+            for (LicensePlateCountry country : COUNTRIES) {
+                if (!admits(country, letters, digits, umlauts)) {
+                    continue;
+                }
+
+                LicensePlateHandler handler = country.getLicensePlateHandler();
+
+                if (handler.validate(value)) {
+                    String normalizedValue = handler.normalize(value);
+
+                    if (normalizedValue.equals(trimmed)) {
+                        matches.add(exact++, new Match(country, normalizedValue));
+                    } else {
+                        matches.add(new Match(country, normalizedValue));
+                    }
+                }
+            }
+        }
+
+        if (matches.isEmpty()) {
+            LicensePlateHandler handler = LicensePlateCountry.UNKNOWN_COUNTRY.getLicensePlateHandler();
+
+            if (handler.validate(value)) {
+                return Collections.singletonList(new Match(LicensePlateCountry.UNKNOWN_COUNTRY,
+                            handler.normalize(value)));
+            }
+        }
+
+        return matches;
+    }
+
+
+    private static boolean admits(LicensePlateCountry country, int letters, int digits, int umlauts) {
+
+        Counts counts = COUNTS[country.ordinal()];
+
+        if (counts != null) {
+            return counts.admit(letters, digits, umlauts);
+        }
+
+        LicensePlateRule rule = LicensePlateRules.getRule(country.getCountryCode());
+
+        return rule != null && rule.admits(letters, digits, umlauts);
+    }
+
+    /**
+     * A country a license plate is valid for, with the normalized value of the license plate in this country.
+     */
+    public static final class Match {
+
+        private final LicensePlateCountry country;
+        private final String normalizedValue;
+
+        private Match(LicensePlateCountry country, String normalizedValue) {
+
+            this.country = country;
+            this.normalizedValue = normalizedValue;
+        }
+
+        /**
+         * Get the country the license plate is valid for.
+         *
+         * @return  country, never {@code null}
+         */
+        public LicensePlateCountry getCountry() {
+
+            return country;
+        }
+
+
+        /**
+         * Get the normalized value of the license plate in this country, see
+         * {@link LicensePlateHandler#normalize(String)}.
+         *
+         * @return  normalized value, never {@code null}
+         */
+        public String getNormalizedValue() {
+
+            return normalizedValue;
+        }
+
+
+        @Override
+        public boolean equals(Object obj) {
+
+            if (this == obj) {
+                return true;
+            }
+
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+
+            Match other = (Match) obj;
+
+            return country == other.country && normalizedValue.equals(other.normalizedValue);
+        }
+
+
+        @Override
+        public int hashCode() {
+
+            return 31 * country.hashCode() + normalizedValue.hashCode();
+        }
+
+
+        @Override
+        public String toString() {
+
+            return country + ": " + normalizedValue;
+        }
+    }
+
+    /**
+     * The ranges of letters from A to Z, digits and of all letters and digits of the license plates of a country.
+     * Umlauts count as letters, if the country has them.
+     */
+    private static final class Counts {
+
+        private final int minimumLetters;
+        private final int maximumLetters;
+        private final int minimumDigits;
+        private final int maximumDigits;
+        private final int minimumCharacters;
+        private final int maximumCharacters;
+        private final boolean umlauts;
+
+        private Counts(int minimumLetters, int maximumLetters, int minimumDigits, int maximumDigits,
+            int minimumCharacters, int maximumCharacters, boolean umlauts) {
+
+            this.minimumLetters = minimumLetters;
+            this.maximumLetters = maximumLetters;
+            this.minimumDigits = minimumDigits;
+            this.maximumDigits = maximumDigits;
+            this.minimumCharacters = minimumCharacters;
+            this.maximumCharacters = maximumCharacters;
+            this.umlauts = umlauts;
+        }
+
+        private boolean admit(int letters, int digits, int umlautCount) {
+
+            if (umlautCount > 0 && !umlauts) {
+                return false;
+            }
+
+            int allLetters = letters + umlautCount;
+            int characters = allLetters + digits;
+
+            return allLetters >= minimumLetters && allLetters <= maximumLetters && digits >= minimumDigits
+                && digits <= maximumDigits && characters >= minimumCharacters && characters <= maximumCharacters;
+        }
+    }
+}
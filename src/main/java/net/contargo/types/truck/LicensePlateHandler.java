@@ -37,6 +37,6 @@ interface LicensePlateHandler {
      */
     static String trim(String value) {
 
-        return value.toUpperCase().trim().replaceAll("\\s+", " ").replaceAll("\\-+", "-");
+        return LicensePlateScanner.normalize(value, ' ', '-', LicensePlateScanner.KEEP_LETTERS_AND_DIGITS);
     }
 }
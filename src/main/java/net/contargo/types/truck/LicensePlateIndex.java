@@ -0,0 +1,296 @@
+package net.contargo.types.truck;
+
+import net.contargo.types.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+
+/**
+ * Index of expected license plates, e.g. of the trucks booked for a day, finding the ones an OCR read may stand for.
+ *
+ * <p>License plates and reads are compared by their match key, see {@link #matchKey(CharSequence)}: upper cased,
+ * without separators and with confusable characters folded, so dropped hyphens or a read {@code O} for a {@code 0}
+ * do not count as errors. The keys are kept in a BK-tree by Levenshtein distance, so a lookup only compares the read
+ * to the keys the triangle inequality cannot rule out.</p>
+ *
+ * <p>This class is thread-safe: license plates are added one at a time, while any number of lanes look up reads
+ * concurrently without locking. A lookup sees all license plates added before it started and may see some added
+ * while it runs.</p>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>
+ LicensePlateIndex index = new LicensePlateIndex();
+ index.add(LicensePlate.forValue("KA AB 123").withCountry(LicensePlateCountry.GERMANY));
+
+ index.find("KA A8 I23", 1);  // [KA AB 123 (0)]
+ index.find("KA-AB 12", 1);   // [KA AB 123 (1)]
+ * </pre>
+ *
+ * @since  0.19.0
+ */
+public final class LicensePlateIndex {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private volatile Node root;
+    private volatile int size;
+
+    /**
+     * Add a license plate, e.g. of a booked truck.
+     *
+     * @param  licensePlate  never {@code null}
+     */
+    public synchronized void add(LicensePlate licensePlate) {
+
+        Assert.notNull(licensePlate, "License plate must not be null");
+
+        String key = matchKey(licensePlate.toString());
+
+        if (root == null) {
+            root = new Node(key, licensePlate);
+            size++;
+
+            return;
+        }
+
+        Node node = root;
+
+        while (true) {
+            int distance = distance(key, node.key);
+
+            if (distance == 0) {
+                LicensePlate[] plates = node.licensePlates;
+
+                if (!Arrays.asList(plates).contains(licensePlate)) {
+                    LicensePlate[] added = Arrays.copyOf(plates, plates.length + 1);
+                    added[plates.length] = licensePlate;
+                    node.licensePlates = added;
+                    size++;
+                }
+
+                return;
+            }
+
+            Node[] children = node.children;
+
+            if (distance < children.length && children[distance] != null) {
+                node = children[distance];
+            } else {
+                // the child is fully built before it is published by replacing the array
+                Node[] added = Arrays.copyOf(children, Math.max(children.length, distance + 1));
+                added[distance] = new Node(key, licensePlate);
+                node.children = added;
+                size++;
+
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Get the number of added license plates, each counted once.
+     *
+     * @return  the number of license plates
+     */
+    public int size() {
+
+        return size;
+    }
+
+
+    /**
+     * Find the license plates the given read may stand for.
+     *
+     * @param  read  e.g. of an OCR, never {@code null}
+     * @param  maximumDistance  maximum number of inserted, removed or replaced characters of the match keys, usually
+     *                          {@code 1} or {@code 2}, not negative
+     *
+     * @return  the license plates, ordered by distance, never {@code null}
+     *
+     * @throws  IllegalArgumentException  if the read is {@code null} or the distance negative
+     */
+    public List<Candidate> find(CharSequence read, int maximumDistance) {
+
+        Assert.notNull(read, "Read must not be null");
+
+        if (maximumDistance < 0) {
+            throw new IllegalArgumentException("Maximum distance must not be negative: " + maximumDistance);
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        Node top = root;
+
+        if (top == null) {
+            return candidates;
+        }
+
+        String key = matchKey(read);
+        List<Node> pending = new ArrayList<>();
+        pending.add(top);
+
+        while (!pending.isEmpty()) {
+            Node node = pending.remove(pending.size() - 1);
+            int distance = distance(key, node.key);
+
+            if (distance <= maximumDistance) {
+                for (LicensePlate licensePlate : node.licensePlates) {
+                    candidates.add(new Candidate(licensePlate, distance));
+                }
+            }
+
+            // only children at a distance within [distance - maximum, distance + maximum] can match
+            Node[] children = node.children;
+            int to = Math.min(children.length - 1, distance + maximumDistance);
+
+            for (int i = Math.max(1, distance - maximumDistance); i <= to; i++) {
+                if (children[i] != null) {
+                    pending.add(children[i]);
+                }
+            }
+        }
+
+        candidates.sort(Comparator.comparingInt(Candidate::getDistance));
+
+        return candidates;
+    }
+
+
+    /**
+     * Get the match key of the given license plate or read: its letters and digits, upper cased, with the confusable
+     * {@code O}, {@code I} and {@code B} folded to {@code 0}, {@code 1} and {@code 8}.
+     *
+     * @param  value  e.g. {@code ka-ob 12}, never {@code null}
+     *
+     * @return  the match key, e.g. {@code KA0812}, never {@code null}
+     */
+    public static String matchKey(CharSequence value) {
+
+        Assert.notNull(value, "Value must not be null");
+
+        StringBuilder key = new StringBuilder(value.length());
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = Character.toUpperCase(value.charAt(i));
+
+            if (Character.isLetterOrDigit(c)) {
+                key.append(fold(c));
+            }
+        }
+
+        return key.toString();
+    }
+
+
+    private static char fold(char c) {
+
+        switch (c) {
+            case 'O':
+                return '0';
+
+            case 'I':
+                return '1';
+
+            case 'B':
+                return '8';
+
+            default:
+                return c;
+        }
+    }
+
+
+    /**
+     * Levenshtein distance of the given keys.
+     */
+    private static int distance(String a, String b) {
+
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+
+            char c = a.charAt(i - 1);
+
+            for (int j = 1; j <= b.length(); j++) {
+                int replace = previous[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(replace, Math.min(previous[j], current[j - 1]) + 1);
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return previous[b.length()];
+    }
+
+    /**
+     * A license plate a read may stand for.
+     */
+    public static final class Candidate {
+
+        private final LicensePlate licensePlate;
+        private final int distance;
+
+        private Candidate(LicensePlate licensePlate, int distance) {
+
+            this.licensePlate = licensePlate;
+            this.distance = distance;
+        }
+
+        /**
+         * Get the license plate.
+         *
+         * @return  license plate, never {@code null}
+         */
+        public LicensePlate getLicensePlate() {
+
+            return licensePlate;
+        }
+
+
+        /**
+         * Get the Levenshtein distance of the match keys of read and license plate.
+         *
+         * @return  the distance, {@code 0} if the read matches the license plate
+         */
+        public int getDistance() {
+
+            return distance;
+        }
+
+
+        @Override
+        public String toString() {
+
+            return licensePlate + " (" + distance + ")";
+        }
+    }
+
+    /**
+     * Node of the BK-tree: a match key, its license plates and the children by their distance to the key. Arrays are
+     * never modified once published, they are replaced by modified copies.
+     */
+    private static final class Node {
+
+        private final String key;
+        private volatile LicensePlate[] licensePlates;
+        private volatile Node[] children = NO_CHILDREN;
+
+        private Node(String key, LicensePlate licensePlate) {
+
+            this.key = key;
+            this.licensePlates = new LicensePlate[] { licensePlate };
+        }
+    }
+}
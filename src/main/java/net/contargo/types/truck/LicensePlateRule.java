@@ -0,0 +1,305 @@
+package net.contargo.types.truck;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+
+/**
+ * The compiled rule of a country of the {@link LicensePlateRules}: the formats of normalized license plates and the
+ * constraints on their segments, i.e. the runs of characters between whitespaces and hyphens.
+ *
+ * <p>Formats are grouped by length, so a value is only compared to the formats of its length. Code lists are bit
+ * sets indexed by the packed code, so looking up a code neither hashes nor compares strings.</p>
+ *
+ * @since  0.19.0
+ */
+final class LicensePlateRule {
+
+    /**
+     * Maximum number of characters of a code.
+     */
+    static final int MAXIMUM_CODE_LENGTH = 3;
+
+    private static final int RADIX = 37;
+    private static final int LETTER_OFFSET = 1;
+    private static final int DIGIT_OFFSET = 27;
+    private static final long ANY = -1L;
+
+    private final String[][] formatsByLength;
+    private final int separation;
+    private final BitSet[] codes;
+    private final long[] first;
+    private final long[] characters;
+
+    private final int minimumLetters;
+    private final int maximumLetters;
+    private final int minimumDigits;
+    private final int maximumDigits;
+
+    /**
+     * @param  formats  shapes, see {@link LicensePlateScanner}, at least one
+     * @param  separation  of letters and digits, see {@link LicensePlateScanner#normalize(String, char, char, int)}
+     * @param  codes  per segment, {@code null} if the segment may have any code
+     * @param  first  characters per segment the segment may start with, {@code null} for any
+     * @param  characters  per segment all characters of the segment must be one of, {@code null} for any
+     */
+    LicensePlateRule(List<String> formats, int separation, List<List<String>> codes, List<String> first,
+        List<String> characters) {
+
+        int maximumLength = formats.stream().mapToInt(String::length).max().orElse(0);
+
+        this.formatsByLength = new String[maximumLength + 1][0];
+        this.separation = separation;
+        this.codes = new BitSet[codes.size()];
+        this.first = new long[first.size()];
+        this.characters = new long[characters.size()];
+
+        int minLetters = Integer.MAX_VALUE;
+        int maxLetters = 0;
+        int minDigits = Integer.MAX_VALUE;
+        int maxDigits = 0;
+
+        for (String format : formats) {
+            String[] sameLength = formatsByLength[format.length()];
+            sameLength = Arrays.copyOf(sameLength, sameLength.length + 1);
+            sameLength[sameLength.length - 1] = format;
+            formatsByLength[format.length()] = sameLength;
+
+            int letters = 0;
+            int digits = 0;
+            int lettersOrDigits = 0;
+
+            // shape characters and the letters and digits standing for themselves
+            for (int i = 0; i < format.length(); i++) {
+                char c = format.charAt(i);
+
+                if (c == 'X') {
+                    lettersOrDigits++;
+                } else if (LicensePlateScanner.isLetter(c)) {
+                    letters++;
+                } else if (LicensePlateScanner.isDigit(c)) {
+                    digits++;
+                }
+            }
+
+            minLetters = Math.min(minLetters, letters);
+            maxLetters = Math.max(maxLetters, letters + lettersOrDigits);
+            minDigits = Math.min(minDigits, digits);
+            maxDigits = Math.max(maxDigits, digits + lettersOrDigits);
+        }
+
+        this.minimumLetters = minLetters;
+        this.maximumLetters = maxLetters;
+        this.minimumDigits = minDigits;
+        this.maximumDigits = maxDigits;
+
+        for (int segment = 0; segment < this.codes.length; segment++) {
+            List<String> segmentCodes = codes.get(segment);
+
+            if (segmentCodes != null) {
+                BitSet bits = new BitSet();
+
+                for (String code : segmentCodes) {
+                    int packed = pack(code, 0, code.length());
+
+                    if (packed == -1) {
+                        throw new IllegalArgumentException("Invalid code given: " + code);
+                    }
+
+                    bits.set(packed);
+                }
+
+                this.codes[segment] = bits;
+            }
+        }
+
+        for (int segment = 0; segment < this.first.length; segment++) {
+            this.first[segment] = mask(first.get(segment));
+        }
+
+        for (int segment = 0; segment < this.characters.length; segment++) {
+            this.characters[segment] = mask(characters.get(segment));
+        }
+    }
+
+    /**
+     * Get the separation of letters and digits of countries without own {@link LicensePlateHandler}.
+     *
+     * @return  the separation, see {@link LicensePlateScanner#normalize(String, char, char, int)}
+     */
+    int getSeparation() {
+
+        return separation;
+    }
+
+
+    /**
+     * Check if the given normalized license plate has one of the formats and its segments satisfy all constraints.
+     *
+     * @param  normalizedValue  never {@code null}
+     *
+     * @return  {@code true} if the license plate is valid, else {@code false}
+     */
+    boolean matches(String normalizedValue) {
+
+        int length = normalizedValue.length();
+
+        if (length >= formatsByLength.length) {
+            return false;
+        }
+
+        boolean hasFormat = false;
+
+        for (String format : formatsByLength[length]) {
+            if (LicensePlateScanner.hasShapeAt(normalizedValue, 0, format)) {
+                hasFormat = true;
+
+                break;
+            }
+        }
+
+        if (!hasFormat) {
+            return false;
+        }
+
+        int start = 0;
+
+        for (int segment = 0; start <= length; segment++) {
+            int end = start;
+
+            while (end < length && !isSeparator(normalizedValue.charAt(end))) {
+                end++;
+            }
+
+            if (!satisfies(normalizedValue, segment, start, end)) {
+                return false;
+            }
+
+            start = end + 1;
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Check if license plates of this rule can have the given numbers of characters, i.e. if there is a format with
+     * this many letters from A to Z and digits.
+     *
+     * @param  letters  number of letters from A to Z
+     * @param  digits  number of digits
+     * @param  umlauts  number of umlauts, which no format has
+     *
+     * @return  {@code false} if no license plate can have this many characters, else {@code true}
+     */
+    boolean admits(int letters, int digits, int umlauts) {
+
+        return umlauts == 0 && letters >= minimumLetters && letters <= maximumLetters && digits >= minimumDigits
+            && digits <= maximumDigits;
+    }
+
+
+    private boolean satisfies(String value, int segment, int start, int end) {
+
+        if (segment < codes.length && codes[segment] != null) {
+            int packed = pack(value, start, end);
+
+            if (packed == -1 || !codes[segment].get(packed)) {
+                return false;
+            }
+        }
+
+        if (segment < first.length && first[segment] != ANY && start < end
+                && !contains(first[segment], value.charAt(start))) {
+            return false;
+        }
+
+        if (segment < characters.length && characters[segment] != ANY) {
+            for (int i = start; i < end; i++) {
+                if (!contains(characters[segment], value.charAt(i))) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Pack the given characters into an int, each letter or digit as a digit of radix 37.
+     *
+     * @return  the packed code, {@code -1} if the code is too long or has other characters
+     */
+    private static int pack(CharSequence value, int start, int end) {
+
+        if (end - start < 1 || end - start > MAXIMUM_CODE_LENGTH) {
+            return -1;
+        }
+
+        int packed = 0;
+
+        for (int i = start; i < end; i++) {
+            int digit = digit(value.charAt(i));
+
+            if (digit == -1) {
+                return -1;
+            }
+
+            packed = packed * RADIX + digit;
+        }
+
+        return packed;
+    }
+
+
+    private static int digit(char c) {
+
+        if (LicensePlateScanner.isLetter(c)) {
+            return c - 'A' + LETTER_OFFSET;
+        }
+
+        if (LicensePlateScanner.isDigit(c)) {
+            return c - '0' + DIGIT_OFFSET;
+        }
+
+        return -1;
+    }
+
+
+    private static long mask(String allowed) {
+
+        if (allowed == null) {
+            return ANY;
+        }
+
+        long mask = 0;
+
+        for (int i = 0; i < allowed.length(); i++) {
+            int digit = digit(allowed.charAt(i));
+
+            if (digit == -1) {
+                throw new IllegalArgumentException("Invalid character given: " + allowed.charAt(i));
+            }
+
+            mask |= 1L << digit;
+        }
+
+        return mask;
+    }
+
+
+    private static boolean contains(long mask, char c) {
+
+        int digit = digit(c);
+
+        return digit != -1 && (mask & (1L << digit)) != 0;
+    }
+
+
+    private static boolean isSeparator(char c) {
+
+        return c == '-' || LicensePlateScanner.isWhitespace(c);
+    }
+}
@@ -0,0 +1,378 @@
+package net.contargo.types.truck;
+
+import net.contargo.types.Assert;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+
+/**
+ * Declarative license plate rules, loaded from the classpath resource {@value #RESOURCE} next to this class.
+ *
+ * <p>The rules describe the formats of the normalized license plates of a country and the code lists their segments,
+ * i.e. the runs of characters between whitespaces and hyphens, must be in. They are a properties file with these
+ * keys, segments are counted from 1:</p>
+ *
+ * <ul>
+ * <li>{@code <country code>.formats}: comma separated shapes, see {@link LicensePlateScanner}, e.g. {@code AA_999}</li>
+ * <li>{@code <country code>.separation}: {@code none} (default) or {@code letters-and-digits}, whether to separate
+ * letters from digits when normalizing license plates of countries without {@link LicensePlateCountry}</li>
+ * <li>{@code <country code>.segment.<n>.codes}: comma separated codes of one to three letters or digits</li>
+ * <li>{@code <country code>.segment.<n>.first}: the letters and digits the segment may start with</li>
+ * <li>{@code <country code>.segment.<n>.letters}: the letters and digits all characters of the segment must be</li>
+ * </ul>
+ *
+ * <p>The {@link LicensePlateCountry}s Switzerland, Romania, Bulgaria, Lithuania, Belgium and the Czech Republic are
+ * validated with these rules, further countries only need rules, see {@link #findCountry(String)}. The rules are
+ * compiled once when loaded and can be reloaded at runtime, the compiled rules are replaced atomically.</p>
+ *
+ * @since  0.19.0
+ */
+public final class LicensePlateRules {
+
+    /**
+     * Name of the classpath resource of the rules, relative to this class.
+     */
+    public static final String RESOURCE = "license-plate-rules.properties";
+
+    private static final String FORMATS = "formats";
+    private static final String SEPARATION = "separation";
+    private static final String SEGMENT = "segment.";
+    private static final String CODES = "codes";
+    private static final String FIRST = "first";
+    private static final String LETTERS = "letters";
+    private static final String NO_SEPARATION = "none";
+    private static final String LETTERS_AND_DIGITS = "letters-and-digits";
+    private static final int MAXIMUM_SEGMENTS = 8;
+
+    /**
+     * Codes of the {@link LicensePlateCountry}s validated with the rules, the rules must have formats for each.
+     */
+    private static final List<String> REQUIRED_COUNTRY_CODES = Arrays.asList("B", "BG", "CH", "CZ", "LT", "RO");
+
+    private static volatile Map<String, LicensePlateRule> rules = loadResource();
+
+    private LicensePlateRules() {
+
+        // Hide utility class constructor
+    }
+
+    /**
+     * Reload the rules from the classpath resource {@value #RESOURCE}. If they cannot be loaded, the current rules
+     * are kept.
+     *
+     * @throws  IOException  if the resource cannot be read
+     * @throws  IllegalArgumentException  if the rules are invalid
+     */
+    public static void reload() throws IOException {
+
+        try(InputStream input = LicensePlateRules.class.getResourceAsStream(RESOURCE)) {
+            if (input == null) {
+                throw new IOException("License plate rules not found: " + RESOURCE);
+            }
+
+            reload(input);
+        }
+    }
+
+
+    /**
+     * Replace the rules by the ones read from the given stream. If they cannot be read, the current rules are kept.
+     * The stream is read to its end, but not closed.
+     *
+     * @param  input  the rules as UTF-8 encoded properties, see {@link LicensePlateRules}, never {@code null}
+     *
+     * @throws  IOException  if reading fails
+     * @throws  IllegalArgumentException  if the rules are invalid or lack the formats of Switzerland, Romania,
+     *                                    Bulgaria, Lithuania, Belgium or the Czech Republic
+     */
+    public static void reload(InputStream input) throws IOException {
+
+        Assert.notNull(input, "Input must not be null");
+
+        rules = compile(input);
+    }
+
+
+    /**
+     * Get the country codes of all countries having rules.
+     *
+     * @return  the sorted country codes, never {@code null}
+     */
+    public static Set<String> getCountryCodes() {
+
+        return Collections.unmodifiableSet(new TreeSet<>(rules.keySet()));
+    }
+
+
+    /**
+     * Find the country with the given country code: the {@link LicensePlateCountry} if there is one, else a country
+     * validating its license plates with the rules, if there are rules for it.
+     *
+     * @param  countryCode  e.g. {@code EST}, never {@code null}
+     *
+     * @return  the country, empty if there is neither a {@link LicensePlateCountry} nor rules for the country code
+     */
+    public static Optional<Country> findCountry(String countryCode) {
+
+        Assert.notNull(countryCode, "Country code must not be null");
+
+        for (LicensePlateCountry country : LicensePlateCountry.values()) {
+            if (country != LicensePlateCountry.UNKNOWN_COUNTRY && country.getCountryCode().equals(countryCode)) {
+                return Optional.of(country);
+            }
+        }
+
+        if (!rules.containsKey(countryCode)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new RuleCountry(countryCode));
+    }
+
+
+    /**
+     * Get the current rule of the given country.
+     *
+     * @return  the rule, {@code null} if there is none
+     */
+    static LicensePlateRule getRule(String countryCode) {
+
+        return rules.get(countryCode);
+    }
+
+
+    /**
+     * Validate the given normalized license plate with the current rule of the given country.
+     *
+     * @return  {@code true} if there is a rule and the license plate matches it, else {@code false}
+     */
+    static boolean validate(String countryCode, String normalizedValue) {
+
+        LicensePlateRule rule = rules.get(countryCode);
+
+        return rule != null && rule.matches(normalizedValue);
+    }
+
+
+    private static Map<String, LicensePlateRule> loadResource() {
+
+        try(InputStream input = LicensePlateRules.class.getResourceAsStream(RESOURCE)) {
+            if (input == null) {
+                throw new IllegalStateException("License plate rules not found: " + RESOURCE);
+            }
+
+            return compile(input);
+        } catch (IOException e) {
+            throw new IllegalStateException("License plate rules cannot be read: " + RESOURCE, e);
+        }
+    }
+
+
+    private static Map<String, LicensePlateRule> compile(InputStream input) throws IOException {
+
+        Properties properties = new Properties();
+
+        // the reader is not closed, the stream belongs to the caller
+        properties.load(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        Map<String, Map<String, String>> countries = new HashMap<>();
+
+        for (String key : properties.stringPropertyNames()) {
+            int dot = key.indexOf('.');
+
+            if (dot < 1) {
+                throw new IllegalArgumentException("Invalid license plate rule key given: " + key);
+            }
+
+            countries.computeIfAbsent(key.substring(0, dot), code -> new HashMap<>())
+                .put(key.substring(dot + 1), properties.getProperty(key).trim());
+        }
+
+        Map<String, LicensePlateRule> compiled = new HashMap<>();
+
+        for (Map.Entry<String, Map<String, String>> country : countries.entrySet()) {
+            compiled.put(country.getKey(), compile(country.getKey(), country.getValue()));
+        }
+
+        for (String countryCode : REQUIRED_COUNTRY_CODES) {
+            if (!compiled.containsKey(countryCode)) {
+                throw new IllegalArgumentException("Missing license plate formats of country: " + countryCode);
+            }
+        }
+
+        return Collections.unmodifiableMap(compiled);
+    }
+
+
+    private static LicensePlateRule compile(String countryCode, Map<String, String> keys) {
+
+        String formats = keys.get(FORMATS);
+
+        if (formats == null || formats.isEmpty()) {
+            throw new IllegalArgumentException("Missing license plate formats of country: " + countryCode);
+        }
+
+        int separation = LicensePlateScanner.KEEP_LETTERS_AND_DIGITS;
+        List<List<String>> codes = new ArrayList<>();
+        List<String> first = new ArrayList<>();
+        List<String> letters = new ArrayList<>();
+
+        for (Map.Entry<String, String> entry : keys.entrySet()) {
+            String key = entry.getKey();
+            String value = entry.getValue();
+
+            if (key.equals(FORMATS)) {
+                continue;
+            }
+
+            if (key.equals(SEPARATION)) {
+                separation = separation(countryCode, value);
+
+                continue;
+            }
+
+            int dot = key.indexOf('.', SEGMENT.length());
+
+            if (!key.startsWith(SEGMENT) || dot == -1) {
+                throw new IllegalArgumentException("Unknown license plate rule key given: " + countryCode + "." + key);
+            }
+
+            int segment = segment(countryCode, key.substring(SEGMENT.length(), dot));
+            String constraint = key.substring(dot + 1);
+
+            switch (constraint) {
+                case CODES:
+                    set(codes, segment, split(value));
+                    break;
+
+                case FIRST:
+                    set(first, segment, value);
+                    break;
+
+                case LETTERS:
+                    set(letters, segment, value);
+                    break;
+
+                default:
+                    throw new IllegalArgumentException("Unknown license plate rule key given: " + countryCode + "."
+                        + key);
+            }
+        }
+
+        return new LicensePlateRule(split(formats), separation, codes, first, letters);
+    }
+
+
+    private static int separation(String countryCode, String value) {
+
+        if (value.equals(NO_SEPARATION)) {
+            return LicensePlateScanner.KEEP_LETTERS_AND_DIGITS;
+        }
+
+        if (value.equals(LETTERS_AND_DIGITS)) {
+            return LicensePlateScanner.SEPARATE_LETTERS_AND_DIGITS;
+        }
+
+        throw new IllegalArgumentException("Invalid separation of country " + countryCode + " given: " + value);
+    }
+
+
+    private static int segment(String countryCode, String number) {
+
+        try {
+            int segment = Integer.parseInt(number);
+
+            if (segment >= 1 && segment <= MAXIMUM_SEGMENTS) {
+                return segment - 1;
+            }
+        } catch (NumberFormatException e) {
+            // handled below
+        }
+
+        throw new IllegalArgumentException("Invalid segment of country " + countryCode + " given: " + number);
+    }
+
+
+    private static <T> void set(List<T> list, int index, T value) {
+
+        while (list.size() <= index) {
+            list.add(null);
+        }
+
+        list.set(index, value);
+    }
+
+
+    private static List<String> split(String value) {
+
+        return Arrays.stream(value.split(","))
+            .map(String::trim)
+            .filter(element -> !element.isEmpty())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Country without {@link LicensePlateCountry}, validating its license plates only with its rules.
+     */
+    private static final class RuleCountry implements Country {
+
+        private final String countryCode;
+        private final LicensePlateHandler licensePlateHandler;
+
+        private RuleCountry(String countryCode) {
+
+            this.countryCode = countryCode;
+            this.licensePlateHandler = new RuleLicensePlateHandler(countryCode);
+        }
+
+        @Override
+        public String getCountryCode() {
+
+            return countryCode;
+        }
+
+
+        @Override
+        public LicensePlateHandler getLicensePlateHandler() {
+
+            return licensePlateHandler;
+        }
+
+
+        @Override
+        public boolean equals(Object obj) {
+
+            return obj instanceof RuleCountry && countryCode.equals(((RuleCountry) obj).countryCode);
+        }
+
+
+        @Override
+        public int hashCode() {
+
+            return countryCode.hashCode();
+        }
+
+
+        @Override
+        public String toString() {
+
+            return countryCode;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package net.contargo.types.truck;
+
+/**
+ * Character scanning shared by the {@link LicensePlateHandler}s, which normalize and validate license plates without
+ * regular expressions.
+ *
+ * <p>{@link #normalize(String, char, char, int)} trims, upper cases and replaces separators in a single pass. Shapes
+ * describe fixed-length formats with one character per position:</p>
+ *
+ * <ul>
+ * <li>{@code A}: a letter from A to Z</li>
+ * <li>{@code 9}: a digit from 0 to 9</li>
+ * <li>{@code 1}: a digit from 1 to 9</li>
+ * <li>{@code X}: a letter from A to Z or a digit</li>
+ * <li>{@code _}: a whitespace</li>
+ * <li>any other character: exactly this character</li>
+ * </ul>
+ *
+ * @since  0.19.0
+ */
+final class LicensePlateScanner {
+
+    /**
+     * Replacement removing a separator.
+     */
+    static final char REMOVE = 0;
+
+    /**
+     * Insert no whitespace between letters and digits.
+     */
+    static final int KEEP_LETTERS_AND_DIGITS = 0;
+
+    /**
+     * Insert a whitespace between a letter from A to Z or an umlaut and a following digit.
+     */
+    static final int SEPARATE_DIGITS_FROM_UMLAUTS = 1;
+
+    /**
+     * Insert a whitespace between any letter and a following digit and between a digit and any following letter.
+     */
+    static final int SEPARATE_LETTERS_AND_DIGITS = 2;
+
+    private static final char SPACE = ' ';
+    private static final char HYPHEN = '-';
+
+    private LicensePlateScanner() {
+
+        // Hide utility class constructor
+    }
+
+    /**
+     * Upper case the given value, remove its leading and trailing whitespaces and replace each sequence of whitespaces
+     * and of hyphens by a single character.
+     *
+     * @param  value  to be normalized, never {@code null}
+     * @param  whitespace  replacing each sequence of whitespaces, {@link #REMOVE} to remove them
+     * @param  hyphen  replacing each sequence of hyphens, {@link #REMOVE} to remove them
+     * @param  separation  of letters and digits, e.g. {@link #SEPARATE_LETTERS_AND_DIGITS}
+     *
+     * @return  the normalized value, never {@code null}
+     */
+    static String normalize(String value, char whitespace, char hyphen, int separation) {
+
+        String upperCase = value.toUpperCase();
+
+        // same bounds as String.trim()
+        int start = 0;
+        int end = upperCase.length();
+
+        while (start < end && upperCase.charAt(start) <= SPACE) {
+            start++;
+        }
+
+        while (end > start && upperCase.charAt(end - 1) <= SPACE) {
+            end--;
+        }
+
+        StringBuilder normalized = new StringBuilder(end - start + 2);
+        char previous = REMOVE;
+        char last = REMOVE;
+
+        for (int i = start; i < end; i++) {
+            char c = upperCase.charAt(i);
+
+            if (isWhitespace(c) || c == HYPHEN) {
+                char replacement = c == HYPHEN ? hyphen : whitespace;
+
+                // only the first character of a sequence is replaced, the others are dropped
+                if ((isWhitespace(c) && !isWhitespace(last)) || (c == HYPHEN && last != HYPHEN)) {
+                    if (replacement != REMOVE) {
+                        normalized.append(replacement);
+                        previous = replacement;
+                    }
+                }
+            } else {
+                if (isSeparated(previous, upperCase, i, separation)) {
+                    normalized.append(SPACE);
+                }
+
+                normalized.append(c);
+                previous = c;
+            }
+
+            last = c;
+        }
+
+        return normalized.toString();
+    }
+
+
+    /**
+     * Check if the given value has the given shape, see {@link LicensePlateScanner}.
+     *
+     * @param  value  to be checked, never {@code null}
+     * @param  shape  e.g. {@code AA_9999}, never {@code null}
+     *
+     * @return  {@code true} if the value has the shape, else {@code false}
+     */
+    static boolean hasShape(CharSequence value, String shape) {
+
+        return value.length() == shape.length() && hasShapeAt(value, 0, shape);
+    }
+
+
+    /**
+     * Check if the given value has the given shape at the given position, see {@link LicensePlateScanner}.
+     *
+     * @param  value  to be checked, never {@code null}
+     * @param  from  position of the first character of the shape
+     * @param  shape  e.g. {@code 99-99}, never {@code null}
+     *
+     * @return  {@code true} if the characters at the position have the shape, else {@code false}
+     */
+    static boolean hasShapeAt(CharSequence value, int from, String shape) {
+
+        if (from + shape.length() > value.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < shape.length(); i++) {
+            char c = value.charAt(from + i);
+            char expected = shape.charAt(i);
+
+            switch (expected) {
+                case 'A':
+                    if (!isLetter(c)) {
+                        return false;
+                    }
+
+                    break;
+
+                case '9':
+                    if (!isDigit(c)) {
+                        return false;
+                    }
+
+                    break;
+
+                case '1':
+                    if (c < '1' || c > '9') {
+                        return false;
+                    }
+
+                    break;
+
+                case 'X':
+                    if (!isLetter(c) && !isDigit(c)) {
+                        return false;
+                    }
+
+                    break;
+
+                case '_':
+                    if (!isWhitespace(c)) {
+                        return false;
+                    }
+
+                    break;
+
+                default:
+                    if (c != expected) {
+                        return false;
+                    }
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Get the end of the letters from A to Z starting at the given position.
+     *
+     * @return  the position after the last letter, {@code from} if there is none
+     */
+    static int skipLetters(CharSequence value, int from) {
+
+        int i = from;
+
+        while (i < value.length() && isLetter(value.charAt(i))) {
+            i++;
+        }
+
+        return i;
+    }
+
+
+    /**
+     * Get the end of the digits starting at the given position.
+     *
+     * @return  the position after the last digit, {@code from} if there is none
+     */
+    static int skipDigits(CharSequence value, int from) {
+
+        int i = from;
+
+        while (i < value.length() && isDigit(value.charAt(i))) {
+            i++;
+        }
+
+        return i;
+    }
+
+
+    /**
+     * Get the end of the letters from A to Z and digits starting at the given position.
+     *
+     * @return  the position after the last letter or digit, {@code from} if there is none
+     */
+    static int skipLettersAndDigits(CharSequence value, int from) {
+
+        int i = from;
+
+        while (i < value.length() && (isLetter(value.charAt(i)) || isDigit(value.charAt(i)))) {
+            i++;
+        }
+
+        return i;
+    }
+
+
+    /**
+     * Check if the given character is a whitespace, i.e. a space, tab, line feed, vertical tab, form feed or carriage
+     * return.
+     */
+    static boolean isWhitespace(char c) {
+
+        return c == SPACE || (c >= '\t' && c <= '\r');
+    }
+
+
+    static boolean isLetter(char c) {
+
+        return c >= 'A' && c <= 'Z';
+    }
+
+
+    static boolean isDigit(char c) {
+
+        return c >= '0' && c <= '9';
+    }
+
+
+    private static boolean isUmlaut(char c) {
+
+        return c == 'Ä' || c == 'Ö' || c == 'Ü';
+    }
+
+
+    /**
+     * Check if a whitespace must be inserted between the previous character and the one at the given position.
+     */
+    private static boolean isSeparated(char previous, String value, int index, int separation) {
+
+        char c = value.charAt(index);
+
+        switch (separation) {
+            case SEPARATE_DIGITS_FROM_UMLAUTS:
+                return (isLetter(previous) || isUmlaut(previous)) && isDigit(c);
+
+            case SEPARATE_LETTERS_AND_DIGITS:
+                return (Character.isLetter(previous) && isDigit(c))
+                    || (isDigit(previous) && Character.isLetter(value.codePointAt(index)));
+
+            default:
+                return false;
+        }
+    }
+}
@@ -20,7 +20,7 @@ package net.contargo.types.truck;
  */
 public class LithuanianLicensePlateHandler implements LicensePlateHandler {
 
-    private static final String WHITESPACE = " ";
+    private static final String COUNTRY_CODE = "LT";
 
     /**
      * Normalizes the given {@link LicensePlate} value by upper casing it and replacing all hyphens by whitespaces, and
@@ -33,9 +33,7 @@ public class LithuanianLicensePlateHandler implements LicensePlateHandler {
     @Override
     public String normalize(String value) {
 
-        return LicensePlateHandler.trim(value)
-            .replaceAll("\\-", WHITESPACE)
-            .replaceAll("(?<=\\d)(?=\\p{L})|(?<=\\p{L})(?=\\d)", WHITESPACE);
+        return LicensePlateScanner.normalize(value, ' ', ' ', LicensePlateScanner.SEPARATE_LETTERS_AND_DIGITS);
     }
 
 
@@ -46,6 +44,8 @@ public class LithuanianLicensePlateHandler implements LicensePlateHandler {
      * vanity plate, which allow any combination of letters and digits, and has no minimum length. Those will not be
      * validated.</p>
      *
+     * <p>The formats are read from the {@link LicensePlateRules}.</p>
+     *
      * @param  value  to be validated, never {@code null}
      *
      * @return  {@code true} if the given {@link LicensePlate} is valid, else {@code false}
@@ -54,6 +54,6 @@ public class LithuanianLicensePlateHandler implements LicensePlateHandler {
     public boolean validate(String value) {
 
         // KRK 565
-        return normalize(value).matches("[A-Z]{3}\\s[0-9]{3}");
+        return LicensePlateRules.validate(COUNTRY_CODE, normalize(value));
     }
 }
@@ -34,7 +34,7 @@ class PolishLicensePlateHandler implements LicensePlateHandler {
     @Override
     public String normalize(String value) {
 
-        return LicensePlateHandler.trim(value).replaceAll("\\-", " ");
+        return LicensePlateScanner.normalize(value, ' ', ' ', LicensePlateScanner.KEEP_LETTERS_AND_DIGITS);
     }
 
 
@@ -69,11 +69,39 @@ class PolishLicensePlateHandler implements LicensePlateHandler {
     @Override
     public boolean validate(String value) {
 
-        String licensePlateFormat = "[A-Z]{2,3}\\s[A-Z0-9]{4,5}";
-        String customLicensePlateFormat = "[A-Z][0-9]\\s[A-Z]{1,3}[A-Z0-9]{2}";
-
         String normalizedValue = normalize(value);
 
-        return normalizedValue.matches(licensePlateFormat) || normalizedValue.matches(customLicensePlateFormat);
+        return hasLicensePlateFormat(normalizedValue) || hasCustomLicensePlateFormat(normalizedValue);
+    }
+
+
+    /**
+     * XX 99999: two or three letters, four or five letters or digits.
+     */
+    private static boolean hasLicensePlateFormat(String normalizedValue) {
+
+        int letters = LicensePlateScanner.skipLetters(normalizedValue, 0);
+
+        if (letters < 2 || letters > 3 || !LicensePlateScanner.hasShapeAt(normalizedValue, letters, "_")) {
+            return false;
+        }
+
+        int identificationLength = normalizedValue.length() - letters - 1;
+
+        return identificationLength >= 4 && identificationLength <= 5
+            && LicensePlateScanner.skipLettersAndDigits(normalizedValue, letters + 1) == normalizedValue.length();
+    }
+
+
+    /**
+     * X9 XXX99: a letter and a digit, one to three letters followed by two letters or digits.
+     */
+    private static boolean hasCustomLicensePlateFormat(String normalizedValue) {
+
+        int length = normalizedValue.length();
+
+        return length >= 6 && length <= 8 && LicensePlateScanner.hasShapeAt(normalizedValue, 0, "A9_")
+            && LicensePlateScanner.skipLetters(normalizedValue, 3) >= length - 2
+            && LicensePlateScanner.hasShapeAt(normalizedValue, length - 2, "XX");
     }
 }
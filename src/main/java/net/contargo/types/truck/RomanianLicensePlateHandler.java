@@ -1,9 +1,5 @@
 package net.contargo.types.truck;
 
-import java.util.Arrays;
-import java.util.List;
-
-
 /**
  * Can handle Romanian {@link LicensePlate}s.
  *
@@ -23,18 +19,7 @@ import java.util.List;
  */
 class RomanianLicensePlateHandler implements LicensePlateHandler {
 
-    private static final String WHITESPACE = " ";
-
-    /**
-     * The counties of Romania.
-     *
-     * <p>For further information see the <a
-     * href="https://en.wikipedia.org/wiki/Vehicle_registration_plates_of_Romania#County_codes">list of
-     * counties</a></p>
-     */
-    private static final List<String> COUNTIES = Arrays.asList("AB", "AG", "AR", "B", "BC", "BH", "BN", "BR", "BT",
-            "BV", "BZ", "CJ", "CL", "CS", "CT", "CV", "DB", "DJ", "GJ", "GL", "GR", "HD", "HR", "IF", "IL", "IS", "MH",
-            "MM", "MS", "NT", "OT", "PH", "SB", "SJ", "SM", "SV", "TL", "TM", "TR", "VL", "VN", "VS");
+    private static final String COUNTRY_CODE = "RO";
 
     /**
      * Normalizes the given {@link LicensePlate} value by executing the following steps:
@@ -52,9 +37,7 @@ class RomanianLicensePlateHandler implements LicensePlateHandler {
     @Override
     public String normalize(String value) {
 
-        return LicensePlateHandler.trim(value)
-            .replaceAll("\\-", WHITESPACE)
-            .replaceAll("(?<=\\d)(?=\\p{L})|(?<=\\p{L})(?=\\d)", WHITESPACE);
+        return LicensePlateScanner.normalize(value, ' ', ' ', LicensePlateScanner.SEPARATE_LETTERS_AND_DIGITS);
     }
 
 
@@ -87,6 +70,8 @@ class RomanianLicensePlateHandler implements LicensePlateHandler {
      *
      * <p>License plates issued before 1992 are also not covered!</p>
      *
+     * <p>The formats and codes are read from the {@link LicensePlateRules}.</p>
+     *
      * @param  value  to be validated, never {@code null}
      *
      * @return  {@code true} if the given {@link LicensePlate} is valid, else {@code false}
@@ -94,37 +79,6 @@ class RomanianLicensePlateHandler implements LicensePlateHandler {
     @Override
     public boolean validate(String value) {
 
-        String normalizedValue = normalize(value);
-
-        if (!isValidFormat(normalizedValue)) {
-            return false;
-        }
-
-        String[] parts = normalizedValue.split(WHITESPACE);
-
-        if (!isCountyCode(parts[0])) {
-            return false;
-        }
-
-        return isLetterGroupValid(parts[2]);
-    }
-
-
-    private static boolean isValidFormat(String normalizedValue) {
-
-        return normalizedValue.matches("^[A-Z]{1}\\s\\d{2,3}\\s[A-Z]{3}$")
-            || normalizedValue.matches("^[A-Z]{2}\\s\\d{2}\\s[A-Z]{3}$");
-    }
-
-
-    private static boolean isCountyCode(String countyCode) {
-
-        return COUNTIES.contains(countyCode);
-    }
-
-
-    private static boolean isLetterGroupValid(String letterGroup) {
-
-        return !letterGroup.startsWith("I") && !letterGroup.startsWith("O");
+        return LicensePlateRules.validate(COUNTRY_CODE, normalize(value));
     }
 }
@@ -0,0 +1,48 @@
+package net.contargo.types.truck;
+
+/**
+ * Can handle {@link LicensePlate}s of countries without {@link LicensePlateCountry}, which are described only by the
+ * {@link LicensePlateRules}.
+ *
+ * @since  0.19.0
+ */
+class RuleLicensePlateHandler implements LicensePlateHandler {
+
+    private final String countryCode;
+
+    RuleLicensePlateHandler(String countryCode) {
+
+        this.countryCode = countryCode;
+    }
+
+    /**
+     * Normalizes the given {@link LicensePlate} value by upper casing it, replacing all hyphens by whitespaces and, if
+     * the rules of the country say so, separating letters from digits.
+     *
+     * @param  value  to get the normalized value for, never {@code null}
+     *
+     * @return  the normalized value, never {@code null}
+     */
+    @Override
+    public String normalize(String value) {
+
+        LicensePlateRule rule = LicensePlateRules.getRule(countryCode);
+        int separation = rule == null ? LicensePlateScanner.KEEP_LETTERS_AND_DIGITS : rule.getSeparation();
+
+        return LicensePlateScanner.normalize(value, ' ', ' ', separation);
+    }
+
+
+    /**
+     * Validates the given {@link LicensePlate} value with the current rules of the country.
+     *
+     * @param  value  to be validated, never {@code null}
+     *
+     * @return  {@code true} if the given {@link LicensePlate} is valid, else {@code false}
+     */
+    @Override
+    public boolean validate(String value) {
+
+        return LicensePlateRules.validate(countryCode, normalize(value));
+    }
+}
@@ -1,9 +1,5 @@
 package net.contargo.types.truck;
 
-import java.util.Arrays;
-import java.util.List;
-
-
 /**
  * Can handle Swiss {@link LicensePlate}s.
  *
@@ -24,16 +20,7 @@ import java.util.List;
  */
 class SwissLicensePlateHandler implements LicensePlateHandler {
 
-    /**
-     * The cantons of Switzerland.
-     *
-     * <p>For further information see the <a
-     * href="https://de.wikipedia.org/wiki/Kanton_(Schweiz)#Liste_der_Schweizer_Kantone_mit_ihren_Eckdaten">list of
-     * cantons</a></p>
-     */
-    private static final List<String> CANTONS = Arrays.asList("AG", "AR", "AI", "BL", "BS", "BE", "FR", "GE", "GL",
-            "GR", "JU", "LU", "NE", "NW", "OW", "SH", "SZ", "SO", "SG", "TI", "TG", "UR", "VD", "VS", "ZG", "ZH");
-
+    private static final String COUNTRY_CODE = "CH";
     private static final int CANTON_CODE_INDEX_START = 0;
     private static final int CANTON_CODE_INDEX_END = 2;
 
@@ -49,7 +36,8 @@ class SwissLicensePlateHandler implements LicensePlateHandler {
     public String normalize(String value) {
 
         // remove whitespaces and hyphens
-        String normalizedValue = LicensePlateHandler.trim(value).replaceAll("\\s", "").replaceAll("\\-", "");
+        String normalizedValue = LicensePlateScanner.normalize(value, LicensePlateScanner.REMOVE,
+                LicensePlateScanner.REMOVE, LicensePlateScanner.KEEP_LETTERS_AND_DIGITS);
 
         if (normalizedValue.length() > CANTON_CODE_INDEX_END) {
             normalizedValue = normalizedValue.substring(CANTON_CODE_INDEX_START, CANTON_CODE_INDEX_END) + " "
@@ -76,6 +64,8 @@ class SwissLicensePlateHandler implements LicensePlateHandler {
      * special uses, e.g. dealer license plate. Note that these special cases are not covered by this validator! Also
      * this validator does not consider license plates for official use, such as for military vehicles.</p>
      *
+     * <p>The formats and codes are read from the {@link LicensePlateRules}.</p>
+     *
      * @param  value  to be validated, never {@code null}
      *
      * @return  {@code true} if the given {@link LicensePlate} is valid, else {@code false}
@@ -83,14 +73,6 @@ class SwissLicensePlateHandler implements LicensePlateHandler {
     @Override
     public boolean validate(String value) {
 
-        String normalizedValue = normalize(value);
-
-        if (!normalizedValue.matches("[A-Z]{2}\\s[0-9]{1,6}")) {
-            return false;
-        }
-
-        String cantonCode = normalizedValue.substring(CANTON_CODE_INDEX_START, CANTON_CODE_INDEX_END);
-
-        return CANTONS.contains(cantonCode);
+        return LicensePlateRules.validate(COUNTRY_CODE, normalize(value));
     }
 }
@@ -0,0 +1,148 @@
+package net.contargo.types.container;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+
+public class ContainerNumberBatchValidatorTest {
+
+    @Test
+    public void ensureSmallBatchIsValidated() {
+
+        ContainerNumberBatchValidator.Result result = new ContainerNumberBatchValidator().validate("HLXU 123456-1",
+                "HLXU 123456-7", null, "foo", "msku1806510");
+
+        Assert.assertEquals("Wrong size", 5, result.size());
+        Assert.assertEquals("Wrong valid items", "{0, 4}", result.getISO6346Valid().toString());
+        Assert.assertEquals("Wrong number of valid items", 2, result.countISO6346Valid());
+        Assert.assertTrue("Should be valid", result.isISO6346Valid(4));
+        Assert.assertFalse("Should not be valid", result.isISO6346Valid(1));
+        Assert.assertEquals("Wrong packed value", ISO6346.pack("HLXU1234567"), result.getPacked(1));
+        Assert.assertEquals("Wrong packed value", ISO6346.NONE, result.getPacked(3));
+    }
+
+
+    @Test
+    public void ensureLargeBatchIsValidatedLikeSingleItems() {
+
+        Random random = new Random(42);
+        List<String> values = new ArrayList<>();
+
+        for (int i = 0; i < 100003; i++) {
+            values.add("HLXU" + (100000 + random.nextInt(900000)) + random.nextInt(10));
+        }
+
+        values.set(77, "foo");
+
+        ContainerNumberBatchValidator validator = new ContainerNumberBatchValidator(64, new ForkJoinPool(4));
+        ContainerNumberBatchValidator.Result result = validator.validate(values);
+        long[] packed = result.getPackedValues();
+
+        for (int i = 0; i < values.size(); i++) {
+            ContainerNumber containerNumber = ContainerNumber.forValue(values.get(i));
+
+            Assert.assertEquals("Wrong validity of " + values.get(i), containerNumber.isISO6346Valid(),
+                result.isISO6346Valid(i));
+            Assert.assertEquals("Wrong packed value of " + values.get(i), containerNumber.toLong(), packed[i]);
+        }
+
+        Assert.assertEquals("Should be validated like on a single thread", new ContainerNumberBatchValidator(
+                Integer.MAX_VALUE, ForkJoinPool.commonPool()).validate(values).getISO6346Valid(),
+            result.getISO6346Valid());
+    }
+
+
+    @Test
+    public void ensureEmptyBatchIsValidated() {
+
+        ContainerNumberBatchValidator.Result result = new ContainerNumberBatchValidator().validate(
+                Arrays.<String>asList());
+
+        Assert.assertEquals("Wrong size", 0, result.size());
+        Assert.assertEquals("Wrong number of valid items", 0, result.countISO6346Valid());
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfThresholdIsTooSmall() {
+
+        new ContainerNumberBatchValidator(1, ForkJoinPool.commonPool());
+    }
+
+
+    @Test
+    public void ensureAsciiRecordsAreValidated() {
+
+        byte[] records = "xxHLXU1234561\nHLXU1234567\nhlxu1234561\nMSKU1806510\nHLXU 123456\n".getBytes(
+                StandardCharsets.US_ASCII);
+
+        BitSet valid = new ContainerNumberBatchValidator().validateAscii(records, 2, 12, 5);
+
+        Assert.assertEquals("Wrong valid records", "{0, 3}", valid.toString());
+    }
+
+
+    @Test
+    public void ensureEveryByteAtEveryPositionOfAsciiRecordIsCheckedLikeCharSequence() {
+
+        byte[] valid = "HLXU1234561".getBytes(StandardCharsets.US_ASCII);
+        byte[] records = new byte[valid.length * 256 * valid.length];
+        int count = 0;
+
+        for (int position = 0; position < valid.length; position++) {
+            for (int b = 0; b < 256; b++) {
+                System.arraycopy(valid, 0, records, count * valid.length, valid.length);
+                records[count * valid.length + position] = (byte) b;
+                count++;
+            }
+        }
+
+        BitSet result = new ContainerNumberBatchValidator().validateAscii(records, 0, valid.length, count);
+
+        for (int i = 0; i < count; i++) {
+            String value = new String(records, i * valid.length, valid.length, StandardCharsets.ISO_8859_1);
+            boolean expected = ISO6346.isISO6346Valid(value) && value.equals(value.toUpperCase())
+                && value.trim().length() == valid.length && value.chars().allMatch(Character::isLetterOrDigit);
+
+            Assert.assertEquals("Wrong validity of " + value, expected, result.get(i));
+        }
+    }
+
+
+    @Test
+    public void ensureLargeBatchOfAsciiRecordsIsValidatedLikeSingleItems() {
+
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < 100003; i++) {
+            builder.append((char) ('A' + random.nextInt(26))).append("LXU").append(100000 + random.nextInt(900000))
+                .append(random.nextInt(10)).append(';');
+        }
+
+        byte[] records = builder.toString().getBytes(StandardCharsets.US_ASCII);
+        ContainerNumberBatchValidator validator = new ContainerNumberBatchValidator(64, new ForkJoinPool(4));
+        BitSet result = validator.validateAscii(records, 0, 12, 100003);
+
+        for (int i = 0; i < 100003; i++) {
+            Assert.assertEquals("Wrong validity of record " + i,
+                ISO6346.isISO6346Valid(builder.subSequence(i * 12, i * 12 + 11)), result.get(i));
+        }
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfAsciiRecordsExceedArray() {
+
+        new ContainerNumberBatchValidator().validateAscii(new byte[22], 1, 11, 2);
+    }
+}
@@ -0,0 +1,164 @@
+package net.contargo.types.container;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import java.util.Random;
+
+
+public class ContainerNumberBloomFilterTest {
+
+    private static final long HLXU = ISO6346.pack("HLXU 123456-1");
+    private static final long MSKU = ISO6346.pack("MSKU 180651-0");
+
+    @Test
+    public void ensureAddedContainerNumbersAreContained() {
+
+        ContainerNumberBloomFilter filter = new ContainerNumberBloomFilter(100, 0.01);
+
+        Assert.assertTrue("Should change", filter.add(HLXU));
+        Assert.assertFalse("Should not change", filter.add(ContainerNumber.forValue("hlxu 123456-1")));
+        Assert.assertTrue("Should be contained", filter.mightContain(ContainerNumber.forValue("HLXU 123456-1")));
+        Assert.assertFalse("Should not be contained", filter.mightContain(MSKU));
+        Assert.assertFalse("Should not be contained", filter.mightContain(ISO6346.NONE));
+        Assert.assertFalse("Should not be contained", filter.mightContain((ContainerNumber) null));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfAddingInvalidContainerNumber() {
+
+        new ContainerNumberBloomFilter(100, 0.01).add(ContainerNumber.forValue("foo"));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfFalsePositiveRateIsOutOfRange() {
+
+        new ContainerNumberBloomFilter(100, 1);
+    }
+
+
+    @Test
+    public void ensureFalsePositiveRateIsMet() {
+
+        Random random = new Random(42);
+        ContainerNumberBloomFilter filter = new ContainerNumberBloomFilter(10000, 0.01);
+        ContainerNumberSet added = new ContainerNumberSet();
+
+        while (added.size() < 10000) {
+            long containerNumber = randomContainerNumber(random);
+            added.add(containerNumber);
+            filter.add(containerNumber);
+        }
+
+        added.forEach(containerNumber ->
+                Assert.assertTrue("Should be contained", filter.mightContain(containerNumber)));
+
+        int falsePositives = 0;
+        int tests = 0;
+
+        while (tests < 100000) {
+            long containerNumber = randomContainerNumber(random);
+
+            if (!added.contains(containerNumber)) {
+                tests++;
+                falsePositives += filter.mightContain(containerNumber) ? 1 : 0;
+            }
+        }
+
+        Assert.assertTrue("Too many false positives: " + falsePositives, falsePositives < tests * 0.015);
+        Assert.assertEquals("Wrong estimated rate", 0.01, filter.estimateFalsePositiveRate(), 0.005);
+    }
+
+
+    @Test
+    public void ensureFilterIsWrittenAndRead() throws IOException {
+
+        ContainerNumberBloomFilter filter = new ContainerNumberBloomFilter(1000, 0.001);
+        filter.add(HLXU);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        filter.writeTo(output);
+
+        ContainerNumberFilter read = ContainerNumberFilter.readFrom(new ByteArrayInputStream(output.toByteArray()));
+
+        Assert.assertTrue("Wrong type", read instanceof ContainerNumberBloomFilter);
+        Assert.assertEquals("Wrong size", 10 + filter.bitSize() / 8, output.size());
+        Assert.assertEquals("Wrong hash functions", filter.hashFunctions(),
+            ((ContainerNumberBloomFilter) read).hashFunctions());
+        Assert.assertTrue("Should be contained", read.mightContain(HLXU));
+        Assert.assertFalse("Should not be contained", read.mightContain(MSKU));
+    }
+
+
+    @Test(expected = IOException.class)
+    public void ensureReadingOtherDataThrows() throws IOException {
+
+        ContainerNumberFilter.readFrom(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5 }));
+    }
+
+
+    @Test(expected = IOException.class)
+    public void ensureReadingTruncatedFilterWithHugeLengthThrows() throws IOException {
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(output);
+        data.writeInt(ContainerNumberBloomFilter.MAGIC);
+        data.writeByte(1);
+        data.writeByte(7);
+        data.writeInt(Integer.MAX_VALUE - 8);
+        data.writeLong(42L);
+
+        ContainerNumberFilter.readFrom(new ByteArrayInputStream(output.toByteArray()));
+    }
+
+
+    @Test
+    public void ensureLargeFilterIsWrittenAndRead() throws IOException {
+
+        ContainerNumberBloomFilter filter = new ContainerNumberBloomFilter(1000000, 0.01);
+        filter.add(HLXU);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        filter.writeTo(output);
+
+        ContainerNumberFilter read = ContainerNumberFilter.readFrom(new ByteArrayInputStream(output.toByteArray()));
+
+        Assert.assertEquals("Wrong bit size", filter.bitSize(), ((ContainerNumberBloomFilter) read).bitSize());
+        Assert.assertTrue("Should be contained", read.mightContain(HLXU));
+        Assert.assertFalse("Should not be contained", read.mightContain(MSKU));
+    }
+
+
+    @Test
+    public void ensureFiltersCanBeMerged() {
+
+        ContainerNumberBloomFilter filter = new ContainerNumberBloomFilter(100, 0.01);
+        ContainerNumberBloomFilter other = new ContainerNumberBloomFilter(100, 0.01);
+        filter.add(HLXU);
+        other.add(MSKU);
+
+        filter.addAll(other);
+
+        Assert.assertTrue("Should be contained", filter.mightContain(HLXU));
+        Assert.assertTrue("Should be contained", filter.mightContain(MSKU));
+    }
+
+
+    static long randomContainerNumber(Random random) {
+
+        long letters = 0;
+
+        for (int i = 0; i < 4; i++) {
+            letters = (letters << ISO6346.LETTER_BITS) | random.nextInt(26);
+        }
+
+        return ISO6346.pack(letters, random.nextInt(10000000));
+    }
+}
@@ -0,0 +1,82 @@
+package net.contargo.types.container;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+
+public class ContainerNumberConsensusTest {
+
+    private static final ContainerNumber EXPECTED = ContainerNumber.forValue("MSKU 180651-0");
+
+    @Test
+    public void ensureMajorityOfReadsWins() {
+
+        Optional<ContainerNumber> consensus = ContainerNumberConsensus.of(Arrays.asList("MSKU 180651-0",
+                    "MSKU 18O651-0", "MSKU 180651-0", "M5KU 180651-6", "NSKU 180657-0"));
+
+        Assert.assertEquals("Wrong consensus", Optional.of(EXPECTED), consensus);
+    }
+
+
+    @Test
+    public void ensureNoSingleReadNeedsToBeCorrect() {
+
+        Optional<ContainerNumber> consensus = ContainerNumberConsensus.of(Arrays.asList("MSKU 18065I-0",
+                    "M5KU 180651-0", "MSKU 18O651-0", "MSKU 180651-8", "MSKV 180651-0"));
+
+        Assert.assertEquals("Wrong consensus", Optional.of(EXPECTED), consensus);
+    }
+
+
+    @Test
+    public void ensureConfidencesWeightTheReads() {
+
+        Optional<ContainerNumber> consensus = ContainerNumberConsensus.of(Arrays.asList("HLXU 123456-1",
+                    "MSKU 180651-0", "MSKU 180651-0"), new double[] { 0.1, 0.9, 0.8 });
+
+        Assert.assertEquals("Wrong consensus", Optional.of(EXPECTED), consensus);
+
+        consensus = ContainerNumberConsensus.of(Arrays.asList("HLXU 123456-1", "MSKU 180651-0", "MSKU 180651-0"),
+                new double[] { 5, 1, 1 });
+
+        Assert.assertEquals("Wrong consensus", Optional.of(ContainerNumber.forValue("HLXU 123456-1")), consensus);
+    }
+
+
+    @Test
+    public void ensureResultIsISO6346ValidForSingleInvalidRead() {
+
+        Optional<ContainerNumber> consensus = ContainerNumberConsensus.of(Collections.singletonList("MSKU 180651-9"));
+
+        Assert.assertTrue("Missing consensus", consensus.isPresent());
+        Assert.assertTrue("Should be ISO6346 valid", consensus.get().isISO6346Valid());
+    }
+
+
+    @Test
+    public void ensureUnalignableReadsAreIgnored() {
+
+        Assert.assertFalse("Should have no consensus",
+            ContainerNumberConsensus.of(Arrays.asList("foo", "MSKU 18065-0", null)).isPresent());
+        Assert.assertEquals("Wrong consensus", Optional.of(EXPECTED),
+            ContainerNumberConsensus.of(Arrays.asList("foo", "MSKU 180651-0", "MSKU 1806510-0")));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfConfidencesDoNotMatchReads() {
+
+        ContainerNumberConsensus.of(Arrays.asList("MSKU 180651-0", "MSKU 180651-0"), new double[] { 1 });
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfConfidenceIsNegative() {
+
+        ContainerNumberConsensus.of(Collections.singletonList("MSKU 180651-0"), new double[] { -1 });
+    }
+}
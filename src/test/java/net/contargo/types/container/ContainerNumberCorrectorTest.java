@@ -0,0 +1,171 @@
+package net.contargo.types.container;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+
+public class ContainerNumberCorrectorTest {
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+    @Test
+    public void ensureValidContainerNumberIsReturnedAsIs() {
+
+        Assert.assertArrayEquals("Wrong candidates", new long[] { ISO6346.pack("HLXU1234561") },
+            ContainerNumberCorrector.correct("hlxu 123456-1"));
+    }
+
+
+    @Test
+    public void ensureNoCandidatesForValuesTooFarOff() {
+
+        Assert.assertEquals("Should have no candidates", 0, ContainerNumberCorrector.correct(null).length);
+        Assert.assertEquals("Should have no candidates", 0, ContainerNumberCorrector.correct("foo").length);
+        Assert.assertEquals("Should have no candidates", 0,
+            ContainerNumberCorrector.correct("HLXU 123456-1234").length);
+    }
+
+
+    @Test
+    public void ensureConfusedCharacterIsRankedFirst() {
+
+        long[] candidates = ContainerNumberCorrector.correct("MSKU 18O651-0");
+
+        Assert.assertEquals("Wrong first candidate", "MSKU1806510", ISO6346.unpack(candidates[0]));
+    }
+
+
+    @Test
+    public void ensureTranspositionIsRankedBeforeSubstitution() {
+
+        long[] candidates = ContainerNumberCorrector.correct("MSKU 180615-0");
+
+        Assert.assertEquals("Wrong first candidate", "MSKU1806510", ISO6346.unpack(candidates[0]));
+    }
+
+
+    @Test
+    public void ensureMissingAndSurplusCharactersAreCorrected() {
+
+        assertContains(ContainerNumberCorrector.correct("MSKU 18651-0"), "MSKU1806510");
+        assertContains(ContainerNumberCorrector.correct("MSKU 1806651-0"), "MSKU1806510");
+        assertContains(ContainerNumberCorrector.correct("MSKU 180651"), "MSKU1806510");
+    }
+
+
+    @Test
+    public void ensureCandidatesEqualBruteForceResult() {
+
+        Random random = new Random(42);
+
+        for (int i = 0; i < 300; i++) {
+            char[] valid = randomValidContainerNumber(random);
+            String misread = edit(valid, random);
+            Set<String> expected = bruteForce(misread);
+
+            if (ISO6346.isISO6346Valid(misread)) {
+                continue;
+            }
+
+            Set<String> actual = new TreeSet<>();
+
+            for (long candidate : ContainerNumberCorrector.correct(misread)) {
+                actual.add(ISO6346.unpack(candidate));
+            }
+
+            Assert.assertEquals("Wrong candidates for " + misread, expected, actual);
+            Assert.assertTrue("Missing original of " + misread, actual.contains(new String(valid)));
+        }
+    }
+
+
+    private static void assertContains(long[] candidates, String expected) {
+
+        Assert.assertTrue("Missing candidate " + expected,
+            Arrays.stream(candidates).anyMatch(candidate -> candidate == ISO6346.pack(expected)));
+    }
+
+
+    private static char[] randomValidContainerNumber(Random random) {
+
+        char[] value = new char[11];
+
+        for (int position = 0; position < 3; position++) {
+            value[position] = (char) ('A' + random.nextInt(26));
+        }
+
+        value[3] = "UJZ".charAt(random.nextInt(3));
+
+        for (int position = 4; position < 10; position++) {
+            value[position] = (char) ('0' + random.nextInt(10));
+        }
+
+        value[10] = (char) ('0' + ISO6346.computeCheckDigit(new String(value, 0, 10)));
+
+        return value;
+    }
+
+
+    private static String edit(char[] value, Random random) {
+
+        String original = new String(value);
+        int position = random.nextInt(10);
+        char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+
+        switch (random.nextInt(4)) {
+            case 0:
+                return original.substring(0, position) + c + original.substring(position + 1);
+
+            case 1:
+                return original.substring(0, position) + original.charAt(position + 1) + original.charAt(position)
+                    + original.substring(position + 2);
+
+            case 2:
+                return original.substring(0, position) + c + original.substring(position);
+
+            default:
+                return original.substring(0, position) + original.substring(position + 1);
+        }
+    }
+
+
+    private static Set<String> bruteForce(String value) {
+
+        Set<String> result = new TreeSet<>();
+
+        for (int position = 0; position <= value.length(); position++) {
+            for (char c : ALPHABET.toCharArray()) {
+                addIfValid(result, value.substring(0, position) + c + value.substring(position));
+
+                if (position < value.length()) {
+                    addIfValid(result, value.substring(0, position) + c + value.substring(position + 1));
+                }
+            }
+
+            if (position < value.length()) {
+                addIfValid(result, value.substring(0, position) + value.substring(position + 1));
+            }
+
+            if (position < value.length() - 1) {
+                addIfValid(result,
+                    value.substring(0, position) + value.charAt(position + 1) + value.charAt(position)
+                    + value.substring(position + 2));
+            }
+        }
+
+        return result;
+    }
+
+
+    private static void addIfValid(Set<String> result, String candidate) {
+
+        if (ISO6346.isISO6346Valid(candidate)) {
+            result.add(candidate);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package net.contargo.types.container;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import java.util.Random;
+
+
+public class ContainerNumberCuckooFilterTest {
+
+    private static final long HLXU = ISO6346.pack("HLXU 123456-1");
+    private static final long MSKU = ISO6346.pack("MSKU 180651-0");
+
+    @Test
+    public void ensureContainerNumbersCanBeAddedAndRemoved() {
+
+        ContainerNumberCuckooFilter filter = new ContainerNumberCuckooFilter(100, 0.001);
+
+        Assert.assertTrue("Should be added", filter.add(HLXU));
+        Assert.assertTrue("Should be contained", filter.mightContain(ContainerNumber.forValue("hlxu 123456-1")));
+        Assert.assertFalse("Should not be contained", filter.mightContain(MSKU));
+        Assert.assertEquals("Wrong size", 1, filter.size());
+
+        Assert.assertTrue("Should be removed", filter.remove(HLXU));
+        Assert.assertFalse("Should not be removed", filter.remove(HLXU));
+        Assert.assertFalse("Should not be contained", filter.mightContain(HLXU));
+        Assert.assertEquals("Wrong size", 0, filter.size());
+    }
+
+
+    @Test
+    public void ensureFingerprintWidthFollowsFalsePositiveRate() {
+
+        Assert.assertEquals("Wrong width", 10, new ContainerNumberCuckooFilter(100, 0.01).fingerprintBits());
+        Assert.assertEquals("Wrong width", 13, new ContainerNumberCuckooFilter(100, 0.001).fingerprintBits());
+        Assert.assertEquals("Wrong width", 16, new ContainerNumberCuckooFilter(100, 1e-9).fingerprintBits());
+    }
+
+
+    @Test
+    public void ensureNoFalseNegativesAndFalsePositiveRateIsMet() {
+
+        Random random = new Random(42);
+        ContainerNumberCuckooFilter filter = new ContainerNumberCuckooFilter(10000, 0.01);
+        ContainerNumberSet added = new ContainerNumberSet();
+
+        while (added.size() < 10000) {
+            long containerNumber = ContainerNumberBloomFilterTest.randomContainerNumber(random);
+
+            if (added.add(containerNumber)) {
+                Assert.assertTrue("Should be added", filter.add(containerNumber));
+            }
+        }
+
+        long[] values = added.toArray();
+
+        for (int i = 0; i < values.length; i += 2) {
+            Assert.assertTrue("Should be removed", filter.remove(values[i]));
+            added.remove(values[i]);
+        }
+
+        added.forEach(containerNumber ->
+                Assert.assertTrue("Should be contained", filter.mightContain(containerNumber)));
+
+        int falsePositives = 0;
+        int tests = 0;
+
+        while (tests < 100000) {
+            long containerNumber = ContainerNumberBloomFilterTest.randomContainerNumber(random);
+
+            if (!added.contains(containerNumber)) {
+                tests++;
+                falsePositives += filter.mightContain(containerNumber) ? 1 : 0;
+            }
+        }
+
+        Assert.assertTrue("Too many false positives: " + falsePositives, falsePositives < tests * 0.01);
+    }
+
+
+    @Test
+    public void ensureFullFilterKeepsAllContainerNumbers() {
+
+        Random random = new Random(7);
+        ContainerNumberCuckooFilter filter = new ContainerNumberCuckooFilter(100, 0.01);
+        ContainerNumberSet added = new ContainerNumberSet();
+
+        while (!filter.isFull()) {
+            long containerNumber = ContainerNumberBloomFilterTest.randomContainerNumber(random);
+
+            if (added.add(containerNumber)) {
+                Assert.assertTrue("Should be added", filter.add(containerNumber));
+            }
+        }
+
+        Assert.assertFalse("Should not be added", filter.add(MSKU));
+        Assert.assertTrue("Should be nearly full", filter.size() > filter.capacity() * 0.9);
+        added.forEach(containerNumber ->
+                Assert.assertTrue("Should be contained", filter.mightContain(containerNumber)));
+
+        long removed = added.toArray()[0];
+        Assert.assertTrue("Should be removed", filter.remove(removed));
+        added.remove(removed);
+
+        Assert.assertFalse("Should not be full", filter.isFull());
+        added.forEach(containerNumber ->
+                Assert.assertTrue("Should be contained", filter.mightContain(containerNumber)));
+    }
+
+
+    @Test
+    public void ensureFilterIsWrittenAndRead() throws IOException {
+
+        ContainerNumberCuckooFilter filter = new ContainerNumberCuckooFilter(1000, 0.001);
+        filter.add(HLXU);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        filter.writeTo(output);
+
+        ContainerNumberFilter read = ContainerNumberFilter.readFrom(new ByteArrayInputStream(output.toByteArray()));
+
+        Assert.assertTrue("Wrong type", read instanceof ContainerNumberCuckooFilter);
+        Assert.assertTrue("Should be contained", read.mightContain(HLXU));
+        Assert.assertFalse("Should not be contained", read.mightContain(MSKU));
+        Assert.assertTrue("Should be removed", ((ContainerNumberCuckooFilter) read).remove(HLXU));
+    }
+
+
+    @Test(expected = IOException.class)
+    public void ensureReadingTruncatedFilterWithHugeLengthThrows() throws IOException {
+
+        int buckets = 1 << 30;
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(output);
+        data.writeInt(ContainerNumberCuckooFilter.MAGIC);
+        data.writeByte(1);
+        data.writeByte(16);
+        data.writeInt(buckets);
+        data.writeInt(0);
+        data.writeInt(0);
+        data.writeInt(0);
+        data.writeInt(buckets);
+        data.writeLong(42L);
+
+        ContainerNumberFilter.readFrom(new ByteArrayInputStream(output.toByteArray()));
+    }
+}
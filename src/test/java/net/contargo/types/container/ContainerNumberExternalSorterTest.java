@@ -0,0 +1,161 @@
+package net.contargo.types.container;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+
+public class ContainerNumberExternalSorterTest {
+
+    private static final long HLXU = ISO6346.pack("HLXU 123456-1");
+    private static final long MSKU = ISO6346.pack("MSKU 180651-0");
+
+    @Test
+    public void ensureSmallInputIsSortedInMemory() throws IOException {
+
+        Path directory = Files.createTempDirectory("sorter");
+
+        try {
+            LongStream.Builder sorted = LongStream.builder();
+            long count = new ContainerNumberExternalSorter(directory).sort(LongStream.of(MSKU, ISO6346.NONE, HLXU,
+                        MSKU), sorted);
+
+            Assert.assertEquals("Wrong count", 2, count);
+            Assert.assertArrayEquals("Wrong order", new long[] { HLXU, MSKU }, sorted.build().toArray());
+            Assert.assertEquals("Should not spill", 0, countFiles(directory));
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+
+    @Test
+    public void ensureManyRunsAreMergedAndDeduplicated() throws IOException {
+
+        Path directory = Files.createTempDirectory("sorter");
+        Random random = new Random(42);
+        long[] values = new long[100000];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = ContainerNumberSetTest.randomContainerNumber(random);
+        }
+
+        try {
+            ContainerNumberExternalSorter sorter = new ContainerNumberExternalSorter(directory, 3000,
+                    new ForkJoinPool(4));
+            LongStream.Builder sorted = LongStream.builder();
+            long count = sorter.sort(Arrays.stream(values), sorted);
+
+            long[] expected = Arrays.stream(values).sorted().distinct().toArray();
+
+            Assert.assertEquals("Wrong count", expected.length, count);
+            Assert.assertArrayEquals("Wrong sorted values", expected, sorted.build().toArray());
+            Assert.assertEquals("Runs should be deleted", 0, countFiles(directory));
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+
+    @Test
+    public void ensureFileIsSortedIntoCompactBinaryFile() throws IOException {
+
+        Path directory = Files.createTempDirectory("sorter");
+        Path input = directory.resolve("input.txt");
+        Path output = directory.resolve("output.bin");
+        Random random = new Random(7);
+        StringBuilder lines = new StringBuilder("foo\n");
+
+        for (int i = 0; i < 20000; i++) {
+            lines.append(ISO6346.unpack(ContainerNumberSetTest.randomContainerNumber(random))).append('\n');
+        }
+
+        Files.write(input, lines.toString().getBytes(StandardCharsets.US_ASCII));
+
+        try {
+            long count = new ContainerNumberExternalSorter(directory, 1000, ForkJoinPool.commonPool()).sort(input,
+                    output);
+
+            long[] expected;
+
+            try (ContainerNumberFileScanner scanner = new ContainerNumberFileScanner(input)) {
+                expected = scanner.stream(false).filter(ISO6346::isPacked).sorted().distinct().toArray();
+            }
+
+            LongStream.Builder read = LongStream.builder();
+            ContainerNumberExternalSorter.read(output, read);
+
+            Assert.assertEquals("Wrong count", expected.length, count);
+            Assert.assertArrayEquals("Wrong sorted values", expected, read.build().toArray());
+            Assert.assertTrue("Should be compact", Files.size(output) < expected.length * 3L);
+        } finally {
+            Files.delete(input);
+            Files.delete(output);
+            Files.delete(directory);
+        }
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfRunSizeIsNotPositive() {
+
+        new ContainerNumberExternalSorter(Paths.get("."), 0, ForkJoinPool.commonPool());
+    }
+
+
+    @Test
+    public void ensureRunFailuresKeepTheirType() throws IOException {
+
+        IOException ioException = new IOException("disk full");
+        IllegalStateException runtimeException = new IllegalStateException("bug");
+        OutOfMemoryError error = new OutOfMemoryError("heap");
+
+        try {
+            ContainerNumberExternalSorter.join(ForkJoinPool.commonPool().submit(ForkJoinTask.adapt(() -> {
+                throw ioException;
+            })));
+            Assert.fail("Should throw IOException");
+        } catch (IOException e) {
+            Assert.assertEquals("Wrong message", "disk full", e.getMessage());
+        }
+
+        try {
+            ContainerNumberExternalSorter.join(ForkJoinPool.commonPool().submit(ForkJoinTask.adapt(() -> {
+                throw runtimeException;
+            })));
+            Assert.fail("Should throw IllegalStateException");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("Wrong message", "bug", e.getMessage());
+        }
+
+        try {
+            ContainerNumberExternalSorter.join(ForkJoinPool.commonPool().submit(ForkJoinTask.adapt(() -> {
+                throw error;
+            })));
+            Assert.fail("Should throw OutOfMemoryError");
+        } catch (OutOfMemoryError e) {
+            Assert.assertEquals("Wrong message", "heap", e.getMessage());
+        }
+    }
+
+
+    private static long countFiles(Path directory) throws IOException {
+
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package net.contargo.types.container;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+public class ContainerNumberExtractorTest {
+
+    @Test
+    public void ensureContainerNumbersAreFoundWithOffsets() {
+
+        String text = "Please pick up HLXU 123456-1 and msku1806510, not HLXU 123456-7.";
+
+        List<ContainerNumberExtractor.Match> matches = ContainerNumberExtractor.findAll(text);
+
+        Assert.assertEquals("Wrong matches", "[HLXU 123456-1 [15, 28), MSKU 180651-0 [33, 44)]", matches.toString());
+        Assert.assertEquals("Wrong match", "HLXU 123456-1",
+            text.substring((int) matches.get(0).getStart(), (int) matches.get(0).getEnd()));
+    }
+
+
+    @Test
+    public void ensureContainerNumbersAreFoundInEdi() {
+
+        String edi = "EQD+CN+HLXU1234561+22G1:102:5+2'EQD+CN+MSKU1806510+45G1:102:5+2'";
+
+        Assert.assertEquals("Wrong matches", "[HLXU 123456-1 [7, 18), MSKU 180651-0 [39, 50)]",
+            ContainerNumberExtractor.findAll(edi).toString());
+    }
+
+
+    @Test
+    public void ensureContainerNumbersWithinWordsAreNotFound() {
+
+        Assert.assertTrue("Should not be found", ContainerNumberExtractor.findAll("XHLXU1234561").isEmpty());
+        Assert.assertTrue("Should not be found", ContainerNumberExtractor.findAll("HLXU12345612").isEmpty());
+        Assert.assertTrue("Should not be found", ContainerNumberExtractor.findAll("1HLXU1234561").isEmpty());
+        Assert.assertEquals("Should be found", 1, ContainerNumberExtractor.findAll("X HLXU1234561 2").size());
+    }
+
+
+    @Test
+    public void ensureSeparatorsAreLimited() {
+
+        Assert.assertEquals("Should be found", 1, ContainerNumberExtractor.findAll("HLXU / 123456 - 1").size());
+        Assert.assertTrue("Should not be found", ContainerNumberExtractor.findAll("HLXU     123456-1").isEmpty());
+        Assert.assertTrue("Should not be found", ContainerNumberExtractor.findAll("HLXU\n123456-1").isEmpty());
+    }
+
+
+    @Test
+    public void ensureReaderIsProcessedLikeCharSequence() throws IOException {
+
+        StringBuilder text = new StringBuilder();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 5000; i++) {
+            text.append("unit ").append("HLXU").append(' ').append(100000 + random.nextInt(900000)).append('-')
+                .append(random.nextInt(10)).append(i % 3 == 0 ? "\n" : ", ");
+        }
+
+        List<String> fromText = new ArrayList<>();
+        ContainerNumberExtractor.extract(text, (containerNumber, start, end) ->
+                fromText.add(ISO6346.unpack(containerNumber) + "@" + start));
+
+        List<String> fromReader = new ArrayList<>();
+        ContainerNumberExtractor.extract(new StringReader(text.toString()), (containerNumber, start, end) ->
+                fromReader.add(ISO6346.unpack(containerNumber) + "@" + start));
+
+        List<String> expected = new ArrayList<>();
+        Matcher matcher = Pattern.compile("HLXU \\d{6}-\\d").matcher(text);
+
+        while (matcher.find()) {
+            if (ISO6346.isISO6346Valid(matcher.group())) {
+                expected.add(ISO6346.unpack(ISO6346.pack(matcher.group())) + "@" + matcher.start());
+            }
+        }
+
+        Assert.assertFalse("Should find container numbers", expected.isEmpty());
+        Assert.assertEquals("Wrong matches of text", expected, fromText);
+        Assert.assertEquals("Wrong matches of reader", expected, fromReader);
+    }
+}
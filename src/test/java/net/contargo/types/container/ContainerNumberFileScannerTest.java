@@ -0,0 +1,103 @@
+package net.contargo.types.container;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+
+public class ContainerNumberFileScannerTest {
+
+    @Test
+    public void ensureEveryLineIsParsed() throws IOException {
+
+        Path path = write("HLXU 123456-1\r\nfoo\n\nmsku1806510\nHLXU1234567");
+
+        try (ContainerNumberFileScanner scanner = new ContainerNumberFileScanner(path)) {
+            long[] packed = scanner.stream(false).toArray();
+
+            Assert.assertArrayEquals("Wrong packed values",
+                new long[] {
+                    ISO6346.pack("HLXU1234561"), ISO6346.NONE, ISO6346.NONE, ISO6346.pack("MSKU1806510"),
+                    ISO6346.pack("HLXU1234567")
+                }, packed);
+            Assert.assertEquals("Wrong number of ISO6346 valid lines", 2,
+                scanner.stream(false).filter(ISO6346::isISO6346Valid).count());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+
+    @Test
+    public void ensureContainerNumberIsParsedFromColumn() throws IOException {
+
+        Path path = write("id;unit;state\n1;\"HLXU 123456-1\";FULL\n2;MSKU 180651-0\n3\n");
+
+        try (ContainerNumberFileScanner scanner = new ContainerNumberFileScanner(path, ';', 1)) {
+            long[] packed = scanner.stream(false).toArray();
+
+            Assert.assertArrayEquals("Wrong packed values",
+                new long[] { ISO6346.NONE, ISO6346.pack("HLXU1234561"), ISO6346.pack("MSKU1806510"), ISO6346.NONE },
+                packed);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+
+    @Test
+    public void ensureLargeFileIsScannedInParallelAcrossWindows() throws IOException {
+
+        Random random = new Random(42);
+        String[] lines = new String[20000];
+
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = (i % 7 == 0 ? "invalid" : "HLXU " + (100000 + random.nextInt(900000)) + "-")
+                + random.nextInt(10);
+        }
+
+        Path path = write(String.join("\n", lines) + "\n");
+        long[] expected = Arrays.stream(lines).mapToLong(ISO6346::pack).toArray();
+
+        try (ContainerNumberFileScanner scanner = new ContainerNumberFileScanner(path, (byte) 0, -1, 100, 1000)) {
+            Assert.assertArrayEquals("Wrong sequential result", expected, scanner.stream(false).toArray());
+            Assert.assertArrayEquals("Wrong parallel result", expected, scanner.stream(true).toArray());
+            Assert.assertEquals("Wrong number of ISO6346 valid lines",
+                LongStream.of(expected).filter(ISO6346::isISO6346Valid).count(),
+                scanner.stream(true).filter(ISO6346::isISO6346Valid).count());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfColumnIsNegative() throws IOException {
+
+        Path path = write("");
+
+        try {
+            new ContainerNumberFileScanner(path, ';', -1).close();
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+
+    private static Path write(String content) throws IOException {
+
+        Path path = Files.createTempFile("container-numbers", ".csv");
+        Files.write(path, content.getBytes(StandardCharsets.US_ASCII));
+
+        return path;
+    }
+}
@@ -0,0 +1,118 @@
+package net.contargo.types.container;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+
+public class ContainerNumberHyperLogLogTest {
+
+    @Test
+    public void ensureSmallCardinalitiesAreExact() {
+
+        ContainerNumberHyperLogLog sketch = new ContainerNumberHyperLogLog();
+
+        Assert.assertEquals("Wrong estimate", 0, sketch.estimate());
+
+        sketch.add(ContainerNumber.forValue("HLXU 123456-1"));
+        sketch.add(ISO6346.pack("hlxu1234561"));
+        sketch.add(ISO6346.pack("MSKU 180651-0"));
+
+        Assert.assertEquals("Wrong estimate", 2, sketch.estimate());
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfAddingInvalidContainerNumber() {
+
+        new ContainerNumberHyperLogLog().add(ISO6346.NONE);
+    }
+
+
+    @Test
+    public void ensureLargeCardinalitiesAreEstimatedWithinError() {
+
+        Random random = new Random(42);
+        ContainerNumberHyperLogLog sketch = new ContainerNumberHyperLogLog();
+        ContainerNumberSet exact = new ContainerNumberSet();
+
+        for (int i = 0; i < 200000; i++) {
+            long containerNumber = ContainerNumberBloomFilterTest.randomContainerNumber(random);
+            sketch.add(containerNumber);
+            exact.add(containerNumber);
+        }
+
+        Assert.assertEquals("Wrong estimate", exact.size(), sketch.estimate(), exact.size() * 0.03);
+    }
+
+
+    @Test
+    public void ensureConcurrentAndMergedSketchesMatchSequentialSketch() throws InterruptedException {
+
+        long[] values = new long[100000];
+        Random random = new Random(7);
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = ContainerNumberBloomFilterTest.randomContainerNumber(random);
+        }
+
+        ContainerNumberHyperLogLog sequential = new ContainerNumberHyperLogLog(12);
+        ContainerNumberHyperLogLog concurrent = new ContainerNumberHyperLogLog(12);
+        ContainerNumberHyperLogLog first = new ContainerNumberHyperLogLog(12);
+        ContainerNumberHyperLogLog second = new ContainerNumberHyperLogLog(12);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        for (int i = 0; i < values.length; i++) {
+            long containerNumber = values[i];
+            sequential.add(containerNumber);
+            (i % 2 == 0 ? first : second).add(containerNumber);
+            executor.execute(() -> concurrent.add(containerNumber));
+        }
+
+        executor.shutdown();
+        Assert.assertTrue("Should terminate", executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        first.merge(second);
+
+        Assert.assertEquals("Wrong concurrent estimate", sequential.estimate(), concurrent.estimate());
+        Assert.assertEquals("Wrong merged estimate", sequential.estimate(), first.estimate());
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfMergingDifferentPrecisions() {
+
+        new ContainerNumberHyperLogLog(10).merge(new ContainerNumberHyperLogLog(11));
+    }
+
+
+    @Test
+    public void ensureSketchIsWrittenAndRead() throws IOException {
+
+        ContainerNumberHyperLogLog sketch = new ContainerNumberHyperLogLog(10);
+        Random random = new Random(3);
+
+        for (int i = 0; i < 5000; i++) {
+            sketch.add(ContainerNumberBloomFilterTest.randomContainerNumber(random));
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        sketch.writeTo(output);
+
+        ContainerNumberHyperLogLog read = ContainerNumberHyperLogLog.readFrom(
+                new ByteArrayInputStream(output.toByteArray()));
+
+        Assert.assertEquals("Wrong size", 6 + 1024, output.size());
+        Assert.assertEquals("Wrong precision", 10, read.precision());
+        Assert.assertEquals("Wrong estimate", sketch.estimate(), read.estimate());
+    }
+}
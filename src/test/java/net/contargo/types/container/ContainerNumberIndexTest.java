@@ -0,0 +1,174 @@
+package net.contargo.types.container;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+
+
+public class ContainerNumberIndexTest {
+
+    private static final long HLXU = ISO6346.pack("HLXU 123456-1");
+    private static final long HLXU_OTHER = ISO6346.pack("HLXU 129999-0");
+    private static final long HLXJ = ISO6346.pack("HLXJ 123456-4");
+    private static final long MSKU = ISO6346.pack("MSKU 180651-0");
+
+    // QUERIES -------------------------------------------------------------------------------------
+
+    @Test
+    public void ensureIndexIsSortedAndDistinct() {
+
+        ContainerNumberIndex index = ContainerNumberIndex.of(MSKU, HLXU, HLXJ, HLXU);
+
+        Assert.assertEquals("Wrong size", 3, index.size());
+        Assert.assertArrayEquals("Wrong order", new long[] { HLXJ, HLXU, MSKU }, index.toArray());
+        Assert.assertTrue("Should be contained", index.contains(ContainerNumber.forValue("hlxu 123456-1")));
+        Assert.assertFalse("Should not be contained", index.contains(HLXU_OTHER));
+        Assert.assertFalse("Should not be contained", index.contains(ContainerNumber.forValue("foo")));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfIndexingInvalidContainerNumber() {
+
+        ContainerNumberIndex.of(HLXU, ISO6346.NONE);
+    }
+
+
+    @Test
+    public void ensureContainerNumbersAreFoundByOwnerCodeAndCategory() {
+
+        ContainerNumberIndex index = ContainerNumberIndex.of(MSKU, HLXU, HLXJ, HLXU_OTHER);
+
+        Assert.assertArrayEquals("Wrong owner", new long[] { HLXJ, HLXU, HLXU_OTHER }, index.findByOwnerCode("hlx"));
+        Assert.assertEquals("Wrong count", 1, index.countByOwnerCode("MSK"));
+        Assert.assertEquals("Wrong count", 0, index.countByOwnerCode("ABC"));
+        Assert.assertArrayEquals("Wrong owner and category", new long[] { HLXU, HLXU_OTHER },
+            index.findByOwnerCodeAndCategory("HLX", 'U'));
+        Assert.assertArrayEquals("Wrong owner and category", new long[0],
+            index.findByOwnerCodeAndCategory("HLX", 'Z'));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfOwnerCodeIsInvalid() {
+
+        ContainerNumberIndex.empty().findByOwnerCode("H-X");
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfCategoryIsInvalid() {
+
+        ContainerNumberIndex.empty().findByOwnerCodeAndCategory("HLX", '1');
+    }
+
+
+    @Test
+    public void ensureAutocompleteFindsContainerNumbersByPrefix() {
+
+        ContainerNumberIndex index = ContainerNumberIndex.of(MSKU, HLXU, HLXJ, HLXU_OTHER);
+
+        Assert.assertArrayEquals("Wrong suggestions", new long[] { HLXU, HLXU_OTHER },
+            index.autocomplete("hlxu 12", 10));
+        Assert.assertArrayEquals("Wrong suggestions", new long[] { HLXU }, index.autocomplete("HLXU 1234", 10));
+        Assert.assertArrayEquals("Wrong suggestions", new long[] { HLXJ }, index.autocomplete("H", 1));
+        Assert.assertArrayEquals("Wrong suggestions", new long[] { MSKU }, index.autocomplete("MSKU 180651-0", 10));
+        Assert.assertArrayEquals("Wrong suggestions", index.toArray(), index.autocomplete("", 10));
+        Assert.assertArrayEquals("Wrong suggestions", new long[0], index.autocomplete("HLX1", 10));
+        Assert.assertArrayEquals("Wrong suggestions", new long[0], index.autocomplete(null, 10));
+        Assert.assertEquals("Wrong count", 3, index.countByPrefix("HLX"));
+    }
+
+
+    @Test
+    public void ensurePrefixQueriesMatchBruteForce() {
+
+        Random random = new Random(42);
+        long[] values = new long[5000];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = ContainerNumberSetTest.randomContainerNumber(random);
+        }
+
+        ContainerNumberIndex index = ContainerNumberIndex.of(values);
+
+        for (String prefix : new String[] { "A", "BQX", "BQXU", "CAXU1010", "CAXU 100999", "AAXU 1019995" }) {
+            long expected = Arrays.stream(values).distinct().filter(v -> ISO6346.unpack(v).startsWith(
+                        prefix.replace(" ", ""))).count();
+
+            Assert.assertEquals("Wrong count for: " + prefix, expected, index.countByPrefix(prefix));
+        }
+    }
+
+
+    // BUILDING ------------------------------------------------------------------------------------
+
+    @Test
+    public void ensureRadixSortSortsLargeArrays() {
+
+        Random random = new Random(7);
+        long[] values = new long[10000];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextLong() & ((1L << ISO6346.PACKED_BITS) - 1);
+        }
+
+        long[] expected = values.clone();
+        Arrays.sort(expected);
+        ContainerNumberIndex.sort(values);
+
+        Assert.assertArrayEquals("Wrong order", expected, values);
+    }
+
+
+    @Test
+    public void ensureIndexCanBeRebuiltWithChanges() {
+
+        Random random = new Random(3);
+        TreeSet<Long> reference = new TreeSet<>();
+        ContainerNumberIndex index = ContainerNumberIndex.empty();
+
+        for (int round = 0; round < 20; round++) {
+            long[] added = new long[random.nextInt(500)];
+            long[] removed = new long[random.nextInt(100)];
+
+            for (int i = 0; i < added.length; i++) {
+                added[i] = ContainerNumberSetTest.randomContainerNumber(random);
+                reference.add(added[i]);
+            }
+
+            for (int i = 0; i < removed.length; i++) {
+                removed[i] = ContainerNumberSetTest.randomContainerNumber(random);
+                reference.remove(removed[i]);
+            }
+
+            index = index.with(added, removed);
+
+            Assert.assertArrayEquals("Wrong index after round " + round,
+                reference.stream().mapToLong(Long::longValue).toArray(), index.toArray());
+        }
+    }
+
+
+    @Test
+    public void ensureIndicesCanBeMerged() {
+
+        ContainerNumberIndex merged = ContainerNumberIndex.of(HLXU, MSKU).merge(ContainerNumberIndex.of(HLXJ, HLXU));
+
+        Assert.assertEquals("Wrong merged index", ContainerNumberIndex.of(HLXJ, HLXU, MSKU), merged);
+        Assert.assertEquals("Wrong merged index", merged, ContainerNumberIndex.empty().merge(merged));
+    }
+
+
+    @Test
+    public void ensureIndexCanBeBuiltOfSet() {
+
+        ContainerNumberSet set = new ContainerNumberSet();
+        set.addAll(MSKU, HLXU, HLXJ);
+
+        Assert.assertEquals("Wrong index", ContainerNumberIndex.of(HLXJ, HLXU, MSKU), ContainerNumberIndex.of(set));
+    }
+}
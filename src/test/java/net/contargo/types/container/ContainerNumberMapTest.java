@@ -0,0 +1,109 @@
+package net.contargo.types.container;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+
+public class ContainerNumberMapTest {
+
+    private static final long HLXU = ISO6346.pack("HLXU 123456-1");
+    private static final long MSKU = ISO6346.pack("MSKU 180651-0");
+
+    @Test
+    public void ensureValuesCanBePutAndRemoved() {
+
+        ContainerNumberMap<String> map = new ContainerNumberMap<>();
+
+        Assert.assertNull("Should not replace a value", map.put(HLXU, "foo"));
+        Assert.assertEquals("Should replace the value", "foo",
+            map.put(ContainerNumber.forValue("hlxu1234561"), "bar"));
+        Assert.assertEquals("Wrong value", "bar", map.get(ContainerNumber.forValue("HLXU 123456-1")));
+        Assert.assertNull("Should not have a value", map.get(MSKU));
+        Assert.assertEquals("Wrong default value", "baz", map.getOrDefault(MSKU, "baz"));
+        Assert.assertTrue("Should contain the key", map.containsKey(HLXU));
+        Assert.assertEquals("Wrong size", 1, map.size());
+
+        Assert.assertEquals("Wrong removed value", "bar", map.remove(HLXU));
+        Assert.assertNull("Should not remove a value", map.remove(HLXU));
+        Assert.assertTrue("Should be empty", map.isEmpty());
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfPuttingNullValue() {
+
+        new ContainerNumberMap<String>().put(HLXU, null);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfPuttingInvalidContainerNumber() {
+
+        new ContainerNumberMap<String>().put(ContainerNumber.forValue("foo"), "foo");
+    }
+
+
+    @Test
+    public void ensureBulkOperationsAreApplied() {
+
+        ContainerNumberMap<String> map = new ContainerNumberMap<>();
+        map.put(HLXU, "foo");
+
+        ContainerNumberMap<String> other = new ContainerNumberMap<>();
+        other.put(HLXU, "bar");
+        other.put(MSKU, "baz");
+
+        map.putAll(other);
+
+        Assert.assertEquals("Wrong value", "bar", map.get(HLXU));
+        Assert.assertEquals("Wrong value", "baz", map.get(MSKU));
+        Assert.assertEquals("Wrong number of removed entries", 1, map.removeAll(MSKU, MSKU));
+        Assert.assertEquals("Wrong key set", 1, map.keySet().size());
+    }
+
+
+    @Test
+    public void ensureBehavesLikeHashMap() {
+
+        Random random = new Random(42);
+        ContainerNumberMap<Integer> map = new ContainerNumberMap<>();
+        Map<Long, Integer> reference = new HashMap<>();
+
+        for (int i = 0; i < 200000; i++) {
+            long containerNumber = ContainerNumberSetTest.randomContainerNumber(random);
+
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals("Wrong result of remove", reference.remove(containerNumber),
+                    map.remove(containerNumber));
+            } else {
+                Assert.assertEquals("Wrong result of put", reference.put(containerNumber, i),
+                    map.put(containerNumber, i));
+            }
+        }
+
+        Assert.assertEquals("Wrong size", reference.size(), map.size());
+
+        map.forEach((containerNumber, value) ->
+                Assert.assertEquals("Wrong value", reference.get(containerNumber), value));
+
+        map.clear();
+
+        Assert.assertTrue("Should be empty", map.isEmpty());
+    }
+
+
+    @Test
+    public void ensureMemoryFootprintIsAccountedForBackingArrays() {
+
+        ContainerNumberMap<String> map = new ContainerNumberMap<>(1000);
+
+        Assert.assertEquals("Wrong memory footprint", ContainerNumberMap.estimateMemoryFootprint(1000),
+            map.memoryFootprint());
+        Assert.assertTrue("Wrong memory footprint",
+            map.memoryFootprint() > new ContainerNumberSet(1000).memoryFootprint());
+    }
+}
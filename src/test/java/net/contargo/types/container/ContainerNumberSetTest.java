@@ -0,0 +1,125 @@
+package net.contargo.types.container;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+
+public class ContainerNumberSetTest {
+
+    private static final long HLXU = ISO6346.pack("HLXU 123456-1");
+    private static final long MSKU = ISO6346.pack("MSKU 180651-0");
+
+    @Test
+    public void ensureContainerNumbersCanBeAddedAndRemoved() {
+
+        ContainerNumberSet set = new ContainerNumberSet();
+
+        Assert.assertTrue("Should be added", set.add(HLXU));
+        Assert.assertFalse("Should already be contained", set.add(ContainerNumber.forValue("hlxu1234561")));
+        Assert.assertTrue("Should be contained", set.contains(ContainerNumber.forValue("HLXU 123456-1")));
+        Assert.assertFalse("Should not be contained", set.contains(MSKU));
+        Assert.assertEquals("Wrong size", 1, set.size());
+
+        Assert.assertTrue("Should be removed", set.remove(HLXU));
+        Assert.assertFalse("Should not be removed", set.remove(HLXU));
+        Assert.assertTrue("Should be empty", set.isEmpty());
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfAddingInvalidContainerNumber() {
+
+        new ContainerNumberSet().add(ContainerNumber.forValue("foo"));
+    }
+
+
+    @Test
+    public void ensureInvalidContainerNumbersAreNeverContained() {
+
+        ContainerNumberSet set = new ContainerNumberSet();
+
+        Assert.assertFalse("Should not be contained", set.contains(ISO6346.NONE));
+        Assert.assertFalse("Should not be contained", set.contains((ContainerNumber) null));
+        Assert.assertFalse("Should not be removed", set.remove(ISO6346.NONE));
+    }
+
+
+    @Test
+    public void ensureBulkOperationsReportChangedElements() {
+
+        ContainerNumberSet set = new ContainerNumberSet();
+
+        Assert.assertEquals("Wrong number of added elements", 2, set.addAll(HLXU, MSKU, HLXU));
+        Assert.assertEquals("Wrong number of removed elements", 1, set.removeAll(MSKU, MSKU));
+
+        ContainerNumberSet other = new ContainerNumberSet();
+        other.addAll(HLXU, MSKU);
+
+        Assert.assertEquals("Wrong number of added elements", 1, set.addAll(other));
+        Assert.assertEquals("Should be equal", other, set);
+        Assert.assertEquals("Should have equal hash codes", other.hashCode(), set.hashCode());
+    }
+
+
+    @Test
+    public void ensureBehavesLikeHashSet() {
+
+        Random random = new Random(42);
+        ContainerNumberSet set = new ContainerNumberSet();
+        Set<Long> reference = new HashSet<>();
+
+        for (int i = 0; i < 200000; i++) {
+            long containerNumber = randomContainerNumber(random);
+
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals("Wrong result of remove", reference.remove(containerNumber),
+                    set.remove(containerNumber));
+            } else {
+                Assert.assertEquals("Wrong result of add", reference.add(containerNumber), set.add(containerNumber));
+            }
+        }
+
+        Assert.assertEquals("Wrong size", reference.size(), set.size());
+
+        for (long containerNumber : set.toArray()) {
+            Assert.assertTrue("Unexpected element", reference.contains(containerNumber));
+        }
+
+        long[] sum = new long[1];
+        set.forEach(containerNumber -> sum[0] += containerNumber);
+
+        Assert.assertEquals("Wrong elements", reference.stream().mapToLong(Long::longValue).sum(), sum[0]);
+
+        set.clear();
+
+        Assert.assertTrue("Should be empty", set.isEmpty());
+        Assert.assertFalse("Should not be contained", set.contains(reference.iterator().next()));
+    }
+
+
+    @Test
+    public void ensureMemoryFootprintIsAccountedForBackingArray() {
+
+        ContainerNumberSet set = new ContainerNumberSet(1000);
+
+        Assert.assertEquals("Wrong memory footprint", ContainerNumberSet.estimateMemoryFootprint(1000),
+            set.memoryFootprint());
+        Assert.assertTrue("Wrong memory footprint", set.memoryFootprint() >= 1000 * Long.BYTES);
+        Assert.assertTrue("Wrong memory footprint", set.memoryFootprint() <= 3000 * Long.BYTES);
+    }
+
+
+    /**
+     * Creates packed container numbers from a small range of owner codes and serial numbers to provoke collisions.
+     */
+    static long randomContainerNumber(Random random) {
+
+        String ownerCode = "" + (char) ('A' + random.nextInt(3)) + (char) ('A' + random.nextInt(26)) + 'X';
+
+        return ISO6346.pack(ownerCode + "U" + (100000 + random.nextInt(2000)) + random.nextInt(10));
+    }
+}
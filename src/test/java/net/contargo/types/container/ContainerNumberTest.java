@@ -3,7 +3,11 @@ package net.contargo.types.container;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 
 
@@ -402,4 +406,89 @@ public class ContainerNumberTest {
 
         Assert.assertFalse(value + " should not be equal to null", containerNumber.equals(null));
     }
+
+
+    @Test
+    public void ensureEqualContainerNumbersHaveEqualHashCodes() {
+
+        Set<ContainerNumber> containerNumbers = new HashSet<>();
+        containerNumbers.add(ContainerNumber.forValue("hlxu1234567"));
+        containerNumbers.add(ContainerNumber.forValue("HLXU 123456-7"));
+        containerNumbers.add(ContainerNumber.forValue("h1xu1234567"));
+        containerNumbers.add(ContainerNumber.forValue("H1XU 123456-7"));
+        containerNumbers.add(ContainerNumber.forValue("foo"));
+
+        Assert.assertEquals("Wrong number of distinct container numbers", 3, containerNumbers.size());
+    }
+
+
+    // PACKED --------------------------------------------------------------------------------------
+
+    @Test
+    public void ensureValidContainerNumberCanBePackedAndUnpacked() {
+
+        ContainerNumber containerNumber = ContainerNumber.forValue("hlxu 123456-7");
+
+        long packed = containerNumber.toLong();
+        ContainerNumber unpacked = ContainerNumber.fromLong(packed);
+
+        Assert.assertEquals("Should be equal", containerNumber, unpacked);
+        Assert.assertEquals("Wrong String representation", "HLXU 123456-7", unpacked.toString());
+        Assert.assertEquals("Wrong String representation", "HLXU 123456 7", unpacked.getFormattedWithoutDash());
+        Assert.assertEquals("Wrong owner code", "HLX", unpacked.getOwnerCode().get());
+        Assert.assertEquals("Wrong serial number", "123456", unpacked.getSerialNumber().get());
+    }
+
+
+    @Test
+    public void ensureInvalidContainerNumberIsNotPacked() {
+
+        Assert.assertEquals("Should not be packed", ISO6346.NONE, ContainerNumber.forValue("H1XU 123456-7").toLong());
+        Assert.assertEquals("Should not be packed", ISO6346.NONE, ContainerNumber.forValue("foo").toLong());
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfBuiltWithInvalidPackedValue() {
+
+        ContainerNumber.fromLong(ISO6346.NONE);
+    }
+
+
+    @Test
+    public void ensureContainerNumbersAreOrderedByPackedValue() {
+
+        List<ContainerNumber> containerNumbers = Arrays.asList(ContainerNumber.forValue("foo"),
+                ContainerNumber.forValue("MSKU 180651-0"), ContainerNumber.forValue("HLXU 123456-7"),
+                ContainerNumber.forValue("HLXU 123456-1"), ContainerNumber.forValue("bar"));
+
+        containerNumbers.sort(null);
+
+        Assert.assertEquals("Wrong order", "[HLXU 123456-1, HLXU 123456-7, MSKU 180651-0, bar, foo]",
+            containerNumbers.toString());
+    }
+
+
+    // CORRECTIONS ---------------------------------------------------------------------------------
+
+    @Test
+    public void ensureCorrectionsAreSuggestedForInvalidContainerNumber() {
+
+        List<ContainerNumber> suggestions = ContainerNumber.forValue("MSKU 18O651-0").suggestCorrections();
+
+        Assert.assertEquals("Wrong first suggestion", ContainerNumber.forValue("MSKU 180651-0"), suggestions.get(0));
+
+        for (ContainerNumber suggestion : suggestions) {
+            Assert.assertTrue("Should be ISO6346 valid: " + suggestion, suggestion.isISO6346Valid());
+        }
+    }
+
+
+    @Test
+    public void ensureValidContainerNumberIsItsOnlySuggestion() {
+
+        ContainerNumber containerNumber = ContainerNumber.forValue("MSKU 180651-0");
+
+        Assert.assertEquals("Wrong suggestions", Arrays.asList(containerNumber), containerNumber.suggestCorrections());
+    }
 }
@@ -0,0 +1,134 @@
+package net.contargo.types.container;
+
+import net.contargo.types.transport.Direction;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+
+public class ContainerTypeCounterTest {
+
+    @Test
+    public void ensureCountsByTypeLoadingStateAndDirection() {
+
+        ContainerTypeCounter counter = new ContainerTypeCounter();
+        counter.add(ContainerType.TWENTY_DV, LoadingState.FULL, Direction.TURN_IN);
+        counter.add(ContainerType.TWENTY_DV, LoadingState.EMPTY, Direction.TURN_IN);
+        counter.add(ContainerType.FORTY_HC, LoadingState.EMPTY, Direction.TURN_OUT);
+        counter.add(ContainerType.FORTYFIVE_HC, null, null);
+        counter.add(ContainerType.FORTY_HC);
+
+        Assert.assertEquals("Wrong count", 5, counter.getCount());
+        Assert.assertEquals("Wrong count", 2, counter.getCount(ContainerType.TWENTY_DV));
+        Assert.assertEquals("Wrong count", 0, counter.getCount(ContainerType.TEN_DV));
+        Assert.assertEquals("Wrong count", 2, counter.getCount(null, LoadingState.EMPTY, null));
+        Assert.assertEquals("Wrong count", 2, counter.getCount(null, null, Direction.TURN_IN));
+        Assert.assertEquals("Wrong count", 1, counter.getCount(ContainerType.FORTY_HC, LoadingState.EMPTY,
+                Direction.TURN_OUT));
+        Assert.assertEquals("Wrong count", 0, counter.getCount(ContainerType.FORTY_HC, LoadingState.FULL, null));
+    }
+
+
+    @Test
+    public void ensureSumsLengthAndTeu() {
+
+        ContainerTypeCounter counter = new ContainerTypeCounter();
+        counter.add(ContainerType.TWENTY_DV, LoadingState.FULL, Direction.TURN_IN);
+        counter.add(ContainerType.FORTY_HC, LoadingState.EMPTY, Direction.TURN_OUT);
+        counter.add(ContainerType.FORTYFIVE_HC);
+
+        Assert.assertEquals("Wrong length", 105, counter.getLengthFeet(null, null, null));
+        Assert.assertEquals("Wrong length", 40, counter.getLengthFeet(null, LoadingState.EMPTY, null));
+        Assert.assertEquals("Wrong TEU", 5.25, counter.getTeu(), 0.0);
+        Assert.assertEquals("Wrong TEU", 1.0, counter.getTeu(null, null, Direction.TURN_IN), 0.0);
+        Assert.assertEquals("Wrong TEU", 2.25, counter.getTeu(ContainerType.FORTYFIVE_HC, null, null), 0.0);
+    }
+
+
+    @Test
+    public void ensureMergesCounters() {
+
+        ContainerTypeCounter counter = new ContainerTypeCounter();
+        counter.add(ContainerType.TWENTY_DV, LoadingState.FULL, Direction.TURN_IN);
+
+        ContainerTypeCounter other = new ContainerTypeCounter();
+        other.add(ContainerType.TWENTY_DV, LoadingState.FULL, Direction.TURN_IN);
+        other.add(ContainerType.FORTY_DV);
+
+        Assert.assertSame("Should return merged counter", counter, counter.merge(other));
+        Assert.assertEquals("Wrong count", 3, counter.getCount());
+        Assert.assertEquals("Wrong count", 2, counter.getCount(ContainerType.TWENTY_DV, LoadingState.FULL,
+                Direction.TURN_IN));
+        Assert.assertEquals("Wrong TEU", 4.0, counter.getTeu(), 0.0);
+    }
+
+
+    @Test
+    public void ensureParallelCollectorMatchesGroupingBy() {
+
+        Random random = new Random(19);
+        List<Unit> units = new ArrayList<>();
+
+        for (int i = 0; i < 100000; i++) {
+            units.add(new Unit(ContainerType.values()[random.nextInt(ContainerType.values().length)],
+                    random.nextBoolean() ? LoadingState.FULL : LoadingState.EMPTY,
+                    random.nextInt(3) == 0 ? null : Direction.values()[random.nextInt(2)]));
+        }
+
+        ContainerTypeCounter counter = units.parallelStream()
+                .collect(ContainerTypeCounter.counting(unit -> unit.type, unit -> unit.loadingState,
+                            unit -> unit.direction));
+
+        Assert.assertEquals("Wrong count", units.size(), counter.getCount());
+
+        units.stream()
+            .filter(unit -> unit.loadingState == LoadingState.EMPTY)
+            .collect(Collectors.groupingBy(unit -> unit.type, Collectors.counting()))
+            .forEach((type, count) ->
+                    Assert.assertEquals("Wrong count of " + type, (long) count,
+                        counter.getCount(type, LoadingState.EMPTY, null)));
+
+        double teu = units.stream().mapToDouble(unit -> unit.type.getTeu()).sum();
+        Assert.assertEquals("Wrong TEU", teu, counter.getTeu(), 0.001);
+    }
+
+
+    @Test
+    public void ensureCollectorCountsContainerTypes() {
+
+        ContainerTypeCounter counter = Arrays.asList(ContainerType.TWENTY_DV, ContainerType.TWENTY_DV,
+                    ContainerType.FORTY_DV)
+                .stream()
+                .collect(ContainerTypeCounter.counting());
+
+        Assert.assertEquals("Wrong count", 2, counter.getCount(ContainerType.TWENTY_DV));
+        Assert.assertEquals("Wrong TEU", 4.0, counter.getTeu(), 0.0);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsForNullType() {
+
+        new ContainerTypeCounter().add(null, LoadingState.FULL, Direction.TURN_IN);
+    }
+
+    private static final class Unit {
+
+        private final ContainerType type;
+        private final LoadingState loadingState;
+        private final Direction direction;
+
+        private Unit(ContainerType type, LoadingState loadingState, Direction direction) {
+
+            this.type = type;
+            this.loadingState = loadingState;
+            this.direction = direction;
+        }
+    }
+}
@@ -3,6 +3,11 @@ package net.contargo.types.container;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
 
 /**
  * @author  Aljona Murygina - murygina@synyx.de
@@ -70,4 +75,124 @@ public class ContainerTypeTest {
         Assert.assertNotNull("Should not be null", containerType);
         Assert.assertEquals("Wrong container type", ContainerType.TWENTY_BO, containerType);
     }
+
+
+    @Test
+    public void ensureFindsEveryContainerTypeByContargoHandlingCode() {
+
+        for (ContainerType containerType : ContainerType.values()) {
+            Assert.assertEquals("Wrong container type", Optional.of(containerType),
+                ContainerType.findByContargoHandlingCode(containerType.getContargoHandlingCode()));
+            Assert.assertEquals("Wrong container type", containerType,
+                ContainerType.byContargoHandlingCode(containerType.getContargoHandlingCode()));
+        }
+    }
+
+
+    @Test
+    public void ensureFindsNoContainerTypeForUnknownCodes() {
+
+        for (String code : Arrays.asList(null, "", "foo", "40hc", "40HC ", "4ÖHC", "99ZZ")) {
+            Assert.assertFalse("Should not find " + code, ContainerType.findByContargoHandlingCode(code).isPresent());
+            Assert.assertFalse("Should not find " + code, ContainerType.findByIsoCode(code).isPresent());
+            Assert.assertTrue("Should not find " + code, ContainerType.allByIsoCode(code).isEmpty());
+        }
+    }
+
+
+    @Test
+    public void ensureFindsFirstContainerTypeByIsoCode() {
+
+        for (ContainerType containerType : ContainerType.values()) {
+            ContainerType first = Arrays.stream(ContainerType.values())
+                    .filter(type -> type.getIsoCode().equals(containerType.getIsoCode()))
+                    .findFirst()
+                    .get();
+
+            Assert.assertEquals("Wrong container type", Optional.of(first),
+                ContainerType.findByIsoCode(containerType.getIsoCode()));
+            Assert.assertEquals("Wrong container type", first, ContainerType.byIsoCode(containerType.getIsoCode()));
+        }
+    }
+
+
+    @Test
+    public void ensureFindsAllContainerTypesSharingIsoCode() {
+
+        Set<ContainerType> containerTypes = ContainerType.allByIsoCode("22T0");
+
+        Assert.assertEquals("Wrong container types",
+            EnumSet.of(ContainerType.TWENTY_TK, ContainerType.TWENTYTWO_TK, ContainerType.TWENTYTHREE_TK,
+                ContainerType.TWENTYFOUR_TK, ContainerType.TWENTYSIX_TK), containerTypes);
+        Assert.assertSame("Should be shared", containerTypes, ContainerType.allByIsoCode(new StringBuilder("22T0")));
+        Assert.assertEquals("Wrong container types", EnumSet.of(ContainerType.FORTY_HC),
+            ContainerType.allByIsoCode("45G0"));
+    }
+
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void ensureContainerTypesSharingIsoCodeAreUnmodifiable() {
+
+        ContainerType.allByIsoCode("22T0").clear();
+    }
+
+
+    @Test
+    public void ensureLookupsShareOptionals() {
+
+        Assert.assertSame("Should be shared", ContainerType.findByIsoCode("42G0"), ContainerType.findByIsoCode("42G0"));
+        Assert.assertSame("Should be shared", ContainerType.findByContargoHandlingCode("40DV"),
+            ContainerType.findByContargoHandlingCode("40DV"));
+    }
+
+
+    @Test
+    public void ensureDerivesLengthAndTeuFromIsoCode() {
+
+        Assert.assertEquals("Wrong length", 20, ContainerType.TWENTY_DV.getLengthFeet());
+        Assert.assertEquals("Wrong length", 45, ContainerType.FORTYFIVE_HC.getLengthFeet());
+        Assert.assertEquals("Wrong TEU", 0.5, ContainerType.TEN_DV.getTeu(), 0.0);
+        Assert.assertEquals("Wrong TEU", 2.0, ContainerType.FORTY_OH.getTeu(), 0.0);
+        Assert.assertEquals("Wrong TEU", 2.25, ContainerType.FORTYFIVE_PW.getTeu(), 0.0);
+
+        Assert.assertEquals("Wrong length", 45, ContainerType.FORTYFIVE_PH.getLengthFeet());
+        Assert.assertEquals("Wrong TEU", 2.25, ContainerType.FORTYFIVE_PH.getTeu(), 0.0);
+        Assert.assertEquals("Wrong length", 20, ContainerType.TWENTY_DL.getLengthFeet());
+        Assert.assertEquals("Wrong length", 30, ContainerType.THIRTY_BU.getLengthFeet());
+        Assert.assertEquals("Wrong length", 40, ContainerType.FORTY_PH.getLengthFeet());
+
+        for (ContainerType containerType : ContainerType.values()) {
+            Assert.assertEquals("Wrong length of " + containerType, expectedLengthFeet(containerType),
+                containerType.getLengthFeet());
+        }
+    }
+
+
+    /**
+     * The nominal length by name, e.g. {@code 45} for {@code FORTYFIVE_...}, tanks of 22 to 26 and of 33 and 35 feet
+     * have the ISO length code of 20 and 30 feet.
+     */
+    private static int expectedLengthFeet(ContainerType containerType) {
+
+        String name = containerType.name();
+
+        if (containerType == ContainerType.TWENTYFIVE_DV) {
+            // ISO length code C
+            return 24;
+        }
+
+        if (name.startsWith("TEN_")) {
+            return 10;
+        }
+
+        if (name.startsWith("TWENTY")) {
+            return 20;
+        }
+
+        if (name.startsWith("THIRTY")) {
+            return 30;
+        }
+
+        return name.startsWith("FORTYFIVE_") ? 45 : 40;
+    }
 }
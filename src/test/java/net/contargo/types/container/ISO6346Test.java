@@ -0,0 +1,377 @@
+package net.contargo.types.container;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import java.util.function.Consumer;
+
+
+public class ISO6346Test {
+
+    private static final String VALID = "HLXU1234561";
+
+    // VALID ---------------------------------------------------------------------------------------
+
+    @Test
+    public void ensureFormattedValidContainerNumberIsValid() {
+
+        Assert.assertTrue("Should be valid", ISO6346.isValid("hlxu 123456-7"));
+        Assert.assertTrue("Should be ISO6346 valid", ISO6346.isISO6346Valid("hlxu 123456-1"));
+    }
+
+
+    @Test
+    public void ensureNullIsNotValid() {
+
+        Assert.assertFalse("Should not be valid", ISO6346.isValid(null));
+        Assert.assertFalse("Should not be ISO6346 valid", ISO6346.isISO6346Valid(null));
+        Assert.assertEquals("Wrong check digit", -1, ISO6346.computeCheckDigit(null));
+    }
+
+
+    @Test
+    public void ensureCheckDigitIsComputedWithAndWithoutCheckDigit() {
+
+        Assert.assertEquals("Wrong check digit", 1, ISO6346.computeCheckDigit("HLXU 123456"));
+        Assert.assertEquals("Wrong check digit", 1, ISO6346.computeCheckDigit("HLXU 123456-7"));
+        Assert.assertEquals("Wrong check digit", 0, ISO6346.computeCheckDigit("MSKU180651"));
+        Assert.assertEquals("Wrong check digit", -1, ISO6346.computeCheckDigit("HLXU 12345"));
+        Assert.assertEquals("Wrong check digit", -1, ISO6346.computeCheckDigit("HLXU 123456-A"));
+        Assert.assertEquals("Wrong check digit", -1, ISO6346.computeCheckDigit("HLXU 123456-12"));
+    }
+
+
+    // PACKED --------------------------------------------------------------------------------------
+
+    @Test
+    public void ensureValidContainerNumberIsPackedAndUnpacked() {
+
+        long packed = ISO6346.pack("hlxu 123456-1");
+
+        Assert.assertTrue("Should be packed", ISO6346.isPacked(packed));
+        Assert.assertEquals("Wrong unpacked value", "HLXU1234561", ISO6346.unpack(packed));
+        Assert.assertEquals("Wrong check digit", 1, ISO6346.computeCheckDigit(packed));
+        Assert.assertTrue("Should be ISO6346 valid", ISO6346.isISO6346Valid(packed));
+
+        long expected = (25L << 39) | (25L << 34) | (25L << 29) | (25L << 24) | (999999L << 4) | 9L;
+        Assert.assertEquals("Wrong packed value", expected, ISO6346.pack("ZZZZ 999999-9"));
+    }
+
+
+    @Test
+    public void ensureInvalidValuesAreNotPacked() {
+
+        Assert.assertEquals("Should not be packed", ISO6346.NONE, ISO6346.pack(null));
+        Assert.assertEquals("Should not be packed", ISO6346.NONE, ISO6346.pack("HLXU 123456"));
+        Assert.assertEquals("Should not be packed", ISO6346.NONE, ISO6346.pack("H1XU 123456-1"));
+        Assert.assertFalse("Should not be packed", ISO6346.isPacked(-1L));
+        Assert.assertFalse("Should not be packed", ISO6346.isPacked(1L << 44));
+        Assert.assertFalse("Should not be packed", ISO6346.isPacked(26L << 24));
+        Assert.assertFalse("Should not be packed", ISO6346.isPacked(1000000L << 4));
+        Assert.assertFalse("Should not be packed", ISO6346.isPacked(10L));
+        Assert.assertFalse("Should not be ISO6346 valid", ISO6346.isISO6346Valid(ISO6346.NONE));
+        Assert.assertEquals("Wrong check digit", -1, ISO6346.computeCheckDigit(ISO6346.NONE));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureUnpackingInvalidValueThrows() {
+
+        ISO6346.unpack(ISO6346.NONE);
+    }
+
+
+    @Test
+    public void ensurePackedValuesAreOrderedLikeNormalizedContainerNumbers() {
+
+        String[] values = { "AAAA0000000", "AAAA0000001", "AAAA0000010", "AAAA9999999", "AAAB0000000", "AABA0000000",
+            "ABAA0000000", "BAAA0000000", "HLXU1234561", "ZZZZ9999999" };
+
+        for (int i = 1; i < values.length; i++) {
+            Assert.assertTrue("Wrong order of " + values[i - 1] + " and " + values[i],
+                ISO6346.pack(values[i - 1]) < ISO6346.pack(values[i]));
+        }
+    }
+
+
+    @Test
+    public void ensurePackedValuesAreCheckedLikeTheirCharSequence() {
+
+        char[] value = VALID.toCharArray();
+
+        for (char category = 'A'; category <= 'Z'; category++) {
+            for (int position = 4; position < 10; position++) {
+                for (char checkDigit = '0'; checkDigit <= '9'; checkDigit++) {
+                    char[] candidate = value.clone();
+                    candidate[3] = category;
+                    candidate[position] = checkDigit;
+                    candidate[10] = checkDigit;
+
+                    String containerNumber = new String(candidate);
+                    long packed = ISO6346.pack(containerNumber);
+
+                    Assert.assertEquals("Wrong unpacked value", containerNumber, ISO6346.unpack(packed));
+                    Assert.assertEquals("Wrong ISO6346 validity for: " + containerNumber,
+                        ISO6346.isISO6346Valid(containerNumber), ISO6346.isISO6346Valid(packed));
+                    Assert.assertEquals("Wrong check digit for: " + containerNumber,
+                        ISO6346.computeCheckDigit(containerNumber), ISO6346.computeCheckDigit(packed));
+                }
+            }
+        }
+    }
+
+
+    // TRY PARSE -----------------------------------------------------------------------------------
+
+    @Test
+    public void ensureContainerNumberIsParsedFromByteRange() {
+
+        byte[] bytes = "foo;hlxu 123456-1;bar".getBytes(StandardCharsets.US_ASCII);
+
+        Assert.assertEquals("Wrong parsed value", ISO6346.pack(VALID), ISO6346.tryParse(bytes, 4, 13));
+        Assert.assertEquals("Wrong parsed value", ISO6346.pack(VALID), ISO6346.tryParse(VALID));
+    }
+
+
+    @Test
+    public void ensureTryParseReturnsStatusCodes() {
+
+        byte[] bytes = "HLXU 123456-7".getBytes(StandardCharsets.US_ASCII);
+
+        Assert.assertEquals("Wrong status", ISO6346.NOT_ISO6346_VALID, ISO6346.tryParse(bytes, 0, bytes.length));
+        Assert.assertEquals("Wrong status", ISO6346.INVALID_FORMAT, ISO6346.tryParse(bytes, 0, bytes.length - 1));
+        Assert.assertEquals("Wrong status", ISO6346.INVALID_FORMAT, ISO6346.tryParse(bytes, 1, bytes.length - 1));
+        Assert.assertEquals("Wrong status", ISO6346.INVALID_RANGE, ISO6346.tryParse((byte[]) null, 0, 0));
+        Assert.assertEquals("Wrong status", ISO6346.INVALID_RANGE, ISO6346.tryParse(bytes, -1, 1));
+        Assert.assertEquals("Wrong status", ISO6346.INVALID_RANGE, ISO6346.tryParse(bytes, 1, bytes.length));
+        Assert.assertEquals("Wrong status", ISO6346.INVALID_RANGE,
+            ISO6346.tryParse(bytes, Integer.MAX_VALUE, Integer.MAX_VALUE));
+        Assert.assertEquals("Wrong status", ISO6346.NOT_ISO6346_VALID, ISO6346.tryParse("HLXA 123456-1"));
+        Assert.assertEquals("Wrong status", ISO6346.INVALID_FORMAT, ISO6346.tryParse((CharSequence) null));
+    }
+
+
+    @Test
+    public void ensureNonAsciiBytesAreIgnoredLikeNonAsciiCharacters() {
+
+        byte[] bytes = "HLXU\u00c4123456-1".getBytes(StandardCharsets.UTF_8);
+
+        Assert.assertEquals("Wrong parsed value", ISO6346.pack(VALID), ISO6346.tryParse(bytes, 0, bytes.length));
+    }
+
+
+    @Test
+    public void ensureContainerNumberIsParsedFromHeapAndDirectBuffers() {
+
+        byte[] bytes = "xxHLXU1234561xx".getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer heap = ByteBuffer.wrap(bytes);
+        ByteBuffer slice = ((ByteBuffer) heap.position(2)).slice();
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes);
+
+        Assert.assertEquals("Wrong parsed value", ISO6346.pack(VALID), ISO6346.tryParse(heap, 2, 11));
+        Assert.assertEquals("Wrong parsed value", ISO6346.pack(VALID), ISO6346.tryParse(slice, 0, 11));
+        Assert.assertEquals("Wrong parsed value", ISO6346.pack(VALID), ISO6346.tryParse(direct, 2, 11));
+        Assert.assertEquals("Wrong status", ISO6346.INVALID_RANGE, ISO6346.tryParse(slice, 3, 11));
+        Assert.assertEquals("Wrong status", ISO6346.INVALID_RANGE, ISO6346.tryParse((ByteBuffer) null, 0, 11));
+        Assert.assertEquals("Buffer position should not change", bytes.length, direct.position());
+    }
+
+
+    @Test
+    public void ensureRangeBeyondLimitIsInvalidRange() {
+
+        byte[] bytes = "HLXU1234561xx".getBytes(StandardCharsets.US_ASCII);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length + 8);
+        direct.put(bytes);
+        direct.flip();
+
+        ByteBuffer heap = ByteBuffer.allocate(bytes.length + 8);
+        heap.put(bytes);
+        heap.flip();
+
+        ByteBuffer readOnly = heap.asReadOnlyBuffer();
+
+        for (ByteBuffer buffer : new ByteBuffer[] { direct, heap, readOnly }) {
+            Assert.assertEquals("Wrong parsed value", ISO6346.pack(VALID), ISO6346.tryParse(buffer, 0, 11));
+            Assert.assertEquals("Wrong status", ISO6346.INVALID_RANGE, ISO6346.tryParse(buffer, 0, 14));
+            Assert.assertEquals("Wrong status", ISO6346.INVALID_RANGE, ISO6346.tryParse(buffer, 4, 11));
+            Assert.assertEquals("Wrong status", ISO6346.INVALID_RANGE, ISO6346.tryParse(buffer, 13, 1));
+        }
+    }
+
+
+    @Test
+    public void ensureTryParseIsEquivalentToPackAndCheck() {
+
+        char[] value = VALID.toCharArray();
+
+        for (int position = 0; position < value.length; position++) {
+            for (char c = 0; c < 128; c++) {
+                char[] candidate = value.clone();
+                candidate[position] = c;
+
+                String containerNumber = new String(candidate);
+                byte[] bytes = containerNumber.getBytes(StandardCharsets.US_ASCII);
+                long packed = ISO6346.pack(containerNumber);
+                long expected = packed == ISO6346.NONE
+                    ? ISO6346.INVALID_FORMAT
+                    : (ISO6346.isISO6346Valid(packed) ? packed : ISO6346.NOT_ISO6346_VALID);
+
+                Assert.assertEquals("Wrong result for: " + containerNumber, expected,
+                    ISO6346.tryParse(bytes, 0, bytes.length));
+                Assert.assertEquals("Wrong result for: " + containerNumber, expected,
+                    ISO6346.tryParse(containerNumber));
+            }
+        }
+    }
+
+
+    // EQUIVALENCE ---------------------------------------------------------------------------------
+
+    @Test
+    public void ensureEveryCharacterAtEveryPositionIsCheckedLikeTheLegacyImplementation() {
+
+        for (int position = 0; position <= VALID.length(); position++) {
+            for (char c = 0; c < 256; c++) {
+                String prefix = VALID.substring(0, position);
+
+                assertEquivalent(prefix + c + VALID.substring(position));
+
+                if (position < VALID.length()) {
+                    assertEquivalent(prefix + c + VALID.substring(position + 1));
+                }
+            }
+
+            if (position < VALID.length()) {
+                assertEquivalent(VALID.substring(0, position) + VALID.substring(position + 1));
+            }
+        }
+    }
+
+
+    @Test
+    public void ensureEveryOwnerCodeCategoryAndCheckDigitIsCheckedLikeTheLegacyImplementation() {
+
+        char[] value = VALID.toCharArray();
+
+        for (int position = 0; position < 3; position++) {
+            for (char letter = 'A'; letter <= 'Z'; letter++) {
+                for (char category = 'A'; category <= 'Z'; category++) {
+                    for (char checkDigit = '0'; checkDigit <= '9'; checkDigit++) {
+                        char[] candidate = value.clone();
+                        candidate[position] = letter;
+                        candidate[3] = category;
+                        candidate[10] = checkDigit;
+
+                        assertEquivalent(new String(candidate));
+                    }
+                }
+            }
+        }
+    }
+
+
+    @Test
+    public void ensureEverySerialNumberDigitIsCheckedLikeTheLegacyImplementation() {
+
+        char[] value = VALID.toCharArray();
+
+        for (int position = 4; position < 10; position++) {
+            for (char digit = '0'; digit <= '9'; digit++) {
+                for (char checkDigit = '0'; checkDigit <= '9'; checkDigit++) {
+                    char[] candidate = value.clone();
+                    candidate[position] = digit;
+                    candidate[10] = checkDigit;
+
+                    String containerNumber = new String(candidate);
+
+                    assertEquivalent(containerNumber);
+                    assertEquivalent(containerNumber.toLowerCase());
+                    assertEquivalent(containerNumber.substring(0, 4) + " " + containerNumber.substring(4, 10) + "-"
+                        + containerNumber.substring(10));
+                }
+            }
+        }
+    }
+
+
+    @Test
+    public void ensureKnownValuesAreCheckedLikeTheLegacyImplementation() {
+
+        Consumer<String> assertEquivalent = ISO6346Test::assertEquivalent;
+
+        assertEquivalent.accept("");
+        assertEquivalent.accept(" ");
+        assertEquivalent.accept("foo");
+        assertEquivalent.accept("MSKU 180651-0");
+        assertEquivalent.accept("MSKU 180651-9");
+        assertEquivalent.accept("HLXJ 123456-4");
+        assertEquivalent.accept("HLXZ 123456-5");
+        assertEquivalent.accept("HLXUU 123456-7");
+        assertEquivalent.accept("HLX 12345-6");
+        assertEquivalent.accept("HLXUÄ123456-1");
+        assertEquivalent.accept("--HLXU--123456--1--");
+    }
+
+
+    private static void assertEquivalent(String value) {
+
+        Assert.assertEquals("Wrong validity for: " + value, legacyIsValid(value), ISO6346.isValid(value));
+        Assert.assertEquals("Wrong ISO6346 validity for: " + value, legacyIsISO6346Valid(value),
+            ISO6346.isISO6346Valid(value));
+    }
+
+
+    /**
+     * Format check as implemented by {@link ContainerNumber#isValid()} up to version 0.18.1.
+     */
+    private static boolean legacyIsValid(String value) {
+
+        String normalized = value.replaceAll("[^a-zA-Z0-9]", "").toUpperCase();
+
+        return normalized.length() == 11 && normalized.substring(0, 3).matches("[A-Z]{3}")
+            && normalized.substring(3, 4).matches("[A-Z]{1}") && normalized.substring(4, 10).matches("[0-9]{6}")
+            && normalized.substring(10).matches("[0-9]{1}");
+    }
+
+
+    /**
+     * ISO 6346 check as implemented by {@link ContainerNumber#isISO6346Valid()} up to version 0.18.1.
+     */
+    private static boolean legacyIsISO6346Valid(String value) {
+
+        if (!legacyIsValid(value)) {
+            return false;
+        }
+
+        String normalized = value.replaceAll("[^a-zA-Z0-9]", "").toUpperCase();
+
+        if (!normalized.substring(3, 4).matches("[UJZ]{1}")) {
+            return false;
+        }
+
+        int correctCheckDigit = 0;
+        String charCode = "0123456789A?BCDEFGHIJK?LMNOPQRSTU?VWXYZ";
+
+        for (int i = 0; i < 10; i++) {
+            char character = normalized.charAt(i);
+            double index = character == '?' ? 1 : charCode.indexOf(character);
+
+            if (index < 0) {
+                return false;
+            }
+
+            index = index * Math.pow(2, i);
+            correctCheckDigit += index;
+        }
+
+        correctCheckDigit = (correctCheckDigit % 11) % 10;
+
+        return Character.getNumericValue(normalized.charAt(10)) == correctCheckDigit;
+    }
+}
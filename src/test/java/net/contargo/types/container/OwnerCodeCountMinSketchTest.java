@@ -0,0 +1,118 @@
+package net.contargo.types.container;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+
+public class OwnerCodeCountMinSketchTest {
+
+    @Test
+    public void ensureOwnerCodesAreCounted() {
+
+        OwnerCodeCountMinSketch sketch = new OwnerCodeCountMinSketch(0.001, 0.01);
+
+        sketch.add(ContainerNumber.forValue("HLXU 123456-1"));
+        sketch.add(ISO6346.pack("HLXU 654321-0"));
+        sketch.add(ISO6346.pack("MSKU 180651-0"));
+
+        Assert.assertEquals("Wrong count", 2, sketch.estimate("HLX"));
+        Assert.assertEquals("Wrong count", 1, sketch.estimate("msk"));
+        Assert.assertEquals("Wrong count", 0, sketch.estimate("ABC"));
+        Assert.assertEquals("Wrong count", 0, sketch.estimate("AB"));
+        Assert.assertEquals("Wrong total", 3, sketch.totalCount());
+        Assert.assertEquals("Wrong top owner codes", Arrays.asList("HLX", "MSK"), sketch.topOwnerCodes(5));
+        Assert.assertEquals("Wrong top owner codes", Arrays.asList("HLX"), sketch.topOwnerCodes(1));
+    }
+
+
+    @Test
+    public void ensureHeavyHittersAreFoundAndEstimatesAreBounded() {
+
+        Random random = new Random(42);
+        OwnerCodeCountMinSketch sketch = new OwnerCodeCountMinSketch(0.001, 0.01);
+        int[] exact = new int[OwnerCodeDictionary.OWNER_CODES];
+
+        for (int i = 0; i < 100000; i++) {
+            long containerNumber;
+
+            if (i % 10 < 3) {
+                containerNumber = ISO6346.pack("MSKU" + (1000000 + i));
+            } else if (i % 10 == 3) {
+                containerNumber = ISO6346.pack("HLXU" + (1000000 + i));
+            } else {
+                containerNumber = ContainerNumberBloomFilterTest.randomContainerNumber(random);
+            }
+
+            sketch.add(containerNumber);
+            exact[ISO6346.ownerCodeIndex(containerNumber)]++;
+        }
+
+        for (int index = 0; index < exact.length; index++) {
+            long estimate = sketch.estimate(OwnerCodeDictionary.ownerCodeOf(index));
+
+            Assert.assertTrue("Should not underestimate", estimate >= exact[index]);
+            Assert.assertTrue("Overestimates too much", estimate <= exact[index] + 0.001 * 100000);
+        }
+
+        Assert.assertEquals("Wrong heavy hitters", Arrays.asList("MSK", "HLX"), sketch.topOwnerCodes(2));
+    }
+
+
+    @Test
+    public void ensureConcurrentAndMergedSketchesMatchExactCounts() throws InterruptedException {
+
+        OwnerCodeCountMinSketch concurrent = new OwnerCodeCountMinSketch(0.01, 0.01);
+        OwnerCodeCountMinSketch merged = new OwnerCodeCountMinSketch(0.01, 0.01);
+        OwnerCodeCountMinSketch other = new OwnerCodeCountMinSketch(0.01, 0.01);
+        long hlxu = ISO6346.pack("HLXU 123456-1");
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        for (int i = 0; i < 10000; i++) {
+            executor.execute(() -> concurrent.add(hlxu));
+            (i % 2 == 0 ? merged : other).add(hlxu);
+        }
+
+        executor.shutdown();
+        Assert.assertTrue("Should terminate", executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        merged.merge(other);
+
+        Assert.assertEquals("Wrong concurrent count", 10000, concurrent.estimate("HLX"));
+        Assert.assertEquals("Wrong merged count", 10000, merged.estimate("HLX"));
+        Assert.assertEquals("Wrong merged total", 10000, merged.totalCount());
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfMergingDifferentDimensions() {
+
+        new OwnerCodeCountMinSketch(0.01, 0.01).merge(new OwnerCodeCountMinSketch(0.001, 0.01));
+    }
+
+
+    @Test
+    public void ensureSketchIsWrittenAndRead() throws IOException {
+
+        OwnerCodeCountMinSketch sketch = new OwnerCodeCountMinSketch(0.01, 0.1);
+        sketch.add(ISO6346.pack("HLXU 123456-1"));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        sketch.writeTo(output);
+
+        OwnerCodeCountMinSketch read = OwnerCodeCountMinSketch.readFrom(new ByteArrayInputStream(output.toByteArray()));
+
+        Assert.assertEquals("Wrong count", 1, read.estimate("HLX"));
+        Assert.assertEquals("Wrong total", 1, read.totalCount());
+    }
+}
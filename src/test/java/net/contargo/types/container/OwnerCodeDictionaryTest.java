@@ -0,0 +1,97 @@
+package net.contargo.types.container;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+public class OwnerCodeDictionaryTest {
+
+    private static final long HLXU = ISO6346.pack("HLXU 123456-1");
+    private static final long MSKU = ISO6346.pack("MSKU 180651-0");
+
+    @Test
+    public void ensureMetadataIsFoundByOwnerCodeAndContainerNumber() {
+
+        OwnerCodeDictionary<String> owners = new OwnerCodeDictionary<>();
+
+        Assert.assertNull("Should be new", owners.put("hlx", "Hapag-Lloyd"));
+        Assert.assertEquals("Wrong previous value", "Hapag-Lloyd", owners.put("HLX", "Hapag-Lloyd AG"));
+
+        Assert.assertEquals("Wrong owner", "Hapag-Lloyd AG", owners.get("HLX"));
+        Assert.assertEquals("Wrong owner", "Hapag-Lloyd AG", owners.get(HLXU));
+        Assert.assertEquals("Wrong owner", "Hapag-Lloyd AG", owners.get(ContainerNumber.forValue("hlxu 123456-1")));
+        Assert.assertNull("Should be unknown", owners.get(MSKU));
+        Assert.assertNull("Should be unknown", owners.get(ISO6346.NONE));
+        Assert.assertNull("Should be unknown", owners.get(ContainerNumber.forValue("foo")));
+        Assert.assertNull("Should be unknown", owners.get((CharSequence) null));
+        Assert.assertEquals("Wrong size", 1, owners.size());
+    }
+
+
+    @Test
+    public void ensureKnownOwnersAreTrackedAndFiltered() {
+
+        OwnerCodeDictionary<String> owners = new OwnerCodeDictionary<>();
+        owners.put("MSK", "Maersk");
+        owners.put("ZZZ", "Last");
+
+        Assert.assertTrue("Should be known", owners.isKnown("MSK"));
+        Assert.assertTrue("Should be known", owners.isKnown(MSKU));
+        Assert.assertFalse("Should be unknown", owners.isKnown(HLXU));
+        Assert.assertFalse("Should be unknown", owners.isKnown("M1K"));
+        Assert.assertArrayEquals("Wrong filtered values", new long[] { MSKU, MSKU },
+            owners.filterKnown(HLXU, MSKU, ISO6346.NONE, MSKU));
+
+        Assert.assertEquals("Wrong removed value", "Maersk", owners.remove("MSK"));
+        Assert.assertNull("Should not be removed", owners.remove("MSK"));
+        Assert.assertFalse("Should be unknown", owners.isKnown(MSKU));
+        Assert.assertEquals("Wrong size", 1, owners.size());
+
+        owners.clear();
+
+        Assert.assertTrue("Should be empty", owners.isEmpty());
+        Assert.assertFalse("Should be unknown", owners.isKnown("ZZZ"));
+    }
+
+
+    @Test
+    public void ensureEntriesAreIteratedAlphabetically() {
+
+        OwnerCodeDictionary<Integer> owners = new OwnerCodeDictionary<>();
+        owners.put("ZZZ", 3);
+        owners.put("AAA", 1);
+        owners.put("HLX", 2);
+
+        List<String> ownerCodes = new ArrayList<>();
+        owners.forEach((ownerCode, value) -> ownerCodes.add(ownerCode + value));
+
+        Assert.assertEquals("Wrong entries", Arrays.asList("AAA1", "HLX2", "ZZZ3"), ownerCodes);
+    }
+
+
+    @Test
+    public void ensureIndexMatchesPackedOwnerCode() {
+
+        for (int index = 0; index < OwnerCodeDictionary.OWNER_CODES; index++) {
+            String ownerCode = OwnerCodeDictionary.ownerCodeOf(index);
+
+            Assert.assertEquals("Wrong index", index, OwnerCodeDictionary.indexOf(ownerCode));
+            Assert.assertEquals("Wrong packed index", index,
+                ISO6346.ownerCodeIndex(ISO6346.pack(ownerCode + "U0000000")));
+        }
+
+        Assert.assertEquals("Wrong index", -1, OwnerCodeDictionary.indexOf("HLXU"));
+        Assert.assertEquals("Wrong index", -1, OwnerCodeDictionary.indexOf("H-X"));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfOwnerCodeIsInvalid() {
+
+        new OwnerCodeDictionary<String>().put("HL", "foo");
+    }
+}
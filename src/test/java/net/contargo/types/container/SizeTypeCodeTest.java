@@ -0,0 +1,157 @@
+package net.contargo.types.container;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+public class SizeTypeCodeTest {
+
+    @Test
+    public void ensureDecodesSizeAndTypeCode() {
+
+        SizeTypeCode code = SizeTypeCode.forCode("45G1");
+
+        Assert.assertEquals("Wrong code", "45G1", code.getCode());
+        Assert.assertEquals("Wrong length", 12192, code.getLengthMillimetres());
+        Assert.assertEquals("Wrong length", 40, code.getLengthFeet());
+        Assert.assertEquals("Wrong TEU", 2.0, code.getTeu(), 0.0);
+        Assert.assertEquals("Wrong height", 2895, code.getHeightMillimetres());
+        Assert.assertEquals("Wrong width", 2438, code.getWidthMillimetres());
+        Assert.assertTrue("Should be high cube", code.isHighCube());
+        Assert.assertEquals("Wrong type code", "G1", code.getTypeCode());
+        Assert.assertEquals("Wrong type group", SizeTypeCode.TypeGroup.GP, code.getTypeGroup());
+        Assert.assertEquals("Wrong string", "45G1", code.toString());
+    }
+
+
+    @Test
+    public void ensureDecodesLettersForLengthAndHeight() {
+
+        SizeTypeCode code = SizeTypeCode.forCode("LNR1");
+
+        Assert.assertEquals("Wrong length", 13716, code.getLengthMillimetres());
+        Assert.assertEquals("Wrong TEU", 2.25, code.getTeu(), 0.0);
+        Assert.assertEquals("Wrong height", 2895, code.getHeightMillimetres());
+        Assert.assertEquals("Wrong width", 2501, code.getWidthMillimetres());
+        Assert.assertEquals("Wrong type group", SizeTypeCode.TypeGroup.RT, code.getTypeGroup());
+
+        SizeTypeCode low = SizeTypeCode.forCode("29P0");
+
+        Assert.assertEquals("Wrong length", 6058, low.getLengthMillimetres());
+        Assert.assertEquals("Wrong height", 1219, low.getHeightMillimetres());
+        Assert.assertFalse("Should not be high cube", low.isHighCube());
+        Assert.assertEquals("Wrong type group", SizeTypeCode.TypeGroup.PL, low.getTypeGroup());
+    }
+
+
+    @Test
+    public void ensureDecodesTypeGroupsByDetailDigit() {
+
+        Assert.assertEquals("Wrong type group", SizeTypeCode.TypeGroup.BU, SizeTypeCode.forCode("22B2").getTypeGroup());
+        Assert.assertEquals("Wrong type group", SizeTypeCode.TypeGroup.BK, SizeTypeCode.forCode("22B3").getTypeGroup());
+        Assert.assertEquals("Wrong type group", SizeTypeCode.TypeGroup.RS, SizeTypeCode.forCode("42R9").getTypeGroup());
+        Assert.assertEquals("Wrong type group", SizeTypeCode.TypeGroup.HI, SizeTypeCode.forCode("22H5").getTypeGroup());
+        Assert.assertEquals("Wrong type group", SizeTypeCode.TypeGroup.PF, SizeTypeCode.forCode("42P2").getTypeGroup());
+        Assert.assertEquals("Wrong type group", SizeTypeCode.TypeGroup.PC, SizeTypeCode.forCode("42P3").getTypeGroup());
+        Assert.assertEquals("Wrong type group", SizeTypeCode.TypeGroup.TD, SizeTypeCode.forCode("22T6").getTypeGroup());
+        Assert.assertEquals("Wrong type group", SizeTypeCode.TypeGroup.TG, SizeTypeCode.forCode("22T7").getTypeGroup());
+        Assert.assertEquals("Wrong letter", 'T', SizeTypeCode.TypeGroup.TG.getLetter());
+        Assert.assertEquals("Wrong description", "Open top", SizeTypeCode.TypeGroup.UT.getDescription());
+    }
+
+
+    @Test
+    public void ensureDecodedCodesAreShared() {
+
+        SizeTypeCode code = SizeTypeCode.forCode("L5G1");
+
+        Assert.assertSame("Should be shared", code, SizeTypeCode.forCode(new StringBuilder("L5G1")));
+        Assert.assertSame("Should be shared", SizeTypeCode.find("L5G1"), SizeTypeCode.find("L5G1"));
+        Assert.assertSame("Should be shared", code, SizeTypeCode.find("L5G1").get());
+    }
+
+
+    @Test
+    public void ensureConcurrentlyDecodedCodesAreShared() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Callable<SizeTypeCode>> tasks = new ArrayList<>();
+
+            for (int i = 0; i < 16; i++) {
+                tasks.add(() -> SizeTypeCode.forCode("M2U1"));
+            }
+
+            SizeTypeCode first = SizeTypeCode.forCode("M2U1");
+
+            for (Future<SizeTypeCode> future : executor.invokeAll(tasks)) {
+                Assert.assertSame("Should be shared", first, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+
+    @Test
+    public void ensureFindsNoInvalidCodes() {
+
+        for (String code : Arrays.asList(null, "", "45G", "45G10", "45g1", "55G1", "43G1", "45X1", "45GA", "20DL",
+                "4551", "4ÖG1")) {
+            Assert.assertFalse("Should not decode " + code, SizeTypeCode.find(code).isPresent());
+        }
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsForInvalidCode() {
+
+        SizeTypeCode.forCode("45X1");
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsForNullCode() {
+
+        SizeTypeCode.forCode(null);
+    }
+
+
+    @Test
+    public void ensureMapsToNearestContainerType() {
+
+        Assert.assertEquals("Wrong container type", Optional.of(ContainerType.FORTY_HC),
+            SizeTypeCode.forCode("45G0").toContainerType());
+        Assert.assertEquals("Wrong container type", Optional.of(ContainerType.FORTY_HC),
+            SizeTypeCode.forCode("45G1").toContainerType());
+        Assert.assertEquals("Wrong container type", Optional.of(ContainerType.FORTYFIVE_HC),
+            SizeTypeCode.forCode("L5G1").toContainerType());
+        Assert.assertEquals("Wrong container type", Optional.of(ContainerType.TWENTY_TK),
+            SizeTypeCode.forCode("22T6").toContainerType());
+        Assert.assertFalse("Should have no container type", SizeTypeCode.forCode("M2U1").toContainerType().isPresent());
+    }
+
+
+    @Test
+    public void ensureDecodesIsoCodesOfContainerTypes() {
+
+        for (ContainerType containerType : ContainerType.values()) {
+            Optional<SizeTypeCode> code = SizeTypeCode.find(containerType.getIsoCode());
+
+            if (code.isPresent()) {
+                Assert.assertEquals("Wrong container type", ContainerType.findByIsoCode(containerType.getIsoCode()),
+                    code.get().toContainerType());
+            }
+        }
+    }
+}
@@ -54,9 +54,33 @@ public class ContainerNumberValidatorTest extends ValidationTest {
         assertPropertyHasNoErrors(validationObject, "containerNumber");
     }
 
+
+    @Test
+    public void validateCachedUnitNumber() {
+
+        CachedTestValidationObject validationObject = new CachedTestValidationObject();
+
+        for (int i = 0; i < 3; i++) {
+            validationObject.containerNumber = "MSKU 180651-0";
+            assertPropertyHasNoErrors(validationObject, "containerNumber");
+
+            validationObject.containerNumber = "MSKU 180651-9";
+            assertPropertyHasErrors(validationObject, "containerNumber", "{validation.unit.number.error.message}");
+
+            validationObject.containerNumber = " ";
+            assertPropertyHasErrors(validationObject, "containerNumber", "{validation.unit.number.error.message}");
+        }
+    }
+
     public static class TestValidationObject {
 
         @ContainerNumber
         public String containerNumber;
     }
+
+    public static class CachedTestValidationObject {
+
+        @ContainerNumber(cacheSize = 16)
+        public String containerNumber;
+    }
 }
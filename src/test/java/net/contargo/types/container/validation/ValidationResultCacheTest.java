@@ -0,0 +1,93 @@
+package net.contargo.types.container.validation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class ValidationResultCacheTest {
+
+    @Test
+    public void ensureResultIsComputedOnceForRepeatedValue() {
+
+        AtomicInteger computations = new AtomicInteger();
+        ValidationResultCache cache = new ValidationResultCache(16, value -> {
+            computations.incrementAndGet();
+
+            return value.startsWith("M");
+        });
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue("Wrong result", cache.isValid("MSKU1806510"));
+            Assert.assertFalse("Wrong result", cache.isValid("HLXU1234567"));
+        }
+
+        Assert.assertEquals("Wrong number of computations", 2, computations.get());
+    }
+
+
+    @Test
+    public void ensureCacheIsBounded() {
+
+        AtomicInteger computations = new AtomicInteger();
+        ValidationResultCache cache = new ValidationResultCache(4, value -> computations.incrementAndGet() > 0);
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue("Wrong result", cache.isValid("value " + i));
+        }
+
+        Assert.assertEquals("Wrong capacity", 4, cache.capacity());
+        Assert.assertEquals("Wrong number of computations", 100, computations.get());
+    }
+
+
+    @Test
+    public void ensureCapacityIsRoundedUpToPowerOfTwo() {
+
+        Assert.assertEquals("Wrong capacity", 1, new ValidationResultCache(1, value -> true).capacity());
+        Assert.assertEquals("Wrong capacity", 8, new ValidationResultCache(5, value -> true).capacity());
+        Assert.assertEquals("Wrong capacity", 1 << 20, new ValidationResultCache(Integer.MAX_VALUE, value -> true)
+            .capacity());
+    }
+
+
+    @Test
+    public void ensureConcurrentValidationReturnsCorrectResults() throws InterruptedException {
+
+        ValidationResultCache cache = new ValidationResultCache(8, value -> value.length() % 2 == 0);
+        AtomicInteger wrong = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    String value = Integer.toString(i % 100);
+
+                    if (cache.isValid(value) != (value.length() % 2 == 0)) {
+                        wrong.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals("Wrong results", 0, wrong.get());
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureSizeMustBePositive() {
+
+        new ValidationResultCache(0, value -> true);
+    }
+}
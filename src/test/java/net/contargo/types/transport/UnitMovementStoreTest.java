@@ -0,0 +1,177 @@
+package net.contargo.types.transport;
+
+import net.contargo.types.container.ContainerNumber;
+import net.contargo.types.container.ContainerType;
+import net.contargo.types.container.ContainerTypeCounter;
+import net.contargo.types.container.LoadingState;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+public class UnitMovementStoreTest {
+
+    private static final long HLXU = ContainerNumber.forValue("HLXU 123456 7").toLong();
+    private static final long MSKU = ContainerNumber.forValue("MSKU 180651 0").toLong();
+
+    @Test
+    public void ensureCountsMovementsInTimeRange() {
+
+        UnitMovementStore store = new UnitMovementStore();
+        store.append(1000, HLXU, ContainerType.FORTY_HC, LoadingState.FULL, Direction.TURN_IN);
+        store.append(2000, MSKU, ContainerType.TWENTY_DV, LoadingState.EMPTY, Direction.TURN_IN);
+        store.append(2000, HLXU, ContainerType.FORTY_HC, LoadingState.EMPTY, Direction.TURN_OUT);
+        store.append(3000, MSKU, ContainerType.TWENTY_DV, LoadingState.FULL, Direction.TURN_OUT);
+
+        Assert.assertEquals("Wrong size", 4, store.size());
+        Assert.assertEquals("Wrong count", 4, store.count(Long.MIN_VALUE, Long.MAX_VALUE));
+        Assert.assertEquals("Wrong count", 2, store.count(2000, 3000));
+        Assert.assertEquals("Wrong count", 3, store.count(1001, 3001));
+        Assert.assertEquals("Wrong count", 0, store.count(3001, 5000));
+        Assert.assertEquals("Wrong count", 0, store.count(3000, 1000));
+        Assert.assertEquals("Wrong count", 2, store.count(HLXU, 0, 5000));
+        Assert.assertEquals("Wrong count", 1, store.count(HLXU, 1500, 5000));
+    }
+
+
+    @Test
+    public void ensureCountsByTypeInTimeRange() {
+
+        UnitMovementStore store = new UnitMovementStore();
+        store.append(1000, HLXU, ContainerType.FORTY_HC, LoadingState.FULL, Direction.TURN_IN);
+        store.append(2000, MSKU, ContainerType.TWENTY_DV, LoadingState.EMPTY, Direction.TURN_IN);
+        store.append(3000, HLXU, ContainerType.FORTY_HC, LoadingState.EMPTY, Direction.TURN_OUT);
+
+        ContainerTypeCounter counter = store.countByType(1000, 3000);
+
+        Assert.assertEquals("Wrong count", 2, counter.getCount());
+        Assert.assertEquals("Wrong count", 1, counter.getCount(ContainerType.FORTY_HC, LoadingState.FULL,
+                Direction.TURN_IN));
+        Assert.assertEquals("Wrong count", 1, counter.getCount(ContainerType.TWENTY_DV, LoadingState.EMPTY,
+                Direction.TURN_IN));
+        Assert.assertEquals("Wrong TEU", 3.0, counter.getTeu(), 0.0);
+    }
+
+
+    @Test
+    public void ensureReturnsAppendedMovements() {
+
+        UnitMovementStore store = new UnitMovementStore(2);
+        store.append(1000, ContainerNumber.forValue("HLXU 123456 7"), ContainerType.FORTY_HC, LoadingState.FULL,
+            Direction.TURN_IN);
+        store.append(2000, MSKU, ContainerType.TWENTY_DV, LoadingState.EMPTY, Direction.TURN_OUT);
+        store.append(3000L + Integer.MAX_VALUE, MSKU, ContainerType.TWENTY_DV, LoadingState.FULL, Direction.TURN_IN);
+
+        List<String> movements = new ArrayList<>();
+        store.forEach(0, Long.MAX_VALUE, (timestamp, containerNumber, type, loadingState, direction) ->
+                movements.add(timestamp + " " + ContainerNumber.fromLong(containerNumber) + " " + type + " "
+                    + loadingState + " " + direction));
+
+        Assert.assertEquals("Wrong movement", "1000 HLXU 123456-7 FORTY_HC FULL TURN_IN", movements.get(0));
+        Assert.assertEquals("Wrong movement", "2000 MSKU 180651-0 TWENTY_DV EMPTY TURN_OUT", movements.get(1));
+        Assert.assertEquals("Wrong movement", (3000L + Integer.MAX_VALUE) + " MSKU 180651-0 TWENTY_DV FULL TURN_IN",
+            movements.get(2));
+        Assert.assertEquals("Wrong count", 1, store.count(2001, Long.MAX_VALUE));
+    }
+
+
+    @Test
+    public void ensureMatchesNaiveScanAcrossChunks() {
+
+        Random random = new Random(20);
+        UnitMovementStore store = new UnitMovementStore(64);
+        long[] timestamps = new long[1000];
+        long timestamp = 0;
+
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamp += random.nextInt(3) == 0 ? 0 : random.nextInt(100);
+            timestamps[i] = timestamp;
+            store.append(timestamp, i % 2 == 0 ? HLXU : MSKU, ContainerType.values()[i % 7], LoadingState.FULL,
+                Direction.TURN_IN);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            long from = random.nextInt((int) timestamp + 100) - 50;
+            long to = from + random.nextInt(5000);
+            long expected = 0;
+
+            for (long t : timestamps) {
+                if (t >= from && t < to) {
+                    expected++;
+                }
+            }
+
+            Assert.assertEquals("Wrong count", expected, store.count(from, to));
+            Assert.assertEquals("Wrong count", expected, store.countByType(from, to).getCount());
+        }
+    }
+
+
+    @Test
+    public void ensureReadersScanWhileWriterAppends() throws InterruptedException {
+
+        UnitMovementStore store = new UnitMovementStore(128);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+
+        for (int r = 0; r < 3; r++) {
+            readers.add(new Thread(() -> {
+                while (!done.get()) {
+                    long size = store.size();
+                    long count = store.count(Long.MIN_VALUE, Long.MAX_VALUE);
+                    long turnIns = store.countByType(Long.MIN_VALUE, Long.MAX_VALUE).getCount(null, null,
+                            Direction.TURN_IN);
+
+                    if (count < size || turnIns > store.size()) {
+                        failure.set("Inconsistent scan: " + size + " " + count + " " + turnIns);
+                    }
+                }
+            }));
+        }
+
+        readers.forEach(Thread::start);
+
+        for (int i = 0; i < 20000; i++) {
+            store.append(i, HLXU, ContainerType.FORTY_HC, LoadingState.FULL, Direction.TURN_IN);
+        }
+
+        done.set(true);
+
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        Assert.assertNull("Readers failed", failure.get());
+        Assert.assertEquals("Wrong count", 20000, store.count(Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsForDecreasingTimestamp() {
+
+        UnitMovementStore store = new UnitMovementStore();
+        store.append(2000, HLXU, ContainerType.FORTY_HC, LoadingState.FULL, Direction.TURN_IN);
+        store.append(1999, HLXU, ContainerType.FORTY_HC, LoadingState.FULL, Direction.TURN_IN);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsForInvalidContainerNumber() {
+
+        new UnitMovementStore().append(1000, -1L, ContainerType.FORTY_HC, LoadingState.FULL, Direction.TURN_IN);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsForNullDirection() {
+
+        new UnitMovementStore().append(1000, HLXU, ContainerType.FORTY_HC, LoadingState.FULL, null);
+    }
+}
@@ -0,0 +1,131 @@
+package net.contargo.types.truck;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+
+public class LicensePlateClassifierTest {
+
+    private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcz0123456789ÄÖÜäß -\t.";
+
+    /**
+     * Valid license plates with the fewest and most letters and digits of their countries.
+     */
+    private static final List<String> BOUNDARIES = Arrays.asList("ÄÖÜ AB 1234", "B 1", "1-A-1", "ABC-123",
+            "1-AAA-999", "AA-99-AAA", "ZH 1", "ZH 123456", "1234 ABC 12A", "12 A 12", "ABC 1234A", "A1 B12",
+            "ABCDEFGH", "12345678", "B 123 ABC", "AB 12 ABC", "A 1234 BC", "CA 1234 BC", "ABC 123");
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsOnNull() {
+
+        LicensePlateClassifier.classify(null);
+    }
+
+
+    @Test
+    public void ensureClassifiesEveryExample() {
+
+        for (LicensePlateCountry country : LicensePlateCountry.values()) {
+            if (country == LicensePlateCountry.UNKNOWN_COUNTRY) {
+                continue;
+            }
+
+            List<LicensePlateCountry> countries = countries(LicensePlateClassifier.classify(country.getExample()));
+
+            Assert.assertTrue("Should match " + country, countries.contains(country));
+        }
+    }
+
+
+    @Test
+    public void ensureRanksExactlyWrittenCountriesFirst() {
+
+        List<LicensePlateClassifier.Match> matches = LicensePlateClassifier.classify("ka ab 123");
+
+        Assert.assertEquals("Wrong first country", LicensePlateCountry.GERMANY, matches.get(0).getCountry());
+        Assert.assertEquals("Wrong normalized value", "KA AB 123", matches.get(0).getNormalizedValue());
+
+        List<LicensePlateClassifier.Match> hyphenated = LicensePlateClassifier.classify("2-vdl-52");
+
+        Assert.assertEquals("Wrong first country", LicensePlateCountry.NETHERLANDS, hyphenated.get(0).getCountry());
+        Assert.assertEquals("Wrong normalized value", "2-VDL-52", hyphenated.get(0).getNormalizedValue());
+    }
+
+
+    @Test
+    public void ensureFallsBackToUnknownCountry() {
+
+        Assert.assertEquals("Wrong matches",
+            Collections.singletonList(LicensePlateCountry.UNKNOWN_COUNTRY),
+            countries(LicensePlateClassifier.classify("  ab.cd  ")));
+        Assert.assertEquals("Wrong normalized value", "AB.CD",
+            LicensePlateClassifier.classify("  ab.cd  ").get(0).getNormalizedValue());
+    }
+
+
+    @Test
+    public void ensureReturnsNoMatchIfNotEvenValidForUnknownCountry() {
+
+        Assert.assertTrue("Should not match", LicensePlateClassifier.classify("ABCDEFGHIJKLMNOPQ").isEmpty());
+    }
+
+
+    @Test
+    public void ensureMatchesSameCountriesAsAllHandlers() {
+
+        Random random = new Random(42);
+        List<String> values = new ArrayList<>(BOUNDARIES);
+
+        for (LicensePlateCountry country : LicensePlateCountry.values()) {
+            values.add(country.getExample());
+        }
+
+        for (int i = 0; i < 50000; i++) {
+            String example = values.get(random.nextInt(values.size()));
+            StringBuilder value = new StringBuilder(random.nextBoolean() ? example : "");
+
+            for (int j = random.nextInt(4); j >= 0; j--) {
+                char c = CHARACTERS.charAt(random.nextInt(CHARACTERS.length()));
+
+                if (value.length() > 0 && random.nextBoolean()) {
+                    value.setCharAt(random.nextInt(value.length()), c);
+                } else {
+                    value.insert(random.nextInt(value.length() + 1), c);
+                }
+            }
+
+            String v = value.toString();
+
+            Assert.assertEquals("Wrong matches for " + v, validCountries(v),
+                countries(LicensePlateClassifier.classify(v)).stream().sorted().collect(Collectors.toList()));
+        }
+    }
+
+
+    private static List<LicensePlateCountry> validCountries(String value) {
+
+        List<LicensePlateCountry> countries = Arrays.stream(LicensePlateCountry.values())
+                .filter(country -> country != LicensePlateCountry.UNKNOWN_COUNTRY)
+                .filter(country -> country.getLicensePlateHandler().validate(value))
+                .collect(Collectors.toList());
+
+        if (countries.isEmpty() && LicensePlateCountry.UNKNOWN_COUNTRY.getLicensePlateHandler().validate(value)) {
+            return Collections.singletonList(LicensePlateCountry.UNKNOWN_COUNTRY);
+        }
+
+        return countries;
+    }
+
+
+    private static List<LicensePlateCountry> countries(List<LicensePlateClassifier.Match> matches) {
+
+        return matches.stream().map(LicensePlateClassifier.Match::getCountry).collect(Collectors.toList());
+    }
+}
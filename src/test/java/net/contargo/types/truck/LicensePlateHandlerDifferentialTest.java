@@ -0,0 +1,445 @@
+package net.contargo.types.truck;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+
+/**
+ * Compares all {@link LicensePlateHandler}s with the former regular expression based implementations on random input.
+ */
+public class LicensePlateHandlerDifferentialTest {
+
+    private static final int RUNS = 20000;
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789"
+        + "0123456789      ---\t\n\u000B\f\r\u0000\u001FÄÖÜäöüßéÉçŁłİıЖж._/#+  ";
+
+    private static final String[] SUPPLEMENTARY = { "𝐀", "𐐀", "😀" };
+
+    private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    private static final List<LicensePlateCountry> RULE_COUNTRIES = Arrays.asList(LicensePlateCountry.SWITZERLAND,
+            LicensePlateCountry.ROMANIA, LicensePlateCountry.BULGARIA, LicensePlateCountry.LITHUANIA,
+            LicensePlateCountry.BELGIUM, LicensePlateCountry.CZECH_REPUBLIC);
+
+    private static final Map<LicensePlateCountry, Function<String, String>> NORMALIZE = new EnumMap<>(
+            LicensePlateCountry.class);
+    private static final Map<LicensePlateCountry, Predicate<String>> VALIDATE = new EnumMap<>(
+            LicensePlateCountry.class);
+
+    static {
+        reference(LicensePlateCountry.GERMANY, Reference::normalizeGerman, Reference::validateGerman);
+        reference(LicensePlateCountry.NETHERLANDS, Reference::normalizeHyphenated, Reference::validateDutch);
+        reference(LicensePlateCountry.BELGIUM, Reference::normalizeHyphenated, Reference::validateBelgian);
+        reference(LicensePlateCountry.SWITZERLAND, Reference::normalizeSwiss, Reference::validateSwiss);
+        reference(LicensePlateCountry.FRANCE, Reference::normalizeFrench, Reference::validateFrench);
+        reference(LicensePlateCountry.POLAND, Reference::normalizePolish, Reference::validatePolish);
+        reference(LicensePlateCountry.CZECH_REPUBLIC, Reference::normalizeCzech, Reference::validateCzech);
+        reference(LicensePlateCountry.ROMANIA, Reference::normalizeSeparated, Reference::validateRomanian);
+        reference(LicensePlateCountry.BULGARIA, Reference::normalizeSeparated, Reference::validateBulgarian);
+        reference(LicensePlateCountry.LITHUANIA, Reference::normalizeSeparated, Reference::validateLithuanian);
+        reference(LicensePlateCountry.UNKNOWN_COUNTRY, Reference::trim, Reference::validateUnknown);
+    }
+
+    @Test
+    public void ensureTrimIsIdenticalToRegularExpressions() {
+
+        Random random = new Random(21);
+
+        for (int i = 0; i < RUNS; i++) {
+            String value = randomValue(random);
+
+            Assert.assertEquals("Wrong trimmed value of '" + value + "'", Reference.trim(value),
+                LicensePlateHandler.trim(value));
+        }
+    }
+
+
+    @Test
+    public void ensureHandlersAreIdenticalToRegularExpressions() {
+
+        Random random = new Random(21);
+
+        for (LicensePlateCountry country : LicensePlateCountry.values()) {
+            LicensePlateHandler handler = country.getLicensePlateHandler();
+
+            for (int i = 0; i < RUNS; i++) {
+                String value = i % 2 == 0 ? randomValue(random) : mutatedExample(random, country);
+
+                Assert.assertEquals("Wrong normalized value of '" + value + "' for " + country,
+                    NORMALIZE.get(country).apply(value), handler.normalize(value));
+                Assert.assertEquals("Wrong validation of '" + value + "' for " + country,
+                    VALIDATE.get(country).test(value), handler.validate(value));
+            }
+        }
+    }
+
+
+    /**
+     * The handlers validating with {@link LicensePlateRules} against the former code lists: all codes of one and two
+     * letters, every first letter of the Romanian and every letter pair of the Bulgarian third segment and every
+     * single character edit of the examples.
+     */
+    @Test
+    public void ensureRuleBackedHandlersAreIdenticalToCodeLists() {
+
+        List<String> codes = new ArrayList<>();
+
+        for (int i = 0; i < LETTERS.length(); i++) {
+            codes.add(LETTERS.substring(i, i + 1));
+
+            for (int j = 0; j < LETTERS.length(); j++) {
+                codes.add("" + LETTERS.charAt(i) + LETTERS.charAt(j));
+            }
+        }
+
+        for (String code : codes) {
+            for (String digits : Arrays.asList("1", "12", "183", "4457", "44578", "445789", "4457890")) {
+                assertIdentical(LicensePlateCountry.SWITZERLAND, code + " " + digits);
+            }
+
+            for (String digits : Arrays.asList("1", "18", "183", "1834")) {
+                for (int i = 0; i < LETTERS.length(); i++) {
+                    assertIdentical(LicensePlateCountry.ROMANIA, code + " " + digits + " " + LETTERS.charAt(i) + "TL");
+                }
+            }
+
+            assertIdentical(LicensePlateCountry.BULGARIA, code + " 7845 XC");
+            assertIdentical(LicensePlateCountry.BULGARIA, code + " 784 XC");
+        }
+
+        for (String province : Arrays.asList("A", "CA", "PB", "X", "Z", "ZZ")) {
+            for (int i = 0; i < LETTERS.length(); i++) {
+                for (int j = 0; j < LETTERS.length(); j++) {
+                    assertIdentical(LicensePlateCountry.BULGARIA,
+                        province + " 7845 " + LETTERS.charAt(i) + LETTERS.charAt(j));
+                }
+            }
+        }
+
+        String characters = LETTERS + "0123456789 -";
+
+        for (LicensePlateCountry country : RULE_COUNTRIES) {
+            String example = country.getExample();
+
+            for (int position = 0; position < example.length(); position++) {
+                assertIdentical(country, example.substring(0, position) + example.substring(position + 1));
+
+                for (int i = 0; i < characters.length(); i++) {
+                    char c = characters.charAt(i);
+
+                    assertIdentical(country, example.substring(0, position) + c + example.substring(position + 1));
+                    assertIdentical(country, example.substring(0, position) + c + example.substring(position));
+                }
+            }
+        }
+    }
+
+
+    @Test
+    public void ensureDefaultHandlerIsIdenticalToRegularExpressions() {
+
+        Random random = new Random(21);
+        LicensePlateHandler handler = new DefaultLicensePlateHandler();
+
+        for (int i = 0; i < RUNS; i++) {
+            String value = randomValue(random);
+
+            Assert.assertEquals("Wrong normalized value of '" + value + "'", Reference.normalizeHyphenated(value),
+                handler.normalize(value));
+            Assert.assertEquals("Wrong validation of '" + value + "'", Reference.validateDefault(value),
+                handler.validate(value));
+        }
+    }
+
+
+    private static void assertIdentical(LicensePlateCountry country, String value) {
+
+        Assert.assertEquals("Wrong validation of '" + value + "' for " + country, VALIDATE.get(country).test(value),
+            country.getLicensePlateHandler().validate(value));
+    }
+
+
+    private static void reference(LicensePlateCountry country, Function<String, String> normalize,
+        Predicate<String> validate) {
+
+        NORMALIZE.put(country, normalize);
+        VALIDATE.put(country, validate);
+    }
+
+
+    private static String randomValue(Random random) {
+
+        StringBuilder value = new StringBuilder();
+        int length = random.nextInt(14);
+
+        for (int i = 0; i < length; i++) {
+            if (random.nextInt(50) == 0) {
+                value.append(SUPPLEMENTARY[random.nextInt(SUPPLEMENTARY.length)]);
+            } else {
+                value.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+        }
+
+        return value.toString();
+    }
+
+
+    /**
+     * Valid plates of all countries with a few random edits, so that many values are close to being valid.
+     */
+    private static String mutatedExample(Random random, LicensePlateCountry country) {
+
+        List<String> examples = Arrays.asList(country.getExample(), "KA AB 123", "LÖ U 1048", "2-VDL-52", "1-ABC-555",
+                "WX-16-ABC", "ZH 445789", "AA-001-AB", "1234 AB 56", "99 XX 9X", "XYZ 12JK", "A1 BC12", "2H2 7149",
+                "AB 12-34", "ABC12345", "B 183 CTL", "AB 12 CDE", "CA 7845 XC", "A 1234 BC", "KRK 365");
+        StringBuilder value = new StringBuilder(examples.get(random.nextInt(examples.size())));
+        int edits = random.nextInt(3);
+
+        for (int i = 0; i < edits && value.length() > 0; i++) {
+            int position = random.nextInt(value.length());
+            char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+
+            switch (random.nextInt(4)) {
+                case 0:
+                    value.setCharAt(position, c);
+                    break;
+
+                case 1:
+                    value.insert(position, c);
+                    break;
+
+                case 2:
+                    value.deleteCharAt(position);
+                    break;
+
+                default:
+                    value.setCharAt(position, Character.toLowerCase(value.charAt(position)));
+            }
+        }
+
+        return value.toString();
+    }
+
+    /**
+     * The former implementations of the handlers, based on regular expressions.
+     */
+    private static final class Reference {
+
+        private static final List<String> CANTONS = Arrays.asList("AG", "AR", "AI", "BL", "BS", "BE", "FR", "GE",
+                "GL", "GR", "JU", "LU", "NE", "NW", "OW", "SH", "SZ", "SO", "SG", "TI", "TG", "UR", "VD", "VS", "ZG",
+                "ZH");
+        private static final List<String> COUNTIES = Arrays.asList("AB", "AG", "AR", "B", "BC", "BH", "BN", "BR",
+                "BT", "BV", "BZ", "CJ", "CL", "CS", "CT", "CV", "DB", "DJ", "GJ", "GL", "GR", "HD", "HR", "IF", "IL",
+                "IS", "MH", "MM", "MS", "NT", "OT", "PH", "SB", "SJ", "SM", "SV", "TL", "TM", "TR", "VL", "VN", "VS");
+        private static final List<String> PROVINCES = Arrays.asList("A", "B", "BH", "BP", "BT", "E", "EB", "EH", "K",
+                "KH", "M", "H", "OB", "P", "PA", "PB", "PK", "PP", "C", "CA", "CB", "CH", "CM", "CO", "CC", "CT", "T",
+                "TX", "Y", "X");
+        private static final List<String> ACCEPTED_LETTERS = Arrays.asList("A", "B", "E", "K", "M", "H", "O", "P",
+                "C", "T", "Y", "X");
+
+        private static String trim(String value) {
+
+            return value.toUpperCase().trim().replaceAll("\\s+", " ").replaceAll("\\-+", "-");
+        }
+
+
+        private static String normalizeHyphenated(String value) {
+
+            return trim(value).replaceAll("\\s", "-");
+        }
+
+
+        private static String normalizeSeparated(String value) {
+
+            return trim(value).replaceAll("\\-", " ").replaceAll("(?<=\\d)(?=\\p{L})|(?<=\\p{L})(?=\\d)", " ");
+        }
+
+
+        private static String normalizeGerman(String value) {
+
+            return trim(value).replaceAll("\\-", " ").replaceAll("(?<=[A-ZÄÖÜ])(?=[0-9])", " ");
+        }
+
+
+        private static boolean validateGerman(String value) {
+
+            String normalizedValue = normalizeGerman(value);
+
+            return normalizedValue.length() <= 10
+                && normalizedValue.matches("^[A-ZÄÖÜ]{1,3}\\s[A-Z]{0,2}\\s[1-9][0-9]{0,3}");
+        }
+
+
+        private static boolean validateDutch(String value) {
+
+            String normalizedValue = normalizeHyphenated(value);
+
+            return normalizedValue.length() <= 8
+                && normalizedValue.matches("[A-Z0-9]{1,3}\\-[A-Z0-9]{1,3}\\-[A-Z0-9]{1,3}");
+        }
+
+
+        private static boolean validateBelgian(String value) {
+
+            String normalizedValue = normalizeHyphenated(value);
+
+            return normalizedValue.matches("[1-9]\\-[A-Z]{3}\\-[0-9]{3}")
+                || normalizedValue.matches("[1-9]\\-[0-9]{3}\\-[A-Z]{3}")
+                || normalizedValue.matches("[A-Z]\\-[A-Z]{3}\\-[0-9]{3}")
+                || normalizedValue.matches("[A-Z]{2}\\-[0-9]{2}\\-[A-Z]{3}");
+        }
+
+
+        private static String normalizeSwiss(String value) {
+
+            String normalizedValue = trim(value).replaceAll("\\s", "").replaceAll("\\-", "");
+
+            if (normalizedValue.length() > 2) {
+                normalizedValue = normalizedValue.substring(0, 2) + " " + normalizedValue.substring(2);
+            }
+
+            return normalizedValue;
+        }
+
+
+        private static boolean validateSwiss(String value) {
+
+            String normalizedValue = normalizeSwiss(value);
+
+            return normalizedValue.matches("[A-Z]{2}\\s[0-9]{1,6}")
+                && CANTONS.contains(normalizedValue.substring(0, 2));
+        }
+
+
+        private static String normalizeFrench(String value) {
+
+            String normalizedValue = trim(value).replaceAll("\\s", "-");
+
+            if (isFormerFrench(normalizedValue)) {
+                normalizedValue = normalizedValue.replaceAll("\\-", " ");
+            }
+
+            return normalizedValue;
+        }
+
+
+        private static boolean isFormerFrench(String normalizedValue) {
+
+            return normalizedValue.matches("[0-9]{2,4}[\\s\\-][A-Z]{1,3}[[\\s\\-]][A-Z0-9]{2,3}");
+        }
+
+
+        private static boolean validateFrench(String value) {
+
+            String normalizedValue = normalizeFrench(value);
+
+            return normalizedValue.matches("[A-Z]{2}\\-[0-9]{3}\\-[A-Z]{2}") || isFormerFrench(normalizedValue);
+        }
+
+
+        private static String normalizePolish(String value) {
+
+            return trim(value).replaceAll("\\-", " ");
+        }
+
+
+        private static boolean validatePolish(String value) {
+
+            String normalizedValue = normalizePolish(value);
+
+            return normalizedValue.matches("[A-Z]{2,3}\\s[A-Z0-9]{4,5}")
+                || normalizedValue.matches("[A-Z][0-9]\\s[A-Z]{1,3}[A-Z0-9]{2}");
+        }
+
+
+        private static String normalizeCzech(String value) {
+
+            String trimmedValue = trim(value).replaceAll("\\s", "").replaceAll("\\-", "");
+            String normalizedValue = trimmedValue;
+
+            if (trimmedValue.length() > 4) {
+                int numbersIndex = trimmedValue.length() - 4;
+                String numbers = trimmedValue.substring(numbersIndex);
+                String letters = trimmedValue.substring(0, numbersIndex);
+
+                if (numbers.matches("[0-9]{4}")) {
+                    normalizedValue = letters + " " + numbers;
+                }
+
+                if (letters.matches("[A-Z]{2,3}")) {
+                    normalizedValue = letters + " " + numbers.substring(0, 2) + "-" + numbers.substring(2);
+                }
+            }
+
+            return normalizedValue;
+        }
+
+
+        private static boolean validateCzech(String value) {
+
+            String normalizedValue = normalizeCzech(value);
+
+            return normalizedValue.matches("[0-9][A-Z][A-Z0-9]\\s[0-9]{4}")
+                || normalizedValue.matches("[A-Z]{2,3}\\s[0-9]{2}-[0-9]{2}") || normalizedValue.matches("[A-Z0-9]{8}");
+        }
+
+
+        private static boolean validateRomanian(String value) {
+
+            String normalizedValue = normalizeSeparated(value);
+
+            if (!normalizedValue.matches("^[A-Z]{1}\\s\\d{2,3}\\s[A-Z]{3}$")
+                    && !normalizedValue.matches("^[A-Z]{2}\\s\\d{2}\\s[A-Z]{3}$")) {
+                return false;
+            }
+
+            String[] parts = normalizedValue.split(" ");
+
+            return COUNTIES.contains(parts[0]) && !parts[2].startsWith("I") && !parts[2].startsWith("O");
+        }
+
+
+        private static boolean validateBulgarian(String value) {
+
+            String normalizedValue = normalizeSeparated(value);
+
+            if (!normalizedValue.matches("[A-Z]\\s[0-9]{4}\\s[A-Z]{2}")
+                    && !normalizedValue.matches("[A-Z]{2}\\s[0-9]{4}\\s[A-Z]{2}")) {
+                return false;
+            }
+
+            String[] parts = normalizedValue.split(" ");
+
+            return ACCEPTED_LETTERS.contains(parts[2].substring(0, 1))
+                && ACCEPTED_LETTERS.contains(parts[2].substring(1, 2)) && PROVINCES.contains(parts[0]);
+        }
+
+
+        private static boolean validateLithuanian(String value) {
+
+            return normalizeSeparated(value).matches("[A-Z]{3}\\s[0-9]{3}");
+        }
+
+
+        private static boolean validateDefault(String value) {
+
+            return normalizeHyphenated(value).matches("[\\p{L}0-9\\- ]{2,15}");
+        }
+
+
+        private static boolean validateUnknown(String value) {
+
+            return trim(value).length() <= 15;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package net.contargo.types.truck;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+
+public class LicensePlateIndexTest {
+
+    private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+    @Test
+    public void ensureMatchKeyDropsSeparatorsAndFoldsConfusableCharacters() {
+
+        Assert.assertEquals("Wrong match key", "KA0812", LicensePlateIndex.matchKey("ka-ob 12"));
+        Assert.assertEquals("Wrong match key", "8183CTL", LicensePlateIndex.matchKey(" B 183 CTL "));
+        Assert.assertEquals("Wrong match key", "KA0812", LicensePlateIndex.matchKey("KA-0812"));
+        Assert.assertEquals("Wrong match key", "", LicensePlateIndex.matchKey(" - "));
+    }
+
+
+    @Test
+    public void ensureFindsNothingInEmptyIndex() {
+
+        Assert.assertTrue("Should find nothing", new LicensePlateIndex().find("KA AB 123", 2).isEmpty());
+    }
+
+
+    @Test
+    public void ensureFindsReadsWithDroppedSeparatorsAndConfusedCharacters() {
+
+        LicensePlateIndex index = new LicensePlateIndex();
+        LicensePlate licensePlate = german("KA AB 100");
+        index.add(licensePlate);
+        index.add(german("B XY 456"));
+
+        List<LicensePlateIndex.Candidate> candidates = index.find("KAA8IOO", 0);
+
+        Assert.assertEquals("Wrong number of candidates", 1, candidates.size());
+        Assert.assertEquals("Wrong license plate", licensePlate, candidates.get(0).getLicensePlate());
+        Assert.assertEquals("Wrong distance", 0, candidates.get(0).getDistance());
+    }
+
+
+    @Test
+    public void ensureFindsCandidatesOrderedByDistance() {
+
+        LicensePlateIndex index = new LicensePlateIndex();
+        index.add(german("KA AB 123"));
+        index.add(german("KA AB 12"));
+        index.add(german("KA XB 13"));
+        index.add(german("HH XY 999"));
+
+        List<String> candidates = index.find("KA AB 12", 2).stream()
+                .map(candidate -> candidate.getLicensePlate() + " " + candidate.getDistance())
+                .collect(Collectors.toList());
+
+        Assert.assertEquals("Wrong candidates", Arrays.asList("KA AB 12 0", "KA AB 123 1", "KA XB 13 2"), candidates);
+        Assert.assertEquals("Wrong number of candidates", 1, index.find("KA AB 12", 0).size());
+    }
+
+
+    @Test
+    public void ensureAddsEqualLicensePlatesOnce() {
+
+        LicensePlateIndex index = new LicensePlateIndex();
+        index.add(german("KA AB 123"));
+        index.add(german("ka-ab-123"));
+        index.add(german("KA OB 123"));
+        index.add(german("KA 0B 123"));
+
+        Assert.assertEquals("Wrong size", 3, index.size());
+        Assert.assertEquals("Wrong number of candidates", 2, index.find("KA 08 123", 0).size());
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsOnNegativeDistance() {
+
+        new LicensePlateIndex().find("KA AB 123", -1);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsOnNullLicensePlate() {
+
+        new LicensePlateIndex().add(null);
+    }
+
+
+    @Test
+    public void ensureFindsSameLicensePlatesAsComparingAll() {
+
+        Random random = new Random(42);
+        LicensePlateIndex index = new LicensePlateIndex();
+        List<LicensePlate> licensePlates = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            LicensePlate licensePlate = unknown(randomValue(random));
+            licensePlates.add(licensePlate);
+            index.add(licensePlate);
+        }
+
+        for (int i = 0; i < 500; i++) {
+            String read = randomValue(random);
+
+            for (int distance = 0; distance <= 2; distance++) {
+                int maximumDistance = distance;
+
+                List<String> expected = licensePlates.stream()
+                        .filter(plate -> levenshtein(LicensePlateIndex.matchKey(read),
+                                    LicensePlateIndex.matchKey(plate.toString())) <= maximumDistance)
+                        .map(LicensePlate::toString)
+                        .distinct()
+                        .sorted()
+                        .collect(Collectors.toList());
+                List<String> found = index.find(read, maximumDistance).stream()
+                        .map(candidate -> candidate.getLicensePlate().toString())
+                        .sorted()
+                        .collect(Collectors.toList());
+
+                Assert.assertEquals("Wrong candidates for " + read, expected, found);
+            }
+        }
+    }
+
+
+    @Test
+    public void ensureFindsConcurrentlyWhileAdding() throws Exception {
+
+        LicensePlateIndex index = new LicensePlateIndex();
+        LicensePlate booked = german("KA AB 123");
+        index.add(booked);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> lanes = new ArrayList<>();
+
+        try {
+            for (int lane = 0; lane < 3; lane++) {
+                lanes.add(executor.submit(() -> {
+                    start.await();
+
+                    boolean found = true;
+
+                    for (int i = 0; i < 2000; i++) {
+                        found &= index.find("KA A8 I23", 1).stream()
+                            .anyMatch(candidate -> candidate.getLicensePlate().equals(booked));
+                    }
+
+                    return found;
+                }));
+            }
+
+            Random random = new Random(7);
+            start.countDown();
+
+            for (int i = 0; i < 2000; i++) {
+                index.add(unknown(randomValue(random)));
+            }
+
+            for (Future<Boolean> lane : lanes) {
+                Assert.assertTrue("Should always find booked truck", lane.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    private static LicensePlate german(String value) {
+
+        return LicensePlate.forValue(value).withCountry(LicensePlateCountry.GERMANY);
+    }
+
+
+    private static LicensePlate unknown(String value) {
+
+        return LicensePlate.forValue(value).withCountry(LicensePlateCountry.UNKNOWN_COUNTRY);
+    }
+
+
+    private static String randomValue(Random random) {
+
+        StringBuilder value = new StringBuilder();
+
+        for (int i = 2 + random.nextInt(4); i > 0; i--) {
+            value.append(CHARACTERS.charAt(random.nextInt(CHARACTERS.length())));
+
+            if (random.nextInt(4) == 0) {
+                value.append(' ');
+            }
+        }
+
+        return value.toString();
+    }
+
+
+    private static int levenshtein(String a, String b) {
+
+        int[][] distances = new int[a.length() + 1][b.length() + 1];
+
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    distances[i][j] = i + j;
+                } else {
+                    distances[i][j] = Math.min(distances[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1),
+                            Math.min(distances[i - 1][j], distances[i][j - 1]) + 1);
+                }
+            }
+        }
+
+        return distances[a.length()][b.length()];
+    }
+}
@@ -0,0 +1,193 @@
+package net.contargo.types.truck;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.TreeSet;
+
+
+public class LicensePlateRulesTest {
+
+    /**
+     * Formats of the license plate countries validated with rules but Switzerland, which every table must have.
+     */
+    private static final String OTHER_FORMATS = "B.formats = 1-AAA-999\nBG.formats = A_9999_AA\n"
+        + "CZ.formats = 9AX_9999\nLT.formats = AAA_999\nRO.formats = A_99_AAA\n";
+
+    @After
+    public void tearDown() throws IOException {
+
+        LicensePlateRules.reload();
+    }
+
+
+    @Test
+    public void ensureLoadsRulesFromClasspath() {
+
+        Assert.assertEquals("Wrong country codes", new TreeSet<>(Arrays.asList("B", "BG", "CH", "CZ", "LT", "RO")),
+            LicensePlateRules.getCountryCodes());
+    }
+
+
+    @Test
+    public void ensureValidatesFormatsAndCodes() {
+
+        Assert.assertTrue("Should be valid", LicensePlateRules.validate("CH", "ZH 445789"));
+        Assert.assertTrue("Should be valid", LicensePlateRules.validate("CH", "GR 1"));
+        Assert.assertFalse("Unknown canton", LicensePlateRules.validate("CH", "XX 445789"));
+        Assert.assertFalse("Too many digits", LicensePlateRules.validate("CH", "ZH 4457890"));
+
+        Assert.assertTrue("Should be valid", LicensePlateRules.validate("RO", "B 183 CTL"));
+        Assert.assertFalse("Letters start with O", LicensePlateRules.validate("RO", "B 183 OTL"));
+        Assert.assertFalse("Unknown county", LicensePlateRules.validate("RO", "XY 18 CTL"));
+
+        Assert.assertTrue("Should be valid", LicensePlateRules.validate("BG", "CA 7845 XC"));
+        Assert.assertFalse("Letter not accepted", LicensePlateRules.validate("BG", "CA 7845 XD"));
+
+        Assert.assertFalse("Unknown country", LicensePlateRules.validate("XX", "CA 7845 XC"));
+    }
+
+
+    @Test
+    public void ensureCanReloadRulesAtRuntime() throws IOException {
+
+        LicensePlateRules.reload(stream(OTHER_FORMATS + "CH.formats = AA_999\nCH.segment.1.codes = ZH"));
+
+        Assert.assertEquals("Wrong country codes", new TreeSet<>(Arrays.asList("B", "BG", "CH", "CZ", "LT", "RO")),
+            LicensePlateRules.getCountryCodes());
+        Assert.assertTrue("Should be valid", LicensePlate.forValue("zh 123").withCountry(
+                LicensePlateCountry.SWITZERLAND).isValid());
+        Assert.assertFalse("Should not be valid", LicensePlate.forValue("GR 123").withCountry(
+                LicensePlateCountry.SWITZERLAND).isValid());
+        Assert.assertFalse("Should not be valid", LicensePlate.forValue("ZH 1234").withCountry(
+                LicensePlateCountry.SWITZERLAND).isValid());
+
+        LicensePlateRules.reload();
+
+        Assert.assertTrue("Should be valid", LicensePlate.forValue("GR 1234").withCountry(
+                LicensePlateCountry.SWITZERLAND).isValid());
+    }
+
+
+    @Test
+    public void ensureKeepsRulesIfReloadFails() throws IOException {
+
+        try {
+            LicensePlateRules.reload(stream(OTHER_FORMATS + "CH.formats = AA_999\nCH.segment.1.colors = red"));
+            Assert.fail("Should throw on unknown key");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        Assert.assertTrue("Should keep rules", LicensePlateRules.validate("CH", "GR 1234"));
+    }
+
+
+    @Test
+    public void ensureKeepsRulesIfLicensePlateCountryIsMissing() throws IOException {
+
+        try {
+            LicensePlateRules.reload(stream(OTHER_FORMATS + "EST.formats = 999_AAA"));
+            Assert.fail("Should throw on missing formats of Switzerland");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("Wrong message", "Missing license plate formats of country: CH", e.getMessage());
+        }
+
+        Assert.assertTrue("Should keep rules", LicensePlateRules.validate("CH", "GR 1234"));
+        Assert.assertTrue("Should keep rules", LicensePlate.forValue("B 183 CTL").withCountry(
+                LicensePlateCountry.ROMANIA).isValid());
+    }
+
+
+    @Test
+    public void ensureDoesNotCloseStream() throws IOException {
+
+        boolean[] closed = { false };
+        byte[] rules = (OTHER_FORMATS + "CH.formats = AA_999").getBytes(StandardCharsets.UTF_8);
+        InputStream input = new ByteArrayInputStream(rules) {
+
+            @Override
+            public void close() {
+
+                closed[0] = true;
+            }
+        };
+
+        LicensePlateRules.reload(input);
+
+        Assert.assertFalse("Should not close stream", closed[0]);
+    }
+
+
+    @Test
+    public void ensureFindsCountriesWithoutLicensePlateCountry() throws IOException {
+
+        LicensePlateRules.reload(stream(OTHER_FORMATS
+                + "CH.formats = AA_999\nEST.formats = 999_AAA\nEST.separation = letters-and-digits"));
+
+        Optional<Country> estonia = LicensePlateRules.findCountry("EST");
+
+        Assert.assertTrue("Should find country", estonia.isPresent());
+        Assert.assertEquals("Wrong country code", "EST", estonia.get().getCountryCode());
+
+        LicensePlate licensePlate = LicensePlate.forValue("123abc").withCountry(estonia.get());
+
+        Assert.assertTrue("Should be valid", licensePlate.isValid());
+        Assert.assertEquals("Wrong normalized value", "123 ABC", licensePlate.toString());
+        Assert.assertFalse("Should not be valid", LicensePlate.forValue("ABC 123").withCountry(estonia.get())
+            .isValid());
+    }
+
+
+    @Test
+    public void ensureFindsLicensePlateCountries() {
+
+        Assert.assertEquals("Wrong country", Optional.of(LicensePlateCountry.GERMANY),
+            LicensePlateRules.findCountry("D"));
+        Assert.assertFalse("Should not find country", LicensePlateRules.findCountry("EST").isPresent());
+        Assert.assertFalse("Should not find country", LicensePlateRules.findCountry("").isPresent());
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsOnMissingFormats() throws IOException {
+
+        LicensePlateRules.reload(stream(OTHER_FORMATS + "CH.segment.1.codes = ZH"));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsOnTooLongCode() throws IOException {
+
+        LicensePlateRules.reload(stream(OTHER_FORMATS + "CH.formats = AA_999\nCH.segment.1.codes = ZHZH"));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsOnInvalidSegment() throws IOException {
+
+        LicensePlateRules.reload(stream(OTHER_FORMATS + "CH.formats = AA_999\nCH.segment.0.codes = ZH"));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsOnInvalidSeparation() throws IOException {
+
+        LicensePlateRules.reload(stream(OTHER_FORMATS + "CH.formats = AA_999\nCH.separation = sometimes"));
+    }
+
+
+    private static InputStream stream(String rules) {
+
+        return new ByteArrayInputStream(rules.getBytes(StandardCharsets.UTF_8));
+    }
+}
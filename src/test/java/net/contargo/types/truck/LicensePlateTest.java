@@ -54,6 +54,20 @@ public class LicensePlateTest {
     }
 
 
+    @Test
+    public void ensureBuilderBuildsIndependentLicensePlates() {
+
+        LicensePlate.LicensePlateBuilder builder = LicensePlate.forValue("KA AB 123");
+
+        LicensePlate german = builder.withCountry(LicensePlateCountry.GERMANY);
+        LicensePlate dutch = builder.withCountry(LicensePlateCountry.NETHERLANDS);
+
+        Assert.assertNotSame("Should be different instances", german, dutch);
+        Assert.assertEquals("Wrong country", LicensePlateCountry.GERMANY, german.getCountry());
+        Assert.assertEquals("Wrong country", LicensePlateCountry.NETHERLANDS, dutch.getCountry());
+    }
+
+
     // FORMAT --------------------------------------------------------------------------------------
 
     // NOTE: Dedicated tests for formatting license plates can be found in the specialized handler tests
@@ -115,6 +129,44 @@ public class LicensePlateTest {
     }
 
 
+    // MEMOIZATION ---------------------------------------------------------------------------------
+
+    @Test
+    public void ensureHandlerIsCalledOnlyOnce() {
+
+        LicensePlateHandler handlerMock = Mockito.mock(LicensePlateHandler.class);
+        Country country = new DummyCountry(handlerMock);
+
+        String value = "foo";
+
+        Mockito.when(handlerMock.validate(Mockito.anyString())).thenReturn(true);
+        Mockito.when(handlerMock.normalize(Mockito.anyString())).thenReturn("formatted");
+
+        LicensePlate licensePlate = LicensePlate.forValue(value).withCountry(country);
+        LicensePlate other = LicensePlate.forValue(value).withCountry(country);
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue("Should be valid", licensePlate.isValid());
+            Assert.assertEquals("Wrong String representation", "formatted", licensePlate.toString());
+            Assert.assertEquals("Should be equals", other, licensePlate);
+            Assert.assertEquals("Wrong hash code", "formatted".hashCode(), licensePlate.hashCode());
+        }
+
+        Mockito.verify(handlerMock, Mockito.times(2)).validate(value);
+        Mockito.verify(handlerMock, Mockito.times(2)).normalize(value);
+    }
+
+
+    @Test
+    public void ensureEqualLicensePlatesHaveEqualHashCodes() {
+
+        LicensePlate l1 = LicensePlate.forValue("KA-AB-123").withCountry(dummyCountry);
+        LicensePlate l2 = LicensePlate.forValue("ka ab 123").withCountry(dummyCountry);
+
+        Assert.assertEquals("Wrong hash code", l1.hashCode(), l2.hashCode());
+    }
+
+
     // EQUALS --------------------------------------------------------------------------------------
 
     @Test